@@ -20,11 +20,10 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
@@ -65,10 +64,13 @@ import org.apache.qpid.jms.meta.JmsProducerId;
 import org.apache.qpid.jms.meta.JmsProducerInfo;
 import org.apache.qpid.jms.meta.JmsResource;
 import org.apache.qpid.jms.meta.JmsResource.ResourceState;
+import org.apache.qpid.jms.meta.JmsResourceId;
 import org.apache.qpid.jms.meta.JmsSessionId;
 import org.apache.qpid.jms.meta.JmsSessionInfo;
 import org.apache.qpid.jms.meta.JmsTransactionId;
 import org.apache.qpid.jms.meta.JmsTransactionInfo;
+import org.apache.qpid.jms.metrics.JmsCounter;
+import org.apache.qpid.jms.metrics.JmsMetrics;
 import org.apache.qpid.jms.policy.JmsDeserializationPolicy;
 import org.apache.qpid.jms.policy.JmsMessageIDPolicy;
 import org.apache.qpid.jms.policy.JmsPrefetchPolicy;
@@ -83,6 +85,7 @@ import org.apache.qpid.jms.provider.ProviderListener;
 import org.apache.qpid.jms.provider.ProviderSynchronization;
 import org.apache.qpid.jms.tracing.JmsTracer;
 import org.apache.qpid.jms.util.FifoMessageQueue;
+import org.apache.qpid.jms.util.InstrumentedThreadPoolExecutor;
 import org.apache.qpid.jms.util.MessageQueue;
 import org.apache.qpid.jms.util.PriorityMessageQueue;
 import org.apache.qpid.jms.util.QpidJMSThreadFactory;
@@ -100,13 +103,14 @@ public class JmsConnection implements AutoCloseable, Connection, TopicConnection
 
     private final Map<JmsSessionId, JmsSession> sessions = new ConcurrentHashMap<>();
     private final Map<JmsConsumerId, JmsConnectionConsumer> connectionConsumers = new ConcurrentHashMap<>();
+    private final Map<JmsDestination, JmsSharedConsumerLink> sharedConsumerLinks = new ConcurrentHashMap<>();
     private final AtomicBoolean connected = new AtomicBoolean();
     private final AtomicBoolean closed = new AtomicBoolean();
     private final AtomicBoolean closing = new AtomicBoolean();
     private final AtomicBoolean started = new AtomicBoolean();
     private final AtomicReference<Exception> failureCause = new AtomicReference<>();
     private final JmsConnectionInfo connectionInfo;
-    private final ThreadPoolExecutor executor;
+    private final InstrumentedThreadPoolExecutor executor;
 
     private ExceptionListener exceptionListener;
     private JmsMessageFactory messageFactory;
@@ -119,16 +123,25 @@ public class JmsConnection implements AutoCloseable, Connection, TopicConnection
     private final AtomicLong transactionIdGenerator = new AtomicLong();
     private final AtomicLong connectionConsumerIdGenerator = new AtomicLong();
     private final Map<AsyncResult, AsyncResult> requests = new ConcurrentHashMap<>();
+    private final JmsMetrics metrics;
+    private final JmsCounter reconnects;
 
     protected JmsConnection(final JmsConnectionInfo connectionInfo, Provider provider) throws JMSException {
 
+        this.connectionInfo = connectionInfo;
+        this.metrics = createMetrics(JmsMetrics.CONNECTION, connectionInfo.getId());
+        this.reconnects = metrics.counter(JmsMetrics.RECONNECTS);
+
         // This executor can be used for dispatching asynchronous tasks that might block or result
         // in reentrant calls to this Connection that could block.  The thread in this executor
         // will also serve as a means of preventing JVM shutdown should a client application
         // not have it's own mechanism for doing so if the configuration specifies that the
         // Connection create this thread as a non-daemon thread.
-        executor = new ThreadPoolExecutor(1, 1, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
-            new QpidJMSThreadFactory("QpidJMS Connection Executor: " + connectionInfo.getId(), connectionInfo.isUseDaemonThread()));
+        final String executorName = "QpidJMS Connection Executor: " + connectionInfo.getId();
+        executor = new InstrumentedThreadPoolExecutor(executorName,
+            new QpidJMSThreadFactory(executorName, connectionInfo.isUseDaemonThread()),
+            metrics.histogram(JmsMetrics.CONNECTION_EXECUTOR + JmsMetrics.TASK_WAIT_TIME),
+            metrics.histogram(JmsMetrics.CONNECTION_EXECUTOR + JmsMetrics.TASK_EXECUTION_TIME));
 
         executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardOldestPolicy());
 
@@ -149,8 +162,11 @@ public class JmsConnection implements AutoCloseable, Connection, TopicConnection
             throw JmsExceptionSupport.create(e);
         }
 
-        this.connectionInfo = connectionInfo;
         this.connectionInfo.setConnection(this);
+        this.connectionInfo.setMetrics(metrics);
+
+        metrics.gauge(JmsMetrics.CONNECTION_EXECUTOR + JmsMetrics.QUEUE_DEPTH, executor::getQueueDepth);
+        registerMetrics(metrics);
     }
 
     JmsConnection connect() throws JMSException {
@@ -239,12 +255,16 @@ public class JmsConnection implements AutoCloseable, Connection, TopicConnection
                 }
 
                 sessions.clear();
+                sharedConsumerLinks.clear();
                 tempDestinations.clear();
                 connected.set(false);
                 started.set(false);
                 closing.set(false);
                 closed.set(true);
                 connectionInfo.getTracer().close();
+                if (connectionInfo.getMetricsRegistry() != null) {
+                    connectionInfo.getMetricsRegistry().close();
+                }
             }
         } catch (Exception e) {
             throw JmsExceptionSupport.create(e);
@@ -561,11 +581,15 @@ public class JmsConnection implements AutoCloseable, Connection, TopicConnection
     }
 
     protected void removeSession(JmsSessionInfo sessionInfo) {
-        sessions.remove(sessionInfo.getId());
+        JmsSession session = sessions.remove(sessionInfo.getId());
+        if (session != null) {
+            unregisterMetrics(session.getMetrics());
+        }
     }
 
     protected void addSession(JmsSessionInfo sessionInfo, JmsSession session) {
         sessions.put(sessionInfo.getId(), session);
+        registerMetrics(session.getMetrics());
     }
 
     protected void removeConnectionConsumer(JmsConsumerInfo consumerInfo) {
@@ -576,6 +600,55 @@ public class JmsConnection implements AutoCloseable, Connection, TopicConnection
         connectionConsumers.put(consumerInfo.getId(), consumer);
     }
 
+    /**
+     * Adds the given consumer to the shared link for its destination, the link is created
+     * and started if the consumer is the first to subscribe to the destination.
+     *
+     * @param consumer
+     *      the consumer that is joining the shared link.
+     *
+     * @return the shared link the consumer has joined.
+     *
+     * @throws JMSException if the shared link could not be created.
+     */
+    JmsSharedConsumerLink joinSharedConsumerLink(JmsMessageConsumer consumer) throws JMSException {
+        synchronized (sharedConsumerLinks) {
+            JmsSharedConsumerLink link = sharedConsumerLinks.get(consumer.getDestination());
+            if (link == null) {
+                link = new JmsSharedConsumerLink(this, consumer.getDestination());
+                createResource(link.getConsumerInfo());
+                try {
+                    startResource(link.getConsumerInfo());
+                } catch (JMSException ex) {
+                    destroySharedConsumerLink(link);
+                    throw ex;
+                }
+
+                sharedConsumerLinks.put(link.getDestination(), link);
+            }
+
+            link.add(consumer);
+            return link;
+        }
+    }
+
+    void leaveSharedConsumerLink(JmsSharedConsumerLink link, JmsMessageConsumer consumer) {
+        synchronized (sharedConsumerLinks) {
+            if (link.remove(consumer) && sharedConsumerLinks.remove(link.getDestination(), link)) {
+                destroySharedConsumerLink(link);
+            }
+        }
+    }
+
+    private void destroySharedConsumerLink(JmsSharedConsumerLink link) {
+        link.close();
+        try {
+            destroyResource(link.getConsumerInfo());
+        } catch (JMSException ex) {
+            LOG.trace("Ignoring error while closing shared consumer link: {}", link.getConsumerInfo().getId(), ex);
+        }
+    }
+
     private void createJmsConnection() throws JMSException {
         if (isConnected() || closed.get()) {
             return;
@@ -699,6 +772,61 @@ public class JmsConnection implements AutoCloseable, Connection, TopicConnection
         }
     }
 
+    /**
+     * Requests creation of the given resource without waiting for the remote peer to respond.
+     * The returned future is completed from the connection executor once the outcome of the
+     * request is known, a failure is reported as a JMSException.
+     *
+     * @param resource
+     *      the resource to create.
+     * @param synchronization
+     *      optional synchronization that is run before the request is marked complete.
+     *
+     * @return a future that completes once the resource has been created.
+     *
+     * @throws JMSException if the request could not be issued.
+     */
+    CompletableFuture<Void> createResourceAsync(JmsResource resource, ProviderSynchronization synchronization) throws JMSException {
+        checkClosedOrFailed();
+
+        AsyncResourceRequest request = new AsyncResourceRequest(synchronization);
+        requests.put(request, request);
+        try {
+            provider.create(resource, request);
+        } catch (Exception ex) {
+            requests.remove(request);
+            throw JmsExceptionSupport.create(ex);
+        }
+
+        return request.getResult();
+    }
+
+    /**
+     * Requests that the given resource be started without waiting for the operation to
+     * complete, see {@link #createResourceAsync(JmsResource, ProviderSynchronization)}.
+     *
+     * @param resource
+     *      the resource to start.
+     *
+     * @return a future that completes once the resource has been started.
+     *
+     * @throws JMSException if the request could not be issued.
+     */
+    CompletableFuture<Void> startResourceAsync(JmsResource resource) throws JMSException {
+        checkClosedOrFailed();
+
+        AsyncResourceRequest request = new AsyncResourceRequest(null);
+        requests.put(request, request);
+        try {
+            provider.start(resource, request);
+        } catch (Exception ex) {
+            requests.remove(request);
+            throw JmsExceptionSupport.create(ex);
+        }
+
+        return request.getResult();
+    }
+
     void startResource(JmsResource resource) throws JMSException {
         startResource(resource, null);
     }
@@ -786,6 +914,11 @@ public class JmsConnection implements AutoCloseable, Connection, TopicConnection
     void acknowledge(JmsInboundMessageDispatch envelope, ACK_TYPE ackType, ProviderSynchronization synchronization) throws JMSException {
         checkClosedOrFailed();
 
+        if (envelope.getProviderHint() instanceof JmsSharedConsumerLink.SharedDelivery) {
+            ((JmsSharedConsumerLink.SharedDelivery) envelope.getProviderHint()).settle(envelope.getConsumerId(), ackType, synchronization);
+            return;
+        }
+
         try {
             ProviderFuture request = provider.newProviderFuture(synchronization);
             provider.acknowledge(envelope, ackType, request);
@@ -853,6 +986,36 @@ public class JmsConnection implements AutoCloseable, Connection, TopicConnection
         }
     }
 
+    /**
+     * Requests the commit of the given transaction and the declaration of the next one without
+     * waiting for the outcome, see {@link #createResourceAsync(JmsResource, ProviderSynchronization)}.
+     *
+     * @param transactionInfo
+     *      the transaction to commit.
+     * @param nextTransactionId
+     *      the transaction that should be declared once the commit has been requested.
+     * @param synchronization
+     *      optional synchronization that is run before the request is marked complete.
+     *
+     * @return a future that completes once the commit and declare have both finished.
+     *
+     * @throws JMSException if the request could not be issued.
+     */
+    CompletableFuture<Void> commitAsync(JmsTransactionInfo transactionInfo, JmsTransactionInfo nextTransactionId, ProviderSynchronization synchronization) throws JMSException {
+        checkClosedOrFailed();
+
+        AsyncResourceRequest request = new AsyncResourceRequest(synchronization);
+        requests.put(request, request);
+        try {
+            provider.commit(transactionInfo, nextTransactionId, request);
+        } catch (Exception ex) {
+            requests.remove(request);
+            throw JmsExceptionSupport.create(ex);
+        }
+
+        return request.getResult();
+    }
+
     void rollback(JmsTransactionInfo transactionInfo, JmsTransactionInfo nextTransactionId) throws JMSException {
         rollback(transactionInfo, nextTransactionId, null);
     }
@@ -874,6 +1037,36 @@ public class JmsConnection implements AutoCloseable, Connection, TopicConnection
         }
     }
 
+    /**
+     * Requests the roll back of the given transaction and the declaration of the next one
+     * without waiting for the outcome, see {@link #commitAsync(JmsTransactionInfo, JmsTransactionInfo, ProviderSynchronization)}.
+     *
+     * @param transactionInfo
+     *      the transaction to roll back.
+     * @param nextTransactionId
+     *      the transaction that should be declared once the roll back has been requested.
+     * @param synchronization
+     *      optional synchronization that is run before the request is marked complete.
+     *
+     * @return a future that completes once the roll back and declare have both finished.
+     *
+     * @throws JMSException if the request could not be issued.
+     */
+    CompletableFuture<Void> rollbackAsync(JmsTransactionInfo transactionInfo, JmsTransactionInfo nextTransactionId, ProviderSynchronization synchronization) throws JMSException {
+        checkClosedOrFailed();
+
+        AsyncResourceRequest request = new AsyncResourceRequest(synchronization);
+        requests.put(request, request);
+        try {
+            provider.rollback(transactionInfo, nextTransactionId, request);
+        } catch (Exception ex) {
+            requests.remove(request);
+            throw JmsExceptionSupport.create(ex);
+        }
+
+        return request.getResult();
+    }
+
     void recover(JmsSessionId sessionId) throws JMSException {
         recover(sessionId, null);
     }
@@ -916,6 +1109,89 @@ public class JmsConnection implements AutoCloseable, Connection, TopicConnection
         }
     }
 
+    /**
+     * Issues a pull for the given consumer without waiting for it to complete.  The returned
+     * future is completed from the connection executor once a message has arrived or the pull
+     * has timed out, following the same timeout rules as a blocking pull.
+     *
+     * @param consumerId
+     *      the consumer that is pulling a message.
+     * @param timeout
+     *      the time in milliseconds the pull remains active, or a negative value for no limit.
+     *
+     * @return a future that completes once the pull has completed.
+     *
+     * @throws JMSException if the request could not be issued.
+     */
+    CompletableFuture<Void> pullAsync(JmsConsumerId consumerId, long timeout) throws JMSException {
+        checkClosedOrFailed();
+
+        AsyncResourceRequest request = new AsyncResourceRequest(null);
+        requests.put(request, request);
+        try {
+            provider.pull(consumerId, timeout, request);
+        } catch (Exception ex) {
+            requests.remove(request);
+            throw JmsExceptionSupport.create(ex);
+        }
+
+        return request.getResult();
+    }
+
+    /**
+     * Requests notification once the given producer can send without its send being held
+     * for lack of credit.  The returned future is completed from the connection executor.
+     *
+     * @param producerId
+     *      the producer that is awaiting credit.
+     *
+     * @return a future that completes once the producer can send.
+     *
+     * @throws JMSException if the request could not be issued.
+     */
+    CompletableFuture<Void> awaitCredit(JmsProducerId producerId) throws JMSException {
+        checkClosedOrFailed();
+
+        AsyncResourceRequest request = new AsyncResourceRequest(null);
+        requests.put(request, request);
+        try {
+            provider.awaitCredit(producerId, request);
+        } catch (Exception ex) {
+            requests.remove(request);
+            throw JmsExceptionSupport.create(ex);
+        }
+
+        return request.getResult();
+    }
+
+    /**
+     * Runs the given task on the connection executor, for work triggered from a thread on
+     * which calls back into the connection are not permitted.
+     *
+     * @param task
+     *      the task to run.
+     */
+    void executeAsync(Runnable task) {
+        executor.execute(task);
+    }
+
+    void grantCredit(JmsConsumerId consumerId, int credit) throws JMSException {
+        checkClosedOrFailed();
+
+        try {
+            ProviderFuture request = provider.newProviderFuture();
+            requests.put(request, request);
+            try {
+                provider.grantCredit(consumerId, credit, request);
+                request.sync();
+            } finally {
+                requests.remove(request);
+            }
+        } catch (Exception ioe) {
+            throw JmsExceptionSupport.create(ioe);
+        }
+    }
+
     //----- Property setters and getters -------------------------------------//
 
     @Override
@@ -1184,10 +1460,88 @@ public class JmsConnection implements AutoCloseable, Connection, TopicConnection
         connectionInfo.setCloseLinksThatFailOnReconnect(closeLinksThatFailOnReconnect);
     }
 
+    public boolean isPipelinedRecovery() {
+        return connectionInfo.isPipelinedRecovery();
+    }
+
+    public void setPipelinedRecovery(boolean pipelinedRecovery) {
+        connectionInfo.setPipelinedRecovery(pipelinedRecovery);
+    }
+
+    public int getDuplicateSuppressionWindow() {
+        return connectionInfo.getDuplicateSuppressionWindow();
+    }
+
+    public void setDuplicateSuppressionWindow(int duplicateSuppressionWindow) {
+        connectionInfo.setDuplicateSuppressionWindow(duplicateSuppressionWindow);
+    }
+
+    public boolean isLocalSelectorEvaluation() {
+        return connectionInfo.isLocalSelectorEvaluation();
+    }
+
+    public void setLocalSelectorEvaluation(boolean localSelectorEvaluation) {
+        connectionInfo.setLocalSelectorEvaluation(localSelectorEvaluation);
+    }
+
+    public String getLocalSelectorOutcome() {
+        return connectionInfo.getLocalSelectorOutcome();
+    }
+
+    public void setLocalSelectorOutcome(String localSelectorOutcome) {
+        connectionInfo.setLocalSelectorOutcome(localSelectorOutcome);
+    }
+
+    public boolean isSharedConsumerLinks() {
+        return connectionInfo.isSharedConsumerLinks();
+    }
+
+    public void setSharedConsumerLinks(boolean sharedConsumerLinks) {
+        connectionInfo.setSharedConsumerLinks(sharedConsumerLinks);
+    }
+
     JmsTracer getTracer() {
         return connectionInfo.getTracer();
     }
 
+    /**
+     * Creates the metrics of a resource of this connection, the metrics are only exported once
+     * passed to {@link #registerMetrics(JmsMetrics)}.
+     *
+     * @param type
+     *      the type of the resource.
+     * @param resourceId
+     *      the id of the resource.
+     *
+     * @return new metrics for the resource, or the disabled metrics if no registry is configured.
+     */
+    JmsMetrics createMetrics(String type, JmsResourceId resourceId) {
+        if (connectionInfo.getMetricsRegistry() == null) {
+            return JmsMetrics.DISABLED;
+        }
+
+        return new JmsMetrics(type, resourceId);
+    }
+
+    void registerMetrics(JmsMetrics metrics) {
+        if (metrics.isEnabled()) {
+            connectionInfo.getMetricsRegistry().register(metrics);
+        }
+    }
+
+    void unregisterMetrics(JmsMetrics metrics) {
+        if (metrics.isEnabled()) {
+            connectionInfo.getMetricsRegistry().unregister(metrics);
+        }
+    }
+
+    /**
+     * @return the metrics maintained for this connection.
+     */
+    public JmsMetrics getMetrics() {
+        return metrics;
+    }
+
     //----- Async event handlers ---------------------------------------------//
 
     @Override
@@ -1256,6 +1610,10 @@ public class JmsConnection implements AutoCloseable, Connection, TopicConnection
             LOG.info("Connection {} interrupted to server: {}:{}", connectionInfo.getId(), remoteURI.getHost(), remoteURI.getPort());
         }
 
+        for (JmsSharedConsumerLink link : sharedConsumerLinks.values()) {
+            link.onConnectionInterrupted();
+        }
+
         for (JmsSession session : sessions.values()) {
             session.onConnectionInterrupted();
         }
@@ -1281,6 +1639,11 @@ public class JmsConnection implements AutoCloseable, Connection, TopicConnection
         provider.create(connectionInfo, request);
         request.sync();
 
+        if (isPipelinedRecovery()) {
+            pipelinedConnectionRecovery(provider);
+            return;
+        }
+
         for (JmsTemporaryDestination tempDestination : tempDestinations.values()) {
             request = provider.newProviderFuture();
             provider.create(tempDestination, request);
@@ -1296,6 +1659,12 @@ public class JmsConnection implements AutoCloseable, Connection, TopicConnection
             }
         }
 
+        for (JmsSharedConsumerLink link : sharedConsumerLinks.values()) {
+            request = provider.newProviderFuture();
+            provider.create(link.getConsumerInfo(), request);
+            request.sync();
+        }
+
         for (JmsSession session : sessions.values()) {
             session.onConnectionRecovery(provider);
         }
@@ -1308,6 +1677,11 @@ public class JmsConnection implements AutoCloseable, Connection, TopicConnection
         setMessageFactory(provider.getMessageFactory());
         connectionInfo.setConnectedURI(provider.getRemoteURI());
 
+        if (isPipelinedRecovery()) {
+            pipelinedConnectionRecovered(provider);
+            return;
+        }
+
         for (JmsConnectionConsumer connectionConsumer : connectionConsumers.values()) {
             JmsConsumerInfo consumerInfo = connectionConsumer.getConsumerInfo();
             if (!consumerInfo.isClosed()) {
@@ -1317,13 +1691,87 @@ public class JmsConnection implements AutoCloseable, Connection, TopicConnection
             }
         }
 
+        for (JmsSharedConsumerLink link : sharedConsumerLinks.values()) {
+            ProviderFuture request = provider.newProviderFuture();
+            provider.start(link.getConsumerInfo(), request);
+            request.sync();
+        }
+
         for (JmsSession session : sessions.values()) {
             session.onConnectionRecovered(provider);
         }
     }
 
+    private void pipelinedConnectionRecovery(Provider provider) throws Exception {
+        final JmsRecoveryBatch batch = new JmsRecoveryBatch();
+
+        // Stage 1: Temporary destinations and sessions which the links recreated next depend on.
+        for (JmsTemporaryDestination tempDestination : tempDestinations.values()) {
+            ProviderFuture request = provider.newProviderFuture();
+            provider.create(tempDestination, request);
+            batch.add(request);
+        }
+
+        for (JmsSession session : sessions.values()) {
+            session.beginConnectionRecovery(provider, batch);
+        }
+
+        LOG.trace("Connection {} awaiting {} pipelined session recovery requests.", connectionInfo.getId(), batch.size());
+        batch.awaitAll();
+
+        // Stage 2: Connection consumers along with every session producer and consumer.
+        for (JmsConnectionConsumer connectionConsumer : connectionConsumers.values()) {
+            JmsConsumerInfo consumerInfo = connectionConsumer.getConsumerInfo();
+            if (!consumerInfo.isClosed()) {
+                ProviderFuture request = provider.newProviderFuture();
+                provider.create(consumerInfo, request);
+                batch.add(request);
+            }
+        }
+
+        for (JmsSharedConsumerLink link : sharedConsumerLinks.values()) {
+            ProviderFuture request = provider.newProviderFuture();
+            provider.create(link.getConsumerInfo(), request);
+            batch.add(request);
+        }
+
+        for (JmsSession session : sessions.values()) {
+            session.beginResourceRecovery(provider, batch);
+        }
+
+        LOG.trace("Connection {} awaiting {} pipelined link recovery requests.", connectionInfo.getId(), batch.size());
+        batch.awaitAll();
+    }
+
+    private void pipelinedConnectionRecovered(Provider provider) throws Exception {
+        final JmsRecoveryBatch batch = new JmsRecoveryBatch();
+
+        for (JmsConnectionConsumer connectionConsumer : connectionConsumers.values()) {
+            JmsConsumerInfo consumerInfo = connectionConsumer.getConsumerInfo();
+            if (!consumerInfo.isClosed()) {
+                ProviderFuture request = provider.newProviderFuture();
+                provider.start(consumerInfo, request);
+                batch.add(request);
+            }
+        }
+
+        for (JmsSharedConsumerLink link : sharedConsumerLinks.values()) {
+            ProviderFuture request = provider.newProviderFuture();
+            provider.start(link.getConsumerInfo(), request);
+            batch.add(request);
+        }
+
+        for (JmsSession session : sessions.values()) {
+            session.beginConnectionRecovered(provider, batch);
+        }
+
+        batch.awaitAll();
+    }
+
     @Override
     public void onConnectionRestored(final URI remoteURI) {
+        reconnects.increment();
+
         for (JmsSession session : sessions.values()) {
             session.onConnectionRestored();
         }
@@ -1438,6 +1886,22 @@ public class JmsConnection implements AutoCloseable, Connection, TopicConnection
         }
     }
 
+    private void sharedConsumerLinkClosed(JmsSharedConsumerLink link, ProviderException cause) {
+        synchronized (sharedConsumerLinks) {
+            sharedConsumerLinks.remove(link.getDestination(), link);
+            link.close();
+        }
+
+        for (JmsMessageConsumer member : link.getMembers()) {
+            JmsMessageConsumer consumer = member.session.consumerClosed(member.consumerInfo, cause);
+            if (consumer != null) {
+                for (JmsConnectionListener listener : connectionListeners) {
+                    listener.onConsumerClosed(consumer, cause);
+                }
+            }
+        }
+    }
+
     @Override
     public void onResourceClosed(final JmsResource resource, final ProviderException cause) {
         // Closure of the Connection itself is notified via onConnectionFailure
@@ -1508,7 +1972,9 @@ public class JmsConnection implements AutoCloseable, Connection, TopicConnection
                         }
                     } else if (resource instanceof JmsConsumerInfo) {
                         JmsConsumerInfo consumerInfo = (JmsConsumerInfo) resource;
-                        if (consumerInfo.isConnectionConsumer()) {
+                        if (consumerInfo.getDispatcher() instanceof JmsSharedConsumerLink) {
+                            sharedConsumerLinkClosed((JmsSharedConsumerLink) consumerInfo.getDispatcher(), cause);
+                        } else if (consumerInfo.isConnectionConsumer()) {
                             JmsConnectionConsumer consumer = connectionConsumers.get(consumerInfo.getId());
                              if (consumer != null) {
                                 try {
@@ -1578,4 +2044,63 @@ public class JmsConnection implements AutoCloseable, Connection, TopicConnection
     protected void providerFailed(ProviderException cause) {
         failureCause.compareAndSet(null, cause);
     }
+
+    //----- Asynchronous resource request ------------------------------------//
+
+    /**
+     * Request used for resource operations that are not waited on by the calling thread, the
+     * result is completed on the connection executor so that application callbacks chained to
+     * it cannot block the provider.
+     */
+    private final class AsyncResourceRequest implements AsyncResult {
+
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        private final ProviderSynchronization synchronization;
+        private final AtomicBoolean complete = new AtomicBoolean();
+
+        public AsyncResourceRequest(ProviderSynchronization synchronization) {
+            this.synchronization = synchronization;
+        }
+
+        @Override
+        public void onFailure(ProviderException cause) {
+            if (complete.compareAndSet(false, true)) {
+                requests.remove(this);
+                if (synchronization != null) {
+                    synchronization.onPendingFailure(cause);
+                }
+
+                complete(() -> result.completeExceptionally(JmsExceptionSupport.create(cause)));
+            }
+        }
+
+        @Override
+        public void onSuccess() {
+            if (complete.compareAndSet(false, true)) {
+                requests.remove(this);
+                if (synchronization != null) {
+                    synchronization.onPendingSuccess();
+                }
+
+                complete(() -> result.complete(null));
+            }
+        }
+
+        @Override
+        public boolean isComplete() {
+            return complete.get();
+        }
+
+        public CompletableFuture<Void> getResult() {
+            return result;
+        }
+
+        private void complete(Runnable completion) {
+            if (executor.isShutdown()) {
+                completion.run();
+            } else {
+                executor.execute(completion);
+            }
+        }
+    }
 }
@@ -21,6 +21,7 @@ import java.net.URISyntaxException;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.EnumMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.function.BiFunction;
 
@@ -52,7 +53,10 @@ import org.apache.qpid.jms.policy.JmsPresettlePolicy;
 import org.apache.qpid.jms.policy.JmsRedeliveryPolicy;
 import org.apache.qpid.jms.provider.Provider;
 import org.apache.qpid.jms.provider.ProviderFactory;
+import org.apache.qpid.jms.metrics.JmsMetricsRegistry;
+import org.apache.qpid.jms.metrics.JmsMetricsRegistryFactory;
 import org.apache.qpid.jms.tracing.JmsNoOpTracer;
+import org.apache.qpid.jms.tracing.JmsSamplingTracer;
 import org.apache.qpid.jms.tracing.JmsTracer;
 import org.apache.qpid.jms.tracing.JmsTracerFactory;
 import org.apache.qpid.jms.util.IdGenerator;
@@ -92,6 +96,11 @@ public class JmsConnectionFactory extends JNDIStorable implements ConnectionFact
     private boolean receiveNoWaitLocalOnly;
     private boolean populateJMSXUserID;
     private boolean closeLinksThatFailOnReconnect;
+    private boolean pipelinedRecovery;
+    private int duplicateSuppressionWindow;
+    private boolean localSelectorEvaluation;
+    private String localSelectorOutcome = JmsConnectionInfo.DEFAULT_LOCAL_SELECTOR_OUTCOME;
+    private boolean sharedConsumerLinks;
     private String queuePrefix = null;
     private String topicPrefix = null;
     private boolean validatePropertyNames = true;
@@ -109,6 +118,10 @@ public class JmsConnectionFactory extends JNDIStorable implements ConnectionFact
     private ExceptionListener exceptionListener;
     private String tracing;
     private JmsTracer tracer;
+    private double tracingSampleRate = 1.0;
+    private String tracingSampledDestinations;
+    private String metrics;
+    private JmsMetricsRegistry metricsRegistry;
 
     private JmsPrefetchPolicy prefetchPolicy = new JmsDefaultPrefetchPolicy();
     private JmsRedeliveryPolicy redeliveryPolicy = new JmsDefaultRedeliveryPolicy();
@@ -253,6 +266,7 @@ public class JmsConnectionFactory extends JNDIStorable implements ConnectionFact
 
     protected JmsConnectionInfo configureConnectionInfo(String username, String password) throws JMSException {
         JmsTracer implicitTracer = JmsNoOpTracer.INSTANCE;
+        JmsMetricsRegistry implicitRegistry = null;
         try {
             Map<String, String> properties = PropertyUtil.getProperties(this);
             // Pull out the clientID prop, we need to act differently according to
@@ -277,10 +291,17 @@ public class JmsConnectionFactory extends JNDIStorable implements ConnectionFact
             connectionInfo.getExtensionMap().putAll(extensionMap);
 
             if(tracer != null) {
-                connectionInfo.setTracer(tracer);
+                connectionInfo.setTracer(createSamplingTracer(tracer));
             } else if(tracing != null) {
                 implicitTracer = JmsTracerFactory.create(remoteURI, tracing);
-                connectionInfo.setTracer(implicitTracer);
+                connectionInfo.setTracer(createSamplingTracer(implicitTracer));
+            }
+
+            if (metricsRegistry != null) {
+                connectionInfo.setMetricsRegistry(metricsRegistry);
+            } else if (metrics != null) {
+                implicitRegistry = JmsMetricsRegistryFactory.create(remoteURI, metrics);
+                connectionInfo.setMetricsRegistry(implicitRegistry);
             }
 
             // Set properties to make additional configuration changes
@@ -305,6 +326,12 @@ public class JmsConnectionFactory extends JNDIStorable implements ConnectionFact
                 implicitTracer.close();
             } catch (Throwable ignored) {}
 
+            if (implicitRegistry != null) {
+                try {
+                    implicitRegistry.close();
+                } catch (Throwable ignored) {}
+            }
+
             throw JmsExceptionSupport.create(e);
         }
     }
@@ -357,6 +384,14 @@ public class JmsConnectionFactory extends JNDIStorable implements ConnectionFact
         return result;
     }
 
+    private JmsTracer createSamplingTracer(JmsTracer tracer) {
+        if (tracingSampleRate >= 1.0 && tracingSampledDestinations == null) {
+            return tracer;
+        }
+
+        return new JmsSamplingTracer(tracer, tracingSampleRate, tracingSampledDestinations);
+    }
+
     protected static URI createURI(String name) {
         if (name != null && name.trim().isEmpty() == false) {
             try {
@@ -974,6 +1009,144 @@ public class JmsConnectionFactory extends JNDIStorable implements ConnectionFact
         this.closeLinksThatFailOnReconnect = closeLinksThatFailOnReconnect;
     }
 
+    /**
+     * @return whether resources are recreated in pipelined batches during failover reconnect.
+     */
+    public boolean isPipelinedRecovery() {
+        return pipelinedRecovery;
+    }
+
+    /**
+     * Controls how the client recreates its resources during a failover reconnect attempt
+     * (defaults to false).
+     * <p>
+     * When false each session, producer, consumer and temporary destination is recreated in
+     * turn with the client awaiting the remote response to each request before issuing the next.
+     * When enabled the client instead writes the requests for each stage of the recovery (all
+     * session begins and temporary destinations, then all producer and consumer links) in one
+     * burst and then awaits all the responses together, which greatly reduces the time needed
+     * to restore a connection with many active resources.  Individual link failures are handled
+     * in the same manner as the sequential mode, see {@link #setCloseLinksThatFailOnReconnect(boolean)}.
+     *
+     * @param pipelinedRecovery
+     * 		whether to pipeline resource recreation on failover reconnect.
+     */
+    public void setPipelinedRecovery(boolean pipelinedRecovery) {
+        this.pipelinedRecovery = pipelinedRecovery;
+    }
+
+    /**
+     * @return the number of recently delivered message IDs each consumer remembers in order to suppress duplicates.
+     */
+    public int getDuplicateSuppressionWindow() {
+        return duplicateSuppressionWindow;
+    }
+
+    /**
+     * Sets the number of recently delivered message IDs that each consumer remembers in order
+     * to suppress redelivered duplicates (defaults to 0, which disables suppression).
+     * <p>
+     * When enabled a redelivered message whose ID matches one the consumer has already delivered
+     * to the application, and whose acknowledgement or transaction commit succeeded, is accepted
+     * and skipped rather than being delivered again, such as the redelivery of messages that had
+     * been processed but whose acknowledgement was lost when a failover reconnect occurred.
+     * Messages redelivered due to a session recover are always delivered, and a transaction
+     * rollback clears the remembered IDs of the session consumers.
+     *
+     * @param duplicateSuppressionWindow
+     * 		the number of message IDs each consumer remembers, or zero to disable.
+     */
+    public void setDuplicateSuppressionWindow(int duplicateSuppressionWindow) {
+        this.duplicateSuppressionWindow = duplicateSuppressionWindow;
+    }
+
+    /**
+     * @return true if message selectors are evaluated by the client rather than the remote peer.
+     */
+    public boolean isLocalSelectorEvaluation() {
+        return localSelectorEvaluation;
+    }
+
+    /**
+     * Sets whether consumer message selectors are evaluated by the client instead of being sent
+     * to the remote peer (defaults to false).
+     * <p>
+     * When enabled the consumer link is created without a selector filter and each message that
+     * arrives is matched against the selector locally, messages that do not match are never handed
+     * to the application and are instead settled using the outcome configured by
+     * {@link #setLocalSelectorOutcome(String)}.  Durable and shared subscriptions along with queue
+     * browsers always send their selector to the remote peer as it forms part of their definition.
+     *
+     * @param localSelectorEvaluation
+     * 		whether consumer message selectors are evaluated by the client.
+     */
+    public void setLocalSelectorEvaluation(boolean localSelectorEvaluation) {
+        this.localSelectorEvaluation = localSelectorEvaluation;
+    }
+
+    /**
+     * @return the outcome used to settle messages that do not match a locally evaluated selector.
+     */
+    public String getLocalSelectorOutcome() {
+        return localSelectorOutcome;
+    }
+
+    /**
+     * Sets the outcome used to settle messages that do not match a consumer selector when local
+     * selector evaluation is enabled.  The allowed values are:
+     *
+     * <p><ul>
+     *  <li>RELEASED
+     *  <li>MODIFIED_FAILED
+     *  <li>MODIFIED_FAILED_UNDELIVERABLE
+     * </ul><p>
+     *
+     * Defaults to RELEASED which returns the message to the remote peer for delivery to another consumer.
+     * The outcome only applies to queue consumers, a topic subscriber has no other consumer to which a
+     * message could be delivered so messages that do not match its selector are always accepted.
+     *
+     * @param localSelectorOutcome
+     * 		the outcome applied to messages that do not match the selector.
+     */
+    public void setLocalSelectorOutcome(String localSelectorOutcome) {
+        String outcome = localSelectorOutcome.toUpperCase(Locale.ENGLISH);
+        switch (outcome) {
+            case "RELEASED":
+            case "MODIFIED_FAILED":
+            case "MODIFIED_FAILED_UNDELIVERABLE":
+                this.localSelectorOutcome = outcome;
+                break;
+            default:
+                throw new IllegalArgumentException("Specified outcome is not a legal value: " + localSelectorOutcome);
+        }
+    }
+
+    /**
+     * @return true if consumers on the same topic share a single link to the remote peer.
+     */
+    public boolean isSharedConsumerLinks() {
+        return sharedConsumerLinks;
+    }
+
+    /**
+     * Sets whether non-durable topic consumers created from the same connection share a single
+     * link to the remote peer (defaults to false).
+     * <p>
+     * When enabled the first eligible consumer on a topic opens a link without a selector and
+     * every later consumer on that topic joins it, each message that arrives is copied to all
+     * of the joined consumers which evaluate their own selector locally.  A message is settled
+     * with the remote peer once every consumer it was copied to is done with it.  Only consumers
+     * in non-transacted sessions using AUTO_ACKNOWLEDGE or DUPS_OK_ACKNOWLEDGE that are neither
+     * durable, shared, noLocal, presettled nor configured with a zero prefetch are eligible, any
+     * other consumer is given its own link as usual.
+     *
+     * @param sharedConsumerLinks
+     * 		whether consumers on the same topic share a single link.
+     */
+    public void setSharedConsumerLinks(boolean sharedConsumerLinks) {
+        this.sharedConsumerLinks = sharedConsumerLinks;
+    }
+
     /**
      * Provides an entry point for extensions to be configured on this {@link ConnectionFactory}.
      * <p>
@@ -1042,6 +1215,82 @@ public class JmsConnectionFactory extends JNDIStorable implements ConnectionFact
         return tracer;
     }
 
+    /**
+     * Sets the probability, from 0 to 1, that a message is traced when tracing is enabled.  The
+     * decision is made when a message is sent, messages that are not sampled have no span created
+     * for them and carry no tracing state.  A message received is traced if its sender traced it,
+     * otherwise the same sampling applies.  Defaults to 1, tracing every message.
+     *
+     * @param tracingSampleRate
+     *            The probability that a message is traced
+     */
+    public void setTracingSampleRate(double tracingSampleRate) {
+        if (tracingSampleRate < 0 || tracingSampleRate > 1) {
+            throw new IllegalArgumentException("Tracing sample rate must be between 0 and 1: " + tracingSampleRate);
+        }
+
+        this.tracingSampleRate = tracingSampleRate;
+    }
+
+    public double getTracingSampleRate() {
+        return tracingSampleRate;
+    }
+
+    /**
+     * Sets the destinations whose messages are always traced when tracing is enabled, regardless
+     * of the sample rate.  Given as a comma separated list of addresses, an address ending in '*'
+     * matches all those starting with what precedes it.
+     *
+     * @param tracingSampledDestinations
+     *            The addresses of the destinations that are always traced
+     */
+    public void setTracingSampledDestinations(String tracingSampledDestinations) {
+        this.tracingSampledDestinations = tracingSampledDestinations;
+    }
+
+    public String getTracingSampledDestinations() {
+        return tracingSampledDestinations;
+    }
+
+    /**
+     * Sets the type name of a metrics registry to export the metrics of the connection(s)
+     * created using the factory, for example "jmx".
+     *
+     * @param metrics
+     *            The metrics registry type name to set
+     */
+    public void setMetrics(String metrics) {
+        this.metrics = metrics;
+    }
+
+    public String getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Explicitly sets a metrics registry instance for use by the connection(s) created from the factory.
+     *
+     * Using this method overrides any implicit creation of a registry due to use of either URI configuration
+     * option or the {@link JmsConnectionFactory#setMetrics(String)} method.  As with an explicitly set tracer
+     * the registry will have its close method called when a created connection/context is closed.
+     *
+     * @param metricsRegistry
+     *            The metrics registry to set
+     */
+    public void setMetricsRegistry(JmsMetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    /**
+     * Gets any metrics registry previously set explicitly on the connection factory using
+     * {@link #setMetricsRegistry(JmsMetricsRegistry)}.
+     *
+     * @return the metrics registry previously set, or null if none was set.
+     */
+    public JmsMetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+
     //----- Static Methods ---------------------------------------------------//
 
     /**
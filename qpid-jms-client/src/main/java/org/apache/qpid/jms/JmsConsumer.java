@@ -16,6 +16,8 @@
  */
 package org.apache.qpid.jms;
 
+import java.util.concurrent.CompletionStage;
+
 import jakarta.jms.JMSConsumer;
 import jakarta.jms.JMSException;
 import jakarta.jms.Message;
@@ -132,4 +134,24 @@ public class JmsConsumer implements JMSConsumer, AutoCloseable {
             throw JmsExceptionSupport.createRuntimeException(e);
         }
     }
+
+    /**
+     * Requests the next message without blocking the calling thread, the returned stage is
+     * completed from the session's dispatcher with the message, or with null if the timeout
+     * elapses first or the consumer is closed.
+     *
+     * @param timeout
+     *      the time in milliseconds to wait for a message, zero or less waits indefinitely.
+     *
+     * @return a stage that completes with the next message, or null if none arrived in time.
+     *
+     * @see JmsMessageConsumer#receiveAsync(long)
+     */
+    public CompletionStage<Message> receiveAsync(long timeout) {
+        try {
+            return consumer.receiveAsync(timeout);
+        } catch (JMSException e) {
+            throw JmsExceptionSupport.createRuntimeException(e);
+        }
+    }
 }
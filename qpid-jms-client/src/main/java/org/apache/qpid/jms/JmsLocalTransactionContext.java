@@ -19,12 +19,16 @@ package org.apache.qpid.jms;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 import jakarta.jms.JMSException;
 import jakarta.jms.TransactionRolledBackException;
 
+import org.apache.qpid.jms.exceptions.JmsExceptionSupport;
 import org.apache.qpid.jms.message.JmsInboundMessageDispatch;
 import org.apache.qpid.jms.message.JmsOutboundMessageDispatch;
 import org.apache.qpid.jms.meta.JmsResourceId;
@@ -51,6 +55,9 @@ public class JmsLocalTransactionContext implements JmsTransactionContext {
     private JmsTransactionInfo transactionInfo;
     private JmsTransactionListener listener;
 
+    // Outcome of an asynchronous commit or rollback whose next transaction may not yet be ready.
+    private volatile CompletableFuture<Void> pendingCompletion;
+
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
 
     public JmsLocalTransactionContext(JmsSession session) {
@@ -60,6 +67,8 @@ public class JmsLocalTransactionContext implements JmsTransactionContext {
 
     @Override
     public void send(JmsConnection connection, final JmsOutboundMessageDispatch envelope, ProviderSynchronization outcome) throws JMSException {
+        awaitPendingCompletion();
+
         lock.readLock().lock();
         try {
             if (isInDoubt()) {
@@ -108,6 +117,8 @@ public class JmsLocalTransactionContext implements JmsTransactionContext {
     public void acknowledge(JmsConnection connection, final JmsInboundMessageDispatch envelope, ACK_TYPE ackType) throws JMSException {
         // Consumed or delivered messages fall into a transaction otherwise just pass it in.
         if (ackType == ACK_TYPE.ACCEPTED || ackType == ACK_TYPE.DELIVERED) {
+            awaitPendingCompletion();
+
             lock.readLock().lock();
             try {
                 connection.acknowledge(envelope, ackType, new ProviderSynchronization() {
@@ -139,6 +150,8 @@ public class JmsLocalTransactionContext implements JmsTransactionContext {
 
     @Override
     public void begin() throws JMSException {
+        awaitPendingCompletion();
+
         lock.writeLock().lock();
         try {
             reset();
@@ -175,6 +188,8 @@ public class JmsLocalTransactionContext implements JmsTransactionContext {
 
     @Override
     public void commit() throws JMSException {
+        awaitPendingCompletion();
+
         lock.writeLock().lock();
         try {
             if (isInDoubt()) {
@@ -206,6 +221,8 @@ public class JmsLocalTransactionContext implements JmsTransactionContext {
                         }
                     });
 
+                    session.onTransactionCommitted();
+
                     if (listener != null) {
                         try {
                             listener.onTransactionCommitted();
@@ -221,6 +238,7 @@ public class JmsLocalTransactionContext implements JmsTransactionContext {
                     }
                 } catch (JMSException cause) {
                     LOG.info("Commit failed for transaction: {}", oldTransactionId);
+                    session.onTransactionRolledBack();
                     if (listener != null) {
                         try {
                             listener.onTransactionRolledBack();
@@ -257,6 +275,8 @@ public class JmsLocalTransactionContext implements JmsTransactionContext {
     }
 
     private void doRollback(boolean startNewTx) throws JMSException {
+        awaitPendingCompletion();
+
         lock.writeLock().lock();
         try {
             if (transactionInfo == null) {
@@ -289,6 +309,8 @@ public class JmsLocalTransactionContext implements JmsTransactionContext {
                     }
                 });
 
+                session.onTransactionRolledBack();
+
                 if (listener != null) {
                     try {
                         listener.onTransactionRolledBack();
@@ -306,6 +328,7 @@ public class JmsLocalTransactionContext implements JmsTransactionContext {
                 }
             } catch (JMSException cause) {
                 LOG.info("Rollback failed for transaction: {}", oldTransactionId);
+                session.onTransactionRolledBack();
                 if (listener != null) {
                     try {
                         listener.onTransactionRolledBack();
@@ -335,6 +358,80 @@ public class JmsLocalTransactionContext implements JmsTransactionContext {
         }
     }
 
+    @Override
+    public CompletableFuture<Void> commitAsync() throws JMSException {
+        awaitPendingCompletion();
+
+        lock.writeLock().lock();
+        try {
+            if (isInDoubt()) {
+                try {
+                    rollback();
+                } catch (Exception e) {
+                    LOG.trace("Error during rollback of failed TX: {}", e);
+                }
+
+                return CompletableFuture.failedFuture(new TransactionRolledBackException("Transaction failed and has been rolled back."));
+            }
+
+            LOG.debug("Async Commit: {}", transactionInfo.getId());
+
+            final JmsTransactionId oldTransactionId = transactionInfo.getId();
+            final JmsTransactionInfo nextTx = getNextTransactionInfo();
+
+            CompletableFuture<Void> completion = startPipelinedCompletion(nextTx, synchronization ->
+                connection.commitAsync(transactionInfo, nextTx, synchronization));
+
+            return completion.whenComplete((result, error) -> {
+                if (error == null) {
+                    session.onTransactionCommitted();
+                    fireTransactionEvent(JmsTransactionListener::onTransactionCommitted);
+                    fireTransactionEvent(JmsTransactionListener::onTransactionStarted);
+                } else {
+                    LOG.info("Commit failed for transaction: {}", oldTransactionId);
+                    session.onTransactionRolledBack();
+                    fireTransactionEvent(JmsTransactionListener::onTransactionRolledBack);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> rollbackAsync() throws JMSException {
+        awaitPendingCompletion();
+
+        lock.writeLock().lock();
+        try {
+            if (transactionInfo == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            LOG.debug("Async Rollback: {}", transactionInfo.getId());
+
+            final JmsTransactionId oldTransactionId = transactionInfo.getId();
+            final JmsTransactionInfo nextTx = getNextTransactionInfo();
+
+            CompletableFuture<Void> completion = startPipelinedCompletion(nextTx, synchronization ->
+                connection.rollbackAsync(transactionInfo, nextTx, synchronization));
+
+            return completion.whenComplete((result, error) -> {
+                if (error != null) {
+                    LOG.info("Rollback failed for transaction: {}", oldTransactionId);
+                }
+
+                session.onTransactionRolledBack();
+                fireTransactionEvent(JmsTransactionListener::onTransactionRolledBack);
+                if (error == null) {
+                    fireTransactionEvent(JmsTransactionListener::onTransactionStarted);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
     @Override
     public void shutdown() throws JMSException {
         doRollback(false);
@@ -356,6 +453,15 @@ public class JmsLocalTransactionContext implements JmsTransactionContext {
 
     @Override
     public void onConnectionRecovery(Provider provider) throws Exception {
+        recoverTransaction(provider, true);
+    }
+
+    @Override
+    public ProviderFuture beginConnectionRecovery(Provider provider) throws Exception {
+        return recoverTransaction(provider, false);
+    }
+
+    private ProviderFuture recoverTransaction(Provider provider, boolean await) throws Exception {
         if (lock.writeLock().tryLock(5, TimeUnit.MILLISECONDS)) {
             // If we got the lock then there is no pending commit / rollback / begin / send or
             // acknowledgement so we can safely create a new transaction, if there is work pending
@@ -369,7 +475,7 @@ public class JmsLocalTransactionContext implements JmsTransactionContext {
                 // wasn't one before that needs replacing.
                 if (transactionInfo == null) {
                     LOG.trace("Transaction context skipping recovery because no transaction previously existed.");
-                    return;
+                    return null;
                 }
 
                 transactionInfo = getNextTransactionInfo();
@@ -391,7 +497,11 @@ public class JmsLocalTransactionContext implements JmsTransactionContext {
                 LOG.trace("Transaction recovery creating new TX:{} after failover.", transactionInfo.getId());
 
                 provider.create(transactionInfo, request);
-                request.sync();
+                if (await) {
+                    request.sync();
+                }
+
+                return request;
             } finally {
                 lock.writeLock().unlock();
             }
@@ -402,6 +512,109 @@ public class JmsLocalTransactionContext implements JmsTransactionContext {
             LOG.trace("Transaction recovery marking current TX:{} as in-doubt.", transactionInfo.getId());
             transactionInfo.setInDoubt(true);
         }
+
+        return null;
+    }
+
+    private interface PipelinedRequest {
+
+        CompletableFuture<Void> start(ProviderSynchronization synchronization) throws JMSException;
+
+    }
+
+    /*
+     * Issues a commit or rollback that declares the next transaction in the same pipeline,
+     * the current transaction is replaced by the next once the provider reports the outcome.
+     * Must be called with the write lock held.
+     */
+    private CompletableFuture<Void> startPipelinedCompletion(JmsTransactionInfo nextTx, PipelinedRequest request) throws JMSException {
+        final CompletableFuture<Void> completion;
+
+        try {
+            completion = request.start(new ProviderSynchronization() {
+
+                @Override
+                public void onPendingSuccess() {
+                    reset();
+                    JmsLocalTransactionContext.this.transactionInfo = nextTx;
+                }
+
+                @Override
+                public void onPendingFailure(ProviderException cause) {
+                    reset();
+                    JmsLocalTransactionContext.this.transactionInfo = nextTx;
+                }
+            });
+        } catch (JMSException cause) {
+            session.onTransactionRolledBack();
+            fireTransactionEvent(JmsTransactionListener::onTransactionRolledBack);
+            try {
+                // As with a synchronous completion the provider may have dropped the transaction
+                // so one is created now to recover our state.
+                if (nextTx.getId().getProviderTxId() == null) {
+                    begin();
+                }
+            } catch (Exception e) {
+                LOG.info("Failed to start new Transaction after failed completion of: {}", transactionInfo.getId());
+            }
+
+            throw cause;
+        }
+
+        pendingCompletion = completion;
+
+        return completion;
+    }
+
+    /*
+     * Waits for an outstanding asynchronous commit or rollback so that transacted work is not
+     * performed until the next transaction has been declared, the outcome itself is reported
+     * to the caller of the asynchronous operation.
+     */
+    private void awaitPendingCompletion() throws JMSException {
+        final CompletableFuture<Void> pending = pendingCompletion;
+        if (pending == null) {
+            return;
+        }
+
+        try {
+            pending.get();
+        } catch (ExecutionException ex) {
+            LOG.trace("Pending TX completion failed: {}", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw JmsExceptionSupport.create(ex);
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (pendingCompletion == pending) {
+                pendingCompletion = null;
+
+                // If the provider failed to start the next transaction there will not be a
+                // current provider transaction id present, so we attempt to create one.
+                if (transactionInfo != null && transactionInfo.getId().getProviderTxId() == null) {
+                    try {
+                        begin();
+                    } catch (Exception e) {
+                        LOG.info("Failed to start new Transaction after failed completion of previous TX: {}", e.getMessage());
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void fireTransactionEvent(Consumer<JmsTransactionListener> event) {
+        final JmsTransactionListener listener = this.listener;
+        if (listener != null) {
+            try {
+                event.accept(listener);
+            } catch (Throwable error) {
+                LOG.trace("Local TX listener error ignored: {}", error);
+            }
+        }
     }
 
     @Override
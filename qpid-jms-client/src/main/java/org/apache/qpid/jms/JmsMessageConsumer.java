@@ -18,12 +18,23 @@ package org.apache.qpid.jms;
 
 import static org.apache.qpid.jms.message.JmsMessageSupport.lookupAckTypeForDisposition;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import jakarta.jms.IllegalStateException;
+import jakarta.jms.InvalidSelectorException;
 import jakarta.jms.JMSException;
 import jakarta.jms.Message;
 import jakarta.jms.MessageConsumer;
@@ -35,9 +46,12 @@ import org.apache.qpid.jms.exceptions.JmsConnectionFailedException;
 import org.apache.qpid.jms.exceptions.JmsExceptionSupport;
 import org.apache.qpid.jms.message.JmsInboundMessageDispatch;
 import org.apache.qpid.jms.message.JmsMessage;
+import org.apache.qpid.jms.message.JmsMessageFilterable;
 import org.apache.qpid.jms.meta.JmsConsumerId;
 import org.apache.qpid.jms.meta.JmsConsumerInfo;
 import org.apache.qpid.jms.meta.JmsResource.ResourceState;
+import org.apache.qpid.jms.metrics.JmsCounter;
+import org.apache.qpid.jms.metrics.JmsMetrics;
 import org.apache.qpid.jms.policy.JmsDeserializationPolicy;
 import org.apache.qpid.jms.policy.JmsPrefetchPolicy;
 import org.apache.qpid.jms.policy.JmsRedeliveryPolicy;
@@ -46,10 +60,14 @@ import org.apache.qpid.jms.provider.ProviderConstants.ACK_TYPE;
 import org.apache.qpid.jms.provider.ProviderException;
 import org.apache.qpid.jms.provider.ProviderFuture;
 import org.apache.qpid.jms.provider.ProviderSynchronization;
+import org.apache.qpid.jms.selector.SelectorParser;
+import org.apache.qpid.jms.selector.filter.BooleanExpression;
+import org.apache.qpid.jms.selector.filter.FilterException;
 import org.apache.qpid.jms.tracing.JmsTracer;
 import org.apache.qpid.jms.tracing.JmsTracer.DeliveryOutcome;
 import org.apache.qpid.jms.tracing.TraceableMessage;
 import org.apache.qpid.jms.util.FifoMessageQueue;
+import org.apache.qpid.jms.util.LRUCache;
 import org.apache.qpid.jms.util.MessageQueue;
 import org.apache.qpid.jms.util.PriorityMessageQueue;
 import org.slf4j.Logger;
@@ -76,6 +94,21 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
     protected final MessageDeliverTask deliveryTask = new MessageDeliverTask();
     protected final JmsTracer tracer;
     protected final String address;
+    protected volatile CompletableFuture<Void> creationStage = CompletableFuture.completedFuture(null);
+    private volatile CompletableFuture<Void> createRequest = CompletableFuture.completedFuture(null);
+    protected final LRUCache<Object, Boolean> deliveredMessageIds;
+    protected final Set<Object> unconfirmedMessageIds;
+    protected final String messageSelector;
+    protected final BooleanExpression localSelector;
+    protected final ACK_TYPE localSelectorOutcome;
+    protected final boolean useSharedLink;
+    protected volatile JmsSharedConsumerLink sharedLink;
+
+    protected final JmsCounter messagesDelivered;
+
+    private final ConcurrentLinkedDeque<AsyncReceive> asyncReceives = new ConcurrentLinkedDeque<>();
+    private final AtomicBoolean asyncPullPending = new AtomicBoolean();
+    private final Runnable asyncReceiveTask = this::processAsyncReceives;
 
     protected JmsMessageConsumer(JmsConsumerId consumerId, JmsSession session, JmsDestination destination,
                                  String selector, boolean noLocal) throws JMSException {
@@ -98,7 +131,46 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
         JmsRedeliveryPolicy redeliveryPolicy = session.getRedeliveryPolicy().copy();
         JmsDeserializationPolicy deserializationPolicy = session.getDeserializationPolicy().copy();
 
-        int configuredPrefetch = prefetchPolicy.getConfiguredPrefetch(session, destination, isDurableSubscription(), isBrowser());
+        int configuredPrefetch = isDemandDriven() ? 0 : prefetchPolicy.getConfiguredPrefetch(session, destination, isDurableSubscription(), isBrowser());
+        boolean presettle = session.getPresettlePolicy().isConsumerPresttled(session, destination);
+
+        // Only consumers whose deliveries can be settled independently of one another and
+        // that need no remote side filtering can receive copies from a shared link.
+        this.useSharedLink = connection.isSharedConsumerLinks() && destination.isTopic() && !noLocal && !presettle &&
+            configuredPrefetch > 0 && !isBrowser() && !isDurableSubscription() && !isSharedSubscription() &&
+            (acknowledgementMode == Session.AUTO_ACKNOWLEDGE || acknowledgementMode == Session.DUPS_OK_ACKNOWLEDGE);
+
+        if (connection.getDuplicateSuppressionWindow() > 0 && !isBrowser()) {
+            this.deliveredMessageIds = new LRUCache<>(connection.getDuplicateSuppressionWindow());
+            this.unconfirmedMessageIds = new LinkedHashSet<>();
+        } else {
+            this.deliveredMessageIds = null;
+            this.unconfirmedMessageIds = null;
+        }
+
+        // Durable and shared subscriptions are defined by their selector on the remote so
+        // it is always sent, browsers have no settlement with which to skip a message.
+        this.messageSelector = selector;
+        if (selector != null && (connection.isLocalSelectorEvaluation() || useSharedLink) &&
+            !isBrowser() && !isDurableSubscription() && !isSharedSubscription()) {
+
+            try {
+                this.localSelector = SelectorParser.compile(selector);
+            } catch (FilterException e) {
+                throw new InvalidSelectorException(e.getMessage());
+            }
+
+            // A topic message that does not match was still delivered to the subscription, it has
+            // no other consumer to go to and settling it any other way would see it sent again.
+            if (destination.isTopic()) {
+                this.localSelectorOutcome = ACK_TYPE.ACCEPTED;
+            } else {
+                this.localSelectorOutcome = ACK_TYPE.valueOf(connection.getLocalSelectorOutcome());
+            }
+        } else {
+            this.localSelector = null;
+            this.localSelectorOutcome = null;
+        }
 
         if (connection.isLocalMessagePriority()) {
             this.messageQueue = new PriorityMessageQueue();
@@ -108,7 +180,7 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
 
         consumerInfo = new JmsConsumerInfo(consumerId, this);
         consumerInfo.setExplicitClientID(connection.isExplicitClientID());
-        consumerInfo.setSelector(selector);
+        consumerInfo.setSelector(localSelector == null ? selector : null);
         consumerInfo.setDurable(isDurableSubscription());
         consumerInfo.setSubscriptionName(name);
         consumerInfo.setShared(isSharedSubscription());
@@ -119,8 +191,25 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
         consumerInfo.setPrefetchSize(configuredPrefetch);
         consumerInfo.setRedeliveryPolicy(redeliveryPolicy);
         consumerInfo.setLocalMessageExpiry(connection.isLocalMessageExpiry());
-        consumerInfo.setPresettle(session.getPresettlePolicy().isConsumerPresttled(session, destination));
+        consumerInfo.setPresettle(presettle);
         consumerInfo.setDeserializationPolicy(deserializationPolicy);
+        consumerInfo.setMetrics(connection.createMetrics(JmsMetrics.CONSUMER, consumerId));
+
+        messagesDelivered = consumerInfo.getMetrics().counter(JmsMetrics.MESSAGES_DELIVERED);
+        consumerInfo.getMetrics().gauge(JmsMetrics.PREFETCH_QUEUE_DEPTH, messageQueue::size);
+    }
+
+    public void init() throws JMSException {
+        if (useSharedLink) {
+            sharedLink = connection.joinSharedConsumerLink(this);
+            session.add(this);
+
+            if (session.isStarted()) {
+                start();
+            }
+
+            return;
+        }
 
         session.getConnection().createResource(consumerInfo, new ProviderSynchronization() {
 
@@ -137,15 +226,87 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
         if (session.isStarted()) {
             start();
         }
-    }
 
-    public void init() throws JMSException {
         if (!isPullConsumer()){
             startConsumerResource();
         }
     }
 
+    /**
+     * Initializes the consumer without waiting for the remote peer to attach its link, the
+     * consumer may be used immediately while the outcome is reported through the stage
+     * returned from {@link #getCreationStage()}.  Should the link be refused the consumer
+     * is closed and the failure is available as the cause of any later operation.
+     *
+     * @throws JMSException if the create request could not be issued.
+     */
+    void initAsync() throws JMSException {
+        if (useSharedLink) {
+            init();
+            return;
+        }
+
+        // Tracked from the start so that closing the session closes it while still attaching.
+        session.add(this);
+
+        final CompletableFuture<Void> created;
+        try {
+            created = session.getConnection().createResourceAsync(consumerInfo, null);
+            createRequest = created;
+        } catch (JMSException jmsEx) {
+            session.remove(this);
+            throw jmsEx;
+        }
+
+        creationStage = created.thenCompose(ignored -> {
+            try {
+                if (session.isStarted()) {
+                    start();
+                }
+
+                if (!isPullConsumer() && !closed.get()) {
+                    return session.getConnection().startResourceAsync(consumerInfo);
+                } else {
+                    return CompletableFuture.completedFuture(null);
+                }
+            } catch (JMSException jmsEx) {
+                return CompletableFuture.failedFuture(jmsEx);
+            }
+        }).whenComplete((result, error) -> {
+            if (error != null) {
+                try {
+                    shutdown(error instanceof CompletionException ? error.getCause() : error);
+                } catch (JMSException e) {
+                    LOG.trace("Error shutting down consumer after failed creation: ", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns a stage that completes once the remote peer has attached this consumer, or
+     * exceptionally with the reason the consumer could not be created.  For a consumer that
+     * was created synchronously the returned stage is already complete.
+     *
+     * @return a stage that tracks the creation of this consumer.
+     */
+    public CompletionStage<Void> getCreationStage() {
+        return creationStage.minimalCompletionStage();
+    }
+
+    /**
+     * @return true if this consumer was created asynchronously and the remote has not yet
+     *         answered the create request, failover replays that request itself.
+     */
+    boolean isCreatePending() {
+        return !createRequest.isDone();
+    }
+
     private void startConsumerResource() throws JMSException {
+        if (sharedLink != null) {
+            return;
+        }
+
         try {
             session.getConnection().startResource(consumerInfo);
         } catch (JMSException ex) {
@@ -169,9 +330,11 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
      */
     protected void doClose() throws JMSException {
         shutdown();
-        try {
-            this.connection.destroyResource(consumerInfo);
-        } catch (JmsConnectionFailedException jmsex) {
+        if (sharedLink == null) {
+            try {
+                this.connection.destroyResource(consumerInfo);
+            } catch (JmsConnectionFailedException jmsex) {
+            }
         }
     }
 
@@ -192,6 +355,11 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
             setFailureCause(cause);
             session.remove(this);
             stop(true);
+            completeAsyncReceives(getFailureCause());
+
+            if (sharedLink != null) {
+                connection.leaveSharedConsumerLink(sharedLink, this);
+            }
         }
     }
 
@@ -221,6 +389,44 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
         return copy(ackFromReceive(dequeue(0, connection.isReceiveNoWaitLocalOnly())));
     }
 
+    /**
+     * Requests the next message for this consumer without blocking the calling thread.
+     * <p>
+     * The returned stage is completed from the session's dispatcher once a message is available,
+     * with null if the timeout elapses first or the consumer is closed, or exceptionally if the
+     * consumer fails.  Outstanding requests are completed in the order they were made and a
+     * consumer with a prefetch of zero pulls a message from the remote peer for them.  Messages
+     * are acknowledged as they would be by a call to {@link #receive(long)}.
+     *
+     * @param timeout
+     *      the time in milliseconds to wait for a message, zero or less waits indefinitely.
+     *
+     * @return a stage that completes with the next message, or null if none arrived in time.
+     *
+     * @throws JMSException if the consumer is closed or has a MessageListener set.
+     */
+    public CompletionStage<Message> receiveAsync(long timeout) throws JMSException {
+        checkClosed();
+        checkMessageListener();
+
+        final AsyncReceive receive = new AsyncReceive(timeout);
+
+        asyncReceives.add(receive);
+        if (closed.get()) {
+            completeAsyncReceives(getFailureCause());
+            return receive.minimalCompletionStage();
+        }
+
+        final Executor dispatcher = session.getDispatcherExecutor();
+        if (timeout > 0) {
+            CompletableFuture.delayedExecutor(timeout, TimeUnit.MILLISECONDS, dispatcher).execute(asyncReceiveTask);
+        }
+
+        dispatcher.execute(asyncReceiveTask);
+
+        return receive.minimalCompletionStage();
+    }
+
     /**
      * Reads the next available message for this consumer and returns the body of that message
      * if the type requested matches that of the message.  The amount of time this method blocks
@@ -341,39 +547,182 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
                     continue;
                 }
 
-                TraceableMessage facade = envelope.getMessage().getFacade();
+                if (acceptReceived(envelope)) {
+                    return envelope;
+                }
 
-                if (consumeExpiredMessage(envelope)) {
-                    LOG.trace("{} filtered expired message: {}", getConsumerId(), envelope);
-                    doAckExpired(envelope);
-                    tracer.syncReceive(facade, address, DeliveryOutcome.EXPIRED);
+                if (timeout > 0) {
+                    timeout = Math.max(deadline - System.currentTimeMillis(), 0);
+                }
+                performPullIfRequired(timeout, false);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw JmsExceptionSupport.create(e);
+        }
+    }
 
-                    if (timeout > 0) {
-                        timeout = Math.max(deadline - System.currentTimeMillis(), 0);
-                    }
-                    performPullIfRequired(timeout, false);
-                } else if (session.redeliveryExceeded(envelope)) {
-                    LOG.debug("{} filtered message with excessive redelivery count: {}", getConsumerId(), envelope);
-                    applyRedeliveryPolicyOutcome(envelope);
-                    tracer.syncReceive(facade, address, DeliveryOutcome.REDELIVERIES_EXCEEDED);
+    /*
+     * Applies the checks a message taken from the queue by a receive must pass before it is
+     * handed to the application, consuming it as the failed check requires.  Returns true if
+     * the message is to be delivered, in which case it has been recorded as delivered.
+     */
+    private boolean acceptReceived(JmsInboundMessageDispatch envelope) throws JMSException {
+        TraceableMessage facade = envelope.getMessage().getFacade();
+
+        if (consumeExpiredMessage(envelope)) {
+            LOG.trace("{} filtered expired message: {}", getConsumerId(), envelope);
+            doAckExpired(envelope);
+            tracer.syncReceive(facade, address, DeliveryOutcome.EXPIRED);
+        } else if (session.redeliveryExceeded(envelope)) {
+            LOG.debug("{} filtered message with excessive redelivery count: {}", getConsumerId(), envelope);
+            applyRedeliveryPolicyOutcome(envelope);
+            tracer.syncReceive(facade, address, DeliveryOutcome.REDELIVERIES_EXCEEDED);
+        } else if (isDuplicateRedelivery(envelope)) {
+            LOG.debug("{} filtered redelivered duplicate of an already delivered message: {}", getConsumerId(), envelope);
+            doAckConsumed(envelope);
+            tracer.syncReceive(facade, address, DeliveryOutcome.DUPLICATE_SUPPRESSED);
+        } else if (!matchesLocalSelector(envelope)) {
+            LOG.trace("{} filtered message not matching selector: {}", getConsumerId(), envelope);
+            doAckSelectorMismatch(envelope);
+            tracer.syncReceive(facade, address, DeliveryOutcome.SELECTOR_MISMATCH);
+        } else {
+            if (LOG.isTraceEnabled()) {
+                LOG.trace(getConsumerId() + " received message: " + envelope);
+            }
 
-                    if (timeout > 0) {
-                        timeout = Math.max(deadline - System.currentTimeMillis(), 0);
-                    }
-                    performPullIfRequired(timeout, false);
-                } else {
-                    if (LOG.isTraceEnabled()) {
-                        LOG.trace(getConsumerId() + " received message: " + envelope);
-                    }
+            recordDelivered(envelope);
 
-                    tracer.syncReceive(facade, address, DeliveryOutcome.DELIVERED);
+            tracer.syncReceive(facade, address, DeliveryOutcome.DELIVERED);
 
-                    return envelope;
+            return true;
+        }
+
+        return false;
+    }
+
+    /*
+     * A message the broker redelivers whose ID matches one already handed to the application
+     * and acknowledged or committed was processed before, e.g. its acknowledgement was lost to
+     * a failover, and is suppressed.  Messages redelivered locally by a session recover are
+     * always delivered again.
+     */
+    private boolean isDuplicateRedelivery(JmsInboundMessageDispatch envelope) {
+        if (deliveredMessageIds == null || envelope.isRecovered() || envelope.getRedeliveryCount() == 0) {
+            return false;
+        }
+
+        Object messageId = envelope.getMessage().getFacade().getProviderMessageIdObject();
+        if (messageId == null) {
+            return false;
+        }
+
+        synchronized (deliveredMessageIds) {
+            return deliveredMessageIds.get(messageId) != null;
+        }
+    }
+
+    /*
+     * The ID of a delivered message is only remembered once its acknowledgement or the commit
+     * of its transaction succeeds, until then the message could still be redelivered legitimately.
+     */
+    private void recordDelivered(JmsInboundMessageDispatch envelope) {
+        messagesDelivered.increment();
+
+        if (deliveredMessageIds != null) {
+            Object messageId = envelope.getMessage().getFacade().getProviderMessageIdObject();
+            if (messageId != null) {
+                synchronized (deliveredMessageIds) {
+                    unconfirmedMessageIds.add(messageId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remembers the ID of the given delivered message now that it has been acknowledged.
+     *
+     * @param envelope
+     *      the envelope of the acknowledged message.
+     */
+    void confirmDelivered(JmsInboundMessageDispatch envelope) {
+        if (deliveredMessageIds != null) {
+            Object messageId = envelope.getMessage().getFacade().getProviderMessageIdObject();
+            if (messageId != null) {
+                synchronized (deliveredMessageIds) {
+                    unconfirmedMessageIds.remove(messageId);
+                    deliveredMessageIds.put(messageId, Boolean.TRUE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remembers the IDs of all delivered messages now that the session acknowledge or the
+     * commit of the transaction they were consumed in has succeeded.
+     */
+    void confirmDelivered() {
+        if (deliveredMessageIds != null) {
+            synchronized (deliveredMessageIds) {
+                for (Object messageId : unconfirmedMessageIds) {
+                    deliveredMessageIds.put(messageId, Boolean.TRUE);
+                }
+                unconfirmedMessageIds.clear();
+            }
+        }
+    }
+
+    /**
+     * Forgets the ID of the given delivered message which was not acknowledged as consumed.
+     *
+     * @param envelope
+     *      the envelope of the message.
+     */
+    void forgetDelivered(JmsInboundMessageDispatch envelope) {
+        if (deliveredMessageIds != null) {
+            Object messageId = envelope.getMessage().getFacade().getProviderMessageIdObject();
+            if (messageId != null) {
+                synchronized (deliveredMessageIds) {
+                    unconfirmedMessageIds.remove(messageId);
                 }
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw JmsExceptionSupport.create(e);
+        }
+    }
+
+    /**
+     * Forgets the IDs of all delivered messages that were not acknowledged as consumed.
+     */
+    void forgetDelivered() {
+        if (deliveredMessageIds != null) {
+            synchronized (deliveredMessageIds) {
+                unconfirmedMessageIds.clear();
+            }
+        }
+    }
+
+    /**
+     * Forgets all delivered message IDs once the transaction of the session is rolled back,
+     * the rolled back messages are expected to be redelivered so must not be suppressed.
+     */
+    void clearDelivered() {
+        if (deliveredMessageIds != null) {
+            synchronized (deliveredMessageIds) {
+                unconfirmedMessageIds.clear();
+                deliveredMessageIds.clear();
+            }
+        }
+    }
+
+    private boolean matchesLocalSelector(JmsInboundMessageDispatch envelope) {
+        if (localSelector == null) {
+            return true;
+        }
+
+        try {
+            return localSelector.matches(new JmsMessageFilterable(envelope.getMessage()));
+        } catch (FilterException e) {
+            LOG.debug("{} failed to evaluate selector against message: {}", getConsumerId(), e.getMessage());
+            return false;
         }
     }
 
@@ -442,6 +791,10 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
     private JmsInboundMessageDispatch doAckConsumed(final JmsInboundMessageDispatch envelope) throws JMSException {
         try {
             session.acknowledge(envelope, ACK_TYPE.ACCEPTED);
+            // A transacted acknowledge is confirmed once the transaction commits.
+            if (!session.isTransacted()) {
+                confirmDelivered(envelope);
+            }
         } catch (JMSException ex) {
             signalExceptionListener(ex);
             throw ex;
@@ -478,6 +831,15 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
         }
     }
 
+    private void doAckSelectorMismatch(final JmsInboundMessageDispatch envelope) throws JMSException {
+        try {
+            session.acknowledge(envelope, localSelectorOutcome);
+        } catch (JMSException ex) {
+            signalExceptionListener(ex);
+            throw ex;
+        }
+    }
+
     private void doAckReleased(final JmsInboundMessageDispatch envelope) throws JMSException {
         try {
             session.acknowledge(envelope, ACK_TYPE.RELEASED);
@@ -513,8 +875,10 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
             }
 
             if (session.isStarted() && messageQueue.isRunning()) {
-                if (messageListener != null) {
+                if (isReadyForDelivery()) {
                     session.getDispatcherExecutor().execute(deliveryTask);
+                } else if (!asyncReceives.isEmpty()) {
+                    session.getDispatcherExecutor().execute(asyncReceiveTask);
                 } else if (availableListener != null) {
                     session.getDispatcherExecutor().execute(new Runnable() {
                         @Override
@@ -537,6 +901,10 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
             if (!messageQueue.isRunning()) {
                 this.messageQueue.start();
                 drainMessageQueueToListener();
+
+                if (!asyncReceives.isEmpty()) {
+                    session.getDispatcherExecutor().execute(asyncReceiveTask);
+                }
             }
         } finally {
             lock.unlock();
@@ -622,7 +990,7 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
     @Override
     public String getMessageSelector() throws JMSException {
         checkClosed();
-        return this.consumerInfo.getSelector();
+        return messageSelector;
     }
 
     /**
@@ -645,6 +1013,10 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
         return this.consumerInfo.getDestination().equals(destination);
     }
 
+    JmsMetrics getMetrics() {
+        return consumerInfo.getMetrics();
+    }
+
     protected int getMessageQueueSize() {
         return this.messageQueue.size();
     }
@@ -669,6 +1041,32 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
         return getPrefetchSize() == 0;
     }
 
+    /**
+     * @return true if the link credit of this consumer is granted only on the demand of the application.
+     */
+    protected boolean isDemandDriven() {
+        return false;
+    }
+
+    /**
+     * @return true if queued messages can currently be dispatched to the consumer's listener.
+     */
+    protected boolean isReadyForDelivery() {
+        return messageListener != null;
+    }
+
+    /**
+     * Called once a message taken from the queue for asynchronous delivery has been processed
+     * so that a consumer without a prefetch window can request its next message.
+     *
+     * @throws JMSException if an error occurs while granting the consumer more credit.
+     */
+    protected void replenishCredit() throws JMSException {
+        if (isPullConsumer()) {
+            startConsumerResource();
+        }
+    }
+
     @Override
     public void setAvailableListener(JmsMessageAvailableListener availableListener) {
         this.availableListener = availableListener;
@@ -684,10 +1082,44 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
     }
 
     protected void onConnectionRecovery(Provider provider) throws Exception {
-        if (!consumerInfo.isClosed()) {
-            ProviderFuture request = provider.newProviderFuture();
+        awaitConnectionRecovery(beginConnectionRecovery(provider));
+    }
+
+    /**
+     * Issues the request to recreate this consumer on the given Provider without waiting
+     * for the remote to respond.
+     *
+     * @param provider
+     *      the newly connected Provider instance.
+     *
+     * @return the pending recreate request, or null if the consumer is closed.
+     */
+    protected ProviderFuture beginConnectionRecovery(Provider provider) {
+        ProviderFuture request = null;
+        if (!consumerInfo.isClosed() && sharedLink == null) {
+            request = provider.newProviderFuture();
             try {
                 provider.create(consumerInfo, request);
+            } catch (ProviderException poe) {
+                request.onFailure(poe);
+            }
+        }
+
+        return request;
+    }
+
+    /**
+     * Awaits the outcome of a recreate request previously issued by
+     * {@link #beginConnectionRecovery(Provider)}.
+     *
+     * @param request
+     *      the pending recreate request, may be null if none was issued.
+     *
+     * @throws Exception if the consumer could not be recreated and it should fail the recovery.
+     */
+    protected void awaitConnectionRecovery(ProviderFuture request) throws Exception {
+        if (request != null) {
+            try {
                 request.sync();
             } catch (ProviderException poe) {
                 if (connection.isCloseLinksThatFailOnReconnect()) {
@@ -700,13 +1132,33 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
     }
 
     protected void onConnectionRecovered(Provider provider) throws Exception {
-        if (!consumerInfo.isClosed()) {
-            ProviderFuture request = provider.newProviderFuture();
-            provider.start(consumerInfo, request);
+        ProviderFuture request = beginConnectionRecovered(provider);
+        if (request != null) {
             request.sync();
         }
     }
 
+    /**
+     * Issues the request to restart this consumer on the given Provider without waiting
+     * for it to complete.
+     *
+     * @param provider
+     *      the newly connected Provider instance.
+     *
+     * @return the pending start request, or null if the consumer is closed.
+     *
+     * @throws ProviderException if the start request could not be issued.
+     */
+    protected ProviderFuture beginConnectionRecovered(Provider provider) throws ProviderException {
+        ProviderFuture request = null;
+        if (!consumerInfo.isClosed() && sharedLink == null) {
+            request = provider.newProviderFuture();
+            provider.start(consumerInfo, request);
+        }
+
+        return request;
+    }
+
     protected void onConnectionRestored() {
     }
 
@@ -728,7 +1180,7 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
      * @return true if a pull was performed, false if it was not.
      */
     protected boolean performPullIfRequired(long timeout, boolean treatAsPullConsumer) throws JMSException {
-        if ((isPullConsumer() || treatAsPullConsumer) && messageQueue.isRunning() && messageQueue.isEmpty()) {
+        if (sharedLink == null && (isPullConsumer() || treatAsPullConsumer) && messageQueue.isRunning() && messageQueue.isEmpty()) {
             connection.pull(getConsumerId(), timeout);
             return true;
         }
@@ -755,14 +1207,14 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
         }
     }
 
-    private void drainMessageQueueToListener() {
-        if (messageListener != null && session.isStarted() && messageQueue.isRunning()) {
+    void drainMessageQueueToListener() {
+        if (isReadyForDelivery() && session.isStarted() && messageQueue.isRunning()) {
             session.getDispatcherExecutor().execute(new BoundedMessageDeliverTask(messageQueue.size()));
         }
     }
 
     private boolean deliverNextPending() {
-        if (session.isStarted() && messageQueue.isRunning() && messageListener != null) {
+        if (session.isStarted() && messageQueue.isRunning() && isReadyForDelivery()) {
             dispatchLock.lock();
             try {
                 JmsInboundMessageDispatch envelope = messageQueue.dequeueNoWait();
@@ -782,6 +1234,16 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
                     applyRedeliveryPolicyOutcome(envelope);
                     tracer.asyncDeliveryInit(facade, address);
                     tracer.asyncDeliveryComplete(facade, DeliveryOutcome.REDELIVERIES_EXCEEDED, null);
+                } else if (isDuplicateRedelivery(envelope)) {
+                    LOG.trace("{} filtered redelivered duplicate of an already delivered message: {}", getConsumerId(), envelope);
+                    doAckConsumed(envelope);
+                    tracer.asyncDeliveryInit(facade, address);
+                    tracer.asyncDeliveryComplete(facade, DeliveryOutcome.DUPLICATE_SUPPRESSED, null);
+                } else if (!matchesLocalSelector(envelope)) {
+                    LOG.trace("{} filtered message not matching selector: {}", getConsumerId(), envelope);
+                    doAckSelectorMismatch(envelope);
+                    tracer.asyncDeliveryInit(facade, address);
+                    tracer.asyncDeliveryComplete(facade, DeliveryOutcome.SELECTOR_MISMATCH, null);
                 } else {
                     final JmsMessage copy;
 
@@ -794,6 +1256,7 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
                         copy = copy(ackFromReceive(envelope));
                     }
                     session.clearSessionRecovered();
+                    recordDelivered(envelope);
 
                     try {
                         tracer.asyncDeliveryInit(facade, address);
@@ -812,6 +1275,7 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
                         if (!deliveryFailed) {
                             doAckConsumed(envelope);
                         } else {
+                            forgetDelivered(envelope);
                             doAckReleased(envelope);
                         }
                     }
@@ -825,7 +1289,7 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
 
                 if (isPullConsumer()) {
                     try {
-                        startConsumerResource();
+                        replenishCredit();
                     } catch (JMSException e) {
                         LOG.error("Exception during credit replenishment for consumer listener {}", getConsumerId(), e);
                     }
@@ -836,6 +1300,171 @@ public class JmsMessageConsumer implements AutoCloseable, MessageConsumer, JmsMe
         return !messageQueue.isEmpty();
     }
 
+    private void processAsyncReceives() {
+        if (asyncReceives.isEmpty()) {
+            return;
+        }
+
+        // The receives are completed once the lock is released so that any continuation the
+        // application chained to one does not run while the dispatch lock is held.
+        final List<Runnable> completions = new ArrayList<>();
+        JMSException failure = null;
+
+        dispatchLock.lock();
+        try {
+            while (session.isStarted() && messageQueue.isRunning() && !asyncReceives.isEmpty()) {
+                final JmsInboundMessageDispatch envelope = dequeueAvailable();
+                if (envelope == null) {
+                    break;
+                }
+
+                final AsyncReceive receive = asyncReceives.poll();
+                if (receive == null) {
+                    // Completed concurrently by the consumer being closed.
+                    messageQueue.enqueueFirst(envelope);
+                    break;
+                }
+
+                try {
+                    final JmsMessage message = copy(ackFromReceive(envelope));
+                    completions.add(() -> receive.complete(message));
+                } catch (JMSException ex) {
+                    completions.add(() -> receive.completeExceptionally(ex));
+                }
+            }
+
+            expireAsyncReceives(completions);
+            pullForAsyncReceives();
+        } catch (JMSException ex) {
+            failure = ex;
+        } finally {
+            dispatchLock.unlock();
+        }
+
+        completions.forEach(Runnable::run);
+
+        if (failure != null) {
+            failNextAsyncReceive(failure);
+        }
+    }
+
+    /*
+     * Returns the next message that can be handed to an asynchronous receive without waiting,
+     * consuming any that are filtered along the way as a synchronous receive would.
+     */
+    private JmsInboundMessageDispatch dequeueAvailable() throws JMSException {
+        while (true) {
+            final JmsInboundMessageDispatch envelope = messageQueue.dequeueNoWait();
+
+            if (getFailureCause() != null) {
+                LOG.debug("{} receive failed: {}", getConsumerId(), getFailureCause().getMessage());
+                throw JmsExceptionSupport.create(getFailureCause());
+            }
+
+            if (envelope == null) {
+                return null;
+            }
+
+            if (acceptReceived(envelope)) {
+                return envelope;
+            }
+        }
+    }
+
+    private void expireAsyncReceives(List<Runnable> completions) {
+        final long now = System.nanoTime();
+
+        for (AsyncReceive receive : asyncReceives) {
+            if (receive.isExpired(now) && asyncReceives.remove(receive)) {
+                completions.add(() -> receive.complete(null));
+            }
+        }
+    }
+
+    /*
+     * A consumer without prefetch has a single pull outstanding on behalf of all the waiting
+     * receives, lasting until the earliest of their timeouts.  Once the pull completes the
+     * waiting receives are processed again and another pull issued if any remain.
+     */
+    private void pullForAsyncReceives() throws JMSException {
+        if (sharedLink != null || !isPullConsumer() || asyncReceives.isEmpty() ||
+            !session.isStarted() || !messageQueue.isRunning() || !messageQueue.isEmpty()) {
+            return;
+        }
+
+        if (asyncPullPending.compareAndSet(false, true)) {
+            final CompletableFuture<Void> pull;
+            try {
+                pull = connection.pullAsync(getConsumerId(), nextAsyncReceiveTimeout());
+            } catch (JMSException ex) {
+                asyncPullPending.set(false);
+                throw ex;
+            }
+
+            pull.whenComplete((ignored, error) -> {
+                asyncPullPending.set(false);
+                if (error != null) {
+                    LOG.debug("{} pull for asynchronous receive failed: {}", getConsumerId(), error.getMessage());
+                    failNextAsyncReceive(error);
+                } else {
+                    session.getDispatcherExecutor().execute(asyncReceiveTask);
+                }
+            });
+        }
+    }
+
+    private long nextAsyncReceiveTimeout() {
+        final long now = System.nanoTime();
+        long timeout = -1;
+
+        for (AsyncReceive receive : asyncReceives) {
+            if (receive.timed) {
+                final long remaining = Math.max(1, TimeUnit.NANOSECONDS.toMillis(receive.deadline - now));
+                timeout = timeout < 0 ? remaining : Math.min(timeout, remaining);
+            }
+        }
+
+        return timeout;
+    }
+
+    private void failNextAsyncReceive(Throwable error) {
+        final AsyncReceive receive = asyncReceives.poll();
+        if (receive != null) {
+            receive.completeExceptionally(error);
+        }
+
+        // Those that remain are served by a later pass, which may find the error resolved.
+        if (!asyncReceives.isEmpty()) {
+            session.getDispatcherExecutor().execute(asyncReceiveTask);
+        }
+    }
+
+    private void completeAsyncReceives(Throwable cause) {
+        AsyncReceive receive;
+        while ((receive = asyncReceives.poll()) != null) {
+            if (cause == null) {
+                receive.complete(null);
+            } else {
+                receive.completeExceptionally(cause instanceof JMSException ? cause : JmsExceptionSupport.create(cause));
+            }
+        }
+    }
+
+    private static final class AsyncReceive extends CompletableFuture<Message> {
+
+        private final boolean timed;
+        private final long deadline;
+
+        AsyncReceive(long timeout) {
+            this.timed = timeout > 0;
+            this.deadline = timed ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout) : 0;
+        }
+
+        boolean isExpired(long now) {
+            return timed && deadline - now <= 0;
+        }
+    }
+
     private final class BoundedMessageDeliverTask implements Runnable {
 
         private final int deliveryCount;
@@ -16,6 +16,8 @@
  */
 package org.apache.qpid.jms;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
@@ -34,16 +36,23 @@ import org.apache.qpid.jms.message.JmsMessageIDBuilder;
 import org.apache.qpid.jms.meta.JmsProducerId;
 import org.apache.qpid.jms.meta.JmsProducerInfo;
 import org.apache.qpid.jms.meta.JmsResource.ResourceState;
+import org.apache.qpid.jms.metrics.JmsCounter;
+import org.apache.qpid.jms.metrics.JmsHistogram;
+import org.apache.qpid.jms.metrics.JmsMetrics;
 import org.apache.qpid.jms.provider.Provider;
 import org.apache.qpid.jms.provider.ProviderException;
 import org.apache.qpid.jms.provider.ProviderFuture;
 import org.apache.qpid.jms.provider.ProviderSynchronization;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Implementation of a JMS MessageProducer
  */
 public class JmsMessageProducer implements AutoCloseable, MessageProducer {
 
+    private static final Logger LOG = LoggerFactory.getLogger(JmsMessageProducer.class);
+
     protected final JmsSession session;
     protected final JmsConnection connection;
     protected JmsProducerInfo producerInfo;
@@ -57,6 +66,10 @@ public class JmsMessageProducer implements AutoCloseable, MessageProducer {
     protected boolean disableTimestamp;
     protected final AtomicLong messageSequence = new AtomicLong();
     protected final AtomicReference<Throwable> failureCause = new AtomicReference<>();
+    protected volatile CompletableFuture<Void> creationStage = CompletableFuture.completedFuture(null);
+    private volatile CompletableFuture<Void> createRequest = CompletableFuture.completedFuture(null);
+    protected final JmsCounter messagesSent;
+    protected final JmsHistogram syncSendTime;
 
     protected JmsMessageProducer(JmsProducerId producerId, JmsSession session, JmsDestination destination) throws JMSException {
         this.session = session;
@@ -69,7 +82,13 @@ public class JmsMessageProducer implements AutoCloseable, MessageProducer {
         this.producerInfo = new JmsProducerInfo(producerId, messageIDBuilder);
         this.producerInfo.setDestination(destination);
         this.producerInfo.setPresettle(session.getPresettlePolicy().isProducerPresttled(session, destination));
+        this.producerInfo.setMetrics(connection.createMetrics(JmsMetrics.PRODUCER, producerId));
+
+        this.messagesSent = producerInfo.getMetrics().counter(JmsMetrics.MESSAGES_SENT);
+        this.syncSendTime = producerInfo.getMetrics().histogram(JmsMetrics.SYNC_SEND_TIME);
+    }
 
+    void init() throws JMSException {
         session.getConnection().createResource(producerInfo, new ProviderSynchronization() {
 
             @Override
@@ -83,6 +102,55 @@ public class JmsMessageProducer implements AutoCloseable, MessageProducer {
         });
     }
 
+    /**
+     * Initializes the producer without waiting for the remote peer to attach its link, the
+     * producer may be used immediately and any message sent before the link is attached is
+     * held until the remote grants credit.  The outcome is reported through the stage returned
+     * from {@link #getCreationStage()}, should the link be refused the producer is closed and
+     * any held sends are failed.
+     *
+     * @throws JMSException if the create request could not be issued.
+     */
+    void initAsync() throws JMSException {
+        // Tracked from the start so that closing the session closes it while still attaching.
+        session.add(this);
+
+        try {
+            createRequest = session.getConnection().createResourceAsync(producerInfo, null);
+            creationStage = createRequest.whenComplete((result, error) -> {
+                if (error != null) {
+                    try {
+                        shutdown(error);
+                    } catch (JMSException e) {
+                        LOG.trace("Error shutting down producer after failed creation: ", e);
+                    }
+                }
+            });
+        } catch (JMSException jmsEx) {
+            session.remove(this);
+            throw jmsEx;
+        }
+    }
+
+    /**
+     * Returns a stage that completes once the remote peer has attached this producer, or
+     * exceptionally with the reason the producer could not be created.  For a producer that
+     * was created synchronously the returned stage is already complete.
+     *
+     * @return a stage that tracks the creation of this producer.
+     */
+    public CompletionStage<Void> getCreationStage() {
+        return creationStage.minimalCompletionStage();
+    }
+
+    /**
+     * @return true if this producer was created asynchronously and the remote has not yet
+     *         answered the create request, failover replays that request itself.
+     */
+    boolean isCreatePending() {
+        return !createRequest.isDone();
+    }
+
     @Override
     public void close() throws JMSException {
         if (!closed.get()) {
@@ -337,6 +405,10 @@ public class JmsMessageProducer implements AutoCloseable, MessageProducer {
         return anonymousProducer;
     }
 
+    JmsMetrics getMetrics() {
+        return producerInfo.getMetrics();
+    }
+
     protected JmsMessageIDBuilder getMessageIDBuilder() {
         return producerInfo.getMessageIDBuilder();
     }
@@ -361,10 +433,44 @@ public class JmsMessageProducer implements AutoCloseable, MessageProducer {
     }
 
     protected void onConnectionRecovery(Provider provider) throws Exception {
+        awaitConnectionRecovery(beginConnectionRecovery(provider));
+    }
+
+    /**
+     * Issues the request to recreate this producer on the given Provider without waiting
+     * for the remote to respond.
+     *
+     * @param provider
+     *      the newly connected Provider instance.
+     *
+     * @return the pending recreate request, or null if the producer is closed.
+     */
+    protected ProviderFuture beginConnectionRecovery(Provider provider) {
+        ProviderFuture request = null;
         if (!producerInfo.isClosed()) {
-            ProviderFuture request = provider.newProviderFuture();
+            request = provider.newProviderFuture();
             try {
                 provider.create(producerInfo, request);
+            } catch (ProviderException poe) {
+                request.onFailure(poe);
+            }
+        }
+
+        return request;
+    }
+
+    /**
+     * Awaits the outcome of a recreate request previously issued by
+     * {@link #beginConnectionRecovery(Provider)}.
+     *
+     * @param request
+     *      the pending recreate request, may be null if none was issued.
+     *
+     * @throws Exception if the producer could not be recreated and it should fail the recovery.
+     */
+    protected void awaitConnectionRecovery(ProviderFuture request) throws Exception {
+        if (request != null) {
+            try {
                 request.sync();
             } catch (ProviderException poe) {
                 if (connection.isCloseLinksThatFailOnReconnect()) {
@@ -0,0 +1,327 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageListener;
+
+import org.apache.qpid.jms.exceptions.JmsExceptionSupport;
+import org.apache.qpid.jms.message.JmsInboundMessageDispatch;
+import org.apache.qpid.jms.meta.JmsConsumerId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link Flow.Publisher} of the messages sent to a destination.
+ * <p>
+ * The publisher is backed by a consumer that is created without any prefetch, the demand
+ * signaled through the subscription is granted to the remote peer as link credit so that no
+ * more messages are sent than the subscriber has requested.  Messages are delivered to the
+ * subscriber from the session's dispatcher in the same way they would be delivered to a
+ * MessageListener.
+ * <p>
+ * Messages are acknowledged according to the acknowledgement mode of the session, in the
+ * auto acknowledge modes each message is acknowledged once the subscriber's onNext method
+ * returns.  For explicit acknowledgement the session should be created in client acknowledge
+ * mode, where {@link Message#acknowledge()} acknowledges all messages delivered so far, or in
+ * individual acknowledge mode where it acknowledges only the message it is called on.
+ * <p>
+ * A publisher supports a single subscriber, cancelling the subscription closes the consumer
+ * and the subscriber is completed when the consumer or its session is closed.
+ */
+public class JmsMessagePublisher implements Flow.Publisher<Message>, AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JmsMessagePublisher.class);
+
+    private final DemandMessageConsumer consumer;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    JmsMessagePublisher(JmsConsumerId consumerId, JmsSession session, JmsDestination destination, String selector) throws JMSException {
+        consumer = new DemandMessageConsumer(consumerId, session, destination, selector);
+        consumer.init();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Message> subscriber) {
+        Objects.requireNonNull(subscriber, "Subscriber cannot be null");
+
+        if (subscribed.compareAndSet(false, true)) {
+            consumer.subscribe(subscriber);
+        } else {
+            subscriber.onSubscribe(EmptySubscription.INSTANCE);
+            subscriber.onError(new IllegalStateException("The publisher only supports a single subscriber"));
+        }
+    }
+
+    /**
+     * @return the destination the published messages are consumed from.
+     */
+    public JmsDestination getDestination() {
+        return consumer.getDestination();
+    }
+
+    /**
+     * @return the number of messages requested by the subscriber that have not yet been delivered.
+     */
+    public long getDemand() {
+        return consumer.getDemand();
+    }
+
+    /**
+     * Closes the consumer backing this publisher, the subscriber is completed.
+     *
+     * @throws JMSException if an error occurs while closing the consumer.
+     */
+    @Override
+    public void close() throws JMSException {
+        consumer.close();
+    }
+
+    //----- Internal implementation ------------------------------------------//
+
+    private static final class EmptySubscription implements Flow.Subscription {
+
+        private static final EmptySubscription INSTANCE = new EmptySubscription();
+
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    }
+
+    /*
+     * Consumer whose link credit follows the outstanding demand of its subscriber, capped by
+     * the prefetch that would otherwise be configured for the destination.
+     */
+    private static final class DemandMessageConsumer extends JmsMessageConsumer implements Flow.Subscription, MessageListener {
+
+        private final Object creditLock = new Object();
+        private final int creditWindow;
+        private final AtomicBoolean terminated = new AtomicBoolean();
+        private final Runnable replenishTask = this::replenishQuietly;
+
+        private volatile Flow.Subscriber<? super Message> subscriber;
+        private volatile boolean cancelled;
+
+        // Guarded by creditLock
+        private long demand;
+        private int credit;
+
+        DemandMessageConsumer(JmsConsumerId consumerId, JmsSession session, JmsDestination destination, String selector) throws JMSException {
+            super(consumerId, session, destination, selector, false);
+
+            creditWindow = Math.max(1, session.getPrefetchPolicy().getConfiguredPrefetch(session, destination, false, false));
+        }
+
+        void subscribe(Flow.Subscriber<? super Message> subscriber) {
+            this.subscriber = subscriber;
+
+            // Nothing is dispatched to the listener until the subscriber requests it.
+            messageListener = this;
+
+            subscriber.onSubscribe(this);
+
+            if (closed.get()) {
+                signalTerminated(getFailureCause());
+            }
+        }
+
+        long getDemand() {
+            synchronized (creditLock) {
+                return demand;
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                if (terminated.compareAndSet(false, true)) {
+                    cancel();
+                    signal(() -> subscriber.onError(new IllegalArgumentException("Requested demand must be positive: " + n)));
+                }
+                return;
+            }
+
+            synchronized (creditLock) {
+                demand = Long.MAX_VALUE - demand < n ? Long.MAX_VALUE : demand + n;
+            }
+
+            // Credit is granted from the dispatcher so that a subscriber is never blocked by it.
+            if (!closed.get()) {
+                session.getDispatcherExecutor().execute(replenishTask);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                try {
+                    close();
+                } catch (JMSException ex) {
+                    LOG.debug("Error closing consumer {} on cancellation of its subscription", getConsumerId(), ex);
+                }
+            }
+        }
+
+        @Override
+        public void onMessage(Message message) {
+            synchronized (creditLock) {
+                if (demand != Long.MAX_VALUE) {
+                    demand--;
+                }
+            }
+
+            subscriber.onNext(message);
+        }
+
+        @Override
+        public void onInboundMessage(JmsInboundMessageDispatch envelope) {
+            super.onInboundMessage(envelope);
+
+            // Messages redelivered locally by a recover did not use any of the link credit.
+            if (!envelope.isRecovered()) {
+                synchronized (creditLock) {
+                    if (credit > 0) {
+                        credit--;
+                    }
+                }
+            }
+        }
+
+        @Override
+        protected boolean isDemandDriven() {
+            return true;
+        }
+
+        @Override
+        protected boolean isReadyForDelivery() {
+            synchronized (creditLock) {
+                return messageListener != null && demand > 0 && !terminated.get();
+            }
+        }
+
+        @Override
+        protected void replenishCredit() throws JMSException {
+            if (closed.get()) {
+                return;
+            }
+
+            final int grant;
+
+            synchronized (creditLock) {
+                final int target = (int) Math.min(demand, creditWindow);
+                final int outstanding = credit + messageQueue.size();
+
+                // Only top up once half of the credit has been used to avoid a flow per message.
+                if (target <= outstanding || outstanding > target / 2) {
+                    return;
+                }
+
+                grant = target - outstanding;
+                credit += grant;
+            }
+
+            connection.grantCredit(getConsumerId(), grant);
+        }
+
+        @Override
+        void resumeAfterRollback() throws JMSException {
+            // The link credit was drained when the consumer was suspended.
+            synchronized (creditLock) {
+                credit = 0;
+            }
+
+            super.resumeAfterRollback();
+            replenishCredit();
+        }
+
+        @Override
+        protected void onConnectionInterrupted() {
+            super.onConnectionInterrupted();
+
+            synchronized (creditLock) {
+                credit = 0;
+            }
+        }
+
+        @Override
+        protected void onConnectionRestored() {
+            super.onConnectionRestored();
+
+            // Grants made while offline are not replayed, the whole demand is granted again here.
+            synchronized (creditLock) {
+                credit = 0;
+            }
+
+            session.getDispatcherExecutor().execute(replenishTask);
+        }
+
+        @Override
+        protected void shutdown(Throwable cause) throws JMSException {
+            super.shutdown(cause);
+
+            if (subscriber != null) {
+                signalTerminated(cause);
+            }
+        }
+
+        private void replenishQuietly() {
+            try {
+                replenishCredit();
+                drainMessageQueueToListener();
+            } catch (JMSException ex) {
+                LOG.debug("Failed to grant credit for consumer {}", getConsumerId(), ex);
+                if (terminated.compareAndSet(false, true)) {
+                    cancel();
+                    signal(() -> subscriber.onError(ex));
+                }
+            }
+        }
+
+        private void signalTerminated(Throwable cause) {
+            if (terminated.compareAndSet(false, true) && !cancelled) {
+                if (cause == null) {
+                    signal(() -> subscriber.onComplete());
+                } else {
+                    signal(() -> subscriber.onError(cause instanceof JMSException ? cause : JmsExceptionSupport.create(cause)));
+                }
+            }
+        }
+
+        /*
+         * Messages are handed to onNext while the dispatch lock is held, taking it for the terminal
+         * signals keeps those raised from other threads from overlapping a delivery in progress.
+         */
+        private void signal(Runnable signal) {
+            dispatchLock.lock();
+            try {
+                signal.run();
+            } finally {
+                dispatchLock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.jms.CompletionListener;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link Flow.Subscriber} that sends each message it is given to a destination.
+ * <p>
+ * The sink sends through a producer of its own and requests the next message from upstream
+ * only once that producer has credit from the remote peer to send it and fewer than the
+ * configured number of sends are awaiting their outcome, a send is therefore never held
+ * waiting for credit on the thread that delivers the message to the sink.  Each message is
+ * sent asynchronously with its outcome reported through the session's CompletionListener
+ * handling.
+ * <p>
+ * The stage returned from {@link #getCompletion()} completes once upstream has completed and
+ * every message has been sent, or exceptionally with the first failure.  The upstream
+ * subscription is cancelled on a failed send and the sink's producer is closed once the sink
+ * has terminated.
+ */
+public class JmsMessageSink implements Flow.Subscriber<Message>, AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JmsMessageSink.class);
+
+    private final JmsConnection connection;
+    private final JmsDestination destination;
+    private final JmsMessageProducer producer;
+    private final int maxInFlight;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private final AtomicBoolean terminated = new AtomicBoolean();
+    private final CompletionListener sendCompletion = new SendCompletion();
+
+    private volatile Flow.Subscription subscription;
+
+    // Guarded by this
+    private int inFlight;
+    private boolean requested;
+    private boolean awaitingCredit;
+    private boolean upstreamCompleted;
+
+    JmsMessageSink(JmsSession session, JmsDestination destination, int maxInFlight) throws JMSException {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("The number of sends in flight must be positive: " + maxInFlight);
+        }
+
+        this.connection = session.getConnection();
+        this.destination = destination;
+        this.producer = (JmsMessageProducer) session.createProducer(destination);
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription, "Subscription cannot be null");
+
+        if (this.subscription != null || terminated.get()) {
+            subscription.cancel();
+            return;
+        }
+
+        this.subscription = subscription;
+
+        requestNext();
+    }
+
+    @Override
+    public void onNext(Message message) {
+        Objects.requireNonNull(message, "Message cannot be null");
+
+        synchronized (this) {
+            requested = false;
+            inFlight++;
+        }
+
+        try {
+            producer.send(message, sendCompletion);
+        } catch (JMSException ex) {
+            synchronized (this) {
+                inFlight--;
+            }
+
+            failed(ex);
+            return;
+        }
+
+        requestNext();
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        Objects.requireNonNull(error, "Error cannot be null");
+
+        synchronized (this) {
+            upstreamCompleted = true;
+        }
+
+        failed(error);
+    }
+
+    @Override
+    public void onComplete() {
+        final boolean done;
+
+        synchronized (this) {
+            upstreamCompleted = true;
+            done = inFlight == 0;
+        }
+
+        if (done) {
+            completed();
+        }
+    }
+
+    /**
+     * @return a stage that completes once all messages have been sent, or on the first failure.
+     */
+    public CompletionStage<Void> getCompletion() {
+        return completion.minimalCompletionStage();
+    }
+
+    /**
+     * @return the destination the messages are sent to.
+     */
+    public JmsDestination getDestination() {
+        return destination;
+    }
+
+    /**
+     * Cancels the upstream subscription and closes the sink's producer, sends that are still
+     * awaiting an outcome are completed before the producer closes.  The completion stage of
+     * the sink completes once those sends have, or exceptionally if any of them failed.
+     *
+     * @throws JMSException if an error occurs while closing the producer.
+     */
+    @Override
+    public void close() throws JMSException {
+        cancelUpstream();
+
+        final boolean done;
+
+        synchronized (this) {
+            done = inFlight == 0;
+        }
+
+        if (done) {
+            completed();
+        }
+
+        producer.close();
+    }
+
+    //----- Internal implementation ------------------------------------------//
+
+    private void requestNext() {
+        synchronized (this) {
+            if (terminated.get() || upstreamCompleted || requested || awaitingCredit || inFlight >= maxInFlight) {
+                return;
+            }
+
+            awaitingCredit = true;
+        }
+
+        final CompletableFuture<Void> credit;
+        try {
+            credit = connection.awaitCredit(producer.getProducerId());
+        } catch (JMSException ex) {
+            failed(ex);
+            return;
+        }
+
+        credit.whenComplete((ignored, error) -> {
+            final boolean request;
+
+            synchronized (this) {
+                awaitingCredit = false;
+                requested = request = error == null && !upstreamCompleted && !terminated.get();
+            }
+
+            if (error != null) {
+                failed(error);
+            } else if (request) {
+                subscription.request(1);
+            }
+        });
+    }
+
+    private void failed(Throwable error) {
+        if (terminated.compareAndSet(false, true)) {
+            LOG.debug("Message sink to {} failed: {}", producer.getProducerId(), error.getMessage());
+            cancelUpstream();
+            completion.completeExceptionally(error);
+            closeProducer();
+        }
+    }
+
+    private void completed() {
+        if (terminated.compareAndSet(false, true)) {
+            completion.complete(null);
+            closeProducer();
+        }
+    }
+
+    private void cancelUpstream() {
+        final boolean cancel;
+
+        synchronized (this) {
+            cancel = !upstreamCompleted;
+            upstreamCompleted = true;
+        }
+
+        final Flow.Subscription current = subscription;
+        if (cancel && current != null) {
+            current.cancel();
+        }
+    }
+
+    private void closeProducer() {
+        // The producer cannot be closed from within a CompletionListener callback.
+        connection.executeAsync(() -> {
+            try {
+                producer.close();
+            } catch (JMSException ex) {
+                LOG.debug("Error closing producer {} of message sink", producer.getProducerId(), ex);
+            }
+        });
+    }
+
+    private final class SendCompletion implements CompletionListener {
+
+        @Override
+        public void onCompletion(Message message) {
+            final boolean done;
+
+            synchronized (JmsMessageSink.this) {
+                inFlight--;
+                done = upstreamCompleted && inFlight == 0;
+            }
+
+            if (done) {
+                completed();
+            } else {
+                requestNext();
+            }
+        }
+
+        @Override
+        public void onException(Message message, Exception exception) {
+            synchronized (JmsMessageSink.this) {
+                inFlight--;
+            }
+
+            failed(exception);
+        }
+    }
+}
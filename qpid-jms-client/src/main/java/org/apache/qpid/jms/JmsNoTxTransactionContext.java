@@ -16,6 +16,8 @@
  */
 package org.apache.qpid.jms;
 
+import java.util.concurrent.CompletableFuture;
+
 import jakarta.jms.JMSException;
 
 import org.apache.qpid.jms.message.JmsInboundMessageDispatch;
@@ -63,6 +65,16 @@ public class JmsNoTxTransactionContext implements JmsTransactionContext {
     public void commit() throws JMSException {
     }
 
+    @Override
+    public CompletableFuture<Void> commitAsync() throws JMSException {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> rollbackAsync() throws JMSException {
+        return CompletableFuture.completedFuture(null);
+    }
+
     @Override
     public JmsTransactionId getTransactionId() {
         return null;
@@ -19,6 +19,13 @@ package org.apache.qpid.jms;
 import static org.apache.qpid.jms.message.JmsMessagePropertySupport.checkPropertyNameIsValid;
 import static org.apache.qpid.jms.message.JmsMessagePropertySupport.checkValidObject;
 import static org.apache.qpid.jms.message.JmsMessagePropertySupport.convertPropertyTo;
+import static org.apache.qpid.jms.message.JmsMessagePropertySupport.convertPropertyToBoolean;
+import static org.apache.qpid.jms.message.JmsMessagePropertySupport.convertPropertyToByte;
+import static org.apache.qpid.jms.message.JmsMessagePropertySupport.convertPropertyToDouble;
+import static org.apache.qpid.jms.message.JmsMessagePropertySupport.convertPropertyToFloat;
+import static org.apache.qpid.jms.message.JmsMessagePropertySupport.convertPropertyToInt;
+import static org.apache.qpid.jms.message.JmsMessagePropertySupport.convertPropertyToLong;
+import static org.apache.qpid.jms.message.JmsMessagePropertySupport.convertPropertyToShort;
 
 import java.io.Serializable;
 import java.util.HashMap;
@@ -40,7 +47,9 @@ import jakarta.jms.ObjectMessage;
 import jakarta.jms.TextMessage;
 
 import org.apache.qpid.jms.exceptions.JmsExceptionSupport;
+import org.apache.qpid.jms.message.JmsMessage;
 import org.apache.qpid.jms.message.JmsMessageTransformation;
+import org.apache.qpid.jms.message.facade.JmsMessagePropertyTemplate;
 
 public class JmsProducer implements JMSProducer {
 
@@ -65,6 +74,8 @@ public class JmsProducer implements JMSProducer {
 
     // Message Properties
     private final Map<String, Object> messageProperties = new HashMap<String, Object>();
+    private JmsMessagePropertyTemplate propertyTemplate;
+    private boolean propertyTemplateCurrent;
 
     /**
      * Create a new JMSProducer instance.
@@ -155,8 +166,8 @@ public class JmsProducer implements JMSProducer {
             throw new MessageFormatException("Message must not be null");
         }
 
-        for (Map.Entry<String, Object> entry : messageProperties.entrySet()) {
-            message.setObjectProperty(entry.getKey(), entry.getValue());
+        if (!messageProperties.isEmpty()) {
+            applyMessageProperties(message);
         }
 
         if (correlationId != null) {
@@ -180,6 +191,7 @@ public class JmsProducer implements JMSProducer {
     @Override
     public JMSProducer clearProperties() {
         messageProperties.clear();
+        propertyTemplateCurrent = false;
         return this;
     }
 
@@ -196,7 +208,7 @@ public class JmsProducer implements JMSProducer {
     @Override
     public boolean getBooleanProperty(String name) {
         try {
-            return convertPropertyTo(name, messageProperties.get(name), Boolean.class);
+            return convertPropertyToBoolean(name, messageProperties.get(name));
         } catch (JMSException jmse) {
             throw JmsExceptionSupport.createRuntimeException(jmse);
         }
@@ -205,7 +217,7 @@ public class JmsProducer implements JMSProducer {
     @Override
     public byte getByteProperty(String name) {
         try {
-            return convertPropertyTo(name, messageProperties.get(name), Byte.class);
+            return convertPropertyToByte(name, messageProperties.get(name));
         } catch (JMSException jmse) {
             throw JmsExceptionSupport.createRuntimeException(jmse);
         }
@@ -214,7 +226,7 @@ public class JmsProducer implements JMSProducer {
     @Override
     public double getDoubleProperty(String name) {
         try {
-            return convertPropertyTo(name, messageProperties.get(name), Double.class);
+            return convertPropertyToDouble(name, messageProperties.get(name));
         } catch (JMSException jmse) {
             throw JmsExceptionSupport.createRuntimeException(jmse);
         }
@@ -223,7 +235,7 @@ public class JmsProducer implements JMSProducer {
     @Override
     public float getFloatProperty(String name) {
         try {
-            return convertPropertyTo(name, messageProperties.get(name), Float.class);
+            return convertPropertyToFloat(name, messageProperties.get(name));
         } catch (JMSException jmse) {
             throw JmsExceptionSupport.createRuntimeException(jmse);
         }
@@ -232,7 +244,7 @@ public class JmsProducer implements JMSProducer {
     @Override
     public int getIntProperty(String name) {
         try {
-            return convertPropertyTo(name, messageProperties.get(name), Integer.class);
+            return convertPropertyToInt(name, messageProperties.get(name));
         } catch (JMSException jmse) {
             throw JmsExceptionSupport.createRuntimeException(jmse);
         }
@@ -241,7 +253,7 @@ public class JmsProducer implements JMSProducer {
     @Override
     public long getLongProperty(String name) {
         try {
-            return convertPropertyTo(name, messageProperties.get(name), Long.class);
+            return convertPropertyToLong(name, messageProperties.get(name));
         } catch (JMSException jmse) {
             throw JmsExceptionSupport.createRuntimeException(jmse);
         }
@@ -255,7 +267,7 @@ public class JmsProducer implements JMSProducer {
     @Override
     public short getShortProperty(String name) {
         try {
-            return convertPropertyTo(name, messageProperties.get(name), Short.class);
+            return convertPropertyToShort(name, messageProperties.get(name));
         } catch (JMSException jmse) {
             throw JmsExceptionSupport.createRuntimeException(jmse);
         }
@@ -457,11 +469,43 @@ public class JmsProducer implements JMSProducer {
 
     //----- Internal support methods -----------------------------------------//
 
+    private void applyMessageProperties(Message message) throws JMSException {
+        if (message instanceof JmsMessage) {
+            JmsMessagePropertyTemplate template = getPropertyTemplate();
+            if (template != null && ((JmsMessage) message).applyPropertyTemplate(template)) {
+                return;
+            }
+        }
+
+        for (Map.Entry<String, Object> entry : messageProperties.entrySet()) {
+            message.setObjectProperty(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private JmsMessagePropertyTemplate getPropertyTemplate() throws JMSException {
+        if (!propertyTemplateCurrent) {
+            propertyTemplate = null;
+            propertyTemplateCurrent = true;
+
+            // Names with the JMS prefix can map onto message headers so they are set one at a time.
+            for (String name : messageProperties.keySet()) {
+                if (name.startsWith("JMS")) {
+                    return null;
+                }
+            }
+
+            propertyTemplate = session.getConnection().getMessageFactory().createPropertyTemplate(messageProperties);
+        }
+
+        return propertyTemplate;
+    }
+
     private JMSProducer setObjectProperty(String name, Object value) {
         try {
             checkPropertyNameIsValid(name, session.getConnection().isValidatePropertyNames());
             checkValidObject(value);
             messageProperties.put(name, value);
+            propertyTemplateCurrent = false;
             return this;
         } catch (JMSException e) {
             throw JmsExceptionSupport.createRuntimeException(e);
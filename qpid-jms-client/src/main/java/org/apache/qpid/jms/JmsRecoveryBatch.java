@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.qpid.jms.provider.ProviderFuture;
+
+/**
+ * Tracks the resource recreate requests issued during one stage of a pipelined connection
+ * recovery so that every request can be written before any of the responses are awaited.
+ */
+final class JmsRecoveryBatch {
+
+    /**
+     * A pending recovery step whose outcome is awaited once the batch has been issued.
+     */
+    @FunctionalInterface
+    interface PendingRecovery {
+
+        void await() throws Exception;
+
+    }
+
+    private final List<PendingRecovery> pending = new ArrayList<>();
+
+    void add(PendingRecovery recovery) {
+        pending.add(recovery);
+    }
+
+    void add(ProviderFuture request) {
+        if (request != null) {
+            pending.add(request::sync);
+        }
+    }
+
+    int size() {
+        return pending.size();
+    }
+
+    /**
+     * Awaits each pending step in the order it was issued.  Resources that are configured to
+     * tolerate a failed recreate handle their own failure, any other failure is thrown and
+     * fails the recovery attempt as a whole.
+     *
+     * @throws Exception if any pending step fails in a way that should fail the recovery.
+     */
+    void awaitAll() throws Exception {
+        try {
+            for (PendingRecovery recovery : pending) {
+                recovery.await();
+            }
+        } finally {
+            pending.clear();
+        }
+    }
+}
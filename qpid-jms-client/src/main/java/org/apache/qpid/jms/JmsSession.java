@@ -23,14 +23,17 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -73,6 +76,8 @@ import jakarta.jms.TopicSubscriber;
 
 import org.apache.qpid.jms.exceptions.JmsConnectionFailedException;
 import org.apache.qpid.jms.exceptions.JmsExceptionSupport;
+import org.apache.qpid.jms.jfr.JmsEvent;
+import org.apache.qpid.jms.jfr.JmsEvents;
 import org.apache.qpid.jms.message.JmsInboundMessageDispatch;
 import org.apache.qpid.jms.message.JmsMessage;
 import org.apache.qpid.jms.message.JmsMessageTransformation;
@@ -84,6 +89,8 @@ import org.apache.qpid.jms.meta.JmsProducerInfo;
 import org.apache.qpid.jms.meta.JmsResource.ResourceState;
 import org.apache.qpid.jms.meta.JmsSessionId;
 import org.apache.qpid.jms.meta.JmsSessionInfo;
+import org.apache.qpid.jms.metrics.JmsHistogram;
+import org.apache.qpid.jms.metrics.JmsMetrics;
 import org.apache.qpid.jms.policy.JmsDeserializationPolicy;
 import org.apache.qpid.jms.policy.JmsMessageIDPolicy;
 import org.apache.qpid.jms.policy.JmsPrefetchPolicy;
@@ -96,6 +103,7 @@ import org.apache.qpid.jms.provider.ProviderFuture;
 import org.apache.qpid.jms.provider.ProviderSynchronization;
 import org.apache.qpid.jms.selector.SelectorParser;
 import org.apache.qpid.jms.selector.filter.FilterException;
+import org.apache.qpid.jms.util.InstrumentedThreadPoolExecutor;
 import org.apache.qpid.jms.util.NoOpExecutor;
 import org.apache.qpid.jms.util.QpidJMSThreadFactory;
 import org.slf4j.Logger;
@@ -124,8 +132,8 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
     private final AtomicBoolean started = new AtomicBoolean();
     private final JmsSessionInfo sessionInfo;
     private final ReentrantLock sendLock = new ReentrantLock();
-    private volatile ThreadPoolExecutor deliveryExecutor;
-    private volatile ThreadPoolExecutor completionExcecutor;
+    private volatile InstrumentedThreadPoolExecutor deliveryExecutor;
+    private volatile InstrumentedThreadPoolExecutor completionExcecutor;
     private AtomicReference<Thread> deliveryThread = new AtomicReference<Thread>();
     private boolean deliveryThreadCheckEnabled = true;
     private AtomicReference<Thread> completionThread = new AtomicReference<Thread>();
@@ -136,6 +144,9 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
     private boolean sessionRecovered;
     private final AtomicReference<Throwable> failureCause = new AtomicReference<>();
     private final Deque<SendCompletion> asyncSendQueue = new ConcurrentLinkedDeque<SendCompletion>();
+    private final JmsMetrics metrics;
+    private final JmsHistogram commitTime;
+    private final JmsHistogram acknowledgeTime;
 
     protected JmsSession(JmsConnection connection, JmsSessionId sessionId, int acknowledgementMode) throws JMSException {
         this.connection = connection;
@@ -156,6 +167,12 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
         sessionInfo.setRedeliveryPolicy(connection.getRedeliveryPolicy().copy());
         sessionInfo.setDeserializationPolicy(connection.getDeserializationPolicy());
 
+        metrics = connection.createMetrics(JmsMetrics.SESSION, sessionId);
+        commitTime = metrics.histogram(JmsMetrics.COMMIT_TIME);
+        acknowledgeTime = metrics.histogram(JmsMetrics.ACKNOWLEDGE_TIME);
+        metrics.gauge(JmsMetrics.DELIVERY_EXECUTOR + JmsMetrics.QUEUE_DEPTH, () -> queueDepthOf(deliveryExecutor));
+        metrics.gauge(JmsMetrics.COMPLETION_EXECUTOR + JmsMetrics.QUEUE_DEPTH, () -> queueDepthOf(completionExcecutor));
+
         connection.createResource(sessionInfo, new ProviderSynchronization() {
 
             @Override
@@ -256,7 +273,38 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
             throw new jakarta.jms.IllegalStateException("Not a transacted session");
         }
 
+        final long started = commitTime.start();
         transactionContext.commit();
+        commitTime.recordSince(started);
+    }
+
+    /**
+     * Commits the work done in the current transaction without blocking until the remote
+     * peer has reported the outcome.  The next transaction is declared in the same pipeline
+     * as the commit, any transacted send or receive performed before the returned stage has
+     * completed waits for the next transaction to be ready before it proceeds.  The returned
+     * stage and any {@link JmsTransactionListener} are completed from the connection's provider
+     * thread, dependent actions should not block.
+     *
+     * @return a stage that completes once the commit has finished, or exceptionally with the
+     *         reason the commit failed.
+     *
+     * @throws JMSException if the session is not transacted or the commit cannot be started.
+     */
+    public CompletionStage<Void> commitAsync() throws JMSException {
+        checkClosed();
+        checkIsCompletionThread();
+
+        if (!getTransacted()) {
+            throw new jakarta.jms.IllegalStateException("Not a transacted session");
+        }
+
+        final long started = commitTime.start();
+        return transactionContext.commitAsync().whenComplete((result, error) -> {
+            if (error == null) {
+                commitTime.recordSince(started);
+            }
+        }).minimalCompletionStage();
     }
 
     @Override
@@ -284,6 +332,63 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
         }
     }
 
+    /**
+     * Rolls back the work done in the current transaction without blocking until the remote
+     * peer has reported the outcome, see {@link #commitAsync()}.  The consumers of the session
+     * are resumed on the session completion thread once the roll back has finished, any
+     * {@link JmsTransactionListener} is notified from the connection's provider thread.
+     *
+     * @return a stage that completes once the roll back has finished, or exceptionally with
+     *         the reason the roll back failed.
+     *
+     * @throws JMSException if the session is not transacted or the roll back cannot be started.
+     */
+    public CompletionStage<Void> rollbackAsync() throws JMSException {
+        checkClosed();
+        checkIsCompletionThread();
+
+        if (!getTransacted()) {
+            throw new jakarta.jms.IllegalStateException("Not a transacted session");
+        }
+
+        CompletableFuture<Void> completion;
+
+        // Stop processing any new messages that arrive
+        try {
+            for (JmsMessageConsumer c : consumers.values()) {
+                c.suspendForRollback();
+            }
+        } finally {
+            try {
+                completion = transactionContext.rollbackAsync();
+            } catch (JMSException | RuntimeException ex) {
+                resumeAfterRollback();
+                throw ex;
+            }
+        }
+
+        // Resuming a consumer may block on the provider so it cannot run on the provider thread
+        return completion.handleAsync((result, error) -> {
+            resumeAfterRollback();
+
+            if (error != null) {
+                throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+            }
+
+            return result;
+        }, getCompletionExecutor()).minimalCompletionStage();
+    }
+
+    private void resumeAfterRollback() {
+        for (JmsMessageConsumer c : consumers.values()) {
+            try {
+                c.resumeAfterRollback();
+            } catch (JMSException e) {
+                LOG.trace("Consumer {} failed to resume after rollback: ", c.getConsumerId(), e);
+            }
+        }
+    }
+
     @Override
     public void close() throws JMSException {
         checkIsDeliveryThread();
@@ -492,6 +597,70 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
         return result;
     }
 
+    /**
+     * Creates a {@link java.util.concurrent.Flow.Publisher} of the messages sent to the given
+     * destination whose subscriber's demand is granted to the remote peer as link credit.
+     *
+     * @param destination
+     *      the destination the published messages are consumed from.
+     *
+     * @return a new publisher for the messages sent to the destination.
+     *
+     * @throws JMSException if the session is closed or the consumer could not be created.
+     *
+     * @see JmsMessagePublisher
+     */
+    public JmsMessagePublisher createPublisher(Destination destination) throws JMSException {
+        return createPublisher(destination, null);
+    }
+
+    /**
+     * Creates a {@link java.util.concurrent.Flow.Publisher} of the messages sent to the given
+     * destination that match the selector, the subscriber's demand is granted to the remote
+     * peer as link credit.
+     *
+     * @param destination
+     *      the destination the published messages are consumed from.
+     * @param messageSelector
+     *      the selector used to filter the published messages, may be null.
+     *
+     * @return a new publisher for the messages sent to the destination.
+     *
+     * @throws JMSException if the session is closed or the consumer could not be created.
+     *
+     * @see JmsMessagePublisher
+     */
+    public JmsMessagePublisher createPublisher(Destination destination, String messageSelector) throws JMSException {
+        checkClosed();
+        checkDestination(destination);
+        messageSelector = checkSelector(messageSelector, connection.isValidateSelector());
+        JmsDestination dest = JmsMessageTransformation.transformDestination(connection, destination);
+        return new JmsMessagePublisher(getNextConsumerId(), this, dest, messageSelector);
+    }
+
+    /**
+     * Creates a {@link java.util.concurrent.Flow.Subscriber} that sends the messages it is
+     * given to the destination, requesting messages from upstream only while its producer has
+     * credit to send them and at most the given number of sends await their outcome.
+     *
+     * @param destination
+     *      the destination the messages are sent to.
+     * @param maxInFlight
+     *      the maximum number of sends that may be awaiting their outcome at any time.
+     *
+     * @return a new sink for messages sent to the destination.
+     *
+     * @throws JMSException if the session is closed or the producer could not be created.
+     *
+     * @see JmsMessageSink
+     */
+    public JmsMessageSink createSink(Destination destination, int maxInFlight) throws JMSException {
+        checkClosed();
+        checkDestination(destination);
+        JmsDestination dest = JmsMessageTransformation.transformDestination(connection, destination);
+        return new JmsMessageSink(this, dest, maxInFlight);
+    }
+
     /**
      * @see jakarta.jms.QueueSession#createReceiver(jakarta.jms.Queue)
      */
@@ -662,6 +831,50 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
         return result;
     }
 
+    /**
+     * Creates a MessageConsumer for the given destination without waiting for the remote peer to
+     * attach the consumer link, allowing many consumers to be created with their link attach
+     * requests written in one pipelined burst rather than one request / response cycle each.
+     * <p>
+     * The returned consumer can be used immediately, its {@link JmsMessageConsumer#getCreationStage()}
+     * completes once the link has been attached or completes exceptionally if the remote refuses it in
+     * which case the consumer is closed.
+     *
+     * @param destination
+     *      the destination to consume from.
+     * @param messageSelector
+     *      the message selector to apply, may be null.
+     * @param noLocal
+     *      whether messages published by this connection should be filtered out.
+     *
+     * @return the newly created consumer whose link creation is still in progress.
+     *
+     * @throws JMSException if the create request could not be issued.
+     */
+    public JmsMessageConsumer createConsumerAsync(Destination destination, String messageSelector, boolean noLocal) throws JMSException {
+        checkClosed();
+        checkDestination(destination);
+        messageSelector = checkSelector(messageSelector, connection.isValidateSelector());
+        JmsDestination dest = JmsMessageTransformation.transformDestination(connection, destination);
+        JmsMessageConsumer result = new JmsMessageConsumer(getNextConsumerId(), this, dest, messageSelector, noLocal);
+        result.initAsync();
+        return result;
+    }
+
+    /**
+     * @see #createConsumerAsync(Destination, String, boolean)
+     */
+    public JmsMessageConsumer createConsumerAsync(Destination destination, String messageSelector) throws JMSException {
+        return createConsumerAsync(destination, messageSelector, false);
+    }
+
+    /**
+     * @see #createConsumerAsync(Destination, String, boolean)
+     */
+    public JmsMessageConsumer createConsumerAsync(Destination destination) throws JMSException {
+        return createConsumerAsync(destination, null, false);
+    }
+
     //////////////////////////////////////////////////////////////////////////
     // Producer creation
     //////////////////////////////////////////////////////////////////////////
@@ -674,6 +887,7 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
         checkClosed();
         JmsDestination dest = JmsMessageTransformation.transformDestination(connection, destination);
         JmsMessageProducer result = new JmsMessageProducer(getNextProducerId(), this, dest);
+        result.init();
         return result;
     }
 
@@ -685,6 +899,7 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
         checkClosed();
         JmsDestination dest = JmsMessageTransformation.transformDestination(connection, queue);
         JmsQueueSender result = new JmsQueueSender(getNextProducerId(), this, dest);
+        result.init();
         return result;
     }
 
@@ -696,6 +911,32 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
         checkClosed();
         JmsDestination dest = JmsMessageTransformation.transformDestination(connection, topic);
         JmsTopicPublisher result = new JmsTopicPublisher(getNextProducerId(), this, dest);
+        result.init();
+        return result;
+    }
+
+    /**
+     * Creates a MessageProducer for the given destination without waiting for the remote peer to
+     * attach the producer link, allowing many producers to be created with their link attach
+     * requests written in one pipelined burst rather than one request / response cycle each.
+     * <p>
+     * The returned producer can be used immediately, messages sent before the link is attached are
+     * held until the remote grants credit.  The producer's {@link JmsMessageProducer#getCreationStage()}
+     * completes once the link has been attached or completes exceptionally if the remote refuses it in
+     * which case the producer is closed and any held sends are failed.
+     *
+     * @param destination
+     *      the destination to send to, or null for an anonymous producer.
+     *
+     * @return the newly created producer whose link creation is still in progress.
+     *
+     * @throws JMSException if the create request could not be issued.
+     */
+    public JmsMessageProducer createProducerAsync(Destination destination) throws JMSException {
+        checkClosed();
+        JmsDestination dest = JmsMessageTransformation.transformDestination(connection, destination);
+        JmsMessageProducer result = new JmsMessageProducer(getNextProducerId(), this, dest);
+        result.initAsync();
         return result;
     }
 
@@ -811,10 +1052,12 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
 
     protected void add(JmsMessageConsumer consumer) {
         consumers.put(consumer.getConsumerId(), consumer);
+        connection.registerMetrics(consumer.getMetrics());
     }
 
     protected void remove(JmsMessageConsumer consumer) {
         consumers.remove(consumer.getConsumerId());
+        connection.unregisterMetrics(consumer.getMetrics());
     }
 
     protected JmsMessageConsumer lookup(JmsConsumerId consumerId) {
@@ -823,10 +1066,12 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
 
     protected void add(JmsMessageProducer producer) {
         producers.put(producer.getProducerId(), producer);
+        connection.registerMetrics(producer.getMetrics());
     }
 
     protected void remove(JmsMessageProducer producer) {
         producers.remove(producer.getProducerId());
+        connection.unregisterMetrics(producer.getMetrics());
     }
 
     protected JmsMessageProducer lookup(JmsProducerId producerId) {
@@ -858,6 +1103,8 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
     private void send(JmsMessageProducer producer, JmsDestination destination, Message original, int deliveryMode, int priority, long timeToLive, boolean disableMsgId, boolean disableTimestamp, long deliveryDelay, CompletionListener listener) throws JMSException {
         sendLock.lock();
 
+        final JmsEvent event = JmsEvents.beginSend();
+
         JmsMessage outbound = null;
 
         try {
@@ -936,14 +1183,19 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
 
             outbound.onSend(timeToLive);
 
+            final long encodeStarted = event != null ? System.nanoTime() : 0;
+
             JmsOutboundMessageDispatch envelope = new JmsOutboundMessageDispatch();
             envelope.setMessage(outbound);
             envelope.setPayload(outbound.getFacade().encodeMessage());
+
+            final long encodeTime = event != null ? System.nanoTime() - encodeStarted : 0;
             envelope.setProducerId(producer.getProducerId());
             envelope.setDestination(destination);
             envelope.setSendAsync(listener == null ? !sync : true);
             envelope.setDispatchId(messageSequence);
             envelope.setCompletionRequired(listener != null);
+            envelope.setTransactionId(transactionContext.getTransactionId());
 
             if (producer.isAnonymous()) {
                 envelope.setPresettle(getPresettlePolicy().isProducerPresttled(this, destination));
@@ -956,6 +1208,9 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
                 outbound.onSendComplete();
             }
 
+            final long sendStarted = envelope.isSendAsync() ? 0 : producer.syncSendTime.start();
+            final long waitStarted = event != null ? System.nanoTime() : 0;
+
             if (envelope.isCompletionRequired()) {
                 transactionContext.send(connection, envelope, new ProviderSynchronization() {
 
@@ -975,6 +1230,17 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
             } else {
                 transactionContext.send(connection, envelope, null);
             }
+
+            if (!envelope.isSendAsync()) {
+                producer.syncSendTime.recordSince(sendStarted);
+            }
+
+            producer.messagesSent.increment();
+
+            if (event != null) {
+                final long syncWait = envelope.isSendAsync() ? 0 : System.nanoTime() - waitStarted;
+                JmsEvents.commitSend(event, producer.getProducerId(), destination.getAddress(), !envelope.isSendAsync(), encodeTime, syncWait);
+            }
         } catch (JMSException jmsEx) {
             // Ensure that on failure case the message is returned to usable state for another send attempt.
             if(outbound != null) {
@@ -1006,7 +1272,18 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
     }
 
     JmsInboundMessageDispatch acknowledge(JmsInboundMessageDispatch envelope, ACK_TYPE ackType) throws JMSException {
-        transactionContext.acknowledge(connection, envelope, ackType);
+        final JmsEvent event = JmsEvents.beginAcknowledge();
+
+        if (ackType == ACK_TYPE.ACCEPTED) {
+            final long started = acknowledgeTime.start();
+            transactionContext.acknowledge(connection, envelope, ackType);
+            acknowledgeTime.recordSince(started);
+        } else {
+            transactionContext.acknowledge(connection, envelope, ackType);
+        }
+
+        commitAcknowledgeEvent(event, ackType, true);
+
         return envelope;
     }
 
@@ -1024,7 +1301,21 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
             throw new IllegalStateException("Session acknowledge called inside a transacted Session");
         }
 
+        final JmsEvent event = JmsEvents.beginAcknowledge();
+
+        final long started = acknowledgeTime.start();
         this.connection.acknowledge(sessionInfo.getId(), ackType);
+        acknowledgeTime.recordSince(started);
+
+        for (JmsMessageConsumer consumer : consumers.values()) {
+            if (ackType == ACK_TYPE.ACCEPTED) {
+                consumer.confirmDelivered();
+            } else {
+                consumer.forgetDelivered();
+            }
+        }
+
+        commitAcknowledgeEvent(event, ackType, false);
     }
 
     /**
@@ -1043,7 +1334,46 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
             throw new IllegalStateException("Message acknowledge called inside a transacted Session");
         }
 
+        final JmsEvent event = JmsEvents.beginAcknowledge();
+
+        final long started = acknowledgeTime.start();
         this.connection.acknowledge(envelope, ackType);
+        acknowledgeTime.recordSince(started);
+
+        JmsMessageConsumer consumer = consumers.get(envelope.getConsumerId());
+        if (consumer != null) {
+            if (ackType == ACK_TYPE.ACCEPTED) {
+                consumer.confirmDelivered(envelope);
+            } else {
+                consumer.forgetDelivered(envelope);
+            }
+        }
+
+        commitAcknowledgeEvent(event, ackType, true);
+    }
+
+    /*
+     * Called by the transaction context once a commit of the session transaction succeeded.
+     */
+    void onTransactionCommitted() {
+        for (JmsMessageConsumer consumer : consumers.values()) {
+            consumer.confirmDelivered();
+        }
+    }
+
+    /*
+     * Called by the transaction context whenever the session transaction is rolled back, which
+     * includes a failed commit and the roll back of an in doubt transaction on commit.  For an
+     * asynchronous commit or roll back this runs on the provider thread and must not block.
+     */
+    void onTransactionRolledBack() {
+        for (JmsMessageConsumer consumer : consumers.values()) {
+            consumer.clearDelivered();
+        }
+    }
+
+    private void commitAcknowledgeEvent(JmsEvent event, ACK_TYPE ackType, boolean individual) {
+        JmsEvents.commitAcknowledge(event, sessionInfo.getId(), ackType.name(), individual);
     }
 
     public boolean isClosed() {
@@ -1176,12 +1506,12 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
     }
 
     Executor getDispatcherExecutor() {
-        ThreadPoolExecutor exec = deliveryExecutor;
+        InstrumentedThreadPoolExecutor exec = deliveryExecutor;
         if (exec == null) {
             synchronized (sessionInfo) {
                 if (deliveryExecutor == null) {
                     if (!closed.get()) {
-                        deliveryExecutor = exec = createExecutor("delivery dispatcher", deliveryThread);
+                        deliveryExecutor = exec = createExecutor("delivery dispatcher", JmsMetrics.DELIVERY_EXECUTOR, deliveryThread);
                     } else {
                         return NoOpExecutor.INSTANCE;
                     }
@@ -1195,12 +1525,12 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
     }
 
     private ExecutorService getCompletionExecutor() {
-        ThreadPoolExecutor exec = completionExcecutor;
+        InstrumentedThreadPoolExecutor exec = completionExcecutor;
         if (exec == null) {
             synchronized (sessionInfo) {
                 exec = completionExcecutor;
                 if (exec == null) {
-                    exec = createExecutor("completion dispatcher", completionThread);
+                    exec = createExecutor("completion dispatcher", JmsMetrics.COMPLETION_EXECUTOR, completionThread);
 
                     // Ensure work thread is fully up before allowing other threads
                     // to attempt to execute on this instance.
@@ -1219,9 +1549,12 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
         return exec;
     }
 
-    private ThreadPoolExecutor createExecutor(final String threadNameSuffix, AtomicReference<Thread> threadTracker) {
-        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
-            new QpidJMSThreadFactory("JmsSession ["+ sessionInfo.getId() + "] " + threadNameSuffix, true, threadTracker));
+    private InstrumentedThreadPoolExecutor createExecutor(final String threadNameSuffix, final String metricsName, AtomicReference<Thread> threadTracker) {
+        final String threadName = "JmsSession ["+ sessionInfo.getId() + "] " + threadNameSuffix;
+        InstrumentedThreadPoolExecutor executor = new InstrumentedThreadPoolExecutor(threadName,
+            new QpidJMSThreadFactory(threadName, true, threadTracker),
+            metrics.histogram(metricsName + JmsMetrics.TASK_WAIT_TIME),
+            metrics.histogram(metricsName + JmsMetrics.TASK_EXECUTION_TIME));
 
         executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardOldestPolicy() {
 
@@ -1238,6 +1571,10 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
         return executor;
     }
 
+    private static long queueDepthOf(InstrumentedThreadPoolExecutor executor) {
+        return executor != null ? executor.getQueueDepth() : 0;
+    }
+
     protected JmsSessionInfo getSessionInfo() {
         return sessionInfo;
     }
@@ -1246,6 +1583,10 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
         return sessionInfo.getId();
     }
 
+    JmsMetrics getMetrics() {
+        return metrics;
+    }
+
     protected int getSessionMode() {
         return acknowledgementMode;
     }
@@ -1422,26 +1763,120 @@ public class JmsSession implements AutoCloseable, Session, QueueSession, TopicSe
 
             transactionContext.onConnectionRecovery(provider);
 
-            for (JmsMessageProducer producer : producers.values()) {
+            for (JmsMessageProducer producer : recoverableProducers()) {
                 producer.onConnectionRecovery(provider);
             }
 
-            for (JmsMessageConsumer consumer : consumers.values()) {
+            for (JmsMessageConsumer consumer : recoverableConsumers()) {
                 consumer.onConnectionRecovery(provider);
             }
         }
     }
 
     protected void onConnectionRecovered(Provider provider) throws Exception {
-        for (JmsMessageProducer producer : producers.values()) {
+        for (JmsMessageProducer producer : recoverableProducers()) {
             producer.onConnectionRecovered(provider);
         }
 
-        for (JmsMessageConsumer consumer : consumers.values()) {
+        for (JmsMessageConsumer consumer : recoverableConsumers()) {
             consumer.onConnectionRecovered(provider);
         }
     }
 
+    /**
+     * Issues the request to recreate this session as part of a pipelined recovery, the
+     * response is awaited along with those of the other sessions in the given batch.
+     *
+     * @param provider
+     *      the newly connected Provider instance.
+     * @param batch
+     *      the batch that tracks the pending recreate requests.
+     *
+     * @throws ProviderException if the request could not be issued.
+     */
+    protected void beginConnectionRecovery(Provider provider, JmsRecoveryBatch batch) throws ProviderException {
+        if (!sessionInfo.isClosed()) {
+            ProviderFuture request = provider.newProviderFuture();
+            provider.create(sessionInfo, request);
+            batch.add(request);
+        }
+    }
+
+    /**
+     * Once the session itself has been recreated this issues the transaction context recovery and
+     * the recreate requests for all producers and consumers without waiting on any of them.
+     *
+     * @param provider
+     *      the newly connected Provider instance.
+     * @param batch
+     *      the batch that tracks the pending recreate requests.
+     *
+     * @throws Exception if an error occurs while recovering the session resources.
+     */
+    protected void beginResourceRecovery(Provider provider, JmsRecoveryBatch batch) throws Exception {
+        if (!sessionInfo.isClosed()) {
+            batch.add(transactionContext.beginConnectionRecovery(provider));
+
+            for (JmsMessageProducer producer : recoverableProducers()) {
+                ProviderFuture request = producer.beginConnectionRecovery(provider);
+                batch.add(() -> producer.awaitConnectionRecovery(request));
+            }
+
+            for (JmsMessageConsumer consumer : recoverableConsumers()) {
+                ProviderFuture request = consumer.beginConnectionRecovery(provider);
+                batch.add(() -> consumer.awaitConnectionRecovery(request));
+            }
+        }
+    }
+
+    /**
+     * Issues the requests that restart this session's resources after a pipelined recovery
+     * without waiting on any of them to complete.
+     *
+     * @param provider
+     *      the newly connected Provider instance.
+     * @param batch
+     *      the batch that tracks the pending restart requests.
+     *
+     * @throws Exception if an error occurs while restarting the session resources.
+     */
+    protected void beginConnectionRecovered(Provider provider, JmsRecoveryBatch batch) throws Exception {
+        for (JmsMessageProducer producer : recoverableProducers()) {
+            producer.onConnectionRecovered(provider);
+        }
+
+        for (JmsMessageConsumer consumer : recoverableConsumers()) {
+            batch.add(consumer.beginConnectionRecovered(provider));
+        }
+    }
+
+    /*
+     * Resources created asynchronously whose create request is still outstanding are left
+     * out of recovery, the failover layer replays that request on the new connection and
+     * recreating them here as well would attach the same link twice.
+     */
+    private List<JmsMessageProducer> recoverableProducers() {
+        List<JmsMessageProducer> recoverable = new ArrayList<>(producers.size());
+        for (JmsMessageProducer producer : producers.values()) {
+            if (!producer.isCreatePending()) {
+                recoverable.add(producer);
+            }
+        }
+
+        return recoverable;
+    }
+
+    private List<JmsMessageConsumer> recoverableConsumers() {
+        List<JmsMessageConsumer> recoverable = new ArrayList<>(consumers.size());
+        for (JmsMessageConsumer consumer : consumers.values()) {
+            if (!consumer.isCreatePending()) {
+                recoverable.add(consumer);
+            }
+        }
+
+        return recoverable;
+    }
+
     protected void onConnectionRestored() {
         for (JmsMessageProducer producer : producers.values()) {
             producer.onConnectionRestored();
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import jakarta.jms.JMSException;
+import jakarta.jms.Session;
+
+import org.apache.qpid.jms.message.JmsInboundMessageDispatch;
+import org.apache.qpid.jms.message.JmsMessage;
+import org.apache.qpid.jms.meta.JmsConsumerId;
+import org.apache.qpid.jms.meta.JmsConsumerInfo;
+import org.apache.qpid.jms.provider.ProviderConstants.ACK_TYPE;
+import org.apache.qpid.jms.provider.ProviderSynchronization;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A single consumer link that is shared by the consumers of a connection which subscribe to
+ * the same topic.  Every message that arrives on the link is copied to each member consumer,
+ * the members apply their own selector to the copy they are given.
+ * <p>
+ * A message is settled with the remote peer once each member it was copied to has settled its
+ * copy.  The message is accepted if any member consumed it or skipped it as not matching its
+ * selector, otherwise the outcome applied by the last member to settle is used.
+ */
+final class JmsSharedConsumerLink implements JmsMessageDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JmsSharedConsumerLink.class);
+
+    private final JmsConnection connection;
+    private final JmsConsumerInfo consumerInfo;
+    private final List<JmsMessageConsumer> members = new CopyOnWriteArrayList<>();
+    private final Set<SharedDelivery> pending = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean closed;
+
+    JmsSharedConsumerLink(JmsConnection connection, JmsDestination destination) {
+        this.connection = connection;
+
+        consumerInfo = new JmsConsumerInfo(connection.getNextConnectionConsumerId(), this);
+        consumerInfo.setExplicitClientID(connection.isExplicitClientID());
+        consumerInfo.setDestination(destination);
+        consumerInfo.setAcknowledgementMode(Session.AUTO_ACKNOWLEDGE);
+        consumerInfo.setPrefetchSize(connection.getPrefetchPolicy().getConfiguredPrefetch((JmsSession) null, destination, false, false));
+        consumerInfo.setRedeliveryPolicy(connection.getRedeliveryPolicy().copy());
+        consumerInfo.setDeserializationPolicy(connection.getDeserializationPolicy().copy());
+        consumerInfo.setConnectionConsumer(true);
+    }
+
+    JmsConsumerInfo getConsumerInfo() {
+        return consumerInfo;
+    }
+
+    JmsDestination getDestination() {
+        return consumerInfo.getDestination();
+    }
+
+    List<JmsMessageConsumer> getMembers() {
+        return members;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    void add(JmsMessageConsumer member) {
+        members.add(member);
+    }
+
+    /**
+     * Removes the given member, any copies it has not yet settled are treated as released.
+     *
+     * @param member
+     *      the consumer that is leaving the link.
+     *
+     * @return true if the link has no remaining members.
+     */
+    boolean remove(JmsMessageConsumer member) {
+        members.remove(member);
+
+        for (SharedDelivery delivery : pending) {
+            settleQuietly(delivery, member.getConsumerId());
+        }
+
+        return members.isEmpty();
+    }
+
+    void close() {
+        closed = true;
+        pending.clear();
+    }
+
+    void onConnectionInterrupted() {
+        // Deliveries from the interrupted link cannot be settled, the members drop their copies.
+        pending.clear();
+    }
+
+    @Override
+    public void onInboundMessage(JmsInboundMessageDispatch envelope) {
+        final JmsMessageConsumer[] targets = members.toArray(new JmsMessageConsumer[0]);
+        if (targets.length == 0) {
+            try {
+                connection.acknowledge(envelope, ACK_TYPE.RELEASED);
+            } catch (JMSException ex) {
+                LOG.trace("Failed to release message arriving on shared link with no members: {}", envelope, ex);
+            }
+            return;
+        }
+
+        final SharedDelivery delivery = new SharedDelivery(envelope, targets);
+        pending.add(delivery);
+
+        for (int i = 0; i < targets.length; ++i) {
+            final JmsMessageConsumer target = targets[i];
+
+            try {
+                // The last member is handed the original message, the others each receive a copy.
+                JmsMessage message = envelope.getMessage();
+                if (i < targets.length - 1) {
+                    message = message.copy();
+                }
+
+                JmsInboundMessageDispatch copy = new JmsInboundMessageDispatch(envelope.getSequence());
+                copy.setMessage(message);
+                copy.setMessageId(envelope.getMessageId());
+                copy.setConsumerId(target.getConsumerId());
+                copy.setProviderHint(delivery);
+
+                target.session.onInboundMessage(copy);
+            } catch (JMSException ex) {
+                LOG.warn("Failed to copy message from shared link for consumer {}: {}", target.getConsumerId(), ex.getMessage());
+                settleQuietly(delivery, target.getConsumerId());
+            }
+
+            // A member that left while the copies were being made will never settle its copy.
+            if (!members.contains(target)) {
+                settleQuietly(delivery, target.getConsumerId());
+            }
+        }
+    }
+
+    private void settleQuietly(SharedDelivery delivery, JmsConsumerId member) {
+        try {
+            delivery.settle(member, ACK_TYPE.RELEASED, null);
+        } catch (JMSException ex) {
+            LOG.trace("Failed to settle message on shared link for departed consumer {}", member, ex);
+        }
+    }
+
+    /**
+     * Tracks the members that have yet to settle their copy of a message that arrived on the
+     * shared link, it is set as the provider hint of each copy so that the acknowledgement of a
+     * copy can be routed back to it.
+     */
+    final class SharedDelivery {
+
+        private final JmsInboundMessageDispatch envelope;
+        private final Set<JmsConsumerId> outstanding;
+
+        private volatile boolean consumed;
+
+        SharedDelivery(JmsInboundMessageDispatch envelope, JmsMessageConsumer[] targets) {
+            this.envelope = envelope;
+            this.outstanding = ConcurrentHashMap.newKeySet(targets.length);
+
+            for (JmsMessageConsumer target : targets) {
+                outstanding.add(target.getConsumerId());
+            }
+        }
+
+        void settle(JmsConsumerId member, ACK_TYPE ackType, ProviderSynchronization synchronization) throws JMSException {
+            if (ackType != ACK_TYPE.DELIVERED) {
+                if (ackType == ACK_TYPE.ACCEPTED) {
+                    consumed = true;
+                }
+
+                if (outstanding.remove(member) && outstanding.isEmpty() && pending.remove(this)) {
+                    connection.acknowledge(envelope, consumed ? ACK_TYPE.ACCEPTED : ackType, synchronization);
+                    return;
+                }
+            }
+
+            if (synchronization != null) {
+                synchronization.onPendingSuccess();
+            }
+        }
+    }
+}
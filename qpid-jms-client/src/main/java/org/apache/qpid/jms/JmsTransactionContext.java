@@ -16,6 +16,8 @@
  */
 package org.apache.qpid.jms;
 
+import java.util.concurrent.CompletableFuture;
+
 import jakarta.jms.JMSException;
 
 import org.apache.qpid.jms.message.JmsInboundMessageDispatch;
@@ -24,6 +26,7 @@ import org.apache.qpid.jms.meta.JmsResourceId;
 import org.apache.qpid.jms.meta.JmsTransactionId;
 import org.apache.qpid.jms.provider.Provider;
 import org.apache.qpid.jms.provider.ProviderConstants.ACK_TYPE;
+import org.apache.qpid.jms.provider.ProviderFuture;
 import org.apache.qpid.jms.provider.ProviderSynchronization;
 
 /**
@@ -96,6 +99,30 @@ public interface JmsTransactionContext {
      */
     void commit() throws JMSException;
 
+    /**
+     * Starts the commit of all work done in this transaction without waiting for the
+     * outcome, the next transaction is declared in the same pipeline as the commit.  Any
+     * transacted work performed before the returned future completes waits for the next
+     * transaction to be ready before it proceeds.
+     *
+     * @return a future that completes once the commit has finished, or exceptionally if it failed.
+     *
+     * @throws JMSException
+     *         if the commit could not be started due to some internal error.
+     */
+    CompletableFuture<Void> commitAsync() throws JMSException;
+
+    /**
+     * Starts the roll back of any work done in this transaction without waiting for the
+     * outcome, the next transaction is declared in the same pipeline as the roll back.
+     *
+     * @return a future that completes once the roll back has finished, or exceptionally if it failed.
+     *
+     * @throws JMSException
+     *         if the roll back could not be started due to some internal error.
+     */
+    CompletableFuture<Void> rollbackAsync() throws JMSException;
+
     /**
      * Rolls back any work done in this transaction and releases any locks
      * currently held.  This method will not start a new transaction and no new
@@ -165,4 +192,21 @@ public interface JmsTransactionContext {
      */
     void onConnectionRecovery(Provider provider) throws Exception;
 
+    /**
+     * Called in place of {@link #onConnectionRecovery(Provider)} during a pipelined connection
+     * recovery, any request needed to recover the context is issued without waiting on the
+     * outcome so that it can be awaited along with the other recovery requests.
+     *
+     * @param provider
+     *      A reference to the provider that manages the new connection.
+     *
+     * @return the pending recovery request, or null if there is nothing to await.
+     *
+     * @throws Exception if an error occurs while rebuilding against the new provider.
+     */
+    default ProviderFuture beginConnectionRecovery(Provider provider) throws Exception {
+        onConnectionRecovery(provider);
+        return null;
+    }
+
 }
@@ -19,6 +19,10 @@ package org.apache.qpid.jms;
 /**
  * Allows for a listener to be notified when a transaction is started, commits
  * or is rolled back.
+ * <p>
+ * When the outcome results from {@link JmsSession#commitAsync()} or
+ * {@link JmsSession#rollbackAsync()} the listener is called from the connection's
+ * provider thread and so must not block or call back into the session.
  */
 public interface JmsTransactionListener {
 
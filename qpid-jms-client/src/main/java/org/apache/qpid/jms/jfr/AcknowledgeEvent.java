@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded for each acknowledgement a session makes of one or more delivered messages.
+ */
+@Name("org.apache.qpid.jms.Acknowledge")
+@Label("JMS Acknowledge")
+@Category({ "Qpid JMS", "Consumer" })
+@Description("Acknowledgement of delivered messages")
+@Enabled(false)
+@StackTrace(false)
+public final class AcknowledgeEvent extends jdk.jfr.Event implements JmsEvent {
+
+    @Label("Session")
+    public String session;
+
+    @Label("Acknowledgement Type")
+    public String ackType;
+
+    @Label("Individual")
+    @Description("Whether a single message was acknowledged rather than all delivered to the session")
+    public boolean individual;
+
+}
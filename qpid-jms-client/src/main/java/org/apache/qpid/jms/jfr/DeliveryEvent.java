@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Recorded for each incoming transfer processed by a consumer, the event spans decoding the
+ * message and handing it on to be dispatched.
+ */
+@Name("org.apache.qpid.jms.Delivery")
+@Label("AMQP Delivery")
+@Category({ "Qpid JMS", "Consumer" })
+@Description("Processing of an incoming delivery by a consumer")
+@Enabled(false)
+@StackTrace(false)
+public final class DeliveryEvent extends jdk.jfr.Event implements JmsEvent {
+
+    @Label("Consumer")
+    public String consumer;
+
+    @Label("Message Size")
+    @DataAmount
+    public long messageSize;
+
+    @Label("Decode Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long decodeTime;
+
+    @Label("Decoded")
+    @Description("Whether the message could be decoded, undecodable messages are rejected")
+    public boolean decoded;
+
+}
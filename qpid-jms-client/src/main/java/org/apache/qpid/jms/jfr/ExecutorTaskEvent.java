@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Recorded for each task run by an instrumented executor, the event spans running the task.
+ */
+@Name("org.apache.qpid.jms.ExecutorTask")
+@Label("Executor Task")
+@Category({ "Qpid JMS", "Executor" })
+@Description("A task run by one of the client's executors")
+@Enabled(false)
+@StackTrace(false)
+public final class ExecutorTaskEvent extends jdk.jfr.Event implements JmsEvent {
+
+    @Label("Executor")
+    public String executor;
+
+    @Label("Queue Time")
+    @Description("Time the task waited in the executor before it was run")
+    @Timespan(Timespan.NANOSECONDS)
+    public long queueTime;
+
+}
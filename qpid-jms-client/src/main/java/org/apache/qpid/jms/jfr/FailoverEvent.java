@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded for each phase of a failover connection attempt, from connecting to a remote peer
+ * through to restoring the state of the connection and replaying pending work.
+ */
+@Name("org.apache.qpid.jms.Failover")
+@Label("Failover Phase")
+@Category({ "Qpid JMS", "Failover" })
+@Description("A phase of connecting or reconnecting a failover connection")
+@Enabled(false)
+@StackTrace(false)
+public final class FailoverEvent extends jdk.jfr.Event implements JmsEvent {
+
+    @Label("Phase")
+    @Description("One of the JmsEvents FAILOVER phases")
+    public String phase;
+
+    @Label("Remote URI")
+    public String remoteURI;
+
+    @Label("Attempt")
+    public long attempt;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded for each batch of bytes read from the transport, the event spans processing the
+ * frames in the batch and writing any response.
+ */
+@Name("org.apache.qpid.jms.Input")
+@Label("AMQP Input")
+@Category({ "Qpid JMS", "Transport" })
+@Description("Processing of a batch of bytes read from the transport")
+@Enabled(false)
+@StackTrace(false)
+public final class InputEvent extends jdk.jfr.Event implements JmsEvent {
+
+    @Label("Connection")
+    public String connection;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+}
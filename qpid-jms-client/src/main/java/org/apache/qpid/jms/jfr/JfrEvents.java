@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.jfr;
+
+import jdk.jfr.EventType;
+
+/**
+ * The only code that records the client's events, it is loaded by {@link JmsEvents} once the
+ * jdk.jfr module is known to be present.
+ */
+final class JfrEvents {
+
+    private static final EventType SEND = EventType.getEventType(SendEvent.class);
+    private static final EventType ACKNOWLEDGE = EventType.getEventType(AcknowledgeEvent.class);
+    private static final EventType SETTLE = EventType.getEventType(SettleEvent.class);
+    private static final EventType INPUT = EventType.getEventType(InputEvent.class);
+    private static final EventType DELIVERY = EventType.getEventType(DeliveryEvent.class);
+    private static final EventType FAILOVER = EventType.getEventType(FailoverEvent.class);
+    private static final EventType EXECUTOR_TASK = EventType.getEventType(ExecutorTaskEvent.class);
+
+    private JfrEvents() {
+    }
+
+    static JmsEvent beginSend() {
+        return SEND.isEnabled() ? begin(new SendEvent()) : null;
+    }
+
+    static void commitSend(JmsEvent recorded, Object producer, String destination, boolean synchronous, long encodeTime, long syncWait) {
+        final SendEvent event = (SendEvent) recorded;
+        event.end();
+        if (event.shouldCommit()) {
+            event.producer = String.valueOf(producer);
+            event.destination = destination;
+            event.synchronous = synchronous;
+            event.encodeTime = encodeTime;
+            event.syncWait = syncWait;
+            event.commit();
+        }
+    }
+
+    static JmsEvent beginAcknowledge() {
+        return ACKNOWLEDGE.isEnabled() ? begin(new AcknowledgeEvent()) : null;
+    }
+
+    static void commitAcknowledge(JmsEvent recorded, Object session, String ackType, boolean individual) {
+        final AcknowledgeEvent event = (AcknowledgeEvent) recorded;
+        event.end();
+        if (event.shouldCommit()) {
+            event.session = String.valueOf(session);
+            event.ackType = ackType;
+            event.individual = individual;
+            event.commit();
+        }
+    }
+
+    static JmsEvent beginSettle() {
+        return SETTLE.isEnabled() ? begin(new SettleEvent()) : null;
+    }
+
+    static void commitSettle(JmsEvent recorded, Object producer, String outcome, long messageSize, boolean creditBlocked) {
+        final SettleEvent event = (SettleEvent) recorded;
+        event.end();
+        if (event.shouldCommit()) {
+            event.producer = String.valueOf(producer);
+            event.outcome = outcome;
+            event.messageSize = messageSize;
+            event.creditBlocked = creditBlocked;
+            event.commit();
+        }
+    }
+
+    static JmsEvent beginInput() {
+        return INPUT.isEnabled() ? begin(new InputEvent()) : null;
+    }
+
+    static void commitInput(JmsEvent recorded, Object connection, long bytes) {
+        final InputEvent event = (InputEvent) recorded;
+        event.end();
+        if (event.shouldCommit()) {
+            event.connection = connection != null ? connection.toString() : null;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    static JmsEvent beginDelivery() {
+        return DELIVERY.isEnabled() ? begin(new DeliveryEvent()) : null;
+    }
+
+    static void commitDelivery(JmsEvent recorded, Object consumer, long messageSize, long decodeTime, boolean decoded) {
+        final DeliveryEvent event = (DeliveryEvent) recorded;
+        event.end();
+        if (event.shouldCommit()) {
+            event.consumer = String.valueOf(consumer);
+            event.messageSize = messageSize;
+            event.decodeTime = decodeTime;
+            event.decoded = decoded;
+            event.commit();
+        }
+    }
+
+    static JmsEvent beginFailover() {
+        return FAILOVER.isEnabled() ? begin(new FailoverEvent()) : null;
+    }
+
+    static void commitFailover(JmsEvent recorded, String phase, Object remoteURI, long attempt, boolean succeeded) {
+        final FailoverEvent event = (FailoverEvent) recorded;
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = phase;
+            event.remoteURI = remoteURI != null ? remoteURI.toString() : null;
+            event.attempt = attempt;
+            event.succeeded = succeeded;
+            event.commit();
+        }
+    }
+
+    static boolean isExecutorTaskEnabled() {
+        return EXECUTOR_TASK.isEnabled();
+    }
+
+    static JmsEvent beginExecutorTask() {
+        return EXECUTOR_TASK.isEnabled() ? begin(new ExecutorTaskEvent()) : null;
+    }
+
+    static void commitExecutorTask(JmsEvent recorded, String executor, long queueTime) {
+        final ExecutorTaskEvent event = (ExecutorTaskEvent) recorded;
+        event.end();
+        if (event.shouldCommit()) {
+            event.executor = executor;
+            event.queueTime = queueTime;
+            event.commit();
+        }
+    }
+
+    private static <E extends jdk.jfr.Event & JmsEvent> E begin(E event) {
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.jfr;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records the client's JDK Flight Recorder events when the jdk.jfr module is present.
+ * <p>
+ * Whether the module is present is checked once, when it is not, for example on a runtime
+ * image built without it or in a container that does not wire the optional package, no
+ * event is ever begun and the jdk.jfr classes are never loaded.  Each begin method returns
+ * null when its event is not enabled and every commit method accepts the null, so callers
+ * can use a null check to skip work done only for the event.
+ */
+public final class JmsEvents {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JmsEvents.class);
+
+    public static final String FAILOVER_CONNECT = "Connect";
+    public static final String FAILOVER_RECOVER = "Recover";
+    public static final String FAILOVER_RESTART = "Restart";
+    public static final String FAILOVER_REPLAY = "Replay";
+
+    private static final boolean AVAILABLE = checkAvailable();
+
+    private JmsEvents() {
+    }
+
+    /**
+     * @return true if the jdk.jfr module is present and the client's events can be recorded.
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    public static JmsEvent beginSend() {
+        return AVAILABLE ? JfrEvents.beginSend() : null;
+    }
+
+    /**
+     * @param event
+     *      the event returned by {@link #beginSend()}.
+     * @param producer
+     *      the id of the producer whose string form is recorded.
+     * @param destination
+     *      the address the message was sent to.
+     * @param synchronous
+     *      whether the send waited for the remote peer to settle it.
+     * @param encodeTime
+     *      the time taken to encode the message in nanoseconds.
+     * @param syncWait
+     *      the time spent waiting for a synchronous send to be settled in nanoseconds.
+     */
+    public static void commitSend(JmsEvent event, Object producer, String destination, boolean synchronous, long encodeTime, long syncWait) {
+        if (event != null) {
+            JfrEvents.commitSend(event, producer, destination, synchronous, encodeTime, syncWait);
+        }
+    }
+
+    public static JmsEvent beginAcknowledge() {
+        return AVAILABLE ? JfrEvents.beginAcknowledge() : null;
+    }
+
+    /**
+     * @param event
+     *      the event returned by {@link #beginAcknowledge()}.
+     * @param session
+     *      the id of the session whose string form is recorded.
+     * @param ackType
+     *      the name of the acknowledgement type.
+     * @param individual
+     *      whether a single message was acknowledged rather than the session.
+     */
+    public static void commitAcknowledge(JmsEvent event, Object session, String ackType, boolean individual) {
+        if (event != null) {
+            JfrEvents.commitAcknowledge(event, session, ackType, individual);
+        }
+    }
+
+    public static JmsEvent beginSettle() {
+        return AVAILABLE ? JfrEvents.beginSettle() : null;
+    }
+
+    /**
+     * @param event
+     *      the event returned by {@link #beginSettle()}.
+     * @param producer
+     *      the id of the producer whose string form is recorded.
+     * @param outcome
+     *      the outcome the remote peer settled the send with, or null if there was none.
+     * @param messageSize
+     *      the encoded size of the message.
+     * @param creditBlocked
+     *      whether the send was held for lack of link credit.
+     */
+    public static void commitSettle(JmsEvent event, Object producer, String outcome, long messageSize, boolean creditBlocked) {
+        if (event != null) {
+            JfrEvents.commitSettle(event, producer, outcome, messageSize, creditBlocked);
+        }
+    }
+
+    public static JmsEvent beginInput() {
+        return AVAILABLE ? JfrEvents.beginInput() : null;
+    }
+
+    /**
+     * @param event
+     *      the event returned by {@link #beginInput()}.
+     * @param connection
+     *      the id of the connection whose string form is recorded, or null if not yet known.
+     * @param bytes
+     *      the number of bytes read.
+     */
+    public static void commitInput(JmsEvent event, Object connection, long bytes) {
+        if (event != null) {
+            JfrEvents.commitInput(event, connection, bytes);
+        }
+    }
+
+    public static JmsEvent beginDelivery() {
+        return AVAILABLE ? JfrEvents.beginDelivery() : null;
+    }
+
+    /**
+     * @param event
+     *      the event returned by {@link #beginDelivery()}.
+     * @param consumer
+     *      the id of the consumer whose string form is recorded.
+     * @param messageSize
+     *      the encoded size of the message.
+     * @param decodeTime
+     *      the time taken to decode the message in nanoseconds.
+     * @param decoded
+     *      whether the message was decoded successfully.
+     */
+    public static void commitDelivery(JmsEvent event, Object consumer, long messageSize, long decodeTime, boolean decoded) {
+        if (event != null) {
+            JfrEvents.commitDelivery(event, consumer, messageSize, decodeTime, decoded);
+        }
+    }
+
+    public static JmsEvent beginFailover() {
+        return AVAILABLE ? JfrEvents.beginFailover() : null;
+    }
+
+    /**
+     * @param event
+     *      the event returned by {@link #beginFailover()}.
+     * @param phase
+     *      the phase of the attempt, one of the FAILOVER constants.
+     * @param remoteURI
+     *      the URI of the remote peer whose string form is recorded, or null if not known.
+     * @param attempt
+     *      the number of the reconnect attempt.
+     * @param succeeded
+     *      whether the phase completed successfully.
+     */
+    public static void commitFailover(JmsEvent event, String phase, Object remoteURI, long attempt, boolean succeeded) {
+        if (event != null) {
+            JfrEvents.commitFailover(event, phase, remoteURI, attempt, succeeded);
+        }
+    }
+
+    /**
+     * @return true if tasks run by the instrumented executors are being recorded.
+     */
+    public static boolean isExecutorTaskEnabled() {
+        return AVAILABLE && JfrEvents.isExecutorTaskEnabled();
+    }
+
+    public static JmsEvent beginExecutorTask() {
+        return AVAILABLE ? JfrEvents.beginExecutorTask() : null;
+    }
+
+    /**
+     * @param event
+     *      the event returned by {@link #beginExecutorTask()}.
+     * @param executor
+     *      the name of the executor that ran the task.
+     * @param queueTime
+     *      the time the task waited in the executor in nanoseconds.
+     */
+    public static void commitExecutorTask(JmsEvent event, String executor, long queueTime) {
+        if (event != null) {
+            JfrEvents.commitExecutorTask(event, executor, queueTime);
+        }
+    }
+
+    private static boolean checkAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, JmsEvents.class.getClassLoader());
+            return true;
+        } catch (Throwable error) {
+            LOG.debug("Flight recorder events disabled, the jdk.jfr module is not available: {}", error.getMessage());
+            return false;
+        }
+    }
+}
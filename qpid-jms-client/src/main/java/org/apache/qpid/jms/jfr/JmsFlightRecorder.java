@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.jfr;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+
+import jdk.jfr.Configuration;
+
+/**
+ * Support for recording the client's JDK Flight Recorder events.
+ * <p>
+ * The client's events are disabled unless enabled by the settings of a recording, the
+ * settings file bundled with the client at {@value #SETTINGS_RESOURCE} enables all of them.
+ * While disabled the events cost no more than a check of whether they are enabled.
+ */
+public final class JmsFlightRecorder {
+
+    public static final String SETTINGS_RESOURCE = "/org/apache/qpid/jms/jfr/qpid-jms.jfc";
+
+    private JmsFlightRecorder() {
+    }
+
+    /**
+     * Reads the bundled settings that enable the client's events, for use when starting a
+     * recording programmatically:
+     * <pre>
+     *   Recording recording = new Recording(JmsFlightRecorder.getConfiguration());
+     * </pre>
+     *
+     * @return the configuration that enables all of the client's events.
+     *
+     * @throws IOException if the settings cannot be read.
+     * @throws ParseException if the settings cannot be parsed.
+     */
+    public static Configuration getConfiguration() throws IOException, ParseException {
+        try (InputStream stream = JmsFlightRecorder.class.getResourceAsStream(SETTINGS_RESOURCE)) {
+            if (stream == null) {
+                throw new IOException("Flight recorder settings not found: " + SETTINGS_RESOURCE);
+            }
+
+            try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+                return Configuration.create(reader);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Recorded for each message sent by a producer, the event spans the send call including any
+ * wait for the remote peer to settle a synchronous send.  The encoded size of the message is
+ * recorded on the {@link SettleEvent} of the send.
+ */
+@Name("org.apache.qpid.jms.Send")
+@Label("JMS Send")
+@Category({ "Qpid JMS", "Producer" })
+@Description("Message send including encoding and any wait for a synchronous send to be settled")
+@Enabled(false)
+@StackTrace(false)
+public final class SendEvent extends jdk.jfr.Event implements JmsEvent {
+
+    @Label("Producer")
+    public String producer;
+
+    @Label("Destination")
+    public String destination;
+
+    @Label("Synchronous")
+    public boolean synchronous;
+
+    @Label("Encode Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long encodeTime;
+
+    @Label("Sync Wait")
+    @Description("Time spent waiting for the remote peer to settle a synchronous send")
+    @Timespan(Timespan.NANOSECONDS)
+    public long syncWait;
+
+}
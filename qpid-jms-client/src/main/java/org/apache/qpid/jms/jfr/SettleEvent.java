@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded when a sent message is completed, the event spans the time from the message being
+ * handed to the producer's link until its outcome was known.
+ */
+@Name("org.apache.qpid.jms.Settle")
+@Label("AMQP Send Settlement")
+@Category({ "Qpid JMS", "Producer" })
+@Description("Time from a message being written to the link until its outcome was known")
+@Enabled(false)
+@StackTrace(false)
+public final class SettleEvent extends jdk.jfr.Event implements JmsEvent {
+
+    @Label("Producer")
+    public String producer;
+
+    @Label("Outcome")
+    @Description("The remote delivery state, or none for a presettled or failed send")
+    public String outcome;
+
+    @Label("Message Size")
+    @DataAmount
+    public long messageSize;
+
+    @Label("Credit Blocked")
+    @Description("Whether the send was held waiting for link credit")
+    public boolean creditBlocked;
+
+}
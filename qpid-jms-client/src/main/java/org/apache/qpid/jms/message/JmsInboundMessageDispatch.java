@@ -40,6 +40,10 @@ public class JmsInboundMessageDispatch extends JmsAbstractResourceId {
         this.sequence = sequence;
     }
 
+    public long getSequence() {
+        return sequence;
+    }
+
     public JmsMessage getMessage() {
         return message;
     }
@@ -56,6 +60,10 @@ public class JmsInboundMessageDispatch extends JmsAbstractResourceId {
         this.consumerId = consumerId;
     }
 
+    public Object getMessageId() {
+        return messageId;
+    }
+
     public void setMessageId(Object object) {
         this.messageId = object;
     }
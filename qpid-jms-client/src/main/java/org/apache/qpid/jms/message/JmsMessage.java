@@ -17,6 +17,13 @@
 package org.apache.qpid.jms.message;
 
 import static org.apache.qpid.jms.message.JmsMessagePropertySupport.convertPropertyTo;
+import static org.apache.qpid.jms.message.JmsMessagePropertySupport.convertPropertyToBoolean;
+import static org.apache.qpid.jms.message.JmsMessagePropertySupport.convertPropertyToByte;
+import static org.apache.qpid.jms.message.JmsMessagePropertySupport.convertPropertyToDouble;
+import static org.apache.qpid.jms.message.JmsMessagePropertySupport.convertPropertyToFloat;
+import static org.apache.qpid.jms.message.JmsMessagePropertySupport.convertPropertyToInt;
+import static org.apache.qpid.jms.message.JmsMessagePropertySupport.convertPropertyToLong;
+import static org.apache.qpid.jms.message.JmsMessagePropertySupport.convertPropertyToShort;
 
 import java.util.Collections;
 import java.util.Enumeration;
@@ -34,6 +41,7 @@ import org.apache.qpid.jms.JmsAcknowledgeCallback;
 import org.apache.qpid.jms.JmsConnection;
 import org.apache.qpid.jms.exceptions.JmsExceptionSupport;
 import org.apache.qpid.jms.message.facade.JmsMessageFacade;
+import org.apache.qpid.jms.message.facade.JmsMessagePropertyTemplate;
 
 public class JmsMessage implements jakarta.jms.Message {
 
@@ -348,6 +356,24 @@ public class JmsMessage implements jakarta.jms.Message {
         JmsMessagePropertyIntercepter.setProperty(this, name, value);
     }
 
+    /**
+     * Sets all of the properties held in a template created by the provider's message
+     * factory on this message.  The template must only hold application properties, its
+     * property names are not validated again here.
+     *
+     * @param template
+     *        the property template to apply to this message.
+     *
+     * @return true if the template was applied, false if each property must be set individually.
+     *
+     * @throws JMSException if the message properties are read-only or cannot be updated.
+     */
+    public boolean applyPropertyTemplate(JmsMessagePropertyTemplate template) throws JMSException {
+        checkReadOnly();
+        checkReadOnlyProperties();
+        return facade.applyPropertyTemplate(template);
+    }
+
     @Override
     public Object getObjectProperty(String name) throws JMSException {
         return JmsMessagePropertyIntercepter.getProperty(this, name);
@@ -355,37 +381,37 @@ public class JmsMessage implements jakarta.jms.Message {
 
     @Override
     public boolean getBooleanProperty(String name) throws JMSException {
-        return convertPropertyTo(name, getObjectProperty(name), Boolean.class);
+        return convertPropertyToBoolean(name, getObjectProperty(name));
     }
 
     @Override
     public byte getByteProperty(String name) throws JMSException {
-        return convertPropertyTo(name, getObjectProperty(name), Byte.class);
+        return convertPropertyToByte(name, getObjectProperty(name));
     }
 
     @Override
     public short getShortProperty(String name) throws JMSException {
-        return convertPropertyTo(name, getObjectProperty(name), Short.class);
+        return convertPropertyToShort(name, getObjectProperty(name));
     }
 
     @Override
     public int getIntProperty(String name) throws JMSException {
-        return convertPropertyTo(name, getObjectProperty(name), Integer.class);
+        return convertPropertyToInt(name, getObjectProperty(name));
     }
 
     @Override
     public long getLongProperty(String name) throws JMSException {
-        return convertPropertyTo(name, getObjectProperty(name), Long.class);
+        return convertPropertyToLong(name, getObjectProperty(name));
     }
 
     @Override
     public float getFloatProperty(String name) throws JMSException {
-        return convertPropertyTo(name, getObjectProperty(name), Float.class);
+        return convertPropertyToFloat(name, getObjectProperty(name));
     }
 
     @Override
     public double getDoubleProperty(String name) throws JMSException {
-        return convertPropertyTo(name, getObjectProperty(name), Double.class);
+        return convertPropertyToDouble(name, getObjectProperty(name));
     }
 
     @Override
@@ -17,9 +17,12 @@
 package org.apache.qpid.jms.message;
 
 import java.io.Serializable;
+import java.util.Map;
 
 import jakarta.jms.JMSException;
 
+import org.apache.qpid.jms.message.facade.JmsMessagePropertyTemplate;
+
 /**
  * Interface that a Provider should implement to provide a Provider
  * Specific JmsMessage implementation that optimizes the exchange of
@@ -130,4 +133,18 @@ public interface JmsMessageFactory {
      */
     JmsObjectMessage createObjectMessage() throws JMSException;
 
+    /**
+     * Creates a template holding a fixed set of application properties that can be
+     * applied to many outgoing messages, the provider can prepare the properties once
+     * so that applying the template is cheaper than setting each property in turn.
+     *
+     * @param properties
+     *        The application properties that the template should contain.
+     *
+     * @return a new template, or null if the provider does not support property templates.
+     *
+     * @throws JMSException if the provider cannot create the template for some reason.
+     */
+    JmsMessagePropertyTemplate createPropertyTemplate(Map<String, Object> properties) throws JMSException;
+
 }
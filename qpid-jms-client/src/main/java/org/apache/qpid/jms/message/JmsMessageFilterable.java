@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.message;
+
+import jakarta.jms.JMSException;
+
+import org.apache.qpid.jms.selector.filter.FilterException;
+import org.apache.qpid.jms.selector.filter.Filterable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adapts a JmsMessage so that it can be evaluated by the client selector engine.
+ * <p>
+ * Identifiers are resolved in the same manner as {@link JmsMessage#getObjectProperty(String)}
+ * so that the JMS header fields a selector may reference are mapped to their selector values,
+ * e.g. JMSDeliveryMode evaluates to the string PERSISTENT or NON_PERSISTENT.
+ */
+public class JmsMessageFilterable implements Filterable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JmsMessageFilterable.class);
+
+    private final JmsMessage message;
+
+    public JmsMessageFilterable(JmsMessage message) {
+        this.message = message;
+    }
+
+    @Override
+    public <T> T getBodyAs(Class<T> type) throws FilterException {
+        try {
+            return message.getBody(type);
+        } catch (JMSException e) {
+            throw new FilterException(e);
+        }
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        try {
+            return JmsMessagePropertyIntercepter.getProperty(message, name);
+        } catch (JMSException e) {
+            // A property that cannot be read is treated as unknown by the selector
+            LOG.trace("Error reading property {} for selector evaluation: {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public Object getLocalConnectionId() {
+        return null;
+    }
+}
@@ -16,9 +16,12 @@
  */
 package org.apache.qpid.jms.message;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Locale;
 
 import org.apache.qpid.jms.provider.amqp.message.AmqpMessageIdHelper;
+import org.apache.qpid.proton.amqp.Binary;
 
 /**
  * Interface for creating a custom Message ID builder to populate the
@@ -121,6 +124,54 @@ public interface JmsMessageIDBuilder {
                     }
                 };
             }
+        },
+        BINARY {
+            @Override
+            public JmsMessageIDBuilder createBuilder() {
+
+                /**
+                 * The binary builder is meant to be used as a single instance per producer, each ID
+                 * is a random prefix unique to the builder followed by the minimal big-endian bytes
+                 * of the message sequence.  The JMSMessageID String form is only created on request.
+                 */
+                return new JmsMessageIDBuilder() {
+
+                    private byte[] prefix;
+
+                    @Override
+                    public Object createMessageID(String producerId, long messageSequence) {
+                        if (prefix == null) {
+                            initialize(producerId);
+                        }
+
+                        int sequenceLength = Math.max(1, Long.BYTES - Long.numberOfLeadingZeros(messageSequence) / Byte.SIZE);
+                        byte[] id = Arrays.copyOf(prefix, prefix.length + sequenceLength);
+                        for (int i = id.length - 1; i >= prefix.length; --i) {
+                            id[i] = (byte) messageSequence;
+                            messageSequence >>>= Byte.SIZE;
+                        }
+
+                        return new Binary(id);
+                    }
+
+                    @Override
+                    public JmsMessageIDBuilder initialize(String producerId) {
+                        java.util.UUID random = java.util.UUID.randomUUID();
+
+                        prefix = ByteBuffer.allocate(2 * Long.BYTES)
+                                           .putLong(random.getMostSignificantBits())
+                                           .putLong(random.getLeastSignificantBits())
+                                           .array();
+
+                        return this;
+                    }
+
+                    @Override
+                    public String toString() {
+                        return BINARY.name();
+                    }
+                };
+            }
         };
 
         public abstract JmsMessageIDBuilder createBuilder();
@@ -60,6 +60,12 @@ public class JmsMessagePropertyIntercepter {
     private static final Set<String> STANDARD_HEADERS = new HashSet<String>();
     private static final Set<String> VENDOR_PROPERTIES = new HashSet<String>();
 
+    // Collision free table of the intercepters indexed by the spread hash of their names
+    private static final String INTERCEPTED_NAME_PREFIX = "JMS";
+    private static final String[] INTERCEPTED_NAMES;
+    private static final PropertyIntercepter[] INTERCEPTER_TABLE;
+    private static final int INTERCEPTER_TABLE_MASK;
+
     /**
      * Interface for a Property intercepter object used to write JMS style
      * properties that are part of the JMS Message object members or perform
@@ -670,6 +676,55 @@ public class JmsMessagePropertyIntercepter {
                 return false;
             }
         });
+
+        // Find the smallest table in which every intercepted name hashes to its own slot
+        int tableSize = Integer.highestOneBit(PROPERTY_INTERCEPTERS.size() * 2 - 1) << 1;
+        String[] names;
+        PropertyIntercepter[] table;
+
+        buildTable: while (true) {
+            names = new String[tableSize];
+            table = new PropertyIntercepter[tableSize];
+
+            for (Entry<String, PropertyIntercepter> entry : PROPERTY_INTERCEPTERS.entrySet()) {
+                int index = spread(entry.getKey().hashCode()) & (tableSize - 1);
+                if (names[index] != null) {
+                    tableSize <<= 1;
+                    continue buildTable;
+                }
+
+                names[index] = entry.getKey();
+                table[index] = entry.getValue();
+            }
+
+            break;
+        }
+
+        INTERCEPTED_NAMES = names;
+        INTERCEPTER_TABLE = table;
+        INTERCEPTER_TABLE_MASK = tableSize - 1;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /*
+     * Every intercepted name carries the JMS prefix so application properties are rejected
+     * without hashing, the others need a single probe and comparison.
+     */
+    private static PropertyIntercepter lookupIntercepter(String name) {
+        if (name == null || !name.startsWith(INTERCEPTED_NAME_PREFIX)) {
+            return null;
+        }
+
+        int index = spread(name.hashCode()) & INTERCEPTER_TABLE_MASK;
+        String candidate = INTERCEPTED_NAMES[index];
+        if (candidate != null && candidate.equals(name)) {
+            return INTERCEPTER_TABLE[index];
+        }
+
+        return null;
     }
 
     /**
@@ -691,7 +746,7 @@ public class JmsMessagePropertyIntercepter {
 
         checkPropertyNameIsValid(name, message.isValidatePropertyNames());
 
-        PropertyIntercepter jmsPropertyExpression = PROPERTY_INTERCEPTERS.get(name);
+        PropertyIntercepter jmsPropertyExpression = lookupIntercepter(name);
         if (jmsPropertyExpression != null) {
             value = jmsPropertyExpression.getProperty(message);
         } else {
@@ -716,7 +771,7 @@ public class JmsMessagePropertyIntercepter {
      * @throws JMSException if an error occurs while writing the defined property.
      */
     public static void setProperty(JmsMessage message, String name, Object value) throws JMSException {
-        PropertyIntercepter jmsPropertyExpression = PROPERTY_INTERCEPTERS.get(name);
+        PropertyIntercepter jmsPropertyExpression = lookupIntercepter(name);
 
         if (jmsPropertyExpression == null || !jmsPropertyExpression.isAlwaysWritable()) {
             message.checkReadOnlyProperties();
@@ -750,7 +805,7 @@ public class JmsMessagePropertyIntercepter {
             return false;
         }
 
-        PropertyIntercepter jmsPropertyExpression = PROPERTY_INTERCEPTERS.get(name);
+        PropertyIntercepter jmsPropertyExpression = lookupIntercepter(name);
         if (jmsPropertyExpression != null) {
             return jmsPropertyExpression.propertyExists(message);
         } else {
@@ -50,6 +50,99 @@ public class JmsMessagePropertySupport {
         return rc;
     }
 
+    /*
+     * The primitive conversions below apply the same rules as convertPropertyTo but test the
+     * value type directly, avoiding the conversion map lookup and boxing of the result.
+     */
+
+    public static boolean convertPropertyToBoolean(String name, Object value) throws JMSException {
+        if (value instanceof Boolean) {
+            return ((Boolean) value).booleanValue();
+        } else if (value instanceof String) {
+            return Boolean.parseBoolean((String) value);
+        } else if (value == null) {
+            return false;
+        }
+
+        throw conversionError(name, value, Boolean.class);
+    }
+
+    public static byte convertPropertyToByte(String name, Object value) throws JMSException {
+        if (value instanceof Byte) {
+            return ((Byte) value).byteValue();
+        } else if (value instanceof String) {
+            return Byte.parseByte((String) value);
+        } else if (value == null) {
+            throw new NumberFormatException("property " + name + " was null");
+        }
+
+        throw conversionError(name, value, Byte.class);
+    }
+
+    public static short convertPropertyToShort(String name, Object value) throws JMSException {
+        if (value instanceof Short || value instanceof Byte) {
+            return ((Number) value).shortValue();
+        } else if (value instanceof String) {
+            return Short.parseShort((String) value);
+        } else if (value == null) {
+            throw new NumberFormatException("property " + name + " was null");
+        }
+
+        throw conversionError(name, value, Short.class);
+    }
+
+    public static int convertPropertyToInt(String name, Object value) throws JMSException {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).intValue();
+        } else if (value instanceof String) {
+            return Integer.parseInt((String) value);
+        } else if (value == null) {
+            throw new NumberFormatException("property " + name + " was null");
+        }
+
+        throw conversionError(name, value, Integer.class);
+    }
+
+    public static long convertPropertyToLong(String name, Object value) throws JMSException {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        } else if (value instanceof String) {
+            return Long.parseLong((String) value);
+        } else if (value == null) {
+            throw new NumberFormatException("property " + name + " was null");
+        }
+
+        throw conversionError(name, value, Long.class);
+    }
+
+    public static float convertPropertyToFloat(String name, Object value) throws JMSException {
+        if (value instanceof Float) {
+            return ((Float) value).floatValue();
+        } else if (value instanceof String) {
+            return Float.parseFloat((String) value);
+        } else if (value == null) {
+            throw new NullPointerException("property " + name + " was null");
+        }
+
+        throw conversionError(name, value, Float.class);
+    }
+
+    public static double convertPropertyToDouble(String name, Object value) throws JMSException {
+        if (value instanceof Double || value instanceof Float) {
+            return ((Number) value).doubleValue();
+        } else if (value instanceof String) {
+            return Double.parseDouble((String) value);
+        } else if (value == null) {
+            throw new NullPointerException("property " + name + " was null");
+        }
+
+        throw conversionError(name, value, Double.class);
+    }
+
+    private static MessageFormatException conversionError(String name, Object value, Class<?> target) {
+        return new MessageFormatException("Property " + name + " was a " + value.getClass().getName() + " and cannot be read as a " + target.getName());
+    }
+
     //----- Property Name Validation Methods ---------------------------------//
 
     public static void checkPropertyNameIsValid(String propertyName, boolean validateNames) throws IllegalArgumentException {
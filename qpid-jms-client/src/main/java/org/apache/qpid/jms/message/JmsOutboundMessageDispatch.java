@@ -18,6 +18,7 @@ package org.apache.qpid.jms.message;
 
 import org.apache.qpid.jms.JmsDestination;
 import org.apache.qpid.jms.meta.JmsProducerId;
+import org.apache.qpid.jms.meta.JmsTransactionId;
 
 /**
  * Envelope that wraps the objects involved in a Message send operation.
@@ -32,6 +33,7 @@ public class JmsOutboundMessageDispatch {
     private boolean completionRequired;
     private long dispatchId;
     private Object payload;
+    private JmsTransactionId transactionId;
 
     private transient String stringView;
 
@@ -103,6 +105,17 @@ public class JmsOutboundMessageDispatch {
         this.completionRequired = completionRequired;
     }
 
+    /**
+     * @return the transaction the message is sent in, or null if the send is not transacted.
+     */
+    public JmsTransactionId getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(JmsTransactionId transactionId) {
+        this.transactionId = transactionId;
+    }
+
     @Override
     public String toString() {
         if (stringView == null) {
@@ -77,6 +77,19 @@ public interface JmsMessageFacade extends TraceableMessage {
      */
     void setProperty(String key, Object value) throws JMSException;
 
+    /**
+     * Sets all the properties contained in the given template on the message, replacing
+     * any existing values stored under the same keys.
+     *
+     * @param template
+     *        the property template that was created by this provider's message factory.
+     *
+     * @return true if the template was applied, false if the caller must set each property itself.
+     *
+     * @throws JMSException if an error occurs while accessing the Message properties.
+     */
+    boolean applyPropertyTemplate(JmsMessagePropertyTemplate template) throws JMSException;
+
     /**
      * Called before a message is sent to allow a Message instance to move the
      * contents from a logical data structure to a binary form for transmission, or
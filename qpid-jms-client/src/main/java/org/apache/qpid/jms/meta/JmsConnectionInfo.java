@@ -27,6 +27,8 @@ import jakarta.jms.Connection;
 import org.apache.qpid.jms.JmsConnection;
 import org.apache.qpid.jms.JmsConnectionExtensions;
 import org.apache.qpid.jms.policy.JmsDefaultDeserializationPolicy;
+import org.apache.qpid.jms.metrics.JmsMetrics;
+import org.apache.qpid.jms.metrics.JmsMetricsRegistry;
 import org.apache.qpid.jms.policy.JmsDefaultMessageIDPolicy;
 import org.apache.qpid.jms.policy.JmsDefaultPrefetchPolicy;
 import org.apache.qpid.jms.policy.JmsDefaultPresettlePolicy;
@@ -50,6 +52,7 @@ public final class JmsConnectionInfo extends JmsAbstractResource implements Comp
     public static final long DEFAULT_CLOSE_TIMEOUT = 60000;
     public static final long DEFAULT_SEND_TIMEOUT = INFINITE;
     public static final long DEFAULT_REQUEST_TIMEOUT = INFINITE;
+    public static final String DEFAULT_LOCAL_SELECTOR_OUTCOME = "RELEASED";
 
     private final JmsConnectionId connectionId;
     private final EnumMap<JmsConnectionExtensions, BiFunction<Connection, URI, Object>> extensionMap = new EnumMap<>(JmsConnectionExtensions.class);
@@ -74,6 +77,11 @@ public final class JmsConnectionInfo extends JmsAbstractResource implements Comp
     private boolean useDaemonThread;
     private boolean awaitClientID = true;
     private boolean closeLinksThatFailOnReconnect;
+    private boolean pipelinedRecovery;
+    private int duplicateSuppressionWindow;
+    private boolean localSelectorEvaluation;
+    private String localSelectorOutcome = DEFAULT_LOCAL_SELECTOR_OUTCOME;
+    private boolean sharedConsumerLinks;
     private long sendTimeout = DEFAULT_SEND_TIMEOUT;
     private long requestTimeout = DEFAULT_REQUEST_TIMEOUT;
     private long connectTimeout = DEFAULT_CONNECT_TIMEOUT;
@@ -89,6 +97,8 @@ public final class JmsConnectionInfo extends JmsAbstractResource implements Comp
 
     private volatile byte[] encodedUserId;
     private JmsTracer tracer = JmsNoOpTracer.INSTANCE;
+    private JmsMetricsRegistry metricsRegistry;
+    private JmsMetrics metrics = JmsMetrics.DISABLED;
 
     public JmsConnectionInfo(JmsConnectionId connectionId) {
         if (connectionId == null) {
@@ -122,6 +132,12 @@ public final class JmsConnectionInfo extends JmsAbstractResource implements Comp
         copy.validateSelector = validateSelector;
         copy.useDaemonThread = useDaemonThread;
         copy.closeLinksThatFailOnReconnect = closeLinksThatFailOnReconnect;
+        copy.pipelinedRecovery = pipelinedRecovery;
+        copy.duplicateSuppressionWindow = duplicateSuppressionWindow;
+        copy.localSelectorEvaluation = localSelectorEvaluation;
+        copy.localSelectorOutcome = localSelectorOutcome;
+        copy.sharedConsumerLinks = sharedConsumerLinks;
+        copy.metrics = metrics;
         copy.messageIDPolicy = getMessageIDPolicy().copy();
         copy.prefetchPolicy = getPrefetchPolicy().copy();
         copy.redeliveryPolicy = getRedeliveryPolicy().copy();
@@ -394,6 +410,46 @@ public final class JmsConnectionInfo extends JmsAbstractResource implements Comp
         this.closeLinksThatFailOnReconnect = closeLinksThatFailOnReconnect;
     }
 
+    public boolean isPipelinedRecovery() {
+        return pipelinedRecovery;
+    }
+
+    public void setPipelinedRecovery(boolean pipelinedRecovery) {
+        this.pipelinedRecovery = pipelinedRecovery;
+    }
+
+    public int getDuplicateSuppressionWindow() {
+        return duplicateSuppressionWindow;
+    }
+
+    public void setDuplicateSuppressionWindow(int duplicateSuppressionWindow) {
+        this.duplicateSuppressionWindow = duplicateSuppressionWindow;
+    }
+
+    public boolean isLocalSelectorEvaluation() {
+        return localSelectorEvaluation;
+    }
+
+    public void setLocalSelectorEvaluation(boolean localSelectorEvaluation) {
+        this.localSelectorEvaluation = localSelectorEvaluation;
+    }
+
+    public String getLocalSelectorOutcome() {
+        return localSelectorOutcome;
+    }
+
+    public void setLocalSelectorOutcome(String localSelectorOutcome) {
+        this.localSelectorOutcome = localSelectorOutcome;
+    }
+
+    public boolean isSharedConsumerLinks() {
+        return sharedConsumerLinks;
+    }
+
+    public void setSharedConsumerLinks(boolean sharedConsumerLinks) {
+        this.sharedConsumerLinks = sharedConsumerLinks;
+    }
+
     public EnumMap<JmsConnectionExtensions, BiFunction<Connection, URI, Object>> getExtensionMap() {
         return extensionMap;
     }
@@ -452,4 +508,26 @@ public final class JmsConnectionInfo extends JmsAbstractResource implements Comp
     public JmsTracer getTracer() {
         return tracer;
     }
+
+    public void setMetricsRegistry(JmsMetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    /**
+     * @return the registry the metrics of the connection's resources are exported to, or null if disabled.
+     */
+    public JmsMetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+
+    /**
+     * @return the metrics maintained for this connection, disabled unless a metrics registry is configured.
+     */
+    public JmsMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(JmsMetrics metrics) {
+        this.metrics = metrics;
+    }
 }
@@ -18,6 +18,7 @@ package org.apache.qpid.jms.meta;
 
 import org.apache.qpid.jms.JmsDestination;
 import org.apache.qpid.jms.JmsMessageDispatcher;
+import org.apache.qpid.jms.metrics.JmsMetrics;
 import org.apache.qpid.jms.policy.JmsDefaultDeserializationPolicy;
 import org.apache.qpid.jms.policy.JmsDefaultRedeliveryPolicy;
 import org.apache.qpid.jms.policy.JmsDeserializationPolicy;
@@ -44,6 +45,7 @@ public final class JmsConsumerInfo extends JmsAbstractResource implements Compar
 
     private JmsRedeliveryPolicy redeliveryPolicy;
     private JmsDeserializationPolicy deserializationPolicy;
+    private JmsMetrics metrics = JmsMetrics.DISABLED;
 
     // Can be used to track the last consumed message.
     private transient long lastDeliveredSequenceId;
@@ -81,6 +83,7 @@ public final class JmsConsumerInfo extends JmsAbstractResource implements Compar
         info.listener = listener;
         info.connectionConsumer = connectionConsumer;
         info.maxMessages = maxMessages;
+        info.metrics = metrics;
     }
 
     @Override
@@ -218,6 +221,17 @@ public final class JmsConsumerInfo extends JmsAbstractResource implements Compar
         this.deserializationPolicy = deserializationPolicy;
     }
 
+    /**
+     * @return the metrics maintained for this consumer, disabled unless a metrics registry is configured.
+     */
+    public JmsMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(JmsMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     public boolean isPresettle() {
         return presettle;
     }
@@ -18,6 +18,7 @@ package org.apache.qpid.jms.meta;
 
 import org.apache.qpid.jms.JmsDestination;
 import org.apache.qpid.jms.message.JmsMessageIDBuilder;
+import org.apache.qpid.jms.metrics.JmsMetrics;
 
 public final class JmsProducerInfo extends JmsAbstractResource implements Comparable<JmsProducerInfo> {
 
@@ -26,6 +27,7 @@ public final class JmsProducerInfo extends JmsAbstractResource implements Compar
 
     private JmsDestination destination;
     private boolean presettle;
+    private JmsMetrics metrics = JmsMetrics.DISABLED;
 
     public JmsProducerInfo(JmsProducerId producerId) {
         this(producerId, JmsMessageIDBuilder.BUILTIN.DEFAULT.createBuilder());
@@ -52,6 +54,7 @@ public final class JmsProducerInfo extends JmsAbstractResource implements Compar
 
     public void copy(JmsProducerInfo info) {
         info.destination = destination;
+        info.metrics = metrics;
     }
 
     @Override
@@ -93,6 +96,17 @@ public final class JmsProducerInfo extends JmsAbstractResource implements Compar
         return messageIDBuilder;
     }
 
+    /**
+     * @return the metrics maintained for this producer, disabled unless a metrics registry is configured.
+     */
+    public JmsMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(JmsMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     @Override
     public String toString() {
         return "JmsProducerInfo { " + getId() + ", destination = " + getDestination() + " }";
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing count that can be updated from many threads without contention.
+ */
+public final class JmsCounter {
+
+    /**
+     * A counter that counts nothing, for instruments of resources whose metrics are disabled.
+     */
+    public static final JmsCounter DISABLED = new JmsCounter(false);
+
+    private final LongAdder value;
+
+    JmsCounter() {
+        this(true);
+    }
+
+    private JmsCounter(boolean enabled) {
+        this.value = enabled ? new LongAdder() : null;
+    }
+
+    public void increment() {
+        if (value != null) {
+            value.increment();
+        }
+    }
+
+    public void add(long amount) {
+        if (value != null) {
+            value.add(amount);
+        }
+    }
+
+    /**
+     * @return the current count, or zero for a counter of a resource whose metrics are disabled.
+     */
+    public long get() {
+        return value != null ? value.sum() : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(get());
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies recorded in nanoseconds.
+ * <p>
+ * Values are counted in buckets whose width doubles with each power of two and that are each
+ * split into eight sub-buckets, giving a relative error below 12.5% over the whole range of a
+ * long with a fixed footprint.  Recording is lock free, a value updates a single bucket along
+ * with the running count, total and maximum.
+ * <p>
+ * The histogram of a resource whose metrics are disabled records nothing and does not read the
+ * clock, so the {@link #start()} and {@link #recordSince(long)} pair can be left in place on
+ * paths where metrics are rarely enabled.
+ */
+public final class JmsHistogram {
+
+    /**
+     * A histogram that records nothing, for instruments of resources whose metrics are disabled.
+     */
+    public static final JmsHistogram DISABLED = new JmsHistogram(false);
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray buckets;
+    private final LongAdder total;
+    private final AtomicLong max;
+
+    JmsHistogram() {
+        this(true);
+    }
+
+    private JmsHistogram(boolean enabled) {
+        if (enabled) {
+            buckets = new AtomicLongArray(BUCKET_COUNT);
+            total = new LongAdder();
+            max = new AtomicLong();
+        } else {
+            buckets = null;
+            total = null;
+            max = null;
+        }
+    }
+
+    /**
+     * @return true if values given to this histogram are recorded.
+     */
+    public boolean isEnabled() {
+        return buckets != null;
+    }
+
+    /**
+     * @return the time to later pass to {@link #recordSince(long)}, zero when disabled.
+     */
+    public long start() {
+        return buckets != null ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time elapsed since the given value was obtained from {@link #start()}.
+     *
+     * @param start
+     *      the value returned from an earlier call to start.
+     */
+    public void recordSince(long start) {
+        if (buckets != null) {
+            record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records a single value, negative values are recorded as zero.
+     *
+     * @param value
+     *      the value in nanoseconds.
+     */
+    public void record(long value) {
+        if (buckets == null) {
+            return;
+        }
+
+        value = Math.max(0, value);
+
+        buckets.incrementAndGet(indexOf(value));
+        total.add(value);
+
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * @return a point in time copy of the recorded values.
+     */
+    public Snapshot snapshot() {
+        final long[] counts = new long[buckets != null ? BUCKET_COUNT : 0];
+        long count = 0;
+
+        for (int i = 0; i < counts.length; ++i) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+
+        return new Snapshot(counts, count, total != null ? total.sum() : 0, max != null ? max.get() : 0);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        final int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & SUB_BUCKET_MASK);
+    }
+
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        final int shift = (index >> SUB_BUCKET_BITS) - 1;
+        final long mantissa = SUB_BUCKET_COUNT | (index & SUB_BUCKET_MASK);
+
+        // Overflows to exactly Long.MAX_VALUE for the last bucket.
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /**
+     * The recorded values of a histogram at a point in time.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long total;
+        private final long max;
+
+        Snapshot(long[] counts, long count, long total, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.total = total;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) total / count;
+        }
+
+        /**
+         * Returns the value at or below which the given percentage of the values fall, the
+         * value reported is the upper bound of the bucket that holds it.
+         *
+         * @param percentile
+         *      the percentile to return, between 0 and 100.
+         *
+         * @return the value at the percentile, or zero if nothing was recorded.
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+
+            final long target = Math.max(1, (long) Math.ceil(Math.min(100.0, percentile) / 100.0 * count));
+
+            long seen = 0;
+            for (int i = 0; i < counts.length; ++i) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return Math.min(highestValueOf(i), max);
+                }
+            }
+
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return "count = " + count + ", mean = " + getMean() + ", p50 = " + getValueAtPercentile(50) +
+                   ", p99 = " + getValueAtPercentile(99) + ", max = " + max;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import org.apache.qpid.jms.meta.JmsResourceId;
+
+/**
+ * The named counters, histograms and gauges maintained for a single connection, session,
+ * producer or consumer.
+ * <p>
+ * A resource looks up its instruments once when it is created and keeps them for use on its
+ * hot paths, the lookup is the only point at which the set of instruments is consulted.  When
+ * no {@link JmsMetricsRegistry} is configured resources are given the {@link #DISABLED}
+ * instance whose instruments do nothing.
+ */
+public final class JmsMetrics {
+
+    public static final JmsMetrics DISABLED = new JmsMetrics(null, null, false);
+
+    public static final String CONNECTION = "Connection";
+    public static final String SESSION = "Session";
+    public static final String PRODUCER = "Producer";
+    public static final String CONSUMER = "Consumer";
+
+    /** Count of the times the connection was interrupted and then restored by failover. */
+    public static final String RECONNECTS = "reconnects";
+    /** Count of the bytes read from the connection's transport. */
+    public static final String BYTES_IN = "bytesIn";
+    /** Count of the bytes written to the connection's transport. */
+    public static final String BYTES_OUT = "bytesOut";
+    /** Time the connection's event loop spent processing each read from the transport. */
+    public static final String INPUT_PROCESSING_TIME = "inputProcessingTime";
+
+    /**
+     * The provider's serializer, which runs its tasks on the event loop of the connection's transport.
+     * When the transport uses a shared event loop group the loop also runs the tasks of the other
+     * connections bound to it, which are included in the serializer's queue depth.
+     */
+    public static final String SERIALIZER = "serializer";
+    /**
+     * Prefix of the event loops of a shared transport event loop group, followed by the index of
+     * the event loop and {@link #QUEUE_DEPTH}.
+     */
+    public static final String SHARED_EVENT_LOOP = "sharedEventLoop";
+    /** The connection executor that runs application callbacks and blocking work. */
+    public static final String CONNECTION_EXECUTOR = "connectionExecutor";
+    /** The session executor that delivers messages to listeners. */
+    public static final String DELIVERY_EXECUTOR = "deliveryExecutor";
+    /** The session executor that completes asynchronous sends. */
+    public static final String COMPLETION_EXECUTOR = "completionExecutor";
+
+    /** Suffix of the number of tasks waiting to be run by an executor, appended to the executor name. */
+    public static final String QUEUE_DEPTH = "QueueDepth";
+    /** Suffix of the time tasks waited in an executor before being run, appended to the executor name. */
+    public static final String TASK_WAIT_TIME = "TaskWaitTime";
+    /** Suffix of the time an executor spent running each task, appended to the executor name. */
+    public static final String TASK_EXECUTION_TIME = "TaskExecutionTime";
+
+    /** Time a commit of the session's transaction took to complete. */
+    public static final String COMMIT_TIME = "commitTime";
+    /** Time a consumed message acknowledgement of the session took to complete. */
+    public static final String ACKNOWLEDGE_TIME = "acknowledgeTime";
+
+    /** Count of the messages sent by the producer. */
+    public static final String MESSAGES_SENT = "messagesSent";
+    /** Time a synchronous send took from being issued until its outcome arrived. */
+    public static final String SYNC_SEND_TIME = "syncSendTime";
+    /** Count of the sends the producer held for lack of link credit. */
+    public static final String CREDIT_STALLS = "creditStalls";
+    /** Time a send was held for lack of link credit before it was transferred. */
+    public static final String CREDIT_BLOCKED_TIME = "creditBlockedTime";
+
+    /** Count of the messages handed to the application by the consumer. */
+    public static final String MESSAGES_DELIVERED = "messagesDelivered";
+    /** Number of messages prefetched by the consumer and waiting to be delivered. */
+    public static final String PREFETCH_QUEUE_DEPTH = "prefetchQueueDepth";
+    /** Time spent decoding each message that arrived for the consumer. */
+    public static final String DECODE_TIME = "decodeTime";
+
+    private final String type;
+    private final JmsResourceId resourceId;
+    private final boolean enabled;
+
+    private final Map<String, JmsCounter> counters = new ConcurrentHashMap<>();
+    private final Map<String, JmsHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the metrics of a resource.
+     *
+     * @param type
+     *      the type of the resource, such as {@link #PRODUCER}.
+     * @param resourceId
+     *      the id of the resource the metrics are maintained for.
+     */
+    public JmsMetrics(String type, JmsResourceId resourceId) {
+        this(type, resourceId, true);
+    }
+
+    private JmsMetrics(String type, JmsResourceId resourceId, boolean enabled) {
+        this.type = type;
+        this.resourceId = resourceId;
+        this.enabled = enabled;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public JmsResourceId getResourceId() {
+        return resourceId;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param name
+     *      the name of the counter.
+     *
+     * @return the counter with the given name, created if it does not yet exist.
+     */
+    public JmsCounter counter(String name) {
+        return enabled ? counters.computeIfAbsent(name, key -> new JmsCounter()) : JmsCounter.DISABLED;
+    }
+
+    /**
+     * @param name
+     *      the name of the histogram.
+     *
+     * @return the histogram with the given name, created if it does not yet exist.
+     */
+    public JmsHistogram histogram(String name) {
+        return enabled ? histograms.computeIfAbsent(name, key -> new JmsHistogram()) : JmsHistogram.DISABLED;
+    }
+
+    /**
+     * Registers a value that is read each time the metrics are exported.
+     *
+     * @param name
+     *      the name of the gauge.
+     * @param value
+     *      supplies the current value of the gauge, it must be safe to call from any thread.
+     */
+    public void gauge(String name, LongSupplier value) {
+        if (enabled) {
+            gauges.put(name, value);
+        }
+    }
+
+    public Map<String, JmsCounter> getCounters() {
+        return Collections.unmodifiableMap(counters);
+    }
+
+    public Map<String, JmsHistogram> getHistograms() {
+        return Collections.unmodifiableMap(histograms);
+    }
+
+    public Map<String, LongSupplier> getGauges() {
+        return Collections.unmodifiableMap(gauges);
+    }
+
+    @Override
+    public String toString() {
+        return "JmsMetrics { " + type + " " + resourceId + " }";
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.metrics;
+
+/**
+ * Receives the metrics of each resource of a connection so that they can be exported.
+ * <p>
+ * The metrics of a resource are registered when it is created and unregistered once it has
+ * been closed, a registry is closed along with the connection that uses it.
+ */
+public interface JmsMetricsRegistry {
+
+    void register(JmsMetrics metrics);
+
+    void unregister(JmsMetrics metrics);
+
+    void close();
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.metrics;
+
+import java.io.IOException;
+import java.net.URI;
+
+import org.apache.qpid.jms.util.FactoryFinder;
+
+public abstract class JmsMetricsRegistryFactory {
+
+    private static final FactoryFinder<JmsMetricsRegistryFactory> REGISTRY_FACTORY_FINDER =
+        new FactoryFinder<JmsMetricsRegistryFactory>(JmsMetricsRegistryFactory.class,
+            "META-INF/services/" + JmsMetricsRegistryFactory.class.getPackage().getName().replace(".", "/") + "/");
+
+    public abstract JmsMetricsRegistry createRegistry(URI remoteURI, String name) throws Exception;
+
+    /**
+     * Creates a JmsMetricsRegistry using factory with the given name and any relevant
+     * configuration properties set on the given remote URI.
+     *
+     * @param remoteURI
+     *        The connection uri.
+     * @param name
+     *        The name that describes the desired metrics registry factory.
+     * @return a metrics registry instance matching the name.
+     *
+     * @throws Exception if an error occurs while creating the metrics registry.
+     */
+    public static JmsMetricsRegistry create(URI remoteURI, String name) throws Exception {
+        JmsMetricsRegistryFactory factory = findRegistryFactory(name);
+
+        return factory.createRegistry(remoteURI, name);
+    }
+
+    /**
+     * Searches for a JmsMetricsRegistryFactory by using the given name.
+     *
+     * The search first checks the local cache of factories before moving on to search in the class path.
+     *
+     * @param name
+     *        The name that describes the desired metrics registry factory.
+     *
+     * @return a metrics registry factory instance matching the name.
+     *
+     * @throws IOException if an error occurs while locating the factory.
+     */
+    public static JmsMetricsRegistryFactory findRegistryFactory(String name) throws IOException {
+        if (name == null || name.isEmpty()) {
+            throw new IOException("No Metrics registry name specified.");
+        }
+
+        JmsMetricsRegistryFactory factory = null;
+        try {
+            factory = REGISTRY_FACTORY_FINDER.newInstance(name);
+        } catch (Throwable e) {
+            throw new IOException("Metrics registry name NOT recognized: [" + name + "]", e);
+        }
+
+        return factory;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.metrics.jmx;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.apache.qpid.jms.metrics.JmsMetrics;
+import org.apache.qpid.jms.metrics.JmsMetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exports the metrics of each resource as an MBean on an MBeanServer.
+ * <p>
+ * Each resource is registered under the {@value #DOMAIN} domain with its type and id as the
+ * key properties, for example {@code org.apache.qpid.jms:type=Producer,id="ID:...:1:1:1"}.
+ * Counters and gauges appear as attributes of the same name, each histogram as a set of
+ * attributes with the name followed by Count, Mean, P50, P90, P99 and Max, all in nanoseconds.
+ */
+public class JmxMetricsRegistry implements JmsMetricsRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JmxMetricsRegistry.class);
+
+    public static final String DOMAIN = "org.apache.qpid.jms";
+
+    private final MBeanServer server;
+    private final Map<JmsMetrics, ObjectName> registered = new ConcurrentHashMap<>();
+
+    public JmxMetricsRegistry() {
+        this(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    public JmxMetricsRegistry(MBeanServer server) {
+        this.server = server;
+    }
+
+    /**
+     * @param metrics
+     *      the metrics of a resource.
+     *
+     * @return the name the metrics of the given resource are registered under.
+     *
+     * @throws MalformedObjectNameException if the name cannot be created.
+     */
+    public static ObjectName getObjectName(JmsMetrics metrics) throws MalformedObjectNameException {
+        return new ObjectName(DOMAIN + ":type=" + metrics.getType() + ",id=" + ObjectName.quote(String.valueOf(metrics.getResourceId())));
+    }
+
+    @Override
+    public void register(JmsMetrics metrics) {
+        try {
+            ObjectName name = getObjectName(metrics);
+            server.registerMBean(new JmxResourceMetrics(metrics), name);
+            registered.put(metrics, name);
+        } catch (JMException e) {
+            LOG.warn("Failed to register metrics of {}: {}", metrics.getResourceId(), e.getMessage());
+            LOG.trace("Error: ", e);
+        }
+    }
+
+    @Override
+    public void unregister(JmsMetrics metrics) {
+        ObjectName name = registered.remove(metrics);
+        if (name != null) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException e) {
+                LOG.debug("Failed to unregister metrics of {}: {}", metrics.getResourceId(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        List<JmsMetrics> remaining = new ArrayList<>(registered.keySet());
+        for (JmsMetrics metrics : remaining) {
+            unregister(metrics);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.metrics.jmx;
+
+import java.net.URI;
+
+import org.apache.qpid.jms.metrics.JmsMetricsRegistry;
+import org.apache.qpid.jms.metrics.JmsMetricsRegistryFactory;
+
+public class JmxMetricsRegistryFactory extends JmsMetricsRegistryFactory {
+
+    static final String TYPE_NAME = "jmx";
+
+    /**
+     * Returns a registry that exports metrics to the platform MBeanServer.
+     *
+     * @return a new JmxMetricsRegistry instance.
+     */
+    public static JmsMetricsRegistry create() {
+        return new JmxMetricsRegistry();
+    }
+
+    @Override
+    public JmsMetricsRegistry createRegistry(URI remoteURI, String name) throws Exception {
+        return create();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.metrics.jmx;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ReflectionException;
+
+import org.apache.qpid.jms.metrics.JmsCounter;
+import org.apache.qpid.jms.metrics.JmsHistogram;
+import org.apache.qpid.jms.metrics.JmsMetrics;
+
+/**
+ * Read only MBean view of the metrics of a single resource.  The attributes are resolved on
+ * each request so that instruments created after registration are exposed as well.
+ */
+final class JmxResourceMetrics implements DynamicMBean {
+
+    private static final String COUNT = "Count";
+    private static final String MEAN = "Mean";
+    private static final String P50 = "P50";
+    private static final String P90 = "P90";
+    private static final String P99 = "P99";
+    private static final String MAX = "Max";
+
+    private static final String[] HISTOGRAM_SUFFIXES = { COUNT, MEAN, P50, P90, P99, MAX };
+
+    private final JmsMetrics metrics;
+
+    JmxResourceMetrics(JmsMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        JmsCounter counter = metrics.getCounters().get(attribute);
+        if (counter != null) {
+            return counter.get();
+        }
+
+        LongSupplier gauge = metrics.getGauges().get(attribute);
+        if (gauge != null) {
+            return gauge.getAsLong();
+        }
+
+        for (String suffix : HISTOGRAM_SUFFIXES) {
+            if (attribute.endsWith(suffix)) {
+                JmsHistogram histogram = metrics.getHistograms().get(attribute.substring(0, attribute.length() - suffix.length()));
+                if (histogram != null) {
+                    return valueOf(histogram.snapshot(), suffix);
+                }
+            }
+        }
+
+        throw new AttributeNotFoundException("No metric named " + attribute + " for " + metrics.getResourceId());
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList result = new AttributeList();
+        for (String attribute : attributes) {
+            try {
+                result.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (AttributeNotFoundException e) {
+                // Omitted from the result as the contract of getAttributes allows.
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metric " + attribute.getName() + " is read only");
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName), "No operations are supported");
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+
+        for (String name : metrics.getCounters().keySet()) {
+            attributes.add(new MBeanAttributeInfo(name, Long.class.getName(), "Counter " + name, true, false, false));
+        }
+
+        for (String name : metrics.getGauges().keySet()) {
+            attributes.add(new MBeanAttributeInfo(name, Long.class.getName(), "Gauge " + name, true, false, false));
+        }
+
+        for (Map.Entry<String, JmsHistogram> entry : metrics.getHistograms().entrySet()) {
+            for (String suffix : HISTOGRAM_SUFFIXES) {
+                String type = MEAN.equals(suffix) ? Double.class.getName() : Long.class.getName();
+                attributes.add(new MBeanAttributeInfo(entry.getKey() + suffix, type,
+                    suffix + " of histogram " + entry.getKey() + " in nanoseconds", true, false, false));
+            }
+        }
+
+        return new MBeanInfo(getClass().getName(), "Metrics of " + metrics.getType() + " " + metrics.getResourceId(),
+                             attributes.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[0], null);
+    }
+
+    private static Object valueOf(JmsHistogram.Snapshot snapshot, String suffix) {
+        switch (suffix) {
+            case COUNT:
+                return snapshot.getCount();
+            case MEAN:
+                return snapshot.getMean();
+            case P50:
+                return snapshot.getValueAtPercentile(50);
+            case P90:
+                return snapshot.getValueAtPercentile(90);
+            case P99:
+                return snapshot.getValueAtPercentile(99);
+            default:
+                return snapshot.getMax();
+        }
+    }
+}
@@ -24,6 +24,7 @@ import org.apache.qpid.jms.message.JmsMessageFactory;
 import org.apache.qpid.jms.message.JmsOutboundMessageDispatch;
 import org.apache.qpid.jms.meta.JmsConnectionInfo;
 import org.apache.qpid.jms.meta.JmsConsumerId;
+import org.apache.qpid.jms.meta.JmsProducerId;
 import org.apache.qpid.jms.meta.JmsResource;
 import org.apache.qpid.jms.meta.JmsSessionId;
 import org.apache.qpid.jms.meta.JmsTransactionInfo;
@@ -316,6 +317,38 @@ public interface Provider {
      */
     void pull(JmsConsumerId consumerId, long timeout, AsyncResult request) throws ProviderException;
 
+    /**
+     * Grants the remote peer permission to send the given number of additional messages to
+     * a consumer.  This is used by consumers whose flow is driven by the demand signaled from
+     * the application, such consumers are created with a zero prefetch so that no credit is
+     * issued other than by this method.
+     *
+     * @param consumerId
+     *        the ID of the Consumer instance that is granting the credit.
+     * @param credit
+     *        the number of additional messages the remote peer may send to the consumer.
+     * @param request
+     *        The request object that should be signaled when this operation completes.
+     *
+     * @throws ProviderException if an error occurs or the Provider is already closed.
+     */
+    void grantCredit(JmsConsumerId consumerId, int credit, AsyncResult request) throws ProviderException;
+
+    /**
+     * Requests notification once the given producer is able to send a message without it
+     * being held for lack of credit from the remote peer.  The request is completed straight
+     * away if the producer can already send, a Provider that cannot tell whether a producer
+     * has credit completes the request immediately.
+     *
+     * @param producerId
+     *        the ID of the Producer instance that is awaiting credit.
+     * @param request
+     *        The request object that should be signaled once the producer can send.
+     *
+     * @throws ProviderException if an error occurs or the Provider is already closed.
+     */
+    void awaitCredit(JmsProducerId producerId, AsyncResult request) throws ProviderException;
+
     /**
      * Gets the Provider specific Message factory for use in the JMS layer when a Session
      * is asked to create a Message type.  The Provider should implement it's own internal
@@ -24,6 +24,7 @@ import org.apache.qpid.jms.message.JmsMessageFactory;
 import org.apache.qpid.jms.message.JmsOutboundMessageDispatch;
 import org.apache.qpid.jms.meta.JmsConnectionInfo;
 import org.apache.qpid.jms.meta.JmsConsumerId;
+import org.apache.qpid.jms.meta.JmsProducerId;
 import org.apache.qpid.jms.meta.JmsResource;
 import org.apache.qpid.jms.meta.JmsSessionId;
 import org.apache.qpid.jms.meta.JmsTransactionInfo;
@@ -137,6 +138,16 @@ public class ProviderWrapper<E extends Provider> implements Provider, ProviderLi
         next.pull(consumerId, timeout, request);
     }
 
+    @Override
+    public void awaitCredit(JmsProducerId producerId, AsyncResult request) throws ProviderException {
+        next.awaitCredit(producerId, request);
+    }
+
+    @Override
+    public void grantCredit(JmsConsumerId consumerId, int credit, AsyncResult request) throws ProviderException {
+        next.grantCredit(consumerId, credit, request);
+    }
+
     @Override
     public JmsMessageFactory getMessageFactory() {
         return next.getMessageFactory();
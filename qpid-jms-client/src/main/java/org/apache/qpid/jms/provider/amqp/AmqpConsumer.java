@@ -27,10 +27,14 @@ import java.util.concurrent.ScheduledFuture;
 import jakarta.jms.Session;
 
 import org.apache.qpid.jms.JmsDestination;
+import org.apache.qpid.jms.jfr.JmsEvent;
+import org.apache.qpid.jms.jfr.JmsEvents;
 import org.apache.qpid.jms.message.JmsInboundMessageDispatch;
 import org.apache.qpid.jms.message.JmsMessage;
 import org.apache.qpid.jms.meta.JmsConsumerId;
 import org.apache.qpid.jms.meta.JmsConsumerInfo;
+import org.apache.qpid.jms.metrics.JmsHistogram;
+import org.apache.qpid.jms.metrics.JmsMetrics;
 import org.apache.qpid.jms.provider.AsyncResult;
 import org.apache.qpid.jms.provider.ProviderConstants.ACK_TYPE;
 import org.apache.qpid.jms.provider.ProviderException;
@@ -43,6 +47,7 @@ import org.apache.qpid.proton.amqp.Binary;
 import org.apache.qpid.proton.amqp.messaging.Accepted;
 import org.apache.qpid.proton.amqp.messaging.Released;
 import org.apache.qpid.proton.amqp.transport.DeliveryState;
+import org.apache.qpid.proton.codec.ReadableBuffer;
 import org.apache.qpid.proton.engine.Delivery;
 import org.apache.qpid.proton.engine.Receiver;
 import org.slf4j.Logger;
@@ -66,11 +71,14 @@ public class AmqpConsumer extends AmqpAbstractResource<JmsConsumerInfo, Receiver
     protected int dispatchedCount;
     protected boolean deferredClose;
 
+    private final JmsHistogram decodeTime;
+
     public AmqpConsumer(AmqpSession session, JmsConsumerInfo info, Receiver receiver) {
         super(info, receiver, session);
 
         this.session = session;
         this.acknowledgementMode = info.getAcknowledgementMode();
+        this.decodeTime = info.getMetrics().histogram(JmsMetrics.DECODE_TIME);
     }
 
     @Override
@@ -520,6 +528,26 @@ public class AmqpConsumer extends AmqpAbstractResource<JmsConsumerInfo, Receiver
         }
     }
 
+    /**
+     * Adds the given amount of credit to the link, used by consumers whose credit is driven
+     * by the demand of the application rather than a prefetch window.  No credit is added
+     * while the consumer is stopping.
+     *
+     * @param credit
+     *        the number of additional messages the remote peer may send.
+     * @param request
+     *        the asynchronous request object waiting to be notified of the credit having been granted.
+     */
+    public void grantCredit(int credit, AsyncResult request) {
+        // A stopping consumer is draining its credit, the demand is granted again on restart.
+        if (!isStopping()) {
+            LOG.trace("Consumer {} granting additional credit on demand: {}", getConsumerId(), credit);
+            getEndpoint().flow(credit);
+        }
+
+        request.onSuccess();
+    }
+
     @Override
     public void processDeliveryUpdates(AmqpProvider provider, Delivery delivery) throws ProviderException {
         if (delivery.getDefaultDeliveryState() == null){
@@ -557,46 +585,66 @@ public class AmqpConsumer extends AmqpAbstractResource<JmsConsumerInfo, Receiver
     }
 
     private boolean processDelivery(Delivery incoming) throws Exception {
-        JmsMessage message = null;
-        try {
-            message = AmqpCodec.decodeMessage(this, getEndpoint().recv()).asJmsMessage();
-        } catch (Exception e) {
-            LOG.warn("Error on transform: {}", e.getMessage());
-            // TODO - We could signal provider error but not sure we want to fail
-            //        the connection just because we can't convert the message.
-            //        In the future once the JMS mapping is complete we should be
-            //        able to convert everything to some message even if its just
-            //        a bytes messages as a fall back.
-            incoming.disposition(MODIFIED_FAILED_UNDELIVERABLE);
-            incoming.settle();
-            // TODO: this flows credit, which we might not want, e.g if
-            // a drain was issued to stop the link.
-            sendFlowIfNeeded();
-            return false;
-        }
+        final JmsEvent event = JmsEvents.beginDelivery();
+        long messageSize = 0;
+        long eventDecodeTime = 0;
+        boolean decoded = false;
 
         try {
-            // Let the message do any final processing before sending it onto a consumer.
-            // We could defer this to a later stage such as the JmsConnection or even in
-            // the JmsMessageConsumer dispatch method if we needed to.
-            message.onDispatch();
-
-            JmsInboundMessageDispatch envelope = new JmsInboundMessageDispatch(getNextIncomingSequenceNumber());
-            envelope.setMessage(message);
-            envelope.setConsumerId(getResourceInfo().getId());
-            envelope.setConsumerInfo(getResourceInfo());
-            // Store link to delivery in the hint for use in acknowledge requests.
-            envelope.setProviderHint(incoming);
-            envelope.setMessageId(message.getFacade().getProviderMessageIdObject());
+            JmsMessage message = null;
+            try {
+                final ReadableBuffer payload = getEndpoint().recv();
+                final long decodeStarted = decodeTime.start();
+                final long eventDecodeStarted = event != null ? System.nanoTime() : 0;
 
-            // Store reference to envelope in delivery context for recovery
-            incoming.setContext(envelope);
+                messageSize = payload.remaining();
+                message = AmqpCodec.decodeMessage(this, payload).asJmsMessage();
+                decodeTime.recordSince(decodeStarted);
 
-            deliver(envelope);
+                if (event != null) {
+                    eventDecodeTime = System.nanoTime() - eventDecodeStarted;
+                    decoded = true;
+                }
+            } catch (Exception e) {
+                LOG.warn("Error on transform: {}", e.getMessage());
+                // TODO - We could signal provider error but not sure we want to fail
+                //        the connection just because we can't convert the message.
+                //        In the future once the JMS mapping is complete we should be
+                //        able to convert everything to some message even if its just
+                //        a bytes messages as a fall back.
+                incoming.disposition(MODIFIED_FAILED_UNDELIVERABLE);
+                incoming.settle();
+                // TODO: this flows credit, which we might not want, e.g if
+                // a drain was issued to stop the link.
+                sendFlowIfNeeded();
+                return false;
+            }
 
-            return true;
+            try {
+                // Let the message do any final processing before sending it onto a consumer.
+                // We could defer this to a later stage such as the JmsConnection or even in
+                // the JmsMessageConsumer dispatch method if we needed to.
+                message.onDispatch();
+
+                JmsInboundMessageDispatch envelope = new JmsInboundMessageDispatch(getNextIncomingSequenceNumber());
+                envelope.setMessage(message);
+                envelope.setConsumerId(getResourceInfo().getId());
+                envelope.setConsumerInfo(getResourceInfo());
+                // Store link to delivery in the hint for use in acknowledge requests.
+                envelope.setProviderHint(incoming);
+                envelope.setMessageId(message.getFacade().getProviderMessageIdObject());
+
+                // Store reference to envelope in delivery context for recovery
+                incoming.setContext(envelope);
+
+                deliver(envelope);
+
+                return true;
+            } finally {
+                getEndpoint().advance();
+            }
         } finally {
-            getEndpoint().advance();
+            JmsEvents.commitDelivery(event, getConsumerId(), messageSize, eventDecodeTime, decoded);
         }
     }
 
@@ -20,12 +20,18 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ScheduledFuture;
 
+import org.apache.qpid.jms.jfr.JmsEvent;
+import org.apache.qpid.jms.jfr.JmsEvents;
 import org.apache.qpid.jms.message.JmsOutboundMessageDispatch;
 import org.apache.qpid.jms.meta.JmsConnectionInfo;
 import org.apache.qpid.jms.meta.JmsProducerInfo;
+import org.apache.qpid.jms.metrics.JmsCounter;
+import org.apache.qpid.jms.metrics.JmsHistogram;
+import org.apache.qpid.jms.metrics.JmsMetrics;
 import org.apache.qpid.jms.provider.AsyncResult;
 import org.apache.qpid.jms.provider.ProviderException;
 import org.apache.qpid.jms.provider.amqp.message.AmqpReadableBuffer;
@@ -63,15 +69,20 @@ public class AmqpFixedProducer extends AmqpProducer {
     private final AmqpTransferTagGenerator tagGenerator = new AmqpTransferTagGenerator(true);
     private final Map<Object, InFlightSend> sent = new LinkedHashMap<Object, InFlightSend>();
     private final Map<Object, InFlightSend> blocked = new LinkedHashMap<Object, InFlightSend>();
+    private final List<AsyncResult> creditWaiters = new ArrayList<AsyncResult>();
 
     private final AmqpConnection connection;
     private final JmsTracer tracer;
+    private final JmsCounter creditStalls;
+    private final JmsHistogram creditBlockedTime;
 
     public AmqpFixedProducer(AmqpSession session, JmsProducerInfo info, Sender sender) {
         super(session, info, sender);
 
         connection = session.getConnection();
         tracer = connection.getResourceInfo().getTracer();
+        creditStalls = info.getMetrics().counter(JmsMetrics.CREDIT_STALLS);
+        creditBlockedTime = info.getMetrics().histogram(JmsMetrics.CREDIT_BLOCKED_TIME);
 
         delayedDeliverySupported = connection.getProperties().isDelayedDeliverySupported();
     }
@@ -92,6 +103,8 @@ public class AmqpFixedProducer extends AmqpProducer {
         if (!isClosed()) {
             final InFlightSend send = new InFlightSend(envelope, request);
 
+            send.settleEvent = JmsEvents.beginSettle();
+
             if (!delayedDeliverySupported && envelope.getMessage().getFacade().isDeliveryTimeTransmitted()) {
                 // Don't allow sends with delay if the remote has not said it can handle them
                 send.onFailure(new ProviderUnsupportedOperationException("Remote does not support delayed message delivery"));
@@ -106,6 +119,10 @@ public class AmqpFixedProducer extends AmqpProducer {
                     send.requestTimeout = getParent().getProvider().scheduleRequestTimeout(send, getSendTimeout(), send);
                 }
 
+                send.blockedAt = creditBlockedTime.start();
+                send.creditBlocked = true;
+                creditStalls.increment();
+
                 blocked.put(envelope.getMessageId(), send);
                 getParent().getProvider().pumpToProtonTransport(request);
             } else {
@@ -116,6 +133,17 @@ public class AmqpFixedProducer extends AmqpProducer {
         }
     }
 
+    @Override
+    public void awaitCredit(AsyncResult request) {
+        if (isClosed()) {
+            request.onFailure(new ProviderIllegalStateException("The MessageProducer is closed"));
+        } else if (blocked.isEmpty() && getEndpoint().getCredit() > 0) {
+            request.onSuccess();
+        } else {
+            creditWaiters.add(request);
+        }
+    }
+
     private void doSend(JmsOutboundMessageDispatch envelope, InFlightSend send) throws ProviderException {
         LOG.trace("Producer sending message: {}", envelope);
 
@@ -192,6 +220,7 @@ public class AmqpFixedProducer extends AmqpProducer {
                         return;
                     }
 
+                    creditBlockedTime.recordSince(held.blockedAt);
                     doSend(held.getEnvelope(), held);
                 } finally {
                     blockedSends.remove();
@@ -204,6 +233,14 @@ public class AmqpFixedProducer extends AmqpProducer {
             getEndpoint().drained();
         }
 
+        if (!creditWaiters.isEmpty() && blocked.isEmpty() && getEndpoint().getCredit() > 0) {
+            List<AsyncResult> waiters = new ArrayList<AsyncResult>(creditWaiters);
+            creditWaiters.clear();
+            for (AsyncResult waiter : waiters) {
+                waiter.onSuccess();
+            }
+        }
+
         super.processFlowUpdates(provider);
     }
 
@@ -310,6 +347,12 @@ public class AmqpFixedProducer extends AmqpProducer {
             }
         }
 
+        List<AsyncResult> waiters = new ArrayList<AsyncResult>(creditWaiters);
+        creditWaiters.clear();
+        for (AsyncResult waiter : waiters) {
+            waiter.onFailure(error);
+        }
+
         Collection<InFlightSend> blockedSends = new ArrayList<InFlightSend>(blocked.values());
         for (InFlightSend send : blockedSends) {
             try {
@@ -329,6 +372,9 @@ public class AmqpFixedProducer extends AmqpProducer {
 
         private Delivery delivery;
         private ScheduledFuture<?> requestTimeout;
+        private long blockedAt;
+        private boolean creditBlocked;
+        private JmsEvent settleEvent;
 
         public InFlightSend(JmsOutboundMessageDispatch envelope, AsyncResult request) {
             this.envelope = envelope;
@@ -405,10 +451,13 @@ public class AmqpFixedProducer extends AmqpProducer {
                     tagGenerator.returnTag(delivery.getTag());
                 }
                 final DeliveryState remoteState = delivery.getRemoteState();
-                tracer.completeSend(envelope.getMessage().getFacade(), remoteState == null ? null : remoteState.getType().name());
+                final String outcome = remoteState == null ? null : remoteState.getType().name();
+                tracer.completeSend(envelope.getMessage().getFacade(), outcome);
+                commitSettleEvent(outcome);
             } else {
                 blocked.remove(envelope.getMessageId());
                 tracer.completeSend(envelope.getMessage().getFacade(), null);
+                commitSettleEvent(null);
             }
 
             // Put the message back to usable state following send complete
@@ -421,6 +470,15 @@ public class AmqpFixedProducer extends AmqpProducer {
             }
         }
 
+        private void commitSettleEvent(String outcome) {
+            final JmsEvent event = settleEvent;
+            if (event != null) {
+                settleEvent = null;
+                final long messageSize = envelope.getPayload() instanceof ByteBuf ? ((ByteBuf) envelope.getPayload()).readableBytes() : 0;
+                JmsEvents.commitSettle(event, getProducerId(), outcome, messageSize, creditBlocked);
+            }
+        }
+
         @Override
         public ProviderException createException() {
             if (delivery == null) {
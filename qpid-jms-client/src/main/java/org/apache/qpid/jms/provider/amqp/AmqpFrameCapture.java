@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.provider.amqp;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The frames read back from a capture file written by {@link AmqpFrameRecorder}.
+ */
+public final class AmqpFrameCapture {
+
+    private final String name;
+    private final List<Frame> frames;
+
+    private AmqpFrameCapture(String name, List<Frame> frames) {
+        this.name = name;
+        this.frames = Collections.unmodifiableList(frames);
+    }
+
+    /**
+     * Reads a capture file.
+     *
+     * @param file
+     *      the file written by a frame recorder.
+     *
+     * @return the capture held in the file.
+     *
+     * @throws IOException if the file cannot be read or is not a frame capture.
+     */
+    public static AmqpFrameCapture read(Path file) throws IOException {
+        try (InputStream stream = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(stream);
+        }
+    }
+
+    /**
+     * Reads a capture from the given stream.
+     *
+     * @param stream
+     *      the stream to read, it is not closed.
+     *
+     * @return the capture read from the stream.
+     *
+     * @throws IOException if the stream cannot be read or does not hold a frame capture.
+     */
+    public static AmqpFrameCapture read(InputStream stream) throws IOException {
+        DataInputStream input = new DataInputStream(stream);
+
+        if (input.readInt() != AmqpFrameRecorder.MAGIC) {
+            throw new IOException("Not an AMQP frame capture");
+        }
+
+        int version = input.readInt();
+        if (version != AmqpFrameRecorder.VERSION) {
+            throw new IOException("Unsupported AMQP frame capture version: " + version);
+        }
+
+        String name = input.readUTF();
+        int count = input.readInt();
+
+        List<Frame> frames = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            int length = input.readInt();
+            long timestamp = input.readLong();
+            byte direction = input.readByte();
+            byte type = input.readByte();
+            int channel = input.readUnsignedShort();
+            int frameSize = input.readInt();
+
+            byte[] bytes = new byte[length - AmqpFrameRecorder.RECORD_HEADER_SIZE];
+            input.readFully(bytes);
+
+            frames.add(new Frame(timestamp, direction, type, channel, frameSize, bytes));
+        }
+
+        return new AmqpFrameCapture(name, frames);
+    }
+
+    /**
+     * @return the name of the recorder that wrote the capture.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the captured frames, oldest first.
+     */
+    public List<Frame> getFrames() {
+        return frames;
+    }
+
+    /**
+     * A single captured frame.
+     */
+    public static final class Frame {
+
+        private final long timestamp;
+        private final byte direction;
+        private final byte type;
+        private final int channel;
+        private final int frameSize;
+        private final byte[] bytes;
+
+        Frame(long timestamp, byte direction, byte type, int channel, int frameSize, byte[] bytes) {
+            this.timestamp = timestamp;
+            this.direction = direction;
+            this.type = type;
+            this.channel = channel;
+            this.frameSize = frameSize;
+            this.bytes = bytes;
+        }
+
+        /**
+         * @return the time the frame was recorded, in nanoseconds since the epoch.
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public boolean isReceived() {
+            return direction == AmqpFrameRecorder.RECEIVED;
+        }
+
+        /**
+         * @return true for the protocol header that precedes the SASL or AMQP frames.
+         */
+        public boolean isProtocolHeader() {
+            return type == AmqpFrameRecorder.PROTOCOL_HEADER;
+        }
+
+        /**
+         * @return the frame type, zero for AMQP and one for SASL frames.
+         */
+        public byte getType() {
+            return type;
+        }
+
+        public int getChannel() {
+            return channel;
+        }
+
+        /**
+         * @return the size of the frame as it was sent, which may exceed the bytes captured.
+         */
+        public int getFrameSize() {
+            return frameSize;
+        }
+
+        /**
+         * @return the captured leading bytes of the frame, including its header.
+         */
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        public boolean isTruncated() {
+            return bytes.length < frameSize;
+        }
+    }
+}
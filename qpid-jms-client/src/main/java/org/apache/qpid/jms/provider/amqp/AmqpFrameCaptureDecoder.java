@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.provider.amqp;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+
+import org.apache.qpid.proton.amqp.UnsignedInteger;
+import org.apache.qpid.proton.amqp.transport.Attach;
+import org.apache.qpid.proton.amqp.transport.Detach;
+import org.apache.qpid.proton.amqp.transport.Flow;
+import org.apache.qpid.proton.amqp.transport.Transfer;
+import org.apache.qpid.proton.codec.AMQPDefinedTypes;
+import org.apache.qpid.proton.codec.DecoderImpl;
+import org.apache.qpid.proton.codec.EncoderImpl;
+
+/**
+ * Renders a frame capture written by {@link AmqpFrameRecorder} as text, one line per frame.
+ * <p>
+ * Run with the client and Proton-J on the class path, giving the capture files to render:
+ * <pre>
+ *   java -cp qpid-jms-client.jar:proton-j.jar org.apache.qpid.jms.provider.amqp.AmqpFrameCaptureDecoder capture.qjfr
+ * </pre>
+ */
+public final class AmqpFrameCaptureDecoder {
+
+    private static final int AMQP_FRAME_TYPE = 0;
+    private static final int SASL_FRAME_TYPE = 1;
+
+    private final DecoderImpl decoder = new DecoderImpl();
+
+    public AmqpFrameCaptureDecoder() {
+        AMQPDefinedTypes.registerAllTypes(decoder, new EncoderImpl(decoder));
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: AmqpFrameCaptureDecoder <capture file>...");
+            System.exit(1);
+        }
+
+        AmqpFrameCaptureDecoder decoder = new AmqpFrameCaptureDecoder();
+        for (String file : args) {
+            Path path = Paths.get(file);
+            decoder.render(AmqpFrameCapture.read(path), System.out);
+        }
+    }
+
+    /**
+     * Writes a line for each frame of the capture to the given stream.
+     *
+     * @param capture
+     *      the capture to render.
+     * @param out
+     *      the stream the lines are written to.
+     */
+    public void render(AmqpFrameCapture capture, PrintStream out) {
+        out.println("Capture: " + capture.getName() + " (" + capture.getFrames().size() + " frames)");
+        for (AmqpFrameCapture.Frame frame : capture.getFrames()) {
+            out.println(render(frame));
+        }
+    }
+
+    /**
+     * @param frame
+     *      the captured frame.
+     *
+     * @return a single line describing the frame.
+     */
+    public String render(AmqpFrameCapture.Frame frame) {
+        StringBuilder builder = new StringBuilder();
+
+        builder.append(Instant.ofEpochSecond(0, frame.getTimestamp())).append(' ');
+        builder.append(frame.isReceived() ? "RECV" : "SENT").append(' ');
+
+        if (frame.isProtocolHeader()) {
+            byte[] bytes = frame.getBytes();
+            builder.append("[").append(frame.getChannel()).append("] HEADER ");
+            builder.append(bytes.length > 4 && bytes[4] == 3 ? "SASL" : bytes.length > 4 && bytes[4] == 2 ? "TLS" : "AMQP");
+            return builder.toString();
+        }
+
+        builder.append("[").append(frame.getChannel()).append("] ");
+
+        if (frame.getType() == SASL_FRAME_TYPE) {
+            builder.append("SASL ");
+        } else if (frame.getType() != AMQP_FRAME_TYPE) {
+            builder.append("TYPE(").append(frame.getType()).append(") ");
+        }
+
+        builder.append("size=").append(frame.getFrameSize());
+
+        byte[] bytes = frame.getBytes();
+        int bodyOffset = (bytes[4] & 0xFF) * 4;
+
+        if (bodyOffset >= bytes.length) {
+            builder.append(frame.getFrameSize() == bodyOffset ? " EMPTY" : " (truncated)");
+            return builder.toString();
+        }
+
+        try {
+            ByteBuffer body = ByteBuffer.wrap(bytes, bodyOffset, bytes.length - bodyOffset);
+            decoder.setByteBuffer(body);
+            Object performative = decoder.readObject();
+
+            UnsignedInteger handle = handleOf(performative);
+            if (handle != null) {
+                builder.append(" handle=").append(handle);
+            }
+
+            int payload = frame.getFrameSize() - body.position();
+            if (payload > 0) {
+                builder.append(" payload=").append(payload);
+            }
+
+            builder.append(' ').append(performative);
+        } catch (Exception ex) {
+            builder.append(" (undecodable").append(frame.isTruncated() ? ", truncated" : "").append(": ").append(ex.getMessage()).append(")");
+        } finally {
+            decoder.setByteBuffer(null);
+        }
+
+        if (frame.isTruncated()) {
+            builder.append(" (captured ").append(bytes.length).append(" bytes)");
+        }
+
+        return builder.toString();
+    }
+
+    private static UnsignedInteger handleOf(Object performative) {
+        if (performative instanceof Transfer) {
+            return ((Transfer) performative).getHandle();
+        } else if (performative instanceof Flow) {
+            return ((Flow) performative).getHandle();
+        } else if (performative instanceof Attach) {
+            return ((Attach) performative).getHandle();
+        } else if (performative instanceof Detach) {
+            return ((Detach) performative).getHandle();
+        }
+
+        return null;
+    }
+}
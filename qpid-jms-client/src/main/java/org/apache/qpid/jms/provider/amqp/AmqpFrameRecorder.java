@@ -0,0 +1,420 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.provider.amqp;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Records the raw AMQP frames sent and received on a connection into a fixed size ring buffer
+ * held off heap, so that a recent history of the traffic is kept at little cost and can be
+ * written out when needed.
+ * <p>
+ * The bytes given to the recorder are split into frames as they arrive, each frame is kept as
+ * a record holding the time it was seen, its direction, type and channel, its size and the
+ * leading bytes of the frame up to the configured payload limit.  Once the ring buffer is full
+ * the oldest records are overwritten.  The recorded history can be written to a file with
+ * {@link #dump(Path)} and rendered with {@link AmqpFrameCaptureDecoder}.
+ * <p>
+ * Recording is done by the connection's serializer thread, dumping may be done from any
+ * thread.  Every live recorder can be found through {@link #getRecorders()}.
+ */
+public final class AmqpFrameRecorder {
+
+    public static final int DEFAULT_PAYLOAD_LIMIT = 1024;
+
+    /** Identifies a frame capture file, followed by the format version. */
+    public static final int MAGIC = 0x514A4652; // QJFR
+    public static final int VERSION = 1;
+
+    /** Length, timestamp, direction, type, channel and frame size. */
+    public static final int RECORD_HEADER_SIZE = Integer.BYTES + Long.BYTES + 1 + 1 + Short.BYTES + Integer.BYTES;
+
+    public static final byte RECEIVED = 0;
+    public static final byte SENT = 1;
+
+    /** The type recorded for the protocol header that precedes the SASL and AMQP layers. */
+    public static final byte PROTOCOL_HEADER = -1;
+
+    private static final int FRAME_HEADER_SIZE = 8;
+    private static final int PROTOCOL_HEADER_MAGIC = 0x414D5150; // AMQP
+    private static final int WRAP = 0;
+
+    private static final Set<AmqpFrameRecorder> RECORDERS = ConcurrentHashMap.newKeySet();
+
+    private final String name;
+    private final ByteBuffer ring;
+    private final int payloadLimit;
+    private final FrameParser received;
+    private final FrameParser sent;
+
+    private final long epochNanosBase = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+    private final long nanoTimeBase = System.nanoTime();
+
+    // Guarded by this
+    private int head;
+    private int tail;
+    private int records;
+
+    /**
+     * Creates a recorder and registers it so that it can be found through {@link #getRecorders()}.
+     *
+     * @param name
+     *      the name of the recorder, usually that of the connection it records.
+     * @param capacity
+     *      the size in bytes of the ring buffer the records are kept in.
+     * @param payloadLimit
+     *      the number of leading bytes of each frame that are kept.
+     */
+    public AmqpFrameRecorder(String name, int capacity, int payloadLimit) {
+        if (capacity < RECORD_HEADER_SIZE + FRAME_HEADER_SIZE) {
+            throw new IllegalArgumentException("Frame recorder capacity is too small: " + capacity);
+        }
+
+        this.name = name;
+        this.ring = ByteBuffer.allocateDirect(capacity);
+        this.payloadLimit = Math.max(FRAME_HEADER_SIZE, Math.min(payloadLimit, capacity - RECORD_HEADER_SIZE));
+        this.received = new FrameParser(RECEIVED);
+        this.sent = new FrameParser(SENT);
+
+        RECORDERS.add(this);
+    }
+
+    /**
+     * @return the recorders that have been created and not yet closed.
+     */
+    public static Collection<AmqpFrameRecorder> getRecorders() {
+        return Collections.unmodifiableSet(RECORDERS);
+    }
+
+    /**
+     * Writes the history of every live recorder into the given directory.
+     *
+     * @param directory
+     *      the directory the capture files are written to.
+     *
+     * @return the files that were written.
+     *
+     * @throws IOException if an error occurs while writing the files.
+     */
+    public static List<Path> dumpAll(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (AmqpFrameRecorder recorder : RECORDERS) {
+            files.add(recorder.dumpTo(directory));
+        }
+
+        return files;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return ring.capacity();
+    }
+
+    public int getPayloadLimit() {
+        return payloadLimit;
+    }
+
+    /**
+     * @return the number of frames currently held by the recorder.
+     */
+    public synchronized int getRecordCount() {
+        return records;
+    }
+
+    /**
+     * Records the frames contained in bytes received from the remote peer, the reader index
+     * of the buffer is not changed.
+     *
+     * @param input
+     *      the bytes that were received.
+     */
+    public void received(ByteBuf input) {
+        received.parse(input, input.readerIndex(), input.readableBytes());
+    }
+
+    /**
+     * Records the frames contained in bytes being sent to the remote peer, the reader index
+     * of the buffer is not changed.
+     *
+     * @param output
+     *      the bytes that are to be sent.
+     */
+    public void sent(ByteBuf output) {
+        sent.parse(output, output.readerIndex(), output.readableBytes());
+    }
+
+    /**
+     * Writes the recorded history, oldest frame first, to the given file.
+     *
+     * @param file
+     *      the file to write, any existing content is replaced.
+     *
+     * @throws IOException if an error occurs while writing the file.
+     */
+    public void dump(Path file) throws IOException {
+        try (OutputStream stream = Files.newOutputStream(file)) {
+            dump(stream);
+        }
+    }
+
+    /**
+     * Writes the recorded history to a new file in the given directory whose name is made
+     * from the recorder name and the current time.
+     *
+     * @param directory
+     *      the directory the file is written to.
+     *
+     * @return the file that was written.
+     *
+     * @throws IOException if an error occurs while writing the file.
+     */
+    public Path dumpTo(Path directory) throws IOException {
+        Files.createDirectories(directory);
+
+        String fileName = "qpid-jms-frames-" + name.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + System.currentTimeMillis() + ".qjfr";
+        Path file = directory.resolve(fileName);
+        dump(file);
+        return file;
+    }
+
+    /**
+     * Writes the recorded history, oldest frame first, to the given stream.
+     *
+     * @param stream
+     *      the stream to write to, it is not closed.
+     *
+     * @throws IOException if an error occurs while writing.
+     */
+    public void dump(OutputStream stream) throws IOException {
+        final ByteBuffer snapshot;
+        final int count;
+
+        // Copy out under the lock so that recording is not held up by the file system.
+        synchronized (this) {
+            count = records;
+
+            int size = 0;
+            int position = head;
+            for (int i = 0; i < count; ++i) {
+                position = recordAt(position);
+                size += ring.getInt(position);
+                position += ring.getInt(position);
+            }
+
+            snapshot = ByteBuffer.allocate(size);
+
+            position = head;
+            for (int i = 0; i < count; ++i) {
+                position = recordAt(position);
+                ByteBuffer record = ring.duplicate();
+                record.limit(position + ring.getInt(position)).position(position);
+                snapshot.put(record);
+                position = record.limit();
+            }
+        }
+
+        snapshot.flip();
+
+        DataOutputStream output = new DataOutputStream(stream);
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeUTF(name);
+        output.writeInt(count);
+        output.flush();
+
+        WritableByteChannel channel = Channels.newChannel(stream);
+        while (snapshot.hasRemaining()) {
+            channel.write(snapshot);
+        }
+
+        stream.flush();
+    }
+
+    /**
+     * Removes the recorder from those returned by {@link #getRecorders()}, its history can
+     * still be dumped.
+     */
+    public void close() {
+        RECORDERS.remove(this);
+    }
+
+    @Override
+    public String toString() {
+        return "AmqpFrameRecorder { " + name + " }";
+    }
+
+    //----- Internal implementation ------------------------------------------//
+
+    private int recordAt(int position) {
+        if (ring.capacity() - position < Integer.BYTES || ring.getInt(position) == WRAP) {
+            return 0;
+        }
+
+        return position;
+    }
+
+    private synchronized void record(byte direction, byte type, int channel, int frameSize, byte[] captured, int capturedLength) {
+        final int length = RECORD_HEADER_SIZE + capturedLength;
+        final int capacity = ring.capacity();
+
+        if (tail + length > capacity) {
+            // Anything still held beyond the tail is older than what is at the start.
+            while (records > 0 && head >= tail) {
+                evictHead();
+            }
+
+            if (capacity - tail >= Integer.BYTES) {
+                ring.putInt(tail, WRAP);
+            }
+
+            tail = 0;
+            if (records == 0) {
+                head = 0;
+            }
+        }
+
+        while (records > 0 && head >= tail && head < tail + length) {
+            evictHead();
+        }
+
+        ring.position(tail);
+        ring.putInt(length);
+        ring.putLong(epochNanosBase + System.nanoTime() - nanoTimeBase);
+        ring.put(direction);
+        ring.put(type);
+        ring.putShort((short) channel);
+        ring.putInt(frameSize);
+        ring.put(captured, 0, capturedLength);
+
+        tail += length;
+        records++;
+    }
+
+    private void evictHead() {
+        if (recordAt(head) != head) {
+            head = 0;
+            return;
+        }
+
+        head += ring.getInt(head);
+        if (--records == 0) {
+            head = tail;
+        }
+    }
+
+    /*
+     * Splits one direction of the byte stream into frames, the bytes of a frame may be spread
+     * over any number of calls.
+     */
+    private final class FrameParser {
+
+        private final byte direction;
+        private final byte[] captured = new byte[payloadLimit];
+
+        private int capturedLength;
+        private int frameSize;
+        private long remaining;
+        private boolean failed;
+
+        FrameParser(byte direction) {
+            this.direction = direction;
+        }
+
+        void parse(ByteBuf buffer, int index, int length) {
+            while (length > 0 && !failed) {
+                if (capturedLength < FRAME_HEADER_SIZE) {
+                    final int count = Math.min(FRAME_HEADER_SIZE - capturedLength, length);
+                    buffer.getBytes(index, captured, capturedLength, count);
+                    capturedLength += count;
+                    index += count;
+                    length -= count;
+
+                    if (capturedLength == FRAME_HEADER_SIZE) {
+                        onFrameHeader();
+                    }
+                } else {
+                    final int count = (int) Math.min(remaining, length);
+                    final int capture = Math.min(count, captured.length - capturedLength);
+                    if (capture > 0) {
+                        buffer.getBytes(index, captured, capturedLength, capture);
+                        capturedLength += capture;
+                    }
+
+                    remaining -= count;
+                    index += count;
+                    length -= count;
+
+                    if (remaining == 0) {
+                        complete();
+                    }
+                }
+            }
+        }
+
+        private void onFrameHeader() {
+            final int size = readInt(0);
+
+            if (size == PROTOCOL_HEADER_MAGIC) {
+                frameSize = FRAME_HEADER_SIZE;
+                remaining = 0;
+                record(direction, PROTOCOL_HEADER, 0, frameSize, captured, capturedLength);
+                capturedLength = 0;
+            } else if (size < FRAME_HEADER_SIZE) {
+                // Not a frame boundary, the remainder of this stream cannot be followed.
+                failed = true;
+            } else {
+                frameSize = size;
+                remaining = Integer.toUnsignedLong(size) - FRAME_HEADER_SIZE;
+                if (remaining == 0) {
+                    complete();
+                }
+            }
+        }
+
+        private void complete() {
+            final byte type = captured[5];
+            final int channel = ((captured[6] & 0xFF) << 8) | (captured[7] & 0xFF);
+
+            record(direction, type, channel, frameSize, captured, capturedLength);
+            capturedLength = 0;
+        }
+
+        private int readInt(int offset) {
+            return ((captured[offset] & 0xFF) << 24) | ((captured[offset + 1] & 0xFF) << 16) |
+                   ((captured[offset + 2] & 0xFF) << 8) | (captured[offset + 3] & 0xFF);
+        }
+    }
+}
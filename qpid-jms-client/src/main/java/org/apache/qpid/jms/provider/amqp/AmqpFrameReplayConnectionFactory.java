@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.provider.amqp;
+
+import java.net.URI;
+
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.apache.qpid.jms.provider.Provider;
+import org.apache.qpid.jms.transports.Transport;
+import org.apache.qpid.jms.transports.TransportFactory;
+import org.apache.qpid.jms.transports.TransportOptions;
+import org.apache.qpid.jms.util.IdGenerator;
+
+/**
+ * A ConnectionFactory whose connections replay a frame capture in place of a remote peer,
+ * each connection created replays the capture from its start over a new
+ * {@link AmqpFrameReplayTransport}.  For example, to measure the inbound path of a consumer
+ * against a capture recorded from a connection that did the same:
+ * <pre>
+ * AmqpFrameReplayConnectionFactory factory = new AmqpFrameReplayConnectionFactory(AmqpFrameCapture.read(file));
+ * try (Connection connection = factory.createConnection(user, password)) {
+ *     connection.start();
+ *     Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+ *     MessageConsumer consumer = session.createConsumer(session.createQueue(address));
+ *     while (consumer.receive(1000) != null) {
+ *     }
+ * }
+ * </pre>
+ * Connections are given the id of the recorded connection so that the names of the links
+ * they open match those in the capture.  The "amqp." and "transport." options of the remote URI are applied as they are for any
+ * other connection, the host and port are only used to name the connection.
+ */
+public class AmqpFrameReplayConnectionFactory extends JmsConnectionFactory {
+
+    public static final String DEFAULT_REMOTE_URI = "amqp://replay:5672";
+
+    private final transient AmqpFrameCapture capture;
+    private final transient TransportFactory transportFactory = new ReplayTransportFactory();
+
+    private transient volatile AmqpFrameReplayTransport transport;
+
+    public AmqpFrameReplayConnectionFactory(AmqpFrameCapture capture) {
+        this(capture, DEFAULT_REMOTE_URI);
+    }
+
+    public AmqpFrameReplayConnectionFactory(AmqpFrameCapture capture, String remoteURI) {
+        super(remoteURI);
+
+        this.capture = capture;
+
+        // Links are matched by name, which includes the connection id, so the recorded id is reused.
+        final int separator = capture.getName().lastIndexOf('@');
+        if (separator > 0) {
+            final String connectionId = capture.getName().substring(0, separator);
+            setConnectionIdGenerator(new IdGenerator() {
+
+                @Override
+                public String generateId() {
+                    return connectionId;
+                }
+            });
+        }
+    }
+
+    /**
+     * @return the transport of the most recently created connection, or null if none has been.
+     */
+    public AmqpFrameReplayTransport getTransport() {
+        return transport;
+    }
+
+    @Override
+    protected Provider createProvider(URI remoteURI) throws Exception {
+        AmqpProviderFactory providerFactory = new AmqpProviderFactory() {
+
+            @Override
+            protected Transport createTransport(URI transportURI) throws Exception {
+                return transportFactory.createTransport(transportURI);
+            }
+        };
+
+        return providerFactory.createProvider(remoteURI);
+    }
+
+    private final class ReplayTransportFactory extends TransportFactory {
+
+        @Override
+        protected Transport doCreateTransport(URI remoteURI, TransportOptions transportOptions) throws Exception {
+            AmqpFrameReplayTransport result = new AmqpFrameReplayTransport(remoteURI, transportOptions, capture);
+            transport = result;
+            return result;
+        }
+
+        @Override
+        public String getName() {
+            return "Replay";
+        }
+    }
+}
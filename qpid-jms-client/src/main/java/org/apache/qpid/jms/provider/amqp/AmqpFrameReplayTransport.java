@@ -0,0 +1,475 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.provider.amqp;
+
+import java.io.IOException;
+import java.net.URI;
+import java.security.Principal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.qpid.jms.transports.Transport;
+import org.apache.qpid.jms.transports.TransportListener;
+import org.apache.qpid.jms.transports.TransportOptions;
+import org.apache.qpid.jms.util.IOExceptionSupport;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * A Transport that stands in for the remote peer by replaying the frames it sent in a capture
+ * written by {@link AmqpFrameRecorder}, allowing the inbound path of the client to be profiled
+ * and benchmarked against a recorded traffic pattern without a broker.
+ * <p>
+ * The received frames of the capture are handed to the transport listener in the order they
+ * were recorded, on a single thread that serves as the connection's event loop, in reads of
+ * up to the configured receive buffer size.  Frames are held back until the client has written
+ * as many frames as it had sent before the frame was recorded, counting only the frames that
+ * the peer would respond to: the protocol headers, SASL frames and every performative other
+ * than transfer and disposition.  The client must therefore repeat the operations of the
+ * recorded connection, opening the same sessions and links in the same order and consuming
+ * in a way that issues the same credit.  The bytes that the client writes are discarded.
+ * <p>
+ * The capture must start at the beginning of the connection and hold the received frames in
+ * full, so it should be recorded with a frame recorder large enough for the whole connection
+ * and a payload limit at least the size of the largest frame.  If the client closes the
+ * connection before a recorded close has been replayed a close is returned to it, resources
+ * such as sessions and consumers cannot be closed individually once the replay has ended.
+ */
+public class AmqpFrameReplayTransport implements Transport {
+
+    private static final int FRAME_HEADER_SIZE = 8;
+    private static final int PROTOCOL_HEADER_MAGIC = 0x414D5150; // AMQP
+    private static final int SASL_FRAME_TYPE = 1;
+
+    private static final int TRANSFER = 0x14;
+    private static final int DISPOSITION = 0x15;
+    private static final int CLOSE = 0x18;
+
+    // An empty close performative on channel zero.
+    private static final byte[] CLOSE_FRAME = new byte[] { 0, 0, 0, 12, 2, 0, 0, 0, 0, 0x53, CLOSE, 0x45 };
+
+    private final URI remoteLocation;
+    private final TransportOptions options;
+    private final ByteBuf inbound;
+    private final int[] frameEnds;
+    private final int[] sentBefore;
+    private final int recordedClose;
+    private final OutputScanner scanner = new OutputScanner();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    private volatile boolean connected;
+    private volatile int replayed;
+
+    private TransportListener listener;
+    private ThreadFactory threadFactory;
+    private ScheduledExecutorService executor;
+    private int maxFrameSize;
+
+    // Accessed only from the executor
+    private int offset;
+    private int controlFramesSent;
+    private boolean scheduled;
+    private boolean remoteClosed;
+
+    /**
+     * Creates a transport that replays the received frames of the given capture.
+     *
+     * @param remoteLocation
+     *      the location the transport reports it is connected to.
+     * @param options
+     *      the transport options, only the receive buffer size is used.
+     * @param capture
+     *      the capture to replay.
+     *
+     * @throws IllegalArgumentException if the capture cannot be replayed.
+     */
+    public AmqpFrameReplayTransport(URI remoteLocation, TransportOptions options, AmqpFrameCapture capture) {
+        List<AmqpFrameCapture.Frame> frames = capture.getFrames();
+
+        if (frames.isEmpty() || !frames.get(0).isProtocolHeader()) {
+            throw new IllegalArgumentException("The capture does not start at the beginning of the connection");
+        }
+
+        int received = 0;
+        int size = 0;
+        for (AmqpFrameCapture.Frame frame : frames) {
+            if (frame.isReceived()) {
+                if (frame.isTruncated()) {
+                    throw new IllegalArgumentException("The capture holds truncated frames, it must be recorded with a payload limit of at least " + frame.getFrameSize());
+                }
+
+                received++;
+                size += frame.getBytes().length;
+            }
+        }
+
+        this.remoteLocation = remoteLocation;
+        this.options = options;
+        this.inbound = Unpooled.buffer(size, size);
+        this.frameEnds = new int[received];
+        this.sentBefore = new int[received];
+
+        int index = 0;
+        int sent = 0;
+        int close = -1;
+        for (AmqpFrameCapture.Frame frame : frames) {
+            byte[] bytes = frame.getBytes();
+
+            if (!frame.isReceived()) {
+                if (frame.isProtocolHeader() || isAwaitingResponse(frame.getType(), performative(bytes, bytes.length), frame.getFrameSize())) {
+                    sent++;
+                }
+            } else {
+                if (!frame.isProtocolHeader() && performative(bytes, bytes.length) == CLOSE) {
+                    close = index;
+                }
+
+                inbound.writeBytes(bytes);
+                frameEnds[index] = inbound.writerIndex();
+                sentBefore[index++] = sent;
+            }
+        }
+
+        this.recordedClose = close;
+    }
+
+    /**
+     * @return a stage that completes once every received frame has been replayed or the
+     *         client has closed the connection.
+     */
+    public CompletionStage<Void> getReplayCompletion() {
+        return completion.minimalCompletionStage();
+    }
+
+    /**
+     * @return the number of received frames in the capture.
+     */
+    public int getFrameCount() {
+        return frameEnds.length;
+    }
+
+    /**
+     * @return the number of received frames handed to the client so far.
+     */
+    public int getFramesReplayed() {
+        return replayed;
+    }
+
+    @Override
+    public ScheduledExecutorService connect(Runnable initRoutine, SSLContext sslContextOverride) throws IOException {
+        if (closed.get()) {
+            throw new IllegalStateException("Transport has already been closed");
+        }
+
+        if (listener == null) {
+            throw new IllegalStateException("A transport listener must be set before connection attempts.");
+        }
+
+        executor = threadFactory != null ? Executors.newSingleThreadScheduledExecutor(threadFactory) :
+                                           Executors.newSingleThreadScheduledExecutor();
+
+        Future<?> initialized = executor.submit(() -> {
+            if (initRoutine != null) {
+                initRoutine.run();
+            }
+        });
+
+        try {
+            initialized.get();
+        } catch (ExecutionException ex) {
+            executor.shutdown();
+            throw IOExceptionSupport.create(ex.getCause());
+        } catch (InterruptedException ex) {
+            executor.shutdown();
+            Thread.currentThread().interrupt();
+            throw IOExceptionSupport.create(ex);
+        }
+
+        connected = true;
+
+        return executor;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return connected;
+    }
+
+    @Override
+    public boolean isSecure() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed.compareAndSet(false, true)) {
+            connected = false;
+            completion.complete(null);
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    @Override
+    public ByteBuf allocateSendBuffer(int size) throws IOException {
+        checkConnected();
+        return Unpooled.buffer(size, size);
+    }
+
+    @Override
+    public void write(ByteBuf output) throws IOException {
+        try {
+            checkConnected();
+            scanner.scan(output);
+        } finally {
+            output.release();
+        }
+
+        scheduleReplay();
+    }
+
+    @Override
+    public void writeAndFlush(ByteBuf output) throws IOException {
+        write(output);
+        flush();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        checkConnected();
+    }
+
+    @Override
+    public TransportListener getTransportListener() {
+        return listener;
+    }
+
+    @Override
+    public void setTransportListener(TransportListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public ThreadFactory getThreadFactory() {
+        return threadFactory;
+    }
+
+    @Override
+    public void setThreadFactory(ThreadFactory factory) {
+        this.threadFactory = factory;
+    }
+
+    @Override
+    public TransportOptions getTransportOptions() {
+        return options;
+    }
+
+    @Override
+    public URI getRemoteLocation() {
+        return remoteLocation;
+    }
+
+    @Override
+    public Principal getLocalPrincipal() {
+        return null;
+    }
+
+    @Override
+    public void setMaxFrameSize(int maxFrameSize) {
+        this.maxFrameSize = maxFrameSize;
+    }
+
+    @Override
+    public int getMaxFrameSize() {
+        return maxFrameSize;
+    }
+
+    //----- Internal implementation ------------------------------------------//
+
+    private void checkConnected() throws IOException {
+        if (!connected) {
+            throw new IOException("Cannot send to a non-connected transport.");
+        }
+    }
+
+    private boolean isReplayable(int frame) {
+        return frame < frameEnds.length && sentBefore[frame] <= controlFramesSent && !completion.isDone();
+    }
+
+    private void scheduleReplay() {
+        if (!scheduled && isReplayable(replayed)) {
+            scheduled = true;
+            executor.execute(this::replay);
+        }
+    }
+
+    private void replay() {
+        scheduled = false;
+
+        if (closed.get()) {
+            return;
+        }
+
+        final int limit = Math.max(options.getReceiveBufferSize(), FRAME_HEADER_SIZE);
+        final int start = offset;
+
+        int next = replayed;
+        while (isReplayable(next) && (next == replayed || frameEnds[next] - start <= limit)) {
+            remoteClosed |= next == recordedClose;
+            offset = frameEnds[next++];
+        }
+
+        replayed = next;
+
+        if (offset > start) {
+            listener.onData(inbound.slice(start, offset - start));
+        }
+
+        if (replayed == frameEnds.length) {
+            completion.complete(null);
+        } else {
+            scheduleReplay();
+        }
+    }
+
+    private void onClientClose() {
+        completion.complete(null);
+
+        if (!remoteClosed) {
+            remoteClosed = true;
+            executor.execute(() -> {
+                if (!closed.get()) {
+                    listener.onData(Unpooled.wrappedBuffer(CLOSE_FRAME));
+                }
+            });
+        }
+    }
+
+    /*
+     * Returns true for frames that may be answered by the peer, those sent as a consumer
+     * takes delivery of messages are not counted as their number depends on timing.
+     */
+    private static boolean isAwaitingResponse(int type, int performative, int frameSize) {
+        if (frameSize <= FRAME_HEADER_SIZE) {
+            return false;  // Heartbeat
+        }
+
+        return type == SASL_FRAME_TYPE || (performative != TRANSFER && performative != DISPOSITION);
+    }
+
+    /*
+     * Returns the descriptor code of the performative at the start of the frame body, or -1
+     * when it is not held in the given bytes.
+     */
+    private static int performative(byte[] frame, int length) {
+        if (length < FRAME_HEADER_SIZE) {
+            return -1;
+        }
+
+        final int bodyOffset = (frame[4] & 0xFF) * 4;
+        if (length < bodyOffset + 3 || frame[bodyOffset] != 0 || frame[bodyOffset + 1] != 0x53) {
+            return -1;
+        }
+
+        return frame[bodyOffset + 2] & 0xFF;
+    }
+
+    /*
+     * Follows the frames written by the client, which may be split over any number of writes.
+     */
+    private final class OutputScanner {
+
+        private final byte[] header = new byte[16];
+
+        private int headerLength;
+        private long remaining;
+        private int frameSize;
+
+        void scan(ByteBuf output) {
+            int index = output.readerIndex();
+            int length = output.readableBytes();
+
+            while (length > 0) {
+                if (headerLength < FRAME_HEADER_SIZE) {
+                    final int count = Math.min(FRAME_HEADER_SIZE - headerLength, length);
+                    output.getBytes(index, header, headerLength, count);
+                    headerLength += count;
+                    index += count;
+                    length -= count;
+
+                    if (headerLength == FRAME_HEADER_SIZE) {
+                        frameSize = readInt();
+                        if (frameSize == PROTOCOL_HEADER_MAGIC) {
+                            headerLength = 0;
+                            controlFramesSent++;
+                        } else {
+                            remaining = Integer.toUnsignedLong(frameSize) - FRAME_HEADER_SIZE;
+                            if (remaining == 0) {
+                                complete();
+                            }
+                        }
+                    }
+                } else {
+                    final int count = (int) Math.min(remaining, length);
+                    final int capture = Math.min(count, header.length - headerLength);
+                    if (capture > 0) {
+                        output.getBytes(index, header, headerLength, capture);
+                        headerLength += capture;
+                    }
+
+                    remaining -= count;
+                    index += count;
+                    length -= count;
+
+                    if (remaining == 0) {
+                        complete();
+                    }
+                }
+            }
+        }
+
+        private void complete() {
+            final int performative = performative(header, headerLength);
+
+            if (isAwaitingResponse(header[5], performative, frameSize)) {
+                controlFramesSent++;
+            }
+
+            if (performative == CLOSE && header[5] != SASL_FRAME_TYPE) {
+                onClientClose();
+            }
+
+            headerLength = 0;
+        }
+
+        private int readInt() {
+            return (header[0] & 0xFF) << 24 | (header[1] & 0xFF) << 16 | (header[2] & 0xFF) << 8 | (header[3] & 0xFF);
+        }
+    }
+}
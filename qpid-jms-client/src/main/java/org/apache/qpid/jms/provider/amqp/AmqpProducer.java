@@ -56,6 +56,18 @@ public abstract class AmqpProducer extends AmqpAbstractResource<JmsProducerInfo,
      */
     public abstract void send(JmsOutboundMessageDispatch envelope, AsyncResult request) throws ProviderException;
 
+    /**
+     * Completes the given request once the producer can send a message without it being held
+     * for lack of credit.  Producers that cannot track the credit of the link to which a send
+     * will be routed complete the request immediately.
+     *
+     * @param request
+     *        The AsyncRequest that will be notified once the producer can send.
+     */
+    public void awaitCredit(AsyncResult request) {
+        request.onSuccess();
+    }
+
     /**
      * @return true if this is an anonymous producer or false if fixed to a given destination.
      */
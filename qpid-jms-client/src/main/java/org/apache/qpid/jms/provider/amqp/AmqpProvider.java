@@ -18,6 +18,8 @@ package org.apache.qpid.jms.provider.amqp;
 
 import java.net.URI;
 import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -28,6 +30,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -38,6 +41,8 @@ import javax.net.ssl.SSLContext;
 
 import org.apache.qpid.jms.JmsConnectionExtensions;
 import org.apache.qpid.jms.JmsTemporaryDestination;
+import org.apache.qpid.jms.jfr.JmsEvent;
+import org.apache.qpid.jms.jfr.JmsEvents;
 import org.apache.qpid.jms.message.JmsInboundMessageDispatch;
 import org.apache.qpid.jms.message.JmsMessageFactory;
 import org.apache.qpid.jms.message.JmsOutboundMessageDispatch;
@@ -52,6 +57,9 @@ import org.apache.qpid.jms.meta.JmsResourceVistor;
 import org.apache.qpid.jms.meta.JmsSessionId;
 import org.apache.qpid.jms.meta.JmsSessionInfo;
 import org.apache.qpid.jms.meta.JmsTransactionInfo;
+import org.apache.qpid.jms.metrics.JmsCounter;
+import org.apache.qpid.jms.metrics.JmsHistogram;
+import org.apache.qpid.jms.metrics.JmsMetrics;
 import org.apache.qpid.jms.provider.AsyncResult;
 import org.apache.qpid.jms.provider.NoOpAsyncResult;
 import org.apache.qpid.jms.provider.Provider;
@@ -75,6 +83,7 @@ import org.apache.qpid.jms.sasl.SaslMechanismFinder;
 import org.apache.qpid.jms.sasl.SaslSecurityRuntimeException;
 import org.apache.qpid.jms.transports.Transport;
 import org.apache.qpid.jms.transports.TransportListener;
+import org.apache.qpid.jms.util.InstrumentedScheduledExecutorService;
 import org.apache.qpid.jms.util.PropertyUtil;
 import org.apache.qpid.jms.util.QpidJMSThreadFactory;
 import org.apache.qpid.proton.amqp.Symbol;
@@ -95,6 +104,7 @@ import org.slf4j.LoggerFactory;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
 
 /**
  * An AMQP v1.0 Provider.
@@ -144,6 +154,12 @@ public class AmqpProvider implements Provider, TransportListener , AmqpResourceP
     private int maxWriteBytesBeforeFlush = DEFAULT_MAX_WRITE_BYTES_BEFORE_FLUSH;
     private int anonymousFallbackCacheTimeout = DEFAULT_ANONYMOUS_FALLBACK_CACHE_TIMEOUT;
     private int anonymousFallbackCacheSize = DEFAULT_ANONYMOUS_FALLBACK_CACHE_SIZE;
+    private long groupCommitWindow;
+    private int frameRecorderCapacity;
+    private int frameRecorderPayloadLimit = AmqpFrameRecorder.DEFAULT_PAYLOAD_LIMIT;
+    private String frameRecorderDumpDirectory;
+    private AmqpFrameRecorder frameRecorder;
+    private boolean frameRecorderDumped;
 
     private boolean allowNonSecureRedirects;
 
@@ -151,6 +167,9 @@ public class AmqpProvider implements Provider, TransportListener , AmqpResourceP
     private final AtomicBoolean closed = new AtomicBoolean();
     private volatile Throwable failureCause;
     private ScheduledExecutorService serializer;
+    private JmsCounter bytesIn = JmsCounter.DISABLED;
+    private JmsCounter bytesOut = JmsCounter.DISABLED;
+    private JmsHistogram inputProcessingTime = JmsHistogram.DISABLED;
     private final org.apache.qpid.proton.engine.Transport protonTransport =
         org.apache.qpid.proton.engine.Transport.Factory.create();
     private final Collector protonCollector = new CollectorImpl();
@@ -161,6 +180,8 @@ public class AmqpProvider implements Provider, TransportListener , AmqpResourceP
     private AsyncResult connectionRequest;
     private ScheduledFuture<?> nextIdleTimeoutCheck;
     private List<AsyncResult> failOnConnectionDropList = new ArrayList<>();
+    private final List<AsyncResult> groupCommitRequests = new ArrayList<>();
+    private ScheduledFuture<?> groupCommitFlush;
 
     /**
      * Create a new instance of an AmqpProvider bonded to the given remote URI.
@@ -200,6 +221,11 @@ public class AmqpProvider implements Provider, TransportListener , AmqpResourceP
         transport.setTransportListener(AmqpProvider.this);
         transport.setMaxFrameSize(maxFrameSize);
 
+        if (frameRecorderCapacity > 0) {
+            frameRecorder = new AmqpFrameRecorder(connectionInfo.getId() + "@" + remoteURI.getHost() + ":" + remoteURI.getPort(),
+                                                  frameRecorderCapacity, frameRecorderPayloadLimit);
+        }
+
         final SSLContext sslContextOverride;
         if (connectionInfo.getExtensionMap().containsKey(JmsConnectionExtensions.SSL_CONTEXT)) {
             sslContextOverride =
@@ -227,8 +253,14 @@ public class AmqpProvider implements Provider, TransportListener , AmqpResourceP
             }
         }
 
+        final JmsMetrics metrics = connectionInfo.getMetrics();
+
+        bytesIn = metrics.counter(JmsMetrics.BYTES_IN);
+        bytesOut = metrics.counter(JmsMetrics.BYTES_OUT);
+        inputProcessingTime = metrics.histogram(JmsMetrics.INPUT_PROCESSING_TIME);
+
         try {
-            serializer = transport.connect(() -> {
+            ScheduledExecutorService eventLoop = transport.connect(() -> {
                 this.connectionInfo = connectionInfo;
                 this.connectionRequest = connectRequest;
 
@@ -298,6 +330,15 @@ public class AmqpProvider implements Provider, TransportListener , AmqpResourceP
                 }
             }, sslContextOverride);
 
+            serializer = new InstrumentedScheduledExecutorService("Serializer: " + connectionInfo.getId(), eventLoop,
+                metrics.histogram(JmsMetrics.SERIALIZER + JmsMetrics.TASK_WAIT_TIME),
+                metrics.histogram(JmsMetrics.SERIALIZER + JmsMetrics.TASK_EXECUTION_TIME));
+
+            // The serializer shares the transport's event loop so its depth includes the I/O work queued there,
+            // and when the event loop group is shared the work of the other connections bound to the same loop.
+            metrics.gauge(JmsMetrics.SERIALIZER + JmsMetrics.QUEUE_DEPTH, () -> queueDepthOf(eventLoop));
+            transport.registerMetrics(metrics);
+
             // Once connected pump the transport to write the header and respond to any
             // data that arrived at connect such as pipelined Header etc
             serializer.execute(() -> pumpToProtonTransport());
@@ -376,6 +417,12 @@ public class AmqpProvider implements Provider, TransportListener , AmqpResourceP
                                 nextIdleTimeoutCheck.cancel(false);
                                 nextIdleTimeoutCheck = null;
                             }
+
+                            if (groupCommitFlush != null) {
+                                groupCommitFlush.cancel(false);
+                                groupCommitFlush = null;
+                                groupCommitRequests.clear();
+                            }
                         }
                     });
                 } catch (RejectedExecutionException rje) {
@@ -404,6 +451,10 @@ public class AmqpProvider implements Provider, TransportListener , AmqpResourceP
                         LOG.debug("Caught exception while closing down Transport: {}", e.getMessage());
                     }
                 }
+
+                if (frameRecorder != null) {
+                    frameRecorder.close();
+                }
             }
         }
     }
@@ -732,7 +783,11 @@ public class AmqpProvider implements Provider, TransportListener , AmqpResourceP
                 AmqpSession session = connection.getSession(transactionInfo.getSessionId());
                 if (session != null) {
                     session.commit(transactionInfo, nextTransactionId, request);
-                    pumpToProtonTransport(request);
+                    if (groupCommitWindow > 0) {
+                        deferGroupCommitFlush(request);
+                    } else {
+                        pumpToProtonTransport(request);
+                    }
                 } else {
                     if (transactionInfo.isInDoubt()) {
                         throw new ProviderTransactionInDoubtException("Commit of in-doubt transaction failed because no session exists");
@@ -830,8 +885,55 @@ public class AmqpProvider implements Provider, TransportListener , AmqpResourceP
         });
     }
 
+    @Override
+    public void awaitCredit(final JmsProducerId producerId, final AsyncResult request) throws ProviderException {
+        checkClosedOrFailed();
+        checkConnected();
+
+        serializer.execute(() -> {
+
+            try {
+                checkClosedOrFailed();
+                AmqpProducer producer = (AmqpProducer) producerId.getProviderHint();
+                producer.awaitCredit(request);
+            } catch (Throwable t) {
+                request.onFailure(ProviderExceptionSupport.createNonFatalOrPassthrough(t));
+            }
+        });
+    }
+
+    @Override
+    public void grantCredit(final JmsConsumerId consumerId, final int credit, final AsyncResult request) throws ProviderException {
+        checkClosedOrFailed();
+        checkConnected();
+
+        serializer.execute(() -> {
+
+            try {
+                checkClosedOrFailed();
+                AmqpConsumer consumer = (AmqpConsumer) consumerId.getProviderHint();
+                consumer.grantCredit(credit, request);
+                pumpToProtonTransport(request);
+            } catch (Throwable t) {
+                request.onFailure(ProviderExceptionSupport.createNonFatalOrPassthrough(t));
+            }
+        });
+    }
+
     //---------- Event handlers and Utility methods  -------------------------//
 
+    private void dumpFrameRecorderOnError() {
+        if (frameRecorder != null && frameRecorderDumpDirectory != null && !frameRecorderDumped) {
+            frameRecorderDumped = true;
+            try {
+                Path file = frameRecorder.dumpTo(Paths.get(frameRecorderDumpDirectory));
+                LOG.info("Recorded AMQP frames of failed connection written to: {}", file);
+            } catch (Exception e) {
+                LOG.warn("Failed to write recorded AMQP frames: {}", e.getMessage());
+            }
+        }
+    }
+
     private void updateTracer() {
         if (isTraceFrames()) {
             ((TransportImpl) protonTransport).setProtocolTracer(new AmqpProtocolTracer(TRACE_FRAMES, System.identityHashCode(protonTransport), traceFramesPayloadLimit));
@@ -855,11 +957,22 @@ public class AmqpProvider implements Provider, TransportListener , AmqpResourceP
 
     @Override
     public void onData(final ByteBuf input) {
+        final JmsEvent event = JmsEvents.beginInput();
+
+        final long started = inputProcessingTime.start();
+        final int bytes = input.readableBytes();
+
+        bytesIn.add(bytes);
+
         try {
             if (isTraceBytes()) {
                 TRACE_BYTES.info("Received: {}", ByteBufUtil.hexDump(input));
             }
 
+            if (frameRecorder != null) {
+                frameRecorder.received(input);
+            }
+
             if(protonTransportErrorHandled) {
                 LOG.trace("Skipping data processing, proton transport previously errored.");
                 return;
@@ -880,6 +993,9 @@ public class AmqpProvider implements Provider, TransportListener , AmqpResourceP
         } catch (Throwable t) {
             LOG.warn("Caught problem during data processing: {}", t.getMessage(), t);
             fireProviderException(ProviderExceptionSupport.createOrPassthroughFatal(t));
+        } finally {
+            inputProcessingTime.recordSince(started);
+            JmsEvents.commitInput(event, connectionInfo != null ? connectionInfo.getId() : null, bytes);
         }
     }
 
@@ -1048,6 +1164,16 @@ public class AmqpProvider implements Provider, TransportListener , AmqpResourceP
         }
     }
 
+    private static long queueDepthOf(ScheduledExecutorService eventLoop) {
+        if (eventLoop instanceof SingleThreadEventExecutor) {
+            return ((SingleThreadEventExecutor) eventLoop).pendingTasks();
+        } else if (eventLoop instanceof ScheduledThreadPoolExecutor) {
+            return ((ScheduledThreadPoolExecutor) eventLoop).getQueue().size();
+        } else {
+            return 0;
+        }
+    }
+
     private static String extractTransportErrorMessage(ErrorCondition errorCondition) {
         String message = "Error without description from proton Transport";
         if (errorCondition != null) {
@@ -1064,6 +1190,41 @@ public class AmqpProvider implements Provider, TransportListener , AmqpResourceP
         return message;
     }
 
+    /*
+     * Collects the commits that arrive within the group commit window so that the discharge
+     * frames of all of them are written by a single pump and flush of the transport.
+     */
+    private void deferGroupCommitFlush(AsyncResult request) {
+        groupCommitRequests.add(request);
+        if (groupCommitFlush == null) {
+            groupCommitFlush = serializer.schedule(this::flushGroupCommit, groupCommitWindow, TimeUnit.MICROSECONDS);
+        }
+    }
+
+    private void flushGroupCommit() {
+        groupCommitFlush = null;
+
+        if (groupCommitRequests.isEmpty() || closed.get()) {
+            groupCommitRequests.clear();
+            return;
+        }
+
+        final AsyncResult[] requests = groupCommitRequests.toArray(new AsyncResult[0]);
+        groupCommitRequests.clear();
+
+        LOG.trace("Flushing group commit of {} transactions", requests.length);
+
+        pumpToProtonTransport(new NoOpAsyncResult() {
+
+            @Override
+            public void onFailure(ProviderException result) {
+                for (AsyncResult request : requests) {
+                    request.onFailure(result);
+                }
+            }
+        });
+    }
+
     protected boolean pumpToProtonTransport() {
         return pumpToProtonTransport(NOOP_REQUEST, true);
     }
@@ -1087,7 +1248,12 @@ public class AmqpProvider implements Provider, TransportListener , AmqpResourceP
                         TRACE_BYTES.info("Sending: {}", ByteBufUtil.hexDump(outbound));
                     }
 
+                    if (frameRecorder != null) {
+                        frameRecorder.sent(outbound);
+                    }
+
                     bytesWritten += outbound.readableBytes();
+                    bytesOut.add(outbound.readableBytes());
                     if (flush && bytesWritten >= getMaxWriteBytesBeforeFlush()) {
                         transport.flush();
                         bytesWritten = 0;
@@ -1152,6 +1318,8 @@ public class AmqpProvider implements Provider, TransportListener , AmqpResourceP
 
         failureCause = ex;
 
+        dumpFrameRecorderOnError();
+
         ProviderListener listener = this.listener;
         try {
             if (listener != null) {
@@ -1231,6 +1399,60 @@ public class AmqpProvider implements Provider, TransportListener , AmqpResourceP
         return this.traceBytes;
     }
 
+    public int getFrameRecorderCapacity() {
+        return frameRecorderCapacity;
+    }
+
+    /**
+     * Sets the size in bytes of the off heap ring buffer that records the raw AMQP frames sent
+     * and received on the connection, the oldest frames are overwritten once it is full.  A
+     * value of zero (the default) disables frame recording.
+     *
+     * @param frameRecorderCapacity
+     *      the size in bytes of the frame recorder's buffer.
+     */
+    public void setFrameRecorderCapacity(int frameRecorderCapacity) {
+        this.frameRecorderCapacity = frameRecorderCapacity;
+    }
+
+    public int getFrameRecorderPayloadLimit() {
+        return frameRecorderPayloadLimit;
+    }
+
+    /**
+     * Sets the number of leading bytes of each frame, including the frame header, that the
+     * frame recorder keeps.  Frames larger than this are recorded with their full size but only
+     * their leading bytes, which is normally enough to hold the performative.
+     *
+     * @param frameRecorderPayloadLimit
+     *      the number of bytes of each frame that are recorded.
+     */
+    public void setFrameRecorderPayloadLimit(int frameRecorderPayloadLimit) {
+        this.frameRecorderPayloadLimit = frameRecorderPayloadLimit;
+    }
+
+    public String getFrameRecorderDumpDirectory() {
+        return frameRecorderDumpDirectory;
+    }
+
+    /**
+     * Sets a directory to which the recorded frames are written when the connection fails,
+     * when not set the recorded frames are only written when requested.
+     *
+     * @param frameRecorderDumpDirectory
+     *      the directory the recorded frames of a failed connection are written to.
+     */
+    public void setFrameRecorderDumpDirectory(String frameRecorderDumpDirectory) {
+        this.frameRecorderDumpDirectory = frameRecorderDumpDirectory;
+    }
+
+    /**
+     * @return the recorder of the connection's frames, or null if frame recording is disabled.
+     */
+    public AmqpFrameRecorder getFrameRecorder() {
+        return frameRecorder;
+    }
+
     public boolean isSaslLayer() {
         return saslLayer;
     }
@@ -1330,6 +1552,23 @@ public class AmqpProvider implements Provider, TransportListener , AmqpResourceP
         return maxWriteBytesBeforeFlush;
     }
 
+    public long getGroupCommitWindow() {
+        return groupCommitWindow;
+    }
+
+    /**
+     * Sets the time in microseconds that the provider waits after a transaction commit is
+     * requested so that other commits arriving within that window have their discharge frames
+     * written and flushed to the transport together.  A value of zero (the default) disables
+     * group commit and each commit is written as soon as it is requested.
+     *
+     * @param groupCommitWindow
+     * 		the time in microseconds that commits are collected before being written.
+     */
+    public void setGroupCommitWindow(long groupCommitWindow) {
+        this.groupCommitWindow = groupCommitWindow;
+    }
+
     /**
      * Sets the maximum number of bytes that will be written on a large set of batched writes
      * before a flush is requested on the {@link Transport}.
@@ -49,7 +49,7 @@ public class AmqpProviderFactory extends ProviderFactory {
         Map<String, String> amqpProviderOptions = PropertyUtil.filterProperties(map, "amqp.");
         Map<String, String> providerOptions = PropertyUtil.filterProperties(map, "provider.");
 
-        Transport transport = TransportFactory.create(getTransportScheme(), PropertyUtil.replaceQuery(remoteURI, map));
+        Transport transport = createTransport(PropertyUtil.replaceQuery(remoteURI, map));
 
         // If we have been given a futures factory to use then we ignore any URI options indicating
         // what to create and just go with what we are given.
@@ -86,6 +86,20 @@ public class AmqpProviderFactory extends ProviderFactory {
         return "AMQP";
     }
 
+    /**
+     * Creates the Transport that a new provider connects over.
+     *
+     * @param remoteURI
+     *      the remote URI with only the transport options remaining in its query.
+     *
+     * @return a new Transport for the provider.
+     *
+     * @throws Exception if the transport cannot be created.
+     */
+    protected Transport createTransport(URI remoteURI) throws Exception {
+        return TransportFactory.create(getTransportScheme(), remoteURI);
+    }
+
     public String getTransportScheme() {
         return transportScheme;
     }
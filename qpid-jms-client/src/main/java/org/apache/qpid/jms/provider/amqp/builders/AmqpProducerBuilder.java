@@ -133,6 +133,16 @@ public class AmqpProducerBuilder extends AmqpResourceBuilder<AmqpProducer, AmqpS
         }
     }
 
+    @Override
+    protected void afterClosed(AmqpProducer resource, JmsProducerInfo info) {
+        // Sends issued before the link was attached are held awaiting credit, as the link
+        // was refused they must now be failed rather than left waiting indefinitely.
+        if (resource != null) {
+            ProviderException cause = hasRemoteError() ? getOpenAbortExceptionFromRemote() : getDefaultOpenAbortException();
+            resource.handleResourceClosure(provider, cause);
+        }
+    }
+
     @Override
     protected boolean isClosePending() {
         // When no link terminus was created, the peer will now detach/close us otherwise
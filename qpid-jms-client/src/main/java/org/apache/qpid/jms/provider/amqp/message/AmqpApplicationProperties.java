@@ -0,0 +1,427 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.provider.amqp.message;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.qpid.proton.codec.EncoderImpl;
+import org.apache.qpid.proton.codec.EncodingCodes;
+import org.apache.qpid.proton.codec.WritableBuffer;
+
+/**
+ * Container for the application properties of an AMQP message.
+ * <p>
+ * Properties set on an outbound message are kept with their keys in a compact array and any
+ * primitive values stored unboxed, the properties are encoded directly into the AMQP
+ * ApplicationProperties section form without a Map being created.  The properties of an
+ * inbound message are left in the Map produced when the message was decoded, they are only
+ * moved into the compact form when the properties are copied into another message.
+ * <p>
+ * An outbound message may also reference a shared {@link AmqpApplicationPropertiesTemplate}
+ * whose pre-encoded entries are written ahead of the message's own properties.  The keys set
+ * on the message itself never overlap those of the template, setting a key that the template
+ * holds first copies the template entries into the message's own properties.
+ */
+final class AmqpApplicationProperties {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private static final byte OBJECT = 0;
+    private static final byte BOOLEAN = 1;
+    private static final byte BYTE = 2;
+    private static final byte SHORT = 3;
+    private static final byte INT = 4;
+    private static final byte LONG = 5;
+    private static final byte FLOAT = 6;
+    private static final byte DOUBLE = 7;
+
+    private static final byte APPLICATION_PROPERTIES_DESCRIPTOR = 0x74;
+
+    // The Map of a decoded message, null once the properties are held in the compact form.
+    private Map<String, Object> decoded;
+
+    private String[] keys;
+    private byte[] types;
+    private long[] primitives;
+    private Object[] values;
+    private int size;
+
+    private AmqpApplicationPropertiesTemplate template;
+
+    AmqpApplicationProperties() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    private AmqpApplicationProperties(int capacity) {
+        keys = new String[capacity];
+        types = new byte[capacity];
+        primitives = new long[capacity];
+        values = new Object[capacity];
+    }
+
+    private AmqpApplicationProperties(Map<String, Object> decoded) {
+        this.decoded = decoded;
+    }
+
+    /**
+     * Creates an instance that reads from and writes through to the given decoded Map.
+     *
+     * @param decoded
+     *      the Map value of an ApplicationProperties section from an incoming message.
+     *
+     * @return a new properties container backed by the given Map.
+     */
+    static AmqpApplicationProperties wrap(Map<String, Object> decoded) {
+        return new AmqpApplicationProperties(decoded);
+    }
+
+    int size() {
+        if (decoded != null) {
+            return decoded.size();
+        }
+
+        return template != null ? size + template.size() : size;
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    boolean containsKey(String key) {
+        if (decoded != null) {
+            return decoded.containsKey(key);
+        }
+
+        return indexOf(key) >= 0 || (template != null && template.containsKey(key));
+    }
+
+    Object get(String key) {
+        if (decoded != null) {
+            return decoded.get(key);
+        }
+
+        final int index = indexOf(key);
+        if (index >= 0) {
+            return valueAt(index);
+        }
+
+        return template != null ? template.get(key) : null;
+    }
+
+    void put(String key, Object value) {
+        if (decoded != null) {
+            decoded.put(key, value);
+            return;
+        }
+
+        if (template != null && template.containsKey(key)) {
+            inlineTemplate();
+        }
+
+        int index = indexOf(key);
+        if (index < 0) {
+            if (size == keys.length) {
+                grow(size + 1);
+            }
+
+            index = size++;
+            keys[index] = key;
+        }
+
+        store(index, value);
+    }
+
+    void addKeysTo(Set<String> target) {
+        if (decoded != null) {
+            target.addAll(decoded.keySet());
+        } else {
+            if (template != null) {
+                target.addAll(template.getPropertyNames());
+            }
+
+            for (int i = 0; i < size; ++i) {
+                target.add(keys[i]);
+            }
+        }
+    }
+
+    /**
+     * Sets each of the properties held in the given template, when none of its keys are
+     * already present the template is referenced rather than its entries being copied.
+     *
+     * @param applied
+     *      the template whose properties are to be set.
+     */
+    void apply(AmqpApplicationPropertiesTemplate applied) {
+        if (template == applied) {
+            return;
+        }
+
+        if (decoded == null && template == null && !containsAnyKeyOf(applied)) {
+            template = applied;
+            return;
+        }
+
+        final AmqpApplicationProperties entries = applied.getProperties();
+        for (int i = 0; i < entries.size; ++i) {
+            put(entries.keys[i], entries.valueAt(i));
+        }
+    }
+
+    /**
+     * @return a compact copy of these properties that shares no state with this instance.
+     */
+    AmqpApplicationProperties copy() {
+        final AmqpApplicationProperties copy = new AmqpApplicationProperties(Math.max(decoded != null ? decoded.size() : size, DEFAULT_CAPACITY));
+
+        if (decoded != null) {
+            for (Map.Entry<String, Object> entry : decoded.entrySet()) {
+                copy.put(entry.getKey(), entry.getValue());
+            }
+        } else {
+            System.arraycopy(keys, 0, copy.keys, 0, size);
+            System.arraycopy(types, 0, copy.types, 0, size);
+            System.arraycopy(primitives, 0, copy.primitives, 0, size);
+            System.arraycopy(values, 0, copy.values, 0, size);
+            copy.size = size;
+            copy.template = template;
+        }
+
+        return copy;
+    }
+
+    /**
+     * @return a Map containing the properties, the decoded Map itself for inbound properties.
+     */
+    Map<String, Object> toMap() {
+        if (decoded != null) {
+            return decoded;
+        }
+
+        final Map<String, Object> result = new LinkedHashMap<>(Math.max(16, (int) (size() / 0.75f) + 1));
+        if (template != null) {
+            result.putAll(template.getProperties().toMap());
+        }
+
+        for (int i = 0; i < size; ++i) {
+            result.put(keys[i], valueAt(i));
+        }
+
+        return result;
+    }
+
+    /**
+     * Writes the properties as an AMQP ApplicationProperties section using the given encoder.
+     * <p>
+     * The map is always written in its four byte size and count form, the size is filled in
+     * once the entries have been written which saves calculating the encoded size up front.
+     *
+     * @param encoder
+     *      the encoder whose current buffer the section is written to.
+     */
+    void encode(EncoderImpl encoder) {
+        final WritableBuffer buffer = encoder.getBuffer();
+
+        buffer.put(EncodingCodes.DESCRIBED_TYPE_INDICATOR);
+        buffer.put(EncodingCodes.SMALLULONG);
+        buffer.put(APPLICATION_PROPERTIES_DESCRIPTOR);
+        buffer.put(EncodingCodes.MAP32);
+
+        final int sizePosition = buffer.position();
+        buffer.putInt(0);
+        buffer.putInt(size() * 2);
+
+        if (decoded != null) {
+            for (Map.Entry<String, Object> entry : decoded.entrySet()) {
+                encoder.writeObject(entry.getKey());
+                encoder.writeObject(entry.getValue());
+            }
+        } else {
+            if (template != null) {
+                buffer.put(template.getEncodedEntries());
+            }
+
+            encodeEntries(encoder);
+        }
+
+        final int endPosition = buffer.position();
+        buffer.position(sizePosition);
+        buffer.putInt(endPosition - sizePosition - Integer.BYTES);
+        buffer.position(endPosition);
+    }
+
+    /**
+     * Writes the key and value of each property held in the compact form, one after the other
+     * as they would appear in the body of an encoded map.
+     *
+     * @param encoder
+     *      the encoder whose current buffer the entries are written to.
+     */
+    void encodeEntries(EncoderImpl encoder) {
+        for (int i = 0; i < size; ++i) {
+            encoder.writeString(keys[i]);
+            encodeValueAt(encoder, i);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AmqpApplicationProperties " + toMap();
+    }
+
+    //----- Internal implementation ------------------------------------------//
+
+    private int indexOf(String key) {
+        if (key == null) {
+            return -1;
+        }
+
+        final int hash = key.hashCode();
+        for (int i = 0; i < size; ++i) {
+            final String candidate = keys[i];
+            if (candidate == key || (candidate.hashCode() == hash && candidate.equals(key))) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private boolean containsAnyKeyOf(AmqpApplicationPropertiesTemplate applied) {
+        for (int i = 0; i < size; ++i) {
+            if (applied.containsKey(keys[i])) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void inlineTemplate() {
+        final AmqpApplicationProperties entries = template.getProperties();
+
+        template = null;
+
+        if (size + entries.size > keys.length) {
+            grow(size + entries.size);
+        }
+
+        System.arraycopy(entries.keys, 0, keys, size, entries.size);
+        System.arraycopy(entries.types, 0, types, size, entries.size);
+        System.arraycopy(entries.primitives, 0, primitives, size, entries.size);
+        System.arraycopy(entries.values, 0, values, size, entries.size);
+
+        size += entries.size;
+    }
+
+    private void grow(int required) {
+        final int capacity = Math.max(required, keys.length * 2);
+
+        keys = Arrays.copyOf(keys, capacity);
+        types = Arrays.copyOf(types, capacity);
+        primitives = Arrays.copyOf(primitives, capacity);
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    private void store(int index, Object value) {
+        byte type = OBJECT;
+        long primitive = 0;
+
+        if (value instanceof Integer) {
+            type = INT;
+            primitive = ((Integer) value).intValue();
+        } else if (value instanceof Long) {
+            type = LONG;
+            primitive = ((Long) value).longValue();
+        } else if (value instanceof Boolean) {
+            type = BOOLEAN;
+            primitive = ((Boolean) value).booleanValue() ? 1 : 0;
+        } else if (value instanceof Short) {
+            type = SHORT;
+            primitive = ((Short) value).shortValue();
+        } else if (value instanceof Byte) {
+            type = BYTE;
+            primitive = ((Byte) value).byteValue();
+        } else if (value instanceof Double) {
+            type = DOUBLE;
+            primitive = Double.doubleToRawLongBits((Double) value);
+        } else if (value instanceof Float) {
+            type = FLOAT;
+            primitive = Float.floatToRawIntBits((Float) value);
+        }
+
+        types[index] = type;
+        primitives[index] = primitive;
+        values[index] = type == OBJECT ? value : null;
+    }
+
+    private Object valueAt(int index) {
+        final long primitive = primitives[index];
+
+        switch (types[index]) {
+            case INT:
+                return Integer.valueOf((int) primitive);
+            case LONG:
+                return Long.valueOf(primitive);
+            case BOOLEAN:
+                return Boolean.valueOf(primitive != 0);
+            case SHORT:
+                return Short.valueOf((short) primitive);
+            case BYTE:
+                return Byte.valueOf((byte) primitive);
+            case DOUBLE:
+                return Double.valueOf(Double.longBitsToDouble(primitive));
+            case FLOAT:
+                return Float.valueOf(Float.intBitsToFloat((int) primitive));
+            default:
+                return values[index];
+        }
+    }
+
+    private void encodeValueAt(EncoderImpl encoder, int index) {
+        final long primitive = primitives[index];
+
+        switch (types[index]) {
+            case INT:
+                encoder.writeInteger((int) primitive);
+                break;
+            case LONG:
+                encoder.writeLong(primitive);
+                break;
+            case BOOLEAN:
+                encoder.writeBoolean(primitive != 0);
+                break;
+            case SHORT:
+                encoder.writeShort((short) primitive);
+                break;
+            case BYTE:
+                encoder.writeByte((byte) primitive);
+                break;
+            case DOUBLE:
+                encoder.writeDouble(Double.longBitsToDouble(primitive));
+                break;
+            case FLOAT:
+                encoder.writeFloat(Float.intBitsToFloat((int) primitive));
+                break;
+            default:
+                encoder.writeObject(values[index]);
+        }
+    }
+}
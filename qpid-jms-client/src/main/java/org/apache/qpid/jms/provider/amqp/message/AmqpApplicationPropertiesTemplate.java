@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.provider.amqp.message;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.qpid.jms.message.facade.JmsMessagePropertyTemplate;
+import org.apache.qpid.proton.codec.EncoderImpl;
+import org.apache.qpid.proton.codec.ReadableBuffer;
+import org.apache.qpid.proton.codec.WritableBuffer;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * A fixed set of application properties whose map entries are encoded once when the
+ * template is created, messages that reference the template have the cached entries
+ * written into their ApplicationProperties section ahead of their own properties.
+ */
+final class AmqpApplicationPropertiesTemplate implements JmsMessagePropertyTemplate {
+
+    private final AmqpApplicationProperties properties = new AmqpApplicationProperties();
+    private final Set<String> propertyNames;
+    private final ReadableBuffer encodedEntries;
+
+    AmqpApplicationPropertiesTemplate(Map<String, Object> values) {
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            properties.put(entry.getKey(), entry.getValue());
+        }
+
+        Set<String> names = new HashSet<>();
+        properties.addKeysTo(names);
+        propertyNames = Collections.unmodifiableSet(names);
+
+        AmqpWritableBuffer buffer = new AmqpWritableBuffer();
+
+        EncoderImpl encoder = AmqpCodec.getEncoder();
+        WritableBuffer oldBuffer = encoder.getBuffer();
+        encoder.setByteBuffer(buffer);
+        properties.encodeEntries(encoder);
+        encoder.setByteBuffer(oldBuffer);
+
+        ByteBuf encoded = buffer.getBuffer();
+        byte[] bytes = new byte[encoded.readableBytes()];
+        encoded.readBytes(bytes);
+
+        encodedEntries = ReadableBuffer.ByteBufferReader.wrap(ByteBuffer.wrap(bytes));
+    }
+
+    @Override
+    public Set<String> getPropertyNames() {
+        return propertyNames;
+    }
+
+    int size() {
+        return properties.size();
+    }
+
+    boolean containsKey(String key) {
+        return properties.containsKey(key);
+    }
+
+    Object get(String key) {
+        return properties.get(key);
+    }
+
+    AmqpApplicationProperties getProperties() {
+        return properties;
+    }
+
+    /**
+     * @return a view of the encoded map entries positioned at their start, one per call.
+     */
+    ReadableBuffer getEncodedEntries() {
+        return encodedEntries.duplicate();
+    }
+
+    @Override
+    public String toString() {
+        return "AmqpApplicationPropertiesTemplate " + properties.toMap();
+    }
+}
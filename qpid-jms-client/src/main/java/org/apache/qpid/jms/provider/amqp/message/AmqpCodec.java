@@ -82,6 +82,9 @@ public final class AmqpCodec {
         }
     };
 
+    private static final byte MAP8_CODE = (byte) 0xc1;
+    private static final byte MAP32_CODE = (byte) 0xd1;
+
     /**
      * Static cache for all cached MessageAnnotation data which is used to populate the
      * duplicate values stored in the TLS Encoder Decoder contexts.  This Map instance must
@@ -170,7 +173,6 @@ public final class AmqpCodec {
         DeliveryAnnotations deliveryAnnotations = message.getDeliveryAnnotations();
         MessageAnnotations messageAnnotations = message.getMessageAnnotations();
         Properties properties = message.getProperties();
-        ApplicationProperties applicationProperties = message.getApplicationProperties();
         Section body = message.getBody();
         Footer footer = message.getFooter();
 
@@ -180,7 +182,11 @@ public final class AmqpCodec {
         if (deliveryAnnotations != null) {
             encoder.writeObject(deliveryAnnotations);
         }
-        if (messageAnnotations != null) {
+        if (messageAnnotations != null && isSingleAdditionalAnnotation(messageAnnotations.getValue())) {
+            // Commonly just the tracing state, which is appended to the cached client annotations.
+            Map.Entry<Symbol, Object> annotation = messageAnnotations.getValue().entrySet().iterator().next();
+            writeMessageAnnotations(getCachedMessageAnnotationsBuffer(message, context), annotation.getKey(), annotation.getValue(), buffer, encoder);
+        } else if (messageAnnotations != null) {
             // Ensure annotations contain required message type and destination type data
             AmqpDestinationHelper.setReplyToAnnotationFromDestination(message.getReplyTo(), messageAnnotations);
             AmqpDestinationHelper.setToAnnotationFromDestination(message.getDestination(), messageAnnotations);
@@ -192,8 +198,8 @@ public final class AmqpCodec {
         if (properties != null) {
             encoder.writeObject(properties);
         }
-        if (applicationProperties != null) {
-            encoder.writeObject(applicationProperties);
+        if (message.hasApplicationProperties()) {
+            message.encodeApplicationProperties(encoder);
         }
         if (body != null) {
             encoder.writeObject(body);
@@ -207,6 +213,55 @@ public final class AmqpCodec {
         return buffer.getBuffer();
     }
 
+    private static boolean isSingleAdditionalAnnotation(Map<Symbol, Object> annotations) {
+        if (annotations.size() != 1) {
+            return false;
+        }
+
+        return !annotations.containsKey(JMS_MSG_TYPE) &&
+               !annotations.containsKey(AmqpDestinationHelper.JMS_DEST_TYPE_MSG_ANNOTATION_SYMBOL) &&
+               !annotations.containsKey(AmqpDestinationHelper.JMS_REPLY_TO_TYPE_MSG_ANNOTATION_SYMBOL);
+    }
+
+    /*
+     * Writes the cached encoding of the annotations the client sets with one further entry
+     * added to the map, the map is always written in its large form with its size filled in
+     * once the entry has been written.
+     */
+    private static void writeMessageAnnotations(ReadableBuffer cached, Symbol key, Object value, AmqpWritableBuffer buffer, EncoderImpl encoder) {
+        final int entriesOffset;
+        final int count;
+
+        // Skip the descriptor, then read the count from the map8 or map32 encoding.
+        if (cached.get(3) == MAP8_CODE) {
+            count = cached.get(5) & 0xFF;
+            entriesOffset = 6;
+        } else {
+            count = (cached.get(8) & 0xFF) << 24 | (cached.get(9) & 0xFF) << 16 | (cached.get(10) & 0xFF) << 8 | (cached.get(11) & 0xFF);
+            entriesOffset = 12;
+        }
+
+        buffer.put(cached.get(0));
+        buffer.put(cached.get(1));
+        buffer.put(cached.get(2));
+        buffer.put(MAP32_CODE);
+
+        final int sizePosition = buffer.position();
+        buffer.putInt(0);
+        buffer.putInt(count + 2);
+
+        cached.position(entriesOffset);
+        buffer.put(cached);
+
+        encoder.writeSymbol(key);
+        encoder.writeObject(value);
+
+        final int end = buffer.position();
+        buffer.position(sizePosition);
+        buffer.putInt(end - sizePosition - Integer.BYTES);
+        buffer.position(end);
+    }
+
     private static ReadableBuffer getCachedMessageAnnotationsBuffer(AmqpJmsMessageFacade message, EncoderDecoderContext context) {
         byte msgType = message.getJmsMsgType();
         byte toType = AmqpDestinationHelper.toTypeAnnotation(message.getDestination());
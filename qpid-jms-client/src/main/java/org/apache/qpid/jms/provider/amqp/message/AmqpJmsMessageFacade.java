@@ -37,6 +37,7 @@ import org.apache.qpid.jms.JmsDestination;
 import org.apache.qpid.jms.exceptions.IdConversionException;
 import org.apache.qpid.jms.message.JmsMessage;
 import org.apache.qpid.jms.message.facade.JmsMessageFacade;
+import org.apache.qpid.jms.message.facade.JmsMessagePropertyTemplate;
 import org.apache.qpid.jms.provider.amqp.AmqpConnection;
 import org.apache.qpid.jms.provider.amqp.AmqpConsumer;
 import org.apache.qpid.jms.tracing.JmsTracer;
@@ -50,6 +51,7 @@ import org.apache.qpid.proton.amqp.messaging.Header;
 import org.apache.qpid.proton.amqp.messaging.MessageAnnotations;
 import org.apache.qpid.proton.amqp.messaging.Properties;
 import org.apache.qpid.proton.amqp.messaging.Section;
+import org.apache.qpid.proton.codec.EncoderImpl;
 
 import io.netty.buffer.ByteBuf;
 
@@ -63,7 +65,7 @@ public class AmqpJmsMessageFacade implements JmsMessageFacade {
     private final AmqpHeader header = new AmqpHeader();
     private Section body;
     private Map<Symbol, Object> messageAnnotationsMap;
-    private Map<String, Object> applicationPropertiesMap;
+    private AmqpApplicationProperties applicationProperties;
     private Map<Symbol, Object> deliveryAnnotationsMap;
     private Map<Symbol, Object> footerMap;
 
@@ -164,8 +166,8 @@ public class AmqpJmsMessageFacade implements JmsMessageFacade {
     }
 
     public boolean applicationPropertyExists(String key) throws JMSException {
-        if (applicationPropertiesMap != null) {
-            return applicationPropertiesMap.containsKey(key);
+        if (applicationProperties != null) {
+            return applicationProperties.containsKey(key);
         }
 
         return false;
@@ -184,8 +186,8 @@ public class AmqpJmsMessageFacade implements JmsMessageFacade {
     }
 
     public Set<String> getApplicationPropertyNames(Set<String> propertyNames) {
-        if (applicationPropertiesMap != null) {
-            propertyNames.addAll(applicationPropertiesMap.keySet());
+        if (applicationProperties != null) {
+            applicationProperties.addKeysTo(propertyNames);
         }
 
         return propertyNames;
@@ -197,8 +199,8 @@ public class AmqpJmsMessageFacade implements JmsMessageFacade {
     }
 
     public Object getApplicationProperty(String key) throws JMSException {
-        if (applicationPropertiesMap != null) {
-            return applicationPropertiesMap.get(key);
+        if (applicationProperties != null) {
+            return applicationProperties.get(key);
         }
 
         return null;
@@ -215,7 +217,18 @@ public class AmqpJmsMessageFacade implements JmsMessageFacade {
 
     public void setApplicationProperty(String key, Object value) throws JMSException {
         lazyCreateApplicationProperties();
-        applicationPropertiesMap.put(key, value);
+        applicationProperties.put(key, value);
+    }
+
+    @Override
+    public boolean applyPropertyTemplate(JmsMessagePropertyTemplate template) throws JMSException {
+        if (!(template instanceof AmqpApplicationPropertiesTemplate)) {
+            return false;
+        }
+
+        lazyCreateApplicationProperties();
+        applicationProperties.apply((AmqpApplicationPropertiesTemplate) template);
+        return true;
     }
 
     @Override
@@ -284,9 +297,8 @@ public class AmqpJmsMessageFacade implements JmsMessageFacade {
             target.deliveryAnnotationsMap.putAll(deliveryAnnotationsMap);
         }
 
-        if (applicationPropertiesMap != null && !applicationPropertiesMap.isEmpty()) {
-            target.lazyCreateApplicationProperties();
-            target.applicationPropertiesMap.putAll(applicationPropertiesMap);
+        if (applicationProperties != null && !applicationProperties.isEmpty()) {
+            target.applicationProperties = applicationProperties.copy();
         }
 
         if (messageAnnotationsMap != null && !messageAnnotationsMap.isEmpty()) {
@@ -859,7 +871,7 @@ public class AmqpJmsMessageFacade implements JmsMessageFacade {
      * Removes all application level properties from the Message.
      */
     void clearAllApplicationProperties() {
-        applicationPropertiesMap = null;
+        applicationProperties = null;
     }
 
     String getToAddress() {
@@ -1046,18 +1058,33 @@ public class AmqpJmsMessageFacade implements JmsMessageFacade {
 
     ApplicationProperties getApplicationProperties() {
         ApplicationProperties result = null;
-        if (applicationPropertiesMap != null && !applicationPropertiesMap.isEmpty()) {
-            result = new ApplicationProperties(applicationPropertiesMap);
+        if (applicationProperties != null && !applicationProperties.isEmpty()) {
+            result = new ApplicationProperties(applicationProperties.toMap());
         }
         return result;
     }
 
     void setApplicationProperties(ApplicationProperties applicationProperties) {
-        if (applicationProperties != null) {
-            this.applicationPropertiesMap = applicationProperties.getValue();
+        if (applicationProperties != null && applicationProperties.getValue() != null) {
+            this.applicationProperties = AmqpApplicationProperties.wrap(applicationProperties.getValue());
         }
     }
 
+    boolean hasApplicationProperties() {
+        return applicationProperties != null && !applicationProperties.isEmpty();
+    }
+
+    /**
+     * Writes the application properties directly into the encoder's buffer, there must be
+     * at least one property present when called.
+     *
+     * @param encoder
+     *      the encoder that is writing the message.
+     */
+    void encodeApplicationProperties(EncoderImpl encoder) {
+        applicationProperties.encode(encoder);
+    }
+
     Footer getFooter() {
         Footer result = null;
         if (footerMap != null && !footerMap.isEmpty()) {
@@ -1126,8 +1153,8 @@ public class AmqpJmsMessageFacade implements JmsMessageFacade {
     }
 
     private void lazyCreateApplicationProperties() {
-        if (applicationPropertiesMap == null) {
-            applicationPropertiesMap = new HashMap<String, Object>();
+        if (applicationProperties == null) {
+            applicationProperties = new AmqpApplicationProperties();
         }
     }
 
@@ -18,6 +18,7 @@ package org.apache.qpid.jms.provider.amqp.message;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.Map;
 
 import jakarta.jms.JMSException;
 
@@ -29,6 +30,7 @@ import org.apache.qpid.jms.message.JmsMessageFactory;
 import org.apache.qpid.jms.message.JmsObjectMessage;
 import org.apache.qpid.jms.message.JmsStreamMessage;
 import org.apache.qpid.jms.message.JmsTextMessage;
+import org.apache.qpid.jms.message.facade.JmsMessagePropertyTemplate;
 import org.apache.qpid.jms.provider.amqp.AmqpConnection;
 
 /**
@@ -114,4 +116,9 @@ public class AmqpJmsMessageFactory implements JmsMessageFactory {
 
         return facade.asJmsMessage();
     }
+
+    @Override
+    public JmsMessagePropertyTemplate createPropertyTemplate(Map<String, Object> properties) throws JMSException {
+        return new AmqpApplicationPropertiesTemplate(properties);
+    }
 }
@@ -19,12 +19,14 @@ package org.apache.qpid.jms.provider.failover;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -33,11 +35,14 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.apache.qpid.jms.jfr.JmsEvent;
+import org.apache.qpid.jms.jfr.JmsEvents;
 import org.apache.qpid.jms.message.JmsInboundMessageDispatch;
 import org.apache.qpid.jms.message.JmsMessageFactory;
 import org.apache.qpid.jms.message.JmsOutboundMessageDispatch;
 import org.apache.qpid.jms.meta.JmsConnectionInfo;
 import org.apache.qpid.jms.meta.JmsConsumerId;
+import org.apache.qpid.jms.meta.JmsProducerId;
 import org.apache.qpid.jms.meta.JmsResource;
 import org.apache.qpid.jms.meta.JmsSessionId;
 import org.apache.qpid.jms.meta.JmsTransactionInfo;
@@ -60,6 +65,7 @@ import org.apache.qpid.jms.provider.exceptions.ProviderExceptionSupport;
 import org.apache.qpid.jms.provider.exceptions.ProviderFailedException;
 import org.apache.qpid.jms.provider.exceptions.ProviderIOException;
 import org.apache.qpid.jms.provider.exceptions.ProviderOperationTimedOutException;
+import org.apache.qpid.jms.provider.exceptions.ProviderResourceAllocationException;
 import org.apache.qpid.jms.provider.exceptions.ProviderSendTimedOutException;
 import org.apache.qpid.jms.provider.exceptions.ProviderTransactionRolledBackException;
 import org.apache.qpid.jms.util.QpidJMSThreadFactory;
@@ -107,7 +113,9 @@ public class FailoverProvider extends DefaultProviderListener implements Provide
     private final AtomicBoolean failed = new AtomicBoolean();
     private final AtomicBoolean closingConnection = new AtomicBoolean(false);
     private final AtomicLong requestId = new AtomicLong();
-    private final Map<Long, FailoverRequest> requests = Collections.synchronizedMap(new LinkedHashMap<Long, FailoverRequest>());
+    // Request ids are assigned in creation order so the map iterates in the order requests were
+    // issued without needing a lock around registration, removal or replay.
+    private final ConcurrentNavigableMap<Long, FailoverRequest> requests = new ConcurrentSkipListMap<>();
     private final DefaultProviderListener closedListener = new DefaultProviderListener();
     private final AtomicReference<JmsMessageFactory> messageFactory = new AtomicReference<JmsMessageFactory>();
     private final ProviderFutureFactory futureFactory;
@@ -134,6 +142,11 @@ public class FailoverProvider extends DefaultProviderListener implements Provide
     private int warnAfterReconnectAttempts = DEFAULT_WARN_AFTER_RECONNECT_ATTEMPTS;
 
     private FailoverServerListAction amqpOpenServerListAction = FailoverServerListAction.REPLACE;
+    private String spoolDirectory;
+    private int spoolMaxSize = FailoverSendSpool.DEFAULT_MAX_SIZE;
+    private FailoverSendSpool.FsyncPolicy spoolFsyncPolicy = FailoverSendSpool.FsyncPolicy.INTERVAL;
+    private long spoolFsyncInterval = FailoverSendSpool.DEFAULT_FSYNC_INTERVAL;
+    private FailoverSendSpool sendSpool;
 
     public FailoverProvider(List<URI> uris, Map<String, String> nestedOptions, ProviderFutureFactory futureFactory) {
         this.uris = new FailoverUriPool(uris, nestedOptions);
@@ -150,6 +163,9 @@ public class FailoverProvider extends DefaultProviderListener implements Provide
     public void connect(JmsConnectionInfo connectionInfo) throws ProviderException {
         checkClosed();
         this.connectionInfo = connectionInfo;
+        if (spoolDirectory != null && sendSpool == null) {
+            sendSpool = new FailoverSendSpool(spoolDirectory, spoolMaxSize, spoolFsyncPolicy, spoolFsyncInterval);
+        }
         LOG.debug("Initiating initial connection attempt task");
         triggerReconnectionAttempt();
     }
@@ -177,9 +193,14 @@ public class FailoverProvider extends DefaultProviderListener implements Provide
                 // further work while we do a graceful shutdown of the executor service.
                 lock.readLock().lock();
                 try {
+                    // Close the spool first so that forwarded sends failed below are
+                    // retained in the journal along with those not yet forwarded.
+                    if (sendSpool != null) {
+                        sendSpool.close();
+                    }
+
                     ProviderException error = failureCause != null ? failureCause : new ProviderClosedException("Connection closed");
-                    final List<FailoverRequest> pending = new ArrayList<FailoverRequest>(requests.values());
-                    for (FailoverRequest pendingRequest : pending) {
+                    for (FailoverRequest pendingRequest : requests.values()) {
                         if (!pendingRequest.isComplete()) {
                             pendingRequest.onFailure(error);
                         }
@@ -333,6 +354,10 @@ public class FailoverProvider extends DefaultProviderListener implements Provide
     @Override
     public void send(final JmsOutboundMessageDispatch envelope, AsyncResult request) throws ProviderException {
         checkClosed();
+        if (sendSpool != null && spoolSend(envelope, request)) {
+            return;
+        }
+
         final FailoverRequest pending = new FailoverRequest(request, sendTimeout) {
             @Override
             public void doTask(Provider provider) throws ProviderException {
@@ -353,6 +378,33 @@ public class FailoverProvider extends DefaultProviderListener implements Provide
         pending.run();
     }
 
+    private boolean spoolSend(JmsOutboundMessageDispatch envelope, AsyncResult request) throws ProviderException {
+        lock.readLock().lock();
+        try {
+            // Transacted sends are left to fail the in doubt transaction on recovery.
+            if (provider != null || failed.get() || envelope.getTransactionId() != null || !FailoverSendSpool.isSpoolable(envelope)) {
+                return false;
+            }
+
+            if (!sendSpool.offer(envelope)) {
+                request.onFailure(new ProviderResourceAllocationException("Send spool is full, cannot accept send while offline"));
+                return true;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        LOG.trace("Spooled send while offline: {}", envelope);
+
+        // Put the message back to usable state now that it is safely spooled
+        envelope.getMessage().onSendComplete();
+
+        // A CompletionListener is only notified once the forwarded send has settled.
+        request.onSuccess();
+
+        return true;
+    }
+
     @Override
     public void acknowledge(final JmsSessionId sessionId, final ACK_TYPE ackType, AsyncResult request) throws ProviderException {
         checkClosed();
@@ -511,6 +563,48 @@ public class FailoverProvider extends DefaultProviderListener implements Provide
         pending.run();
     }
 
+    @Override
+    public void grantCredit(final JmsConsumerId consumerId, final int credit, final AsyncResult request) throws ProviderException {
+        checkClosed();
+        final FailoverRequest pending = new FailoverRequest(request) {
+            @Override
+            public void doTask(Provider provider) throws ProviderException {
+                provider.grantCredit(consumerId, credit, this);
+            }
+
+            @Override
+            public boolean succeedsWhenOffline() {
+                // The consumer grants its credit afresh once the connection is restored.
+                return true;
+            }
+
+            @Override
+            public String toString() {
+                return "grant credit -> " + consumerId;
+            }
+        };
+
+        pending.run();
+    }
+
+    @Override
+    public void awaitCredit(final JmsProducerId producerId, final AsyncResult request) throws ProviderException {
+        checkClosed();
+        final FailoverRequest pending = new FailoverRequest(request) {
+            @Override
+            public void doTask(Provider provider) throws ProviderException {
+                provider.awaitCredit(producerId, this);
+            }
+
+            @Override
+            public String toString() {
+                return "await credit -> " + producerId;
+            }
+        };
+
+        pending.run();
+    }
+
     @Override
     public JmsMessageFactory getMessageFactory() {
         return messageFactory.get();
@@ -573,8 +667,7 @@ public class FailoverProvider extends DefaultProviderListener implements Provide
                             listener.onConnectionInterrupted(failedURI);
                         }
 
-                        final List<FailoverRequest> pending = new ArrayList<FailoverRequest>(requests.values());
-                        for (FailoverRequest request : pending) {
+                        for (FailoverRequest request : requests.values()) {
                             request.whenOffline(cause);
                         }
 
@@ -646,9 +739,14 @@ public class FailoverProvider extends DefaultProviderListener implements Provide
                     LOG.debug("Signalling connection recovery: {}", provider);
 
                     // Stage 1: Allow listener to recover its resources
+                    JmsEvent event = JmsEvents.beginFailover();
+                    boolean succeeded = false;
                     try {
                         listener.onConnectionRecovery(provider);
+                        succeeded = true;
                     } finally {
+                        commitFailoverEvent(event, JmsEvents.FAILOVER_RECOVER, connectedURI, succeeded);
+
                         // Stage 2: If the provider knows of others lets add them to the URI pool
                         //          even if something failed here we can learn of new hosts so we
                         //          always process the potential Open frame failover URI results.
@@ -659,17 +757,37 @@ public class FailoverProvider extends DefaultProviderListener implements Provide
                     FailoverProvider.this.messageFactory.set(provider.getMessageFactory());
 
                     // Stage 4: Restart consumers, send pull commands, etc.
-                    listener.onConnectionRecovered(provider);
+                    event = JmsEvents.beginFailover();
+                    succeeded = false;
+                    try {
+                        listener.onConnectionRecovered(provider);
+                        succeeded = true;
+                    } finally {
+                        commitFailoverEvent(event, JmsEvents.FAILOVER_RESTART, connectedURI, succeeded);
+                    }
 
                     // Stage 5: Let the client know that connection has restored.
                     listener.onConnectionRestored(provider.getRemoteURI());
 
-                    // Last step: Send pending actions.
-                    final List<FailoverRequest> pending = new ArrayList<FailoverRequest>(requests.values());
-                    for (FailoverRequest request : pending) {
-                        if (!request.isComplete()) {
-                            request.run();
+                    // Last step: Send pending actions followed by any sends spooled while offline.
+                    event = JmsEvents.beginFailover();
+                    succeeded = false;
+                    try {
+                        for (FailoverRequest request : pendingRequests()) {
+                            if (!request.isComplete()) {
+                                request.run();
+                            }
                         }
+
+                        if (sendSpool != null && !sendSpool.isEmpty()) {
+                            for (FailoverSendSpool.SpooledSend spooled : sendSpool.drain()) {
+                                new SpooledSendRequest(spooled).run();
+                            }
+                        }
+
+                        succeeded = true;
+                    } finally {
+                        commitFailoverEvent(event, JmsEvents.FAILOVER_REPLAY, connectedURI, succeeded);
                     }
 
                     reconnectControl.connectionEstablished();
@@ -677,8 +795,7 @@ public class FailoverProvider extends DefaultProviderListener implements Provide
                     processAlternates(provider.getAlternateURIs());
 
                     // Last step: Send pending actions.
-                    final List<FailoverRequest> pending = new ArrayList<FailoverRequest>(requests.values());
-                    for (FailoverRequest request : pending) {
+                    for (FailoverRequest request : pendingRequests()) {
                         if (!request.isComplete()) {
                             request.run();
                         }
@@ -702,6 +819,10 @@ public class FailoverProvider extends DefaultProviderListener implements Provide
         });
     }
 
+    private void commitFailoverEvent(JmsEvent event, String phase, URI remoteURI, boolean succeeded) {
+        JmsEvents.commitFailover(event, phase, remoteURI, reconnectControl.reconnectAttempts, succeeded);
+    }
+
     /**
      * Called when the Provider was either first created or when a connection failure has
      * been reported.  A reconnection attempt is executed by the serialization executor either
@@ -740,14 +861,22 @@ public class FailoverProvider extends DefaultProviderListener implements Provide
                                 continue;
                             }
 
+                            final JmsEvent event = JmsEvents.beginFailover();
+                            boolean connected = false;
                             try {
                                 LOG.debug("Connection attempt:[{}] to: {} in-progress", reconnectAttempts,
                                     target.getScheme() + "://" + target.getHost() + ":" + target.getPort());
                                 provider = ProviderFactory.create(target, futureFactory);
                                 provider.connect(connectionInfo);
+                                connected = true;
+                                commitFailoverEvent(event, JmsEvents.FAILOVER_CONNECT, target, true);
                                 initializeNewConnection(provider);
                                 return;
                             } catch (Throwable e) {
+                                if (!connected) {
+                                    commitFailoverEvent(event, JmsEvents.FAILOVER_CONNECT, target, false);
+                                }
+
                                 LOG.info("Connection attempt:[{}] to: {} failed", reconnectAttempts,
                                     target.getScheme() + "://" + target.getHost() + ":" + target.getPort());
                                 failure = ProviderExceptionSupport.createOrPassthroughFatal(e);
@@ -1064,6 +1193,46 @@ public class FailoverProvider extends DefaultProviderListener implements Provide
         this.amqpOpenServerListAction = FailoverServerListAction.valueOf(amqpOpenServerListAction.toUpperCase(Locale.ENGLISH));
     }
 
+    public String getSpoolDirectory() {
+        return spoolDirectory;
+    }
+
+    /**
+     * Sets the directory used to hold the send spool journal.  When set, messages sent while
+     * the connection is being recovered are written to the spool and forwarded once the
+     * connection has been restored instead of waiting on the reconnect.
+     *
+     * @param spoolDirectory
+     *      the directory to create the journal in, or null to disable spooling.
+     */
+    public void setSpoolDirectory(String spoolDirectory) {
+        this.spoolDirectory = spoolDirectory;
+    }
+
+    public int getSpoolMaxSize() {
+        return spoolMaxSize;
+    }
+
+    public void setSpoolMaxSize(int spoolMaxSize) {
+        this.spoolMaxSize = spoolMaxSize;
+    }
+
+    public String getSpoolFsyncPolicy() {
+        return spoolFsyncPolicy.toString();
+    }
+
+    public void setSpoolFsyncPolicy(String spoolFsyncPolicy) {
+        this.spoolFsyncPolicy = FailoverSendSpool.FsyncPolicy.valueOf(spoolFsyncPolicy.toUpperCase(Locale.ENGLISH));
+    }
+
+    public long getSpoolFsyncInterval() {
+        return spoolFsyncInterval;
+    }
+
+    public void setSpoolFsyncInterval(long spoolFsyncInterval) {
+        this.spoolFsyncInterval = spoolFsyncInterval;
+    }
+
     public Map<String, String> getNestedOptions() {
         return uris.getNestedOptions();
     }
@@ -1099,14 +1268,21 @@ public class FailoverProvider extends DefaultProviderListener implements Provide
         return DISABLED;
     }
 
+    /*
+     * Replay views are bounded by the last assigned request id so that any request registered
+     * while the replay is running is not executed a second time by the replaying loop.
+     */
+    private Collection<FailoverRequest> pendingRequests() {
+        return requests.headMap(requestId.get(), true).values();
+    }
+
     protected final class FailoverRequestSweeper implements Runnable {
 
         @Override
         public void run() {
             lock.readLock().lock();
             try {
-                final List<FailoverRequest> pending = new ArrayList<FailoverRequest>(requests.values());
-                for (FailoverRequest request : pending) {
+                for (FailoverRequest request : requests.values()) {
                     if (request.isExpired()) {
                         LOG.trace("Task {} has timed out, sending failure notice.", request);
                         request.onFailure(request.createTimedOutException());
@@ -1310,6 +1486,69 @@ public class FailoverProvider extends DefaultProviderListener implements Provide
         }
     }
 
+    /**
+     * Forwards a send that was written to the send spool while the connection was offline.
+     */
+    protected final class SpooledSendRequest extends FailoverRequest {
+
+        private final JmsOutboundMessageDispatch envelope;
+
+        public SpooledSendRequest(FailoverSendSpool.SpooledSend spooled) {
+            super(new SpooledSendCompletion(spooled));
+            this.envelope = spooled.getEnvelope();
+        }
+
+        @Override
+        public void doTask(Provider provider) throws ProviderException {
+            provider.send(envelope, this);
+        }
+
+        @Override
+        public String toString() {
+            return "spooled send -> " + envelope;
+        }
+    }
+
+    /*
+     * The original send request was completed when it was spooled, so the spool entry is
+     * released once the forwarded send settles.  A failure is reported as a provider exception
+     * and also fails the send's CompletionListener if it has one.
+     */
+    private final class SpooledSendCompletion implements AsyncResult {
+
+        private final FailoverSendSpool.SpooledSend spooled;
+        private volatile boolean complete;
+
+        public SpooledSendCompletion(FailoverSendSpool.SpooledSend spooled) {
+            this.spooled = spooled;
+        }
+
+        @Override
+        public void onFailure(ProviderException result) {
+            complete = true;
+            sendSpool.release(spooled);
+
+            if (!closingConnection.get() && !closed.get() && !failed.get()) {
+                LOG.warn("Forwarding of spooled send failed: {}", result.getMessage());
+                if (spooled.getEnvelope().isCompletionRequired()) {
+                    listener.onFailedMessageSend(spooled.getEnvelope(), result);
+                }
+                listener.onProviderException(result);
+            }
+        }
+
+        @Override
+        public void onSuccess() {
+            complete = true;
+            sendSpool.release(spooled);
+        }
+
+        @Override
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+
     //----- Reconnection Control State Management ----------------------------//
 
     private class ReconnectControls {
@@ -0,0 +1,303 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.provider.failover;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.qpid.jms.message.JmsOutboundMessageDispatch;
+import org.apache.qpid.jms.provider.ProviderException;
+import org.apache.qpid.jms.provider.exceptions.ProviderExceptionSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Store and forward spool used by the FailoverProvider to accept message sends while
+ * the connection is offline.
+ * <p>
+ * The encoded message payloads are appended to a memory mapped journal file of a fixed
+ * maximum size and are forwarded in the order they were spooled once the connection has
+ * been recovered. The journal space is reclaimed once every spooled send has been settled
+ * by the remote. If the spool is closed while sends are still held the journal file is
+ * left on disk so that the encoded messages can be recovered from it.
+ * <p>
+ * Each journal record holds the record length, the dispatch id, the destination address
+ * and the encoded message payload.
+ * <p>
+ * A copy of each spooled message is also held on the heap until its forwarded send settles,
+ * and once drained the payload read back from the journal is held alongside it.  Space for
+ * both copies is reserved against the maximum size when the send is spooled, each counted
+ * using the encoded size, so that the spool's combined journal and heap footprint stays
+ * within the limit for as long as any of its sends are outstanding.
+ */
+public class FailoverSendSpool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FailoverSendSpool.class);
+
+    public static final int DEFAULT_MAX_SIZE = 64 * 1024 * 1024;
+    public static final long DEFAULT_FSYNC_INTERVAL = 1000;
+
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    /**
+     * Controls when writes to the journal are forced to the storage device.
+     */
+    public enum FsyncPolicy {
+        /** Leave flushing of the journal to the operating system. */
+        NEVER,
+        /** Force the journal when the configured interval has elapsed since the last force. */
+        INTERVAL,
+        /** Force the journal after every spooled send. */
+        ALWAYS
+    }
+
+    private final Path directory;
+    private final int maxSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncInterval;
+
+    private final ArrayDeque<SpooledSend> spooled = new ArrayDeque<>();
+    private int outstanding;
+    private long heldCopyBytes;
+    private long lastForced;
+
+    private Path journalFile;
+    private FileChannel channel;
+    private MappedByteBuffer journal;
+
+    public FailoverSendSpool(String directory, int maxSize, FsyncPolicy fsyncPolicy, long fsyncInterval) {
+        if (maxSize <= RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("Spool max size is too small: " + maxSize);
+        }
+
+        this.directory = Paths.get(directory);
+        this.maxSize = maxSize;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncInterval = fsyncInterval;
+    }
+
+    /**
+     * Checks if the given envelope carries a payload that can be written into the journal.
+     *
+     * @param envelope
+     *      the envelope of the message being sent.
+     *
+     * @return true if the send can be spooled.
+     */
+    public static boolean isSpoolable(JmsOutboundMessageDispatch envelope) {
+        return envelope.getPayload() instanceof ByteBuf;
+    }
+
+    /**
+     * Appends the given send to the journal, the journal file is created on first use.
+     *
+     * @param envelope
+     *      the envelope of the message being sent.
+     *
+     * @return true if the send was spooled or false if there is no room left in the journal.
+     *
+     * @throws ProviderException if an error occurs while writing to the journal.
+     */
+    public synchronized boolean offer(JmsOutboundMessageDispatch envelope) throws ProviderException {
+        ByteBuf payload = (ByteBuf) envelope.getPayload();
+        byte[] address = envelope.getDestination().getAddress().getBytes(StandardCharsets.UTF_8);
+        int payloadLength = payload.readableBytes();
+        int recordLength = RECORD_HEADER_SIZE + address.length + payloadLength;
+
+        try {
+            ensureOpen();
+
+            long heldCopySize = heldCopySize(payloadLength);
+            if ((long) journal.remaining() - heldCopyBytes < recordLength + heldCopySize) {
+                return false;
+            }
+
+            // The original message is handed back to the application once spooled, we hold
+            // our own copy for the send that is forwarded when the connection is recovered.
+            JmsOutboundMessageDispatch forward = new JmsOutboundMessageDispatch();
+            forward.setMessage(envelope.getMessage().copy());
+            forward.setProducerId(envelope.getProducerId());
+            forward.setDestination(envelope.getDestination());
+            forward.setDispatchId(envelope.getDispatchId());
+            forward.setPresettle(envelope.isPresettle());
+            forward.setCompletionRequired(envelope.isCompletionRequired());
+
+            int position = journal.position();
+
+            journal.putInt(recordLength);
+            journal.putLong(envelope.getDispatchId());
+            journal.putInt(address.length);
+            journal.put(address);
+
+            ByteBuffer target = journal.duplicate();
+            target.limit(target.position() + payloadLength);
+            payload.getBytes(payload.readerIndex(), target);
+            journal.position(journal.position() + payloadLength);
+
+            spooled.addLast(new SpooledSend(forward, position + recordLength - payloadLength, payloadLength));
+            heldCopyBytes += heldCopySize;
+
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                journal.force();
+            } else if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+                long now = System.nanoTime();
+                if (now - lastForced >= fsyncInterval * 1_000_000L) {
+                    journal.force();
+                    lastForced = now;
+                }
+            }
+
+            return true;
+        } catch (Exception ex) {
+            throw ProviderExceptionSupport.createNonFatalOrPassthrough(ex);
+        }
+    }
+
+    /**
+     * Removes all currently spooled sends in the order they were spooled, each of which
+     * must later be released once its forwarded send has completed.
+     *
+     * @return the spooled sends with their payloads read back from the journal.
+     */
+    public synchronized List<SpooledSend> drain() {
+        List<SpooledSend> result = new ArrayList<>(spooled.size());
+
+        SpooledSend next;
+        while ((next = spooled.pollFirst()) != null) {
+            ByteBuffer source = journal.duplicate();
+            source.position(next.payloadOffset);
+            source.limit(next.payloadOffset + next.payloadLength);
+
+            ByteBuf payload = Unpooled.buffer(next.payloadLength);
+            payload.writeBytes(source);
+            next.envelope.setPayload(payload);
+
+            result.add(next);
+            outstanding++;
+        }
+
+        return result;
+    }
+
+    /**
+     * Releases a previously drained send, once all sends are released the journal
+     * space is reclaimed.
+     *
+     * @param send
+     *      the send whose forwarded send has completed.
+     */
+    public synchronized void release(SpooledSend send) {
+        send.envelope.setPayload(null);
+
+        // Sends released after the spool was closed no longer count against it.
+        if (outstanding > 0) {
+            heldCopyBytes -= heldCopySize(send.payloadLength);
+            if (--outstanding == 0 && spooled.isEmpty() && journal != null) {
+                journal.clear();
+            }
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return spooled.isEmpty();
+    }
+
+    public synchronized int size() {
+        return spooled.size() + outstanding;
+    }
+
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+
+        int remaining = spooled.size() + outstanding;
+        try {
+            if (remaining > 0) {
+                journal.force();
+                LOG.warn("Send spool closed with {} unforwarded messages retained in journal: {}", remaining, journalFile);
+                channel.close();
+            } else {
+                channel.close();
+                Files.deleteIfExists(journalFile);
+            }
+        } catch (IOException e) {
+            LOG.debug("Error caught while closing send spool journal: {}", e.getMessage());
+        } finally {
+            spooled.clear();
+            outstanding = 0;
+            heldCopyBytes = 0;
+            channel = null;
+            journal = null;
+        }
+    }
+
+    /*
+     * The heap held for a send until it is released, the message copy made when it is spooled
+     * and the payload read back from the journal when it is drained.
+     */
+    private static long heldCopySize(int payloadLength) {
+        return 2L * payloadLength;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (channel == null) {
+            Files.createDirectories(directory);
+            journalFile = directory.resolve("qpid-jms-send-spool-" + UUID.randomUUID() + ".journal");
+            channel = FileChannel.open(journalFile,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            journal = channel.map(FileChannel.MapMode.READ_WRITE, 0, maxSize);
+            lastForced = System.nanoTime();
+
+            LOG.debug("Created send spool journal: {}", journalFile);
+        }
+    }
+
+    /**
+     * A send held in the spool awaiting the connection to be recovered.
+     */
+    public static final class SpooledSend {
+
+        private final JmsOutboundMessageDispatch envelope;
+        private final int payloadOffset;
+        private final int payloadLength;
+
+        private SpooledSend(JmsOutboundMessageDispatch envelope, int payloadOffset, int payloadLength) {
+            this.envelope = envelope;
+            this.payloadOffset = payloadOffset;
+            this.payloadLength = payloadLength;
+        }
+
+        public JmsOutboundMessageDispatch getEnvelope() {
+            return envelope;
+        }
+    }
+}
@@ -17,17 +17,40 @@
 package org.apache.qpid.jms.selector;
 
 import java.io.StringReader;
-import java.util.Collections;
-import java.util.Map;
 
 import org.apache.qpid.jms.selector.filter.BooleanExpression;
+import org.apache.qpid.jms.selector.filter.ExpressionCompiler;
 import org.apache.qpid.jms.selector.filter.FilterException;
 import org.apache.qpid.jms.selector.parser.SelectorParserImpl;
-import org.apache.qpid.jms.util.LRUCache;
+import org.apache.qpid.jms.util.BoundedConcurrentCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class SelectorParser {
 
-    private static final Map<String, Object> cache = Collections.synchronizedMap(new LRUCache<String, Object>(100));
+    private static final Logger LOG = LoggerFactory.getLogger(SelectorParser.class);
+
+    public static final String PROPERTY_SELECTOR_CACHE_SIZE = "qpidjms.selector.cacheSize";
+    public static final int DEFAULT_SELECTOR_CACHE_SIZE = 100;
+
+    private static final BoundedConcurrentCache<String, Object> cache;
+    private static final BoundedConcurrentCache<String, BooleanExpression> compiledCache;
+
+    static {
+        int cacheSize = DEFAULT_SELECTOR_CACHE_SIZE;
+        try {
+            cacheSize = Integer.getInteger(PROPERTY_SELECTOR_CACHE_SIZE, DEFAULT_SELECTOR_CACHE_SIZE);
+            if (cacheSize <= 0) {
+                LOG.warn("Ignoring invalid selector cache size: {}", cacheSize);
+                cacheSize = DEFAULT_SELECTOR_CACHE_SIZE;
+            }
+        } catch (SecurityException se) {
+            LOG.trace("Cannot read selector cache size system property, using default.");
+        }
+
+        cache = new BoundedConcurrentCache<>(cacheSize);
+        compiledCache = new BoundedConcurrentCache<>(cacheSize);
+    }
 
     public static BooleanExpression parse(String sql) throws FilterException {
         Object result = cache.get(sql);
@@ -50,7 +73,64 @@ public class SelectorParser {
         }
     }
 
+    /**
+     * Parses the given selector and compiles it into a form that is cheaper to evaluate
+     * repeatedly than the parsed expression tree, see {@link ExpressionCompiler}.
+     *
+     * @param sql
+     *      the selector to compile.
+     *
+     * @return the compiled selector.
+     *
+     * @throws FilterException if the selector is not valid.
+     */
+    public static BooleanExpression compile(String sql) throws FilterException {
+        BooleanExpression result = compiledCache.get(sql);
+        if (result == null) {
+            result = ExpressionCompiler.compile(parse(sql));
+            compiledCache.put(sql, result);
+        }
+
+        return result;
+    }
+
     public static void clearCache() {
         cache.clear();
+        compiledCache.clear();
+    }
+
+    /**
+     * @return the maximum number of parsed, and separately compiled, selectors that are cached.
+     */
+    public static int getCacheSize() {
+        return cache.getMaximumSize();
+    }
+
+    /**
+     * @return the number of parse requests answered from the parsed selector cache.
+     */
+    public static long getParseCacheHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * @return the number of parse requests not found in the parsed selector cache.
+     */
+    public static long getParseCacheMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * @return the number of compile requests answered from the compiled selector cache.
+     */
+    public static long getCompileCacheHitCount() {
+        return compiledCache.getHitCount();
+    }
+
+    /**
+     * @return the number of compile requests not found in the compiled selector cache.
+     */
+    public static long getCompileCacheMissCount() {
+        return compiledCache.getMissCount();
     }
 }
@@ -0,0 +1,447 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.selector.filter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.qpid.jms.selector.filter.ComparisonExpression.LikeExpression;
+import org.apache.qpid.jms.selector.filter.UnaryExpression.BooleanUnaryExpression;
+import org.apache.qpid.jms.selector.filter.UnaryExpression.InExpression;
+
+/**
+ * Compiles a parsed selector expression tree into a tree of specialized evaluation
+ * closures.
+ * <p>
+ * The compiled form evaluates the three valued selector logic using primitive results
+ * rather than boxed Boolean values, short circuits AND and OR without re-entering the
+ * generic evaluate path and compares property values against numeric and string literals
+ * using typed comparisons.  Any node that has no specialized form is evaluated by the
+ * original expression so the compiled selector always matches the same messages as the
+ * interpreted one.
+ * <p>
+ * While compiling, the tree is also optimized:
+ * <ul>
+ *  <li>sub-expressions that only involve literals are folded into a single constant.
+ *  <li>chains of AND or OR operands are reordered so the cheapest checks, such as equality
+ *      tests on header fields, are evaluated first.  This is only done where the result of
+ *      the chain decides whether the selector matches, operands beneath a NOT keep their order
+ *      as the order affects which of false or unknown the chain evaluates to.
+ *  <li>IN lists are always evaluated using a hash set lookup.
+ *  <li>LIKE patterns that amount to an exact, prefix, suffix or contains match are evaluated
+ *      with the equivalent String method rather than a regular expression.
+ * </ul>
+ */
+public final class ExpressionCompiler {
+
+    static final int FALSE = 0;
+    static final int TRUE = 1;
+    static final int UNKNOWN = -1;
+
+    private static final int EXPENSIVE = 8;
+
+    @FunctionalInterface
+    interface Condition {
+        int test(Filterable message) throws FilterException;
+    }
+
+    @FunctionalInterface
+    interface Value {
+        Object get(Filterable message) throws FilterException;
+    }
+
+    private ExpressionCompiler() {}
+
+    /**
+     * Compiles the given parsed selector.
+     *
+     * @param expression
+     *      the parsed selector expression.
+     *
+     * @return a BooleanExpression that evaluates the compiled form of the selector.
+     */
+    public static BooleanExpression compile(BooleanExpression expression) {
+        if (expression instanceof CompiledExpression) {
+            return expression;
+        }
+
+        return new CompiledExpression(expression, compileCondition(expression, true));
+    }
+
+    //----- Conditions -------------------------------------------------------//
+
+    /*
+     * A condition compiled with matchOnly set only needs to distinguish true from
+     * false or unknown, which leaves it free to reorder AND and OR operands.
+     */
+    private static Condition compileCondition(Expression expression, boolean matchOnly) {
+        Object folded = fold(expression);
+        if (folded != expression) {
+            final int result = toCondition(folded);
+            return message -> result;
+        }
+
+        if (expression instanceof LogicExpression) {
+            return compileLogic((LogicExpression) expression, matchOnly);
+        } else if (expression instanceof ComparisonExpression) {
+            return compileComparison((ComparisonExpression) expression);
+        } else if (expression instanceof LikeExpression) {
+            return compileLike((LikeExpression) expression);
+        } else if (expression instanceof InExpression) {
+            return compileIn((InExpression) expression);
+        } else if (expression instanceof BooleanUnaryExpression) {
+            return compileUnary((BooleanUnaryExpression) expression);
+        }
+
+        return message -> toCondition(expression.evaluate(message));
+    }
+
+    private static Condition compileLogic(LogicExpression expression, boolean matchOnly) {
+        final String symbol = expression.getExpressionSymbol();
+
+        if (matchOnly && (symbol.equals("AND") || symbol.equals("OR"))) {
+            List<Expression> operands = new ArrayList<>();
+            flatten(expression, symbol, operands);
+            operands.sort(Comparator.comparingInt(ExpressionCompiler::cost));
+
+            final Condition[] conditions = new Condition[operands.size()];
+            for (int i = 0; i < conditions.length; ++i) {
+                conditions[i] = compileCondition(operands.get(i), true);
+            }
+
+            if (symbol.equals("AND")) {
+                return message -> {
+                    for (Condition condition : conditions) {
+                        int result = condition.test(message);
+                        if (result != TRUE) {
+                            return result;
+                        }
+                    }
+                    return TRUE;
+                };
+            } else {
+                return message -> {
+                    for (Condition condition : conditions) {
+                        if (condition.test(message) == TRUE) {
+                            return TRUE;
+                        }
+                    }
+                    return FALSE;
+                };
+            }
+        }
+
+        final Condition left = compileCondition(expression.getLeft(), false);
+        final Condition right = compileCondition(expression.getRight(), false);
+
+        switch (symbol) {
+            case "AND":
+                return message -> {
+                    int result = left.test(message);
+                    return result == TRUE ? right.test(message) : result;
+                };
+            case "OR":
+                return message -> left.test(message) == TRUE ? TRUE : right.test(message);
+            default:
+                return message -> toCondition(expression.evaluate(message));
+        }
+    }
+
+    private static Condition compileUnary(BooleanUnaryExpression expression) {
+        switch (expression.getExpressionSymbol()) {
+            case "NOT":
+                final Condition negated = compileCondition(expression.getRight(), false);
+                return message -> {
+                    int result = negated.test(message);
+                    return result == UNKNOWN ? UNKNOWN : TRUE - result;
+                };
+            case "":
+                final Value value = compileValue(expression.getRight());
+                return message -> {
+                    Object result = value.get(message);
+                    if (result == null) {
+                        return UNKNOWN;
+                    }
+                    return result.getClass() == Boolean.class && ((Boolean) result) ? TRUE : FALSE;
+                };
+            default:
+                return message -> toCondition(expression.evaluate(message));
+        }
+    }
+
+    private static Condition compileLike(LikeExpression expression) {
+        final Value value = compileValue(expression.getRight());
+        final StringMatcher matcher = createLikeMatcher(expression);
+
+        return message -> {
+            Object result = value.get(message);
+            if (result == null) {
+                return UNKNOWN;
+            }
+            if (!(result instanceof String)) {
+                return FALSE;
+            }
+            return matcher.matches((String) result) ? TRUE : FALSE;
+        };
+    }
+
+    private static Condition compileIn(InExpression expression) {
+        final Value value = compileValue(expression.getRight());
+        final Set<Object> inList = expression.getInList() == null ? null : new HashSet<>(expression.getInList());
+        final boolean not = expression.isNot();
+
+        return message -> {
+            Object result = value.get(message);
+            if (result == null || result.getClass() != String.class) {
+                return UNKNOWN;
+            }
+            return (inList != null && inList.contains(result)) ^ not ? TRUE : FALSE;
+        };
+    }
+
+    private static Condition compileComparison(ComparisonExpression expression) {
+        Object right = fold(expression.getRight());
+        if (right == expression.getRight() && !(right instanceof ConstantExpression)) {
+            return message -> toCondition(expression.evaluate(message));
+        }
+
+        final Value left = compileValue(expression.getLeft());
+        final Object constant = right instanceof ConstantExpression ? ((ConstantExpression) right).getValue() : right;
+        final boolean equality = "=".equals(expression.getExpressionSymbol());
+
+        if (equality && constant == null) {
+            // IS NULL
+            return message -> left.get(message) == null ? TRUE : FALSE;
+        } else if (equality && constant instanceof String) {
+            return message -> constant.equals(left.get(message)) ? TRUE : FALSE;
+        }
+
+        // An absent value is never equal to a literal, and unknown for the ordering comparisons
+        final int absent = equality ? FALSE : UNKNOWN;
+
+        if (constant instanceof Integer || constant instanceof Long) {
+            final long literal = ((Number) constant).longValue();
+            return message -> {
+                Object value = left.get(message);
+                if (value == null) {
+                    return absent;
+                }
+                if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+                    return expression.asBoolean(Long.compare(((Number) value).longValue(), literal)) ? TRUE : FALSE;
+                }
+                return toCondition(expression.evaluate(message));
+            };
+        } else if (constant instanceof Double) {
+            final double literal = ((Double) constant).doubleValue();
+            return message -> {
+                Object value = left.get(message);
+                if (value == null) {
+                    return absent;
+                }
+                if (value instanceof Double || value instanceof Float || value instanceof Long ||
+                    value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                    return expression.asBoolean(Double.compare(((Number) value).doubleValue(), literal)) ? TRUE : FALSE;
+                }
+                return toCondition(expression.evaluate(message));
+            };
+        }
+
+        return message -> toCondition(expression.evaluate(message));
+    }
+
+    //----- Values -----------------------------------------------------------//
+
+    private static Value compileValue(Expression expression) {
+        Object folded = fold(expression);
+        if (folded != expression) {
+            return message -> folded;
+        }
+
+        if (expression instanceof PropertyExpression) {
+            final String name = ((PropertyExpression) expression).getName();
+            return message -> message.getProperty(name);
+        } else if (expression instanceof ConstantExpression) {
+            final Object value = ((ConstantExpression) expression).getValue();
+            return message -> value;
+        }
+
+        return expression::evaluate;
+    }
+
+    //----- Optimization support ---------------------------------------------//
+
+    /*
+     * Returns the value of an expression that only involves literals, or the expression
+     * itself when it depends upon the message or cannot be evaluated up front.
+     */
+    private static Object fold(Expression expression) {
+        if (expression instanceof ConstantExpression || !isConstant(expression)) {
+            return expression;
+        }
+
+        try {
+            return expression.evaluate(null);
+        } catch (Exception ex) {
+            return expression;
+        }
+    }
+
+    private static boolean isConstant(Expression expression) {
+        if (expression instanceof ConstantExpression) {
+            return true;
+        } else if (expression instanceof BinaryExpression) {
+            BinaryExpression binary = (BinaryExpression) expression;
+            return isConstant(binary.getLeft()) && isConstant(binary.getRight());
+        } else if (expression instanceof UnaryExpression) {
+            return isConstant(((UnaryExpression) expression).getRight());
+        }
+
+        return false;
+    }
+
+    private static void flatten(Expression expression, String symbol, List<Expression> operands) {
+        if (expression instanceof LogicExpression && symbol.equals(((LogicExpression) expression).getExpressionSymbol())) {
+            flatten(((LogicExpression) expression).getLeft(), symbol, operands);
+            flatten(((LogicExpression) expression).getRight(), symbol, operands);
+        } else {
+            operands.add(expression);
+        }
+    }
+
+    /*
+     * Relative cost of evaluating an operand, equality tests on header fields are the
+     * cheapest and usually the most selective while regular expressions and arithmetic
+     * are the most costly.
+     */
+    private static int cost(Expression expression) {
+        if (isConstant(expression)) {
+            return 0;
+        } else if (expression instanceof LogicExpression) {
+            LogicExpression logic = (LogicExpression) expression;
+            return cost(logic.getLeft()) + cost(logic.getRight());
+        } else if (expression instanceof ComparisonExpression) {
+            ComparisonExpression comparison = (ComparisonExpression) expression;
+            int base = "=".equals(comparison.getExpressionSymbol()) ? 1 : 2;
+            return base + operandCost(comparison.getLeft()) + operandCost(comparison.getRight());
+        } else if (expression instanceof InExpression) {
+            return 2 + operandCost(((InExpression) expression).getRight());
+        } else if (expression instanceof LikeExpression) {
+            LikeExpression like = (LikeExpression) expression;
+            int base = createLikeMatcher(like) instanceof RegexMatcher ? EXPENSIVE : 2;
+            return base + operandCost(like.getRight());
+        } else if (expression instanceof BooleanUnaryExpression) {
+            return cost(((BooleanUnaryExpression) expression).getRight());
+        }
+
+        return EXPENSIVE;
+    }
+
+    private static int operandCost(Expression expression) {
+        if (isConstant(expression)) {
+            return 0;
+        } else if (expression instanceof PropertyExpression) {
+            return ((PropertyExpression) expression).getName().startsWith("JMS") ? 1 : 2;
+        }
+
+        return EXPENSIVE;
+    }
+
+    private static StringMatcher createLikeMatcher(LikeExpression expression) {
+        String like = expression.like;
+
+        if (like.indexOf('_') >= 0 || (expression.escape != -1 && like.indexOf((char) expression.escape) >= 0)) {
+            return new RegexMatcher(expression.likePattern);
+        }
+
+        boolean leading = like.startsWith("%");
+        boolean trailing = like.length() > (leading ? 1 : 0) && like.endsWith("%");
+        String literal = like.substring(leading ? 1 : 0, like.length() - (trailing ? 1 : 0));
+
+        if (literal.indexOf('%') >= 0) {
+            return new RegexMatcher(expression.likePattern);
+        } else if (leading && trailing) {
+            return value -> value.contains(literal);
+        } else if (leading) {
+            return value -> value.endsWith(literal);
+        } else if (trailing) {
+            return value -> value.startsWith(literal);
+        } else {
+            return value -> value.equals(literal);
+        }
+    }
+
+    private static int toCondition(Object value) {
+        if (value == null) {
+            return UNKNOWN;
+        }
+        return Boolean.TRUE.equals(value) ? TRUE : FALSE;
+    }
+
+    @FunctionalInterface
+    private interface StringMatcher {
+        boolean matches(String value);
+    }
+
+    private static final class RegexMatcher implements StringMatcher {
+
+        private final Pattern pattern;
+
+        RegexMatcher(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override
+        public boolean matches(String value) {
+            return pattern.matcher(value).matches();
+        }
+    }
+
+    /**
+     * The compiled form of a selector.  Only the match result is taken from the compiled
+     * form, as reordering can change whether a non-matching selector evaluates to false or
+     * unknown the evaluated value is always taken from the source expression.
+     */
+    static final class CompiledExpression implements BooleanExpression {
+
+        private final BooleanExpression source;
+        private final Condition condition;
+
+        CompiledExpression(BooleanExpression source, Condition condition) {
+            this.source = source;
+            this.condition = condition;
+        }
+
+        @Override
+        public Object evaluate(Filterable message) throws FilterException {
+            return source.evaluate(message);
+        }
+
+        @Override
+        public boolean matches(Filterable message) throws FilterException {
+            return condition.test(message) == TRUE;
+        }
+
+        @Override
+        public String toString() {
+            return source.toString();
+        }
+    }
+}
@@ -67,58 +67,77 @@ public abstract class UnaryExpression implements Expression {
             t = new HashSet<Object>(elements);
         }
 
-        final Collection<Object> inList = t;
+        return new InExpression(right, t, not);
+    }
 
-        return new BooleanUnaryExpression(right) {
-            @Override
-            public Object evaluate(Filterable message) throws FilterException {
+    static class InExpression extends BooleanUnaryExpression {
 
-                Object rvalue = right.evaluate(message);
-                if (rvalue == null) {
-                    return null;
-                }
-                if (rvalue.getClass() != String.class) {
-                    return null;
-                }
+        private final Collection<Object> inList;
+        private final boolean not;
 
-                if ((inList != null && inList.contains(rvalue)) ^ not) {
-                    return Boolean.TRUE;
-                } else {
-                    return Boolean.FALSE;
-                }
-            }
+        public InExpression(PropertyExpression right, Collection<Object> inList, boolean not) {
+            super(right);
 
-            @Override
-            public String toString() {
-                StringBuffer answer = new StringBuffer();
-                answer.append(right);
-                answer.append(" ");
-                answer.append(getExpressionSymbol());
-                answer.append(" ( ");
-
-                int count = 0;
-                for (Iterator<Object> i = inList.iterator(); i.hasNext();) {
-                    Object o = i.next();
-                    if (count != 0) {
-                        answer.append(", ");
-                    }
-                    answer.append(o);
-                    count++;
-                }
+            this.inList = inList;
+            this.not = not;
+        }
+
+        Collection<Object> getInList() {
+            return inList;
+        }
+
+        boolean isNot() {
+            return not;
+        }
+
+        @Override
+        public Object evaluate(Filterable message) throws FilterException {
 
-                answer.append(" )");
-                return answer.toString();
+            Object rvalue = right.evaluate(message);
+            if (rvalue == null) {
+                return null;
+            }
+            if (rvalue.getClass() != String.class) {
+                return null;
             }
 
-            @Override
-            public String getExpressionSymbol() {
-                if (not) {
-                    return "NOT IN";
-                } else {
-                    return "IN";
+            if ((inList != null && inList.contains(rvalue)) ^ not) {
+                return Boolean.TRUE;
+            } else {
+                return Boolean.FALSE;
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuffer answer = new StringBuffer();
+            answer.append(right);
+            answer.append(" ");
+            answer.append(getExpressionSymbol());
+            answer.append(" ( ");
+
+            int count = 0;
+            for (Iterator<Object> i = inList.iterator(); i.hasNext();) {
+                Object o = i.next();
+                if (count != 0) {
+                    answer.append(", ");
                 }
+                answer.append(o);
+                count++;
             }
-        };
+
+            answer.append(" )");
+            return answer.toString();
+        }
+
+        @Override
+        public String getExpressionSymbol() {
+            if (not) {
+                return "NOT IN";
+            } else {
+                return "IN";
+            }
+        }
     }
 
     abstract static class BooleanUnaryExpression extends UnaryExpression implements BooleanExpression {
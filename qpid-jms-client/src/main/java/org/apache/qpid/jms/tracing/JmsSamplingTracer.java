@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.tracing;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A JmsTracer that makes a head based sampling decision for each message before passing it to
+ * another tracer, messages that are not sampled are not given to that tracer at all so that
+ * no spans are created for them and no tracing annotation is added to them when sent.
+ * <p>
+ * A message sent is sampled when it is sent to one of the configured destinations or, failing
+ * that, with the configured probability.  A message received is sampled when it carries the
+ * tracing state of the span that sent it, so that the decision made by the sender is followed,
+ * or otherwise by the same rules as a message sent.
+ */
+public class JmsSamplingTracer implements JmsTracer {
+
+    static final String SAMPLED_SEND_CONTEXT_KEY = "sampledSend";
+
+    private final JmsTracer tracer;
+    private final double sampleRate;
+    private final Set<String> destinations = new HashSet<>();
+    private final List<String> destinationPrefixes = new ArrayList<>();
+
+    /**
+     * @param tracer
+     *      the tracer that is given the sampled messages.
+     * @param sampleRate
+     *      the probability, from 0 to 1, that a message not sent to one of the given
+     *      destinations is sampled.
+     * @param sampledDestinations
+     *      the comma separated addresses of destinations whose messages are always sampled,
+     *      an address ending in '*' matches every address that starts with what precedes it.
+     *      May be null.
+     */
+    public JmsSamplingTracer(JmsTracer tracer, double sampleRate, String sampledDestinations) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Tracing sample rate must be between 0 and 1: " + sampleRate);
+        }
+
+        this.tracer = tracer;
+        this.sampleRate = sampleRate;
+
+        if (sampledDestinations != null) {
+            for (String destination : sampledDestinations.split(",")) {
+                destination = destination.trim();
+                if (destination.endsWith("*")) {
+                    destinationPrefixes.add(destination.substring(0, destination.length() - 1));
+                } else if (!destination.isEmpty()) {
+                    destinations.add(destination);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the tracer that is given the sampled messages.
+     */
+    public JmsTracer getTracer() {
+        return tracer;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    public void initSend(TraceableMessage message, String address) {
+        if (isSampled(address)) {
+            message.setTracingContext(SAMPLED_SEND_CONTEXT_KEY, Boolean.TRUE);
+            tracer.initSend(message, address);
+        } else {
+            // A message sent before may still carry the state of its previous send, which
+            // must not be completed again when this send completes.
+            message.removeTracingContext(SAMPLED_SEND_CONTEXT_KEY);
+            message.removeTracingAnnotation(TRACE_STATE_ANNOTATION);
+        }
+    }
+
+    @Override
+    public void completeSend(TraceableMessage message, String outcome) {
+        if (message.removeTracingContext(SAMPLED_SEND_CONTEXT_KEY) != null) {
+            tracer.completeSend(message, outcome);
+        }
+    }
+
+    @Override
+    public void syncReceive(TraceableMessage message, String address, DeliveryOutcome outcome) {
+        if (isSampled(message, address)) {
+            tracer.syncReceive(message, address, outcome);
+        }
+    }
+
+    @Override
+    public void asyncDeliveryInit(TraceableMessage message, String address) {
+        if (isSampled(message, address)) {
+            tracer.asyncDeliveryInit(message, address);
+        }
+    }
+
+    @Override
+    public void asyncDeliveryComplete(TraceableMessage message, DeliveryOutcome outcome, Throwable throwable) {
+        tracer.asyncDeliveryComplete(message, outcome, throwable);
+    }
+
+    @Override
+    public void close() {
+        tracer.close();
+    }
+
+    //----- Internal implementation ------------------------------------------//
+
+    private boolean isSampled(TraceableMessage message, String address) {
+        return message.getTracingAnnotation(TRACE_STATE_ANNOTATION) != null || isSampled(address);
+    }
+
+    private boolean isSampled(String address) {
+        if (address != null && (destinations.contains(address) || matchesPrefix(address))) {
+            return true;
+        }
+
+        return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private boolean matchesPrefix(String address) {
+        for (int i = 0; i < destinationPrefixes.size(); ++i) {
+            if (address.startsWith(destinationPrefixes.get(i))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
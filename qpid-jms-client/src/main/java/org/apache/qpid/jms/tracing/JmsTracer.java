@@ -18,10 +18,17 @@ package org.apache.qpid.jms.tracing;
 
 public interface JmsTracer {
 
+    /**
+     * The message annotation under which the tracing state of the sending span is carried.
+     */
+    String TRACE_STATE_ANNOTATION = "x-opt-qpid-tracestate";
+
     enum DeliveryOutcome {
         DELIVERED,
         EXPIRED,
         REDELIVERIES_EXCEEDED,
+        DUPLICATE_SUPPRESSED,
+        SELECTOR_MISMATCH,
         APPLICATION_ERROR
     }
 
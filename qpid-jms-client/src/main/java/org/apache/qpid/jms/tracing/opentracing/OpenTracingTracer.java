@@ -37,6 +37,8 @@ import io.opentracing.tag.Tags;
 public class OpenTracingTracer implements JmsTracer {
     static final String REDELIVERIES_EXCEEDED = "redeliveries-exceeded";
     static final String MESSAGE_EXPIRED = "message-expired";
+    static final String DUPLICATE_SUPPRESSED = "duplicate-suppressed";
+    static final String SELECTOR_MISMATCH = "selector-mismatch";
     static final String SEND_SPAN_NAME = "amqp-delivery-send";
     static final String RECEIVE_SPAN_NAME = "receive";
     static final String ONMESSAGE_SPAN_NAME = "onMessage";
@@ -50,7 +52,7 @@ public class OpenTracingTracer implements JmsTracer {
     static final String DELIVERY_SPAN_CONTEXT_KEY = "deliverySpan";
     static final String ONMESSAGE_SCOPE_CONTEXT_KEY = "onMessageScope";
 
-    static final String ANNOTATION_KEY = "x-opt-qpid-tracestate";
+    static final String ANNOTATION_KEY = TRACE_STATE_ANNOTATION;
 
     private Tracer tracer;
     private boolean closeUnderlyingTracer;
@@ -140,6 +142,12 @@ public class OpenTracingTracer implements JmsTracer {
         } else if (outcome == DeliveryOutcome.REDELIVERIES_EXCEEDED) {
             fields = new HashMap<>();
             fields.put(Fields.EVENT, REDELIVERIES_EXCEEDED);
+        } else if (outcome == DeliveryOutcome.DUPLICATE_SUPPRESSED) {
+            fields = new HashMap<>();
+            fields.put(Fields.EVENT, DUPLICATE_SUPPRESSED);
+        } else if (outcome == DeliveryOutcome.SELECTOR_MISMATCH) {
+            fields = new HashMap<>();
+            fields.put(Fields.EVENT, SELECTOR_MISMATCH);
         }
 
         if (fields != null) {
@@ -24,6 +24,8 @@ import java.util.concurrent.ThreadFactory;
 
 import javax.net.ssl.SSLContext;
 
+import org.apache.qpid.jms.metrics.JmsMetrics;
+
 import io.netty.buffer.ByteBuf;
 
 /**
@@ -174,4 +176,14 @@ public interface Transport {
      */
     int getMaxFrameSize();
 
+    /**
+     * Registers any gauges the transport maintains for the threads it runs on with the
+     * metrics of the connection, called once the transport has connected.
+     *
+     * @param metrics
+     *      the metrics of the connection the transport belongs to.
+     */
+    default void registerMetrics(JmsMetrics metrics) {
+    }
+
 }
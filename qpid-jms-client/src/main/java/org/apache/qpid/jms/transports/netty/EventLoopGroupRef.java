@@ -16,12 +16,25 @@
  */
 package org.apache.qpid.jms.transports.netty;
 
+import org.apache.qpid.jms.metrics.JmsMetrics;
+
 import io.netty.channel.EventLoopGroup;
 
 public interface EventLoopGroupRef extends AutoCloseable {
 
     EventLoopGroup group();
 
+    /**
+     * Registers gauges of the event loops of the group with the metrics of a connection using
+     * it.  A group that is not shared registers none, its single event loop is already
+     * covered by the queue depth of the connection's serializer.
+     *
+     * @param metrics
+     *      the metrics of the connection that holds this reference.
+     */
+    default void registerGauges(JmsMetrics metrics) {
+    }
+
     @Override
     void close();
 }
@@ -25,8 +25,11 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
 import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
 
+import org.apache.qpid.jms.metrics.JmsMetrics;
 import org.apache.qpid.jms.util.QpidJMSThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -130,6 +133,20 @@ public final class NettyEventLoopGroupFactory {
             return sharedGroupHolder.group();
         }
 
+        @Override
+        public void registerGauges(JmsMetrics metrics) {
+            // Every connection of the group sees the same values, a connection is bound to one of
+            // the event loops and its serializer queue depth counts the tasks of the others on it.
+            int index = 0;
+            for (EventExecutor eventLoop : sharedGroupHolder.group()) {
+                if (eventLoop instanceof SingleThreadEventExecutor) {
+                    final SingleThreadEventExecutor executor = (SingleThreadEventExecutor) eventLoop;
+                    metrics.gauge(JmsMetrics.SHARED_EVENT_LOOP + index + JmsMetrics.QUEUE_DEPTH, () -> executor.pendingTasks());
+                }
+                index++;
+            }
+        }
+
         @Override
         public void close() {
             if (closed.compareAndSet(false, true)) {
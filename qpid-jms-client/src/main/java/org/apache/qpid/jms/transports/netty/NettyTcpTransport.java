@@ -28,6 +28,7 @@ import java.util.function.Supplier;
 
 import javax.net.ssl.SSLContext;
 
+import org.apache.qpid.jms.metrics.JmsMetrics;
 import org.apache.qpid.jms.transports.Transport;
 import org.apache.qpid.jms.transports.TransportListener;
 import org.apache.qpid.jms.transports.TransportOptions;
@@ -305,6 +306,14 @@ public class NettyTcpTransport implements Transport {
         return maxFrameSize;
     }
 
+    @Override
+    public void registerMetrics(JmsMetrics metrics) {
+        final EventLoopGroupRef ref = groupRef;
+        if (ref != null) {
+            ref.registerGauges(metrics);
+        }
+    }
+
     @Override
     public ThreadFactory getThreadFactory() {
         return ioThreadfactory;
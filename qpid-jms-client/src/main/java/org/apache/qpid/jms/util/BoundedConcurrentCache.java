@@ -0,0 +1,250 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe cache with a bounded number of entries.
+ * <p>
+ * Lookups do not take any lock.  Once the cache is full a new entry is only admitted when
+ * its key has been requested more often than the entry that would be evicted to make room
+ * for it, the request frequencies being tracked in a small count-min sketch that is aged
+ * periodically.  This keeps keys that are only ever requested once from evicting entries
+ * that are in regular use.  Eviction candidates are taken in insertion order, with an entry
+ * that is requested more often than the new key given a second chance.
+ *
+ * @param <K> The type of the cache key.
+ * @param <V> The type of the cache value.
+ */
+public class BoundedConcurrentCache<K, V> {
+
+    private static final int SKETCH_DEPTH = 4;
+    private static final int[] SKETCH_SEEDS = { 0x97CB3127, 0xB9D0E4A5, 0x3C6EF373, 0x5F356495 };
+    private static final int MAX_FREQUENCY = 15;
+    private static final int EVICTION_CANDIDATES = 4;
+
+    private final int maximumSize;
+    private final ConcurrentHashMap<K, V> entries;
+    private final ConcurrentLinkedQueue<K> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final int[] sketch;
+    private final int sketchMask;
+    private final int sampleSize;
+    private final AtomicInteger samples = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * Creates a new cache holding at most the given number of entries.
+     *
+     * @param maximumSize
+     *      The maximum number of entries to keep in the cache.
+     */
+    public BoundedConcurrentCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be greater than zero: " + maximumSize);
+        }
+
+        this.maximumSize = maximumSize;
+        this.entries = new ConcurrentHashMap<>(Math.min(maximumSize, 1024));
+
+        int width = Integer.highestOneBit(Math.max(256, Math.min(maximumSize, 1 << 24) * 4) - 1) << 1;
+        this.sketch = new int[width];
+        this.sketchMask = width - 1;
+        this.sampleSize = maximumSize * 10;
+    }
+
+    /**
+     * Returns the value cached for the given key and records the request for the key.
+     *
+     * @param key
+     *      The key to look up.
+     *
+     * @return the cached value or null if the key has no entry.
+     */
+    public V get(K key) {
+        recordRequest(key);
+
+        V value = entries.get(key);
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+
+        return value;
+    }
+
+    /**
+     * Offers a value for caching, when the cache is full the value is only added if the
+     * key is requested more often than an existing entry which is then evicted.
+     *
+     * @param key
+     *      The key to cache the value under.
+     * @param value
+     *      The value to cache.
+     *
+     * @return true if the value was added to the cache.
+     */
+    public boolean put(K key, V value) {
+        // Only replaces a live entry, one evicted concurrently is admitted again as a new key
+        if (entries.replace(key, value) != null) {
+            return true;
+        }
+
+        if (size.get() >= maximumSize && !makeRoomFor(key)) {
+            rejections.increment();
+            return false;
+        }
+
+        if (entries.putIfAbsent(key, value) == null) {
+            size.incrementAndGet();
+            insertionOrder.offer(key);
+
+            // Concurrent inserts may each have made room for themselves against the same victim
+            while (size.get() > maximumSize) {
+                K victim = insertionOrder.poll();
+                if (victim == null) {
+                    break;
+                }
+                evict(victim);
+            }
+        }
+
+        return true;
+    }
+
+    public void clear() {
+        insertionOrder.clear();
+        entries.clear();
+        size.set(0);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the number of values not cached because the admission policy rejected them.
+     */
+    public long getRejectionCount() {
+        return rejections.sum();
+    }
+
+    private boolean makeRoomFor(K key) {
+        int candidateFrequency = frequency(key);
+
+        for (int i = 0; i < EVICTION_CANDIDATES; ++i) {
+            K victim = insertionOrder.poll();
+            if (victim == null) {
+                return true;
+            }
+
+            if (!entries.containsKey(victim)) {
+                continue;
+            } else if (candidateFrequency > frequency(victim)) {
+                evict(victim);
+                return true;
+            } else {
+                insertionOrder.offer(victim);
+            }
+        }
+
+        return false;
+    }
+
+    /*
+     * The victim has already been taken from the insertion order, any other occurrence left
+     * by a concurrent clear and re-insert is dropped so it cannot later evict a newer entry.
+     */
+    private void evict(K victim) {
+        if (entries.remove(victim) != null) {
+            size.decrementAndGet();
+            evictions.increment();
+        }
+
+        insertionOrder.remove(victim);
+    }
+
+    //----- Frequency sketch -------------------------------------------------//
+
+    /*
+     * Counter updates are not atomic, a lost update only skews the estimate which is
+     * acceptable for an admission decision.
+     */
+    private void recordRequest(K key) {
+        int hash = key.hashCode();
+        for (int i = 0; i < SKETCH_DEPTH; ++i) {
+            int index = indexOf(hash, i);
+            if (sketch[index] < MAX_FREQUENCY) {
+                sketch[index]++;
+            }
+        }
+
+        if (samples.incrementAndGet() >= sampleSize) {
+            samples.set(0);
+            for (int i = 0; i < sketch.length; ++i) {
+                sketch[i] >>>= 1;
+            }
+        }
+    }
+
+    private int frequency(K key) {
+        int hash = key.hashCode();
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < SKETCH_DEPTH; ++i) {
+            frequency = Math.min(frequency, sketch[indexOf(hash, i)]);
+        }
+
+        return frequency;
+    }
+
+    private int indexOf(int hash, int row) {
+        // Full avalanche of the row specific multiple so that the rows hash independently
+        int h = hash * SKETCH_SEEDS[row];
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h & sketchMask;
+    }
+}
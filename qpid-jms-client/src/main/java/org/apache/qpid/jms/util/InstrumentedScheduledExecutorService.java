@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.util;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.qpid.jms.jfr.ExecutorTaskEvent;
+import org.apache.qpid.jms.metrics.JmsHistogram;
+
+/**
+ * Wraps a ScheduledExecutorService so that the tasks given to it for immediate execution are
+ * recorded as {@link ExecutorTaskEvent} flight recorder events and to the histograms of the
+ * time they wait before being run and the time they take to run.
+ * <p>
+ * Tasks are only wrapped while the event or one of the histograms is enabled, otherwise they
+ * are handed directly to the wrapped executor.  Scheduled tasks are always handed directly to the wrapped executor
+ * as the time they spend waiting is chosen by the caller.
+ */
+public final class InstrumentedScheduledExecutorService extends AbstractExecutorService implements ScheduledExecutorService {
+
+    private final String name;
+    private final ScheduledExecutorService delegate;
+    private final JmsHistogram waitTime;
+    private final JmsHistogram executionTime;
+
+    public InstrumentedScheduledExecutorService(String name, ScheduledExecutorService delegate) {
+        this(name, delegate, JmsHistogram.DISABLED, JmsHistogram.DISABLED);
+    }
+
+    public InstrumentedScheduledExecutorService(String name, ScheduledExecutorService delegate, JmsHistogram waitTime, JmsHistogram executionTime) {
+        this.name = name;
+        this.delegate = delegate;
+        this.waitTime = waitTime;
+        this.executionTime = executionTime;
+    }
+
+    /**
+     * @return the name given to the executor in the events it records.
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(InstrumentedTask.wrap(name, command, waitTime, executionTime));
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        return delegate.schedule(command, delay, unit);
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        return delegate.schedule(callable, delay, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        return delegate.scheduleAtFixedRate(command, initialDelay, period, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        return delegate.scheduleWithFixedDelay(command, initialDelay, delay, unit);
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return "InstrumentedScheduledExecutorService { " + name + " }";
+    }
+}
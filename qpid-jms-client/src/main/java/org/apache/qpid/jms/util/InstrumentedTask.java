@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.util;
+
+import org.apache.qpid.jms.jfr.ExecutorTaskEvent;
+import org.apache.qpid.jms.jfr.JmsEvent;
+import org.apache.qpid.jms.jfr.JmsEvents;
+import org.apache.qpid.jms.metrics.JmsHistogram;
+
+/**
+ * Wraps a task given to one of the instrumented executors so that the time it waits in the
+ * executor and the time taken to run it are recorded to the executor's histograms and as an
+ * {@link ExecutorTaskEvent} flight recorder event.
+ */
+final class InstrumentedTask implements Runnable {
+
+    private final String executor;
+    private final Runnable task;
+    private final JmsHistogram waitTime;
+    private final JmsHistogram executionTime;
+    private final long queuedAt = System.nanoTime();
+
+    private InstrumentedTask(String executor, Runnable task, JmsHistogram waitTime, JmsHistogram executionTime) {
+        this.executor = executor;
+        this.task = task;
+        this.waitTime = waitTime;
+        this.executionTime = executionTime;
+    }
+
+    /**
+     * Wraps the given task if either of the histograms is enabled or the flight recorder event
+     * is, otherwise the task is returned as is.  A null task is returned as is so the executor
+     * rejects it.
+     *
+     * @param executor
+     *      the name of the executor given in the recorded events.
+     * @param task
+     *      the task being given to the executor.
+     * @param waitTime
+     *      the histogram of the time tasks wait before being run.
+     * @param executionTime
+     *      the histogram of the time tasks take to run.
+     *
+     * @return the task to hand to the executor.
+     */
+    static Runnable wrap(String executor, Runnable task, JmsHistogram waitTime, JmsHistogram executionTime) {
+        if (task != null && (waitTime.isEnabled() || executionTime.isEnabled() || JmsEvents.isExecutorTaskEnabled())) {
+            return new InstrumentedTask(executor, task, waitTime, executionTime);
+        } else {
+            return task;
+        }
+    }
+
+    @Override
+    public void run() {
+        final long started = System.nanoTime();
+        waitTime.record(started - queuedAt);
+
+        final JmsEvent event = JmsEvents.beginExecutorTask();
+        try {
+            task.run();
+        } finally {
+            executionTime.recordSince(started);
+            JmsEvents.commitExecutorTask(event, executor, started - queuedAt);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return task.toString();
+    }
+}
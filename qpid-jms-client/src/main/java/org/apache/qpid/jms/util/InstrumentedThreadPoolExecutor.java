@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.util;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.qpid.jms.metrics.JmsHistogram;
+
+/**
+ * A single threaded ThreadPoolExecutor whose thread times out when idle, recording the time
+ * each task waits before it is run and the time it takes to run.
+ * <p>
+ * Tasks are only wrapped while one of the histograms or the flight recorder's executor task
+ * event is enabled, otherwise they are queued as given.
+ */
+public final class InstrumentedThreadPoolExecutor extends ThreadPoolExecutor {
+
+    private final String name;
+    private final JmsHistogram waitTime;
+    private final JmsHistogram executionTime;
+
+    /**
+     * Creates an executor that records nothing but the flight recorder events.
+     *
+     * @param name
+     *      the name given to the executor in the events it records.
+     * @param threadFactory
+     *      the factory that creates the executor's thread.
+     */
+    public InstrumentedThreadPoolExecutor(String name, ThreadFactory threadFactory) {
+        this(name, threadFactory, JmsHistogram.DISABLED, JmsHistogram.DISABLED);
+    }
+
+    /**
+     * @param name
+     *      the name given to the executor in the events it records.
+     * @param threadFactory
+     *      the factory that creates the executor's thread.
+     * @param waitTime
+     *      the histogram of the time tasks wait before being run.
+     * @param executionTime
+     *      the histogram of the time tasks take to run.
+     */
+    public InstrumentedThreadPoolExecutor(String name, ThreadFactory threadFactory, JmsHistogram waitTime, JmsHistogram executionTime) {
+        super(1, 1, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), threadFactory);
+
+        this.name = name;
+        this.waitTime = waitTime;
+        this.executionTime = executionTime;
+    }
+
+    /**
+     * @return the name given to the executor in the events it records.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of tasks waiting to be run.
+     */
+    public int getQueueDepth() {
+        return getQueue().size();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(InstrumentedTask.wrap(name, command, waitTime, executionTime));
+    }
+
+    @Override
+    public String toString() {
+        return "InstrumentedThreadPoolExecutor { " + name + " }";
+    }
+}
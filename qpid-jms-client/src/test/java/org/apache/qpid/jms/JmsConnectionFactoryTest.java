@@ -45,6 +45,9 @@ import org.apache.qpid.jms.policy.JmsDefaultPrefetchPolicy;
 import org.apache.qpid.jms.policy.JmsDefaultPresettlePolicy;
 import org.apache.qpid.jms.policy.JmsDefaultRedeliveryPolicy;
 import org.apache.qpid.jms.test.QpidJmsTestCase;
+import org.apache.qpid.jms.tracing.JmsNoOpTracer;
+import org.apache.qpid.jms.tracing.JmsSamplingTracer;
+import org.apache.qpid.jms.tracing.JmsTracer;
 import org.apache.qpid.jms.util.IdGenerator;
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -114,6 +117,41 @@ public class JmsConnectionFactoryTest extends QpidJmsTestCase {
         connection.close();
     }
 
+    @Test
+    public void testConnectionFactoryTracingSamplingIsAppliedToConnection() throws JMSException {
+        JmsConnectionFactory factory = new JmsConnectionFactory(USER, PASSWORD,
+            "mock://localhost?jms.tracingSampleRate=0.25&jms.tracingSampledDestinations=orders");
+
+        JmsTracer tracer = JmsNoOpTracer.INSTANCE;
+        factory.setTracer(tracer);
+
+        assertEquals(0.25, factory.getTracingSampleRate(), 0.0);
+        assertEquals("orders", factory.getTracingSampledDestinations());
+
+        JmsConnection connection = (JmsConnection) factory.createConnection();
+        assertNotNull(connection);
+
+        assertTrue(connection.getTracer() instanceof JmsSamplingTracer);
+        JmsSamplingTracer samplingTracer = (JmsSamplingTracer) connection.getTracer();
+        assertSame(tracer, samplingTracer.getTracer());
+        assertEquals(0.25, samplingTracer.getSampleRate(), 0.0);
+
+        connection.close();
+    }
+
+    @Test
+    public void testConnectionFactoryTracerNotWrappedWhenSamplingEverything() throws JMSException {
+        JmsConnectionFactory factory = new JmsConnectionFactory(USER, PASSWORD, "mock://localhost");
+
+        JmsTracer tracer = JmsNoOpTracer.INSTANCE;
+        factory.setTracer(tracer);
+
+        JmsConnection connection = (JmsConnection) factory.createConnection();
+        assertSame(tracer, connection.getTracer());
+
+        connection.close();
+    }
+
     @Test
     public void testConnectionFactoryPrefetchPolicyIsAppliedToConnection() throws JMSException {
         JmsConnectionFactory factory = new JmsConnectionFactory(USER, PASSWORD, "mock://localhost");
@@ -39,6 +39,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
@@ -62,6 +63,9 @@ import jakarta.jms.Queue;
 import jakarta.jms.ResourceAllocationException;
 import jakarta.jms.Session;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
 import org.apache.qpid.jms.JmsConnection;
 import org.apache.qpid.jms.JmsConnectionExtensions;
 import org.apache.qpid.jms.JmsConnectionFactory;
@@ -74,6 +78,7 @@ import org.apache.qpid.jms.test.Wait;
 import org.apache.qpid.jms.test.testpeer.TestAmqpPeer;
 import org.apache.qpid.jms.test.testpeer.basictypes.AmqpError;
 import org.apache.qpid.jms.test.testpeer.basictypes.ConnectionError;
+import org.apache.qpid.jms.test.testpeer.describedtypes.sections.AmqpValueDescribedType;
 import org.apache.qpid.jms.test.testpeer.matchers.CoordinatorMatcher;
 import org.apache.qpid.jms.test.testpeer.matchers.sections.TransferPayloadCompositeMatcher;
 import org.apache.qpid.jms.util.MetaDataSupport;
@@ -1085,4 +1090,56 @@ public class ConnectionIntegrationTest extends QpidJmsTestCase {
             assertEquals(localPort, clientPort);
         }
     }
+
+    @Test(timeout = 20000)
+    public void testExecutorAndTransportMetricsExportedToJmx() throws Exception {
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            Connection connection = testFixture.establishConnecton(testPeer, "?jms.metrics=jmx");
+            connection.start();
+
+            testPeer.expectBegin();
+
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            Queue queue = session.createQueue("myQueue");
+
+            testPeer.expectReceiverAttach();
+            testPeer.expectLinkFlowRespondWithTransfer(null, null, null, null, new AmqpValueDescribedType("content"));
+            testPeer.expectDispositionThatIsAcceptedAndSettled();
+
+            final CountDownLatch delivered = new CountDownLatch(1);
+
+            MessageConsumer consumer = session.createConsumer(queue);
+            consumer.setMessageListener(message -> delivered.countDown());
+
+            assertTrue("Message was not delivered", delivered.await(5, TimeUnit.SECONDS));
+            testPeer.waitForAllHandlersToComplete(1000);
+
+            String connectionId = ((JmsConnection) connection).getId().toString();
+
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName connectionName = new ObjectName("org.apache.qpid.jms:type=Connection,id=" + ObjectName.quote(connectionId));
+            ObjectName sessionName = new ObjectName("org.apache.qpid.jms:type=Session,id=" + ObjectName.quote(connectionId + ":1"));
+
+            assertTrue((Long) server.getAttribute(connectionName, "bytesIn") > 0);
+            assertTrue((Long) server.getAttribute(connectionName, "bytesOut") > 0);
+            assertTrue((Long) server.getAttribute(connectionName, "inputProcessingTimeCount") > 0);
+            assertTrue((Long) server.getAttribute(connectionName, "serializerTaskWaitTimeCount") > 0);
+            assertTrue((Long) server.getAttribute(connectionName, "serializerTaskExecutionTimeCount") > 0);
+            assertTrue((Long) server.getAttribute(connectionName, "serializerQueueDepth") >= 0);
+            assertEquals(0L, server.getAttribute(connectionName, "connectionExecutorQueueDepth"));
+
+            assertTrue("Delivery task was not recorded", Wait.waitFor(
+                () -> (Long) server.getAttribute(sessionName, "deliveryExecutorTaskExecutionTimeCount") > 0, 5000, 10));
+            assertTrue((Long) server.getAttribute(sessionName, "deliveryExecutorTaskWaitTimeCount") > 0);
+            assertEquals(0L, server.getAttribute(sessionName, "deliveryExecutorQueueDepth"));
+            assertEquals(0L, server.getAttribute(sessionName, "completionExecutorQueueDepth"));
+
+            testPeer.expectClose();
+            connection.close();
+
+            assertFalse(server.isRegistered(connectionName));
+
+            testPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
 }
@@ -20,6 +20,7 @@ package org.apache.qpid.jms.integration;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -30,13 +31,16 @@ import static org.junit.Assert.fail;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 import jakarta.jms.Connection;
+import jakarta.jms.Destination;
 import jakarta.jms.ExceptionListener;
 import jakarta.jms.IllegalStateException;
 import jakarta.jms.JMSException;
@@ -52,7 +56,9 @@ import jakarta.jms.TopicSubscriber;
 
 import org.apache.qpid.jms.JmsConnection;
 import org.apache.qpid.jms.JmsDefaultConnectionListener;
+import org.apache.qpid.jms.JmsMessagePublisher;
 import org.apache.qpid.jms.JmsOperationTimedOutException;
+import org.apache.qpid.jms.JmsSession;
 import org.apache.qpid.jms.message.JmsInboundMessageDispatch;
 import org.apache.qpid.jms.policy.JmsDefaultPrefetchPolicy;
 import org.apache.qpid.jms.test.QpidJmsTestCase;
@@ -61,6 +67,7 @@ import org.apache.qpid.jms.test.testpeer.AmqpPeerRunnable;
 import org.apache.qpid.jms.test.testpeer.TestAmqpPeer;
 import org.apache.qpid.jms.test.testpeer.basictypes.AmqpError;
 import org.apache.qpid.jms.test.testpeer.describedtypes.sections.AmqpValueDescribedType;
+import org.apache.qpid.jms.test.testpeer.describedtypes.sections.ApplicationPropertiesDescribedType;
 import org.apache.qpid.jms.test.testpeer.describedtypes.sections.DataDescribedType;
 import org.apache.qpid.jms.test.testpeer.describedtypes.sections.HeaderDescribedType;
 import org.apache.qpid.jms.test.testpeer.describedtypes.sections.PropertiesDescribedType;
@@ -68,6 +75,7 @@ import org.apache.qpid.jms.test.testpeer.matchers.AcceptedMatcher;
 import org.apache.qpid.jms.test.testpeer.matchers.ModifiedMatcher;
 import org.apache.qpid.jms.test.testpeer.matchers.RejectedMatcher;
 import org.apache.qpid.jms.test.testpeer.matchers.ReleasedMatcher;
+import org.apache.qpid.jms.test.testpeer.matchers.SourceMatcher;
 import org.apache.qpid.jms.test.testpeer.matchers.sections.MessageAnnotationsSectionMatcher;
 import org.apache.qpid.jms.test.testpeer.matchers.sections.MessageHeaderSectionMatcher;
 import org.apache.qpid.jms.test.testpeer.matchers.sections.TransferPayloadCompositeMatcher;
@@ -314,6 +322,242 @@ public class ConsumerIntegrationTest extends QpidJmsTestCase {
         }
     }
 
+    @Test(timeout = 20000)
+    public void testPublisherGrantsCreditOnlyForSubscriberDemand() throws Exception {
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            Connection connection = testFixture.establishConnecton(testPeer);
+            connection.start();
+
+            testPeer.expectBegin();
+
+            JmsSession session = (JmsSession) connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            Queue queue = session.createQueue("myQueue");
+
+            DescribedType amqpValueNullContent = new AmqpValueDescribedType(null);
+
+            // No credit is granted when the publisher is created.
+            testPeer.expectReceiverAttach();
+
+            JmsMessagePublisher publisher = session.createPublisher(queue);
+
+            testPeer.waitForAllHandlersToComplete(1000);
+
+            testPeer.expectLinkFlowRespondWithTransfer(null, null, null, null, amqpValueNullContent, 2, false, false,
+                                                       equalTo(UnsignedInteger.valueOf(2)), 1, false);
+            testPeer.expectDispositionThatIsAcceptedAndSettled();
+            testPeer.expectDispositionThatIsAcceptedAndSettled();
+
+            final List<Message> received = Collections.synchronizedList(new ArrayList<>());
+            final AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+            final AtomicBoolean completed = new AtomicBoolean();
+            final CountDownLatch firstBatch = new CountDownLatch(2);
+            final CountDownLatch secondBatch = new CountDownLatch(3);
+
+            publisher.subscribe(new Flow.Subscriber<Message>() {
+
+                @Override
+                public void onSubscribe(Flow.Subscription value) {
+                    subscription.set(value);
+                    value.request(2);
+                }
+
+                @Override
+                public void onNext(Message message) {
+                    received.add(message);
+                    firstBatch.countDown();
+                    secondBatch.countDown();
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    LOG.warn("Unexpected error signaled to subscriber", error);
+                }
+
+                @Override
+                public void onComplete() {
+                    completed.set(true);
+                }
+            });
+
+            assertTrue("Did not receive the demanded messages", firstBatch.await(5, TimeUnit.SECONDS));
+            testPeer.waitForAllHandlersToComplete(1000);
+            assertEquals(0, publisher.getDemand());
+
+            testPeer.expectLinkFlowRespondWithTransfer(null, null, null, null, amqpValueNullContent, 1, false, false,
+                                                       equalTo(UnsignedInteger.valueOf(1)), 3, false);
+            testPeer.expectDispositionThatIsAcceptedAndSettled();
+
+            subscription.get().request(1);
+
+            assertTrue("Did not receive the demanded message", secondBatch.await(5, TimeUnit.SECONDS));
+            testPeer.waitForAllHandlersToComplete(1000);
+            assertEquals(3, received.size());
+
+            testPeer.expectDetach(true, true, true);
+            subscription.get().cancel();
+            assertFalse("Cancelled subscriber should not be completed", completed.get());
+
+            testPeer.expectClose();
+            connection.close();
+
+            testPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testPublisherSignalsErrorOnlyOnceOnNextReturns() throws Exception {
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            Connection connection = testFixture.establishConnecton(testPeer);
+            connection.start();
+
+            testPeer.expectBegin();
+
+            JmsSession session = (JmsSession) connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            Queue queue = session.createQueue("myQueue");
+
+            DescribedType amqpValueNullContent = new AmqpValueDescribedType(null);
+
+            testPeer.expectReceiverAttach();
+
+            JmsMessagePublisher publisher = session.createPublisher(queue);
+
+            testPeer.expectLinkFlowRespondWithTransfer(null, null, null, null, amqpValueNullContent);
+            testPeer.expectDispositionThatIsAcceptedAndSettled();
+            testPeer.expectDetach(true, true, true);
+
+            final AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+            final AtomicBoolean inOnNext = new AtomicBoolean();
+            final AtomicBoolean overlapped = new AtomicBoolean();
+            final CountDownLatch delivering = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            final CountDownLatch failed = new CountDownLatch(1);
+
+            publisher.subscribe(new Flow.Subscriber<Message>() {
+
+                @Override
+                public void onSubscribe(Flow.Subscription value) {
+                    subscription.set(value);
+                    value.request(1);
+                }
+
+                @Override
+                public void onNext(Message message) {
+                    inOnNext.set(true);
+                    delivering.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        inOnNext.set(false);
+                    }
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    overlapped.set(inOnNext.get());
+                    failed.countDown();
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            });
+
+            assertTrue("Message was not delivered", delivering.await(5, TimeUnit.SECONDS));
+
+            // An invalid request made from another thread while onNext runs must wait for it.
+            Thread requester = new Thread(() -> subscription.get().request(0));
+            requester.start();
+
+            assertFalse("Error signaled while onNext was in progress", failed.await(100, TimeUnit.MILLISECONDS));
+            release.countDown();
+
+            assertTrue("Subscriber was not signaled the error", failed.await(5, TimeUnit.SECONDS));
+            assertFalse("Error signal overlapped onNext", overlapped.get());
+            requester.join(5000);
+
+            testPeer.waitForAllHandlersToComplete(1000);
+
+            testPeer.expectClose();
+            connection.close();
+
+            testPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testPublisherCompletesSubscriberWhenSessionClosed() throws Exception {
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            Connection connection = testFixture.establishConnecton(testPeer);
+            connection.start();
+
+            testPeer.expectBegin();
+
+            JmsSession session = (JmsSession) connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            Queue queue = session.createQueue("myQueue");
+
+            testPeer.expectReceiverAttach();
+
+            JmsMessagePublisher publisher = session.createPublisher(queue);
+
+            final CountDownLatch completed = new CountDownLatch(1);
+            final AtomicReference<Throwable> secondSubscriberError = new AtomicReference<>();
+
+            publisher.subscribe(new Flow.Subscriber<Message>() {
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                }
+
+                @Override
+                public void onNext(Message message) {
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                }
+
+                @Override
+                public void onComplete() {
+                    completed.countDown();
+                }
+            });
+
+            publisher.subscribe(new Flow.Subscriber<Message>() {
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                }
+
+                @Override
+                public void onNext(Message message) {
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    secondSubscriberError.set(error);
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            });
+
+            assertTrue(secondSubscriberError.get() instanceof java.lang.IllegalStateException);
+
+            testPeer.expectEnd();
+            session.close();
+
+            assertTrue("Subscriber was not completed", completed.await(5, TimeUnit.SECONDS));
+
+            testPeer.expectClose();
+            connection.close();
+
+            testPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
+
     /**
      * Test that an Ack is not dropped when RTE is thrown from onMessage
      *
@@ -2008,6 +2252,279 @@ public class ConsumerIntegrationTest extends QpidJmsTestCase {
         }
     }
 
+    @Test(timeout=20000)
+    public void testRedeliveredDuplicateSuppressedWhenWindowEnabled() throws Exception {
+        doTestRedeliveredDuplicateSuppression(true);
+    }
+
+    @Test(timeout=20000)
+    public void testRedeliveredDuplicateDeliveredWhenWindowDisabled() throws Exception {
+        doTestRedeliveredDuplicateSuppression(false);
+    }
+
+    private void doTestRedeliveredDuplicateSuppression(boolean suppress) throws Exception {
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            Connection connection = testFixture.establishConnecton(testPeer,
+                suppress ? "?jms.duplicateSuppressionWindow=10" : "");
+            connection.start();
+
+            testPeer.expectBegin();
+
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            Queue queue = session.createQueue("myQueue");
+
+            PropertiesDescribedType duplicateProperties = new PropertiesDescribedType();
+            duplicateProperties.setMessageId("ID:duplicate");
+            PropertiesDescribedType otherProperties = new PropertiesDescribedType();
+            otherProperties.setMessageId("ID:other");
+
+            HeaderDescribedType redeliveredHeader = new HeaderDescribedType();
+            redeliveredHeader.setDeliveryCount(new UnsignedInteger(1));
+
+            testPeer.expectReceiverAttach();
+            testPeer.expectLinkFlowRespondWithTransfer(null, null, duplicateProperties, null, new AmqpValueDescribedType("first"), 1);
+            // Redeliver the same message, as would happen if its acknowledgement had been lost
+            testPeer.sendTransferToLastOpenedLinkOnLastOpenedSession(redeliveredHeader, null, duplicateProperties, null, new AmqpValueDescribedType("first"), 2);
+            testPeer.sendTransferToLastOpenedLinkOnLastOpenedSession(null, null, otherProperties, null, new AmqpValueDescribedType("second"), 3);
+
+            testPeer.expectDisposition(true, new AcceptedMatcher());
+            testPeer.expectDisposition(true, new AcceptedMatcher());
+            testPeer.expectDisposition(true, new AcceptedMatcher());
+
+            MessageConsumer consumer = session.createConsumer(queue);
+
+            Message message = consumer.receive(3000);
+            assertNotNull(message);
+            assertEquals("first", ((TextMessage) message).getText());
+            assertFalse(message.getJMSRedelivered());
+
+            if (!suppress) {
+                message = consumer.receive(3000);
+                assertNotNull(message);
+                assertEquals("first", ((TextMessage) message).getText());
+                assertTrue(message.getJMSRedelivered());
+            }
+
+            message = consumer.receive(3000);
+            assertNotNull(message);
+            assertEquals("second", ((TextMessage) message).getText());
+
+            testPeer.waitForAllHandlersToComplete(3000);
+
+            testPeer.expectClose();
+            connection.close();
+
+            testPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
+
+    @Test(timeout=20000)
+    public void testRedeliveredDuplicateOnlySuppressedOnceAcknowledged() throws Exception {
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            Connection connection = testFixture.establishConnecton(testPeer, "?jms.duplicateSuppressionWindow=10");
+            connection.start();
+
+            testPeer.expectBegin();
+
+            Session session = connection.createSession(false, Session.CLIENT_ACKNOWLEDGE);
+            Queue queue = session.createQueue("myQueue");
+
+            PropertiesDescribedType duplicateProperties = new PropertiesDescribedType();
+            duplicateProperties.setMessageId("ID:duplicate");
+            PropertiesDescribedType otherProperties = new PropertiesDescribedType();
+            otherProperties.setMessageId("ID:other");
+
+            HeaderDescribedType firstRedelivery = new HeaderDescribedType();
+            firstRedelivery.setDeliveryCount(new UnsignedInteger(1));
+            HeaderDescribedType secondRedelivery = new HeaderDescribedType();
+            secondRedelivery.setDeliveryCount(new UnsignedInteger(2));
+
+            testPeer.expectReceiverAttach();
+            testPeer.expectLinkFlowRespondWithTransfer(null, null, duplicateProperties, null, new AmqpValueDescribedType("first"), 1);
+            testPeer.sendTransferToLastOpenedLinkOnLastOpenedSession(firstRedelivery, null, duplicateProperties, null, new AmqpValueDescribedType("first"), 2);
+            testPeer.sendTransferToLastOpenedLinkOnLastOpenedSession(secondRedelivery, null, duplicateProperties, null, new AmqpValueDescribedType("first"), 3);
+            testPeer.sendTransferToLastOpenedLinkOnLastOpenedSession(null, null, otherProperties, null, new AmqpValueDescribedType("second"), 4);
+
+            MessageConsumer consumer = session.createConsumer(queue);
+
+            Message message = consumer.receive(3000);
+            assertNotNull(message);
+            assertFalse(message.getJMSRedelivered());
+
+            // Not yet acknowledged so the redelivery is delivered again
+            message = consumer.receive(3000);
+            assertNotNull(message);
+            assertEquals("first", ((TextMessage) message).getText());
+            assertTrue(message.getJMSRedelivered());
+
+            testPeer.expectDisposition(true, new AcceptedMatcher());
+            testPeer.expectDisposition(true, new AcceptedMatcher());
+
+            message.acknowledge();
+
+            testPeer.waitForAllHandlersToComplete(3000);
+
+            // Once acknowledged a further redelivery is accepted and skipped
+            testPeer.expectDisposition(true, new AcceptedMatcher());
+
+            message = consumer.receive(3000);
+            assertNotNull(message);
+            assertEquals("second", ((TextMessage) message).getText());
+
+            testPeer.expectDisposition(true, new AcceptedMatcher());
+
+            message.acknowledge();
+
+            testPeer.waitForAllHandlersToComplete(3000);
+
+            testPeer.expectClose();
+            connection.close();
+
+            testPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
+
+    @Test(timeout=20000)
+    public void testLocalSelectorEvaluationReleasesNonMatchingMessages() throws Exception {
+        doTestLocalSelectorEvaluation(null, new ReleasedMatcher(), false);
+    }
+
+    @Test(timeout=20000)
+    public void testLocalSelectorEvaluationAppliesConfiguredOutcome() throws Exception {
+        doTestLocalSelectorEvaluation("MODIFIED_FAILED", new ModifiedMatcher().withDeliveryFailed(equalTo(true)), false);
+    }
+
+    @Test(timeout=20000)
+    public void testLocalSelectorEvaluationAcceptsNonMatchingTopicMessages() throws Exception {
+        doTestLocalSelectorEvaluation(null, new AcceptedMatcher(), true);
+    }
+
+    @Test(timeout=20000)
+    public void testLocalSelectorEvaluationIgnoresConfiguredOutcomeForTopic() throws Exception {
+        doTestLocalSelectorEvaluation("MODIFIED_FAILED", new AcceptedMatcher(), true);
+    }
+
+    private void doTestLocalSelectorEvaluation(String outcome, Matcher<?> outcomeMatcher, boolean topic) throws Exception {
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            String options = "?jms.localSelectorEvaluation=true";
+            if (outcome != null) {
+                options += "&jms.localSelectorOutcome=" + outcome;
+            }
+
+            Connection connection = testFixture.establishConnecton(testPeer, options);
+            connection.start();
+
+            testPeer.expectBegin();
+
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            Destination destination = topic ? session.createTopic("myTopic") : session.createQueue("myQueue");
+
+            ApplicationPropertiesDescribedType redProperties = new ApplicationPropertiesDescribedType();
+            redProperties.setApplicationProperty("color", "red");
+            ApplicationPropertiesDescribedType blueProperties = new ApplicationPropertiesDescribedType();
+            blueProperties.setApplicationProperty("color", "blue");
+
+            // The selector is evaluated by the client so no filter is sent to the remote
+            SourceMatcher sourceMatcher = new SourceMatcher();
+            sourceMatcher.withFilter(nullValue());
+
+            testPeer.expectReceiverAttach(notNullValue(), sourceMatcher);
+            testPeer.expectLinkFlowRespondWithTransfer(null, null, null, redProperties, new AmqpValueDescribedType("red"), 1);
+            testPeer.sendTransferToLastOpenedLinkOnLastOpenedSession(null, null, null, blueProperties, new AmqpValueDescribedType("blue"), 2);
+
+            testPeer.expectDisposition(true, outcomeMatcher, 1, 1);
+            testPeer.expectDisposition(true, new AcceptedMatcher(), 2, 2);
+
+            MessageConsumer consumer = session.createConsumer(destination, "color = 'blue'");
+            assertEquals("color = 'blue'", consumer.getMessageSelector());
+
+            Message message = consumer.receive(3000);
+            assertNotNull(message);
+            assertEquals("blue", ((TextMessage) message).getText());
+
+            testPeer.waitForAllHandlersToComplete(3000);
+
+            testPeer.expectClose();
+            connection.close();
+
+            testPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
+
+    @Test(timeout=20000)
+    public void testSharedConsumerLinkFansOutMessagesToConsumersOnSameTopic() throws Exception {
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            Connection connection = testFixture.establishConnecton(testPeer, "?jms.sharedConsumerLinks=true");
+            connection.start();
+
+            testPeer.expectBegin();
+
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            Topic topic = session.createTopic("myTopic");
+
+            ApplicationPropertiesDescribedType redProperties = new ApplicationPropertiesDescribedType();
+            redProperties.setApplicationProperty("color", "red");
+            ApplicationPropertiesDescribedType blueProperties = new ApplicationPropertiesDescribedType();
+            blueProperties.setApplicationProperty("color", "blue");
+
+            // Only the first consumer attaches a link, it carries no filter as selectors are evaluated locally
+            SourceMatcher sourceMatcher = new SourceMatcher();
+            sourceMatcher.withFilter(nullValue());
+
+            final CountDownLatch consumersCreated = new CountDownLatch(1);
+
+            testPeer.expectReceiverAttach(notNullValue(), sourceMatcher);
+            testPeer.expectLinkFlow();
+            testPeer.runAfterLastHandler(() -> {
+                try {
+                    consumersCreated.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            // The shared link belongs to the connection session rather than that of the consumers
+            testPeer.sendTransferToLastOpenedLinkOnSession(0, null, null, null, redProperties, new AmqpValueDescribedType("red"), 1);
+            testPeer.sendTransferToLastOpenedLinkOnSession(0, null, null, null, blueProperties, new AmqpValueDescribedType("blue"), 2);
+
+            MessageConsumer redConsumer = session.createConsumer(topic, "color = 'red'");
+            MessageConsumer allConsumer = session.createConsumer(topic);
+            assertEquals("color = 'red'", redConsumer.getMessageSelector());
+
+            consumersCreated.countDown();
+
+            Message message = allConsumer.receive(3000);
+            assertNotNull(message);
+            assertEquals("red", ((TextMessage) message).getText());
+            message = allConsumer.receive(3000);
+            assertNotNull(message);
+            assertEquals("blue", ((TextMessage) message).getText());
+
+            // Each message is settled once every consumer it was copied to has settled it
+            testPeer.expectDisposition(true, new AcceptedMatcher(), 1, 1);
+            testPeer.expectDisposition(true, new AcceptedMatcher(), 2, 2);
+
+            message = redConsumer.receive(3000);
+            assertNotNull(message);
+            assertEquals("red", ((TextMessage) message).getText());
+            assertNull(redConsumer.receiveNoWait());
+
+            testPeer.waitForAllHandlersToComplete(3000);
+
+            // The link is closed along with the last consumer using it
+            redConsumer.close();
+
+            testPeer.expectDetach(true, true, true);
+            allConsumer.close();
+
+            testPeer.waitForAllHandlersToComplete(3000);
+
+            testPeer.expectClose();
+            connection.close();
+
+            testPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
+
     @Test(timeout=20000)
     public void testRedeliveryPolicyOutcomeAppliedAccepted() throws Exception {
         doTestRedeliveryPolicyOutcomeApplied(1, false);
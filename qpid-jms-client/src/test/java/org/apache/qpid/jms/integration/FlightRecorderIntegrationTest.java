@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jakarta.jms.Connection;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.apache.qpid.jms.jfr.JmsEvents;
+import org.apache.qpid.jms.jfr.JmsFlightRecorder;
+import org.apache.qpid.jms.test.QpidJmsTestCase;
+import org.apache.qpid.jms.test.testpeer.TestAmqpPeer;
+import org.apache.qpid.jms.test.testpeer.describedtypes.sections.AmqpValueDescribedType;
+import org.apache.qpid.jms.test.testpeer.matchers.sections.TransferPayloadCompositeMatcher;
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class FlightRecorderIntegrationTest extends QpidJmsTestCase {
+
+    private final IntegrationTestFixture testFixture = new IntegrationTestFixture();
+
+    @Test(timeout = 20000)
+    public void testSendReceiveAndAcknowledgeAreRecorded() throws Exception {
+        List<RecordedEvent> events;
+
+        try (Recording recording = new Recording(JmsFlightRecorder.getConfiguration())) {
+            recording.start();
+
+            try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+                Connection connection = testFixture.establishConnecton(testPeer);
+                connection.start();
+
+                testPeer.expectBegin();
+                testPeer.expectSenderAttach();
+
+                Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+                Queue queue = session.createQueue("myQueue");
+                MessageProducer producer = session.createProducer(queue);
+
+                testPeer.expectTransfer(new TransferPayloadCompositeMatcher());
+
+                producer.send(session.createTextMessage("content"));
+
+                testPeer.expectReceiverAttach();
+                testPeer.expectLinkFlowRespondWithTransfer(null, null, null, null, new AmqpValueDescribedType("content"));
+                testPeer.expectDispositionThatIsAcceptedAndSettled();
+
+                MessageConsumer consumer = session.createConsumer(queue);
+                Message received = consumer.receive(3000);
+                assertNotNull(received);
+
+                testPeer.expectClose();
+                connection.close();
+
+                testPeer.waitForAllHandlersToComplete(1000);
+            }
+
+            events = stopAndRead(recording);
+        }
+
+        RecordedEvent send = single(events, "org.apache.qpid.jms.Send");
+        assertEquals("myQueue", send.getString("destination"));
+        assertNotNull(send.getString("producer"));
+        assertTrue(send.getBoolean("synchronous"));
+        assertTrue(send.getLong("encodeTime") > 0);
+
+        RecordedEvent settle = single(events, "org.apache.qpid.jms.Settle");
+        assertEquals(send.getString("producer"), settle.getString("producer"));
+        assertEquals("Accepted", settle.getString("outcome"));
+        assertTrue(settle.getLong("messageSize") > 0);
+        // The peer grants credit only after the attach so the send may or may not have waited on it
+        assertTrue(settle.hasField("creditBlocked"));
+
+        RecordedEvent delivery = single(events, "org.apache.qpid.jms.Delivery");
+        assertNotNull(delivery.getString("consumer"));
+        assertTrue(delivery.getBoolean("decoded"));
+        assertTrue(delivery.getLong("messageSize") > 0);
+
+        RecordedEvent acknowledge = single(events, "org.apache.qpid.jms.Acknowledge");
+        assertEquals("ACCEPTED", acknowledge.getString("ackType"));
+        assertTrue(acknowledge.getBoolean("individual"));
+
+        List<RecordedEvent> inputs = named(events, "org.apache.qpid.jms.Input");
+        assertFalse(inputs.isEmpty());
+        assertTrue(inputs.stream().allMatch(event -> event.getLong("bytes") > 0));
+
+        List<RecordedEvent> tasks = named(events, "org.apache.qpid.jms.ExecutorTask");
+        assertFalse(tasks.isEmpty());
+        assertTrue(tasks.stream().anyMatch(event -> event.getString("executor").startsWith("Serializer: ")));
+        assertTrue(tasks.stream().map(event -> event.getString("executor")).allMatch(
+            executor -> executor.startsWith("Serializer: ") || executor.startsWith("QpidJMS Connection Executor: ") || executor.startsWith("JmsSession [")));
+    }
+
+    @Test(timeout = 20000)
+    public void testFailoverConnectIsRecorded() throws Exception {
+        List<RecordedEvent> events;
+
+        try (Recording recording = new Recording(JmsFlightRecorder.getConfiguration())) {
+            recording.start();
+
+            try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+                testPeer.expectSaslAnonymous();
+                testPeer.expectOpen();
+                testPeer.expectBegin();
+
+                String remoteURI = "failover:(amqp://localhost:" + testPeer.getServerPort() + ")?failover.maxReconnectAttempts=1";
+                Connection connection = new JmsConnectionFactory(remoteURI).createConnection();
+                connection.start();
+
+                testPeer.expectClose();
+                connection.close();
+
+                testPeer.waitForAllHandlersToComplete(1000);
+            }
+
+            events = stopAndRead(recording);
+        }
+
+        RecordedEvent connect = single(events, "org.apache.qpid.jms.Failover");
+        assertEquals(JmsEvents.FAILOVER_CONNECT, connect.getString("phase"));
+        assertTrue(connect.getBoolean("succeeded"));
+        assertEquals(1, connect.getLong("attempt"));
+        assertTrue(connect.getString("remoteURI").startsWith("amqp://localhost:"));
+    }
+
+    private static List<RecordedEvent> stopAndRead(Recording recording) throws Exception {
+        recording.stop();
+
+        Path file = Files.createTempFile("qpid-jms-", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).collect(Collectors.toList());
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = named(events, name);
+        assertEquals("Unexpected number of " + name + " events", 1, matching.size());
+        return matching.get(0);
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.integration;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import jakarta.jms.Connection;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+
+import org.apache.qpid.jms.JmsConnection;
+import org.apache.qpid.jms.provider.amqp.AmqpFrameCapture;
+import org.apache.qpid.jms.provider.amqp.AmqpFrameCaptureDecoder;
+import org.apache.qpid.jms.provider.amqp.AmqpFrameRecorder;
+import org.apache.qpid.jms.provider.amqp.AmqpFrameReplayConnectionFactory;
+import org.apache.qpid.jms.provider.amqp.AmqpFrameReplayTransport;
+import org.apache.qpid.jms.test.QpidJmsTestCase;
+import org.apache.qpid.jms.test.testpeer.TestAmqpPeer;
+import org.apache.qpid.jms.test.testpeer.describedtypes.sections.AmqpValueDescribedType;
+import org.apache.qpid.jms.test.testpeer.matchers.sections.TransferPayloadCompositeMatcher;
+import org.apache.qpid.proton.amqp.UnsignedInteger;
+import org.junit.Test;
+
+public class FrameRecorderIntegrationTest extends QpidJmsTestCase {
+
+    private final IntegrationTestFixture testFixture = new IntegrationTestFixture();
+
+    @Test(timeout = 20000)
+    public void testFramesRecordedAndDecoded() throws Exception {
+        Path directory = Files.createTempDirectory("qpid-jms-frames");
+
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            Connection connection = testFixture.establishConnecton(testPeer, "?amqp.frameRecorderCapacity=65536");
+
+            testPeer.expectBegin();
+            testPeer.expectSenderAttach();
+
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            Queue queue = session.createQueue("myQueue");
+            MessageProducer producer = session.createProducer(queue);
+
+            testPeer.expectTransfer(new TransferPayloadCompositeMatcher());
+
+            producer.send(session.createTextMessage("content"));
+
+            AmqpFrameRecorder recorder = findRecorder((JmsConnection) connection);
+            assertNotNull("No frame recorder registered for the connection", recorder);
+
+            AmqpFrameCapture capture = AmqpFrameCapture.read(recorder.dumpTo(directory));
+            List<String> lines = render(capture);
+
+            assertTrue(lines.stream().anyMatch(line -> line.contains("SENT [0] HEADER SASL")));
+            assertTrue(lines.stream().anyMatch(line -> line.contains("RECV [0] HEADER AMQP")));
+            assertTrue(lines.stream().anyMatch(line -> line.contains("SENT [0] size=") && line.contains("Open{")));
+            assertTrue(lines.stream().anyMatch(line -> line.contains("RECV [0] size=") && line.contains("Open{")));
+            assertTrue(lines.stream().anyMatch(line -> line.contains("SENT [1] size=") && line.contains("Begin{")));
+            assertTrue(lines.stream().anyMatch(line -> line.contains("SENT") && line.contains("handle=0") && line.contains("Attach{")));
+            assertTrue(lines.stream().anyMatch(line -> line.contains("SENT") && line.contains("handle=0 payload=") && line.contains("Transfer{")));
+            assertTrue(lines.stream().anyMatch(line -> line.contains("RECV") && line.contains("Disposition{")));
+
+            testPeer.expectClose();
+            connection.close();
+
+            testPeer.waitForAllHandlersToComplete(1000);
+
+            assertFalse(AmqpFrameRecorder.getRecorders().contains(recorder));
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testFramesDumpedWhenConnectionFails() throws Exception {
+        Path directory = Files.createTempDirectory("qpid-jms-frames");
+
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            final CountDownLatch failed = new CountDownLatch(1);
+
+            Connection connection = testFixture.establishConnecton(testPeer,
+                "?amqp.frameRecorderCapacity=65536&amqp.frameRecorderDumpDirectory=" + directory.toUri().getPath());
+            connection.setExceptionListener(ex -> failed.countDown());
+
+            // Expect the begin, then drop connection without a close frame.
+            testPeer.expectBegin(notNullValue(), false);
+            testPeer.dropAfterLastHandler();
+
+            try {
+                connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+                fail("Expected exception to be thrown");
+            } catch (JMSException jmse) {
+                // Expected
+            }
+
+            assertTrue("Connection did not fail", failed.await(5, TimeUnit.SECONDS));
+
+            List<Path> dumps;
+            try (Stream<Path> files = Files.list(directory)) {
+                dumps = files.collect(Collectors.toList());
+            }
+
+            assertEquals(1, dumps.size());
+            assertTrue(dumps.get(0).getFileName().toString().endsWith(".qjfr"));
+
+            AmqpFrameCapture capture = AmqpFrameCapture.read(dumps.get(0));
+            assertTrue(capture.getName().startsWith(((JmsConnection) connection).getId().toString()));
+            assertTrue(render(capture).stream().anyMatch(line -> line.contains("RECV [0] size=") && line.contains("Open{")));
+
+            connection.close();
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testRecordedFramesReplayedWithoutPeer() throws Exception {
+        final int messageCount = 5;
+
+        AmqpFrameCapture capture;
+
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            Connection connection = testFixture.establishConnecton(testPeer,
+                "?amqp.frameRecorderCapacity=1048576&amqp.frameRecorderPayloadLimit=65536");
+            connection.start();
+
+            testPeer.expectBegin();
+
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            Queue queue = session.createQueue("myQueue");
+
+            testPeer.expectReceiverAttach();
+            testPeer.expectLinkFlowRespondWithTransfer(null, null, null, null, new AmqpValueDescribedType("content"), messageCount,
+                                                       false, false, greaterThanOrEqualTo(UnsignedInteger.valueOf(messageCount)), 1, true);
+            for (int i = 0; i < messageCount; ++i) {
+                testPeer.expectDispositionThatIsAcceptedAndSettled();
+            }
+
+            MessageConsumer consumer = session.createConsumer(queue);
+            for (int i = 0; i < messageCount; ++i) {
+                assertNotNull(consumer.receive(3000));
+            }
+
+            testPeer.waitForAllHandlersToComplete(1000);
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            findRecorder((JmsConnection) connection).dump(output);
+            capture = AmqpFrameCapture.read(new ByteArrayInputStream(output.toByteArray()));
+
+            testPeer.expectClose();
+            connection.close();
+
+            testPeer.waitForAllHandlersToComplete(1000);
+        }
+
+        // Repeat what was done above with the capture standing in for the peer.
+        AmqpFrameReplayConnectionFactory factory = new AmqpFrameReplayConnectionFactory(capture);
+
+        Connection connection = factory.createConnection("guest", "guest");
+        connection.start();
+
+        Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        MessageConsumer consumer = session.createConsumer(session.createQueue("myQueue"));
+
+        for (int i = 0; i < messageCount; ++i) {
+            Message message = consumer.receive(3000);
+            assertNotNull(message);
+            assertEquals("content", ((TextMessage) message).getText());
+            assertEquals(i, message.getIntProperty(TestAmqpPeer.MESSAGE_NUMBER));
+        }
+
+        AmqpFrameReplayTransport transport = factory.getTransport();
+        transport.getReplayCompletion().toCompletableFuture().get(5, TimeUnit.SECONDS);
+        assertEquals(transport.getFrameCount(), transport.getFramesReplayed());
+
+        // The capture ends before the connection was closed, the close is answered regardless.
+        connection.close();
+        assertFalse(transport.isConnected());
+    }
+
+    private static AmqpFrameRecorder findRecorder(JmsConnection connection) {
+        String prefix = connection.getId() + "@";
+        return AmqpFrameRecorder.getRecorders().stream()
+                                               .filter(recorder -> recorder.getName().startsWith(prefix))
+                                               .findFirst()
+                                               .orElse(null);
+    }
+
+    private static List<String> render(AmqpFrameCapture capture) {
+        AmqpFrameCaptureDecoder decoder = new AmqpFrameCaptureDecoder();
+        return capture.getFrames().stream().map(decoder::render).collect(Collectors.toList());
+    }
+}
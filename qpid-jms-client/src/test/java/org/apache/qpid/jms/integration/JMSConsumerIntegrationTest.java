@@ -18,6 +18,7 @@
  */
 package org.apache.qpid.jms.integration;
 
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -30,6 +31,8 @@ import java.io.ObjectOutputStream;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import jakarta.jms.IllegalStateRuntimeException;
 import jakarta.jms.JMSConsumer;
@@ -40,6 +43,7 @@ import jakarta.jms.MessageFormatRuntimeException;
 import jakarta.jms.MessageListener;
 import jakarta.jms.Queue;
 
+import org.apache.qpid.jms.JmsConsumer;
 import org.apache.qpid.jms.provider.amqp.message.AmqpMessageSupport;
 import org.apache.qpid.jms.test.QpidJmsTestCase;
 import org.apache.qpid.jms.test.Wait;
@@ -151,6 +155,88 @@ public class JMSConsumerIntegrationTest extends QpidJmsTestCase {
         }
     }
 
+    @Test(timeout = 20000)
+    public void testReceiveAsyncCompletesWithMessageThenNullOnTimeout() throws Exception {
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            JMSContext context = testFixture.createJMSContext(testPeer);
+
+            testPeer.expectBegin();
+
+            Queue queue = context.createQueue("myQueue");
+
+            final String content = "Message-Content";
+            DescribedType amqpValueContent = new AmqpValueDescribedType(content);
+
+            testPeer.expectReceiverAttach();
+            testPeer.expectLinkFlowRespondWithTransfer(null, null, null, null, amqpValueContent);
+            testPeer.expectDispositionThatIsAcceptedAndSettled();
+
+            JmsConsumer messageConsumer = (JmsConsumer) context.createConsumer(queue);
+
+            Message receivedMessage = messageConsumer.receiveAsync(3000).toCompletableFuture().get(5, TimeUnit.SECONDS);
+            assertNotNull("A message should have been recieved", receivedMessage);
+            assertEquals(content, receivedMessage.getBody(String.class));
+
+            assertNull(messageConsumer.receiveAsync(50).toCompletableFuture().get(5, TimeUnit.SECONDS));
+
+            testPeer.waitForAllHandlersToComplete(2000);
+
+            // A receive still outstanding is completed when the consumer closes.
+            CompletableFuture<Message> outstanding = messageConsumer.receiveAsync(0).toCompletableFuture();
+
+            testPeer.expectEnd();
+            testPeer.expectClose();
+            context.close();
+
+            assertNull(outstanding.get(5, TimeUnit.SECONDS));
+
+            testPeer.waitForAllHandlersToComplete(2000);
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testReceiveAsyncPullsForZeroPrefetchConsumer() throws Exception {
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            JMSContext context = testFixture.createJMSContext(testPeer, "?jms.prefetchPolicy.all=0");
+
+            testPeer.expectBegin();
+
+            Queue queue = context.createQueue("myQueue");
+
+            DescribedType amqpValueNullContent = new AmqpValueDescribedType(null);
+
+            testPeer.expectReceiverAttach();
+
+            JmsConsumer messageConsumer = (JmsConsumer) context.createConsumer(queue);
+
+            testPeer.waitForAllHandlersToComplete(1000);
+
+            // A receive without a timeout grants a single credit and waits for the message.
+            testPeer.expectLinkFlowRespondWithTransfer(null, null, null, null, amqpValueNullContent, 1, false, false,
+                                                       equalTo(UnsignedInteger.ONE), 1, false);
+            testPeer.expectDispositionThatIsAcceptedAndSettled();
+
+            Message receivedMessage = messageConsumer.receiveAsync(0).toCompletableFuture().get(5, TimeUnit.SECONDS);
+            assertNotNull("A message should have been recieved", receivedMessage);
+
+            testPeer.waitForAllHandlersToComplete(1000);
+
+            // A timed receive drains the credit it granted once the timeout elapses.
+            testPeer.expectLinkFlow(false, false, equalTo(UnsignedInteger.ONE));
+            testPeer.expectLinkFlow(true, true, equalTo(UnsignedInteger.ONE));
+
+            assertNull(messageConsumer.receiveAsync(50).toCompletableFuture().get(5, TimeUnit.SECONDS));
+
+            testPeer.waitForAllHandlersToComplete(1000);
+
+            testPeer.expectEnd();
+            testPeer.expectClose();
+            context.close();
+
+            testPeer.waitForAllHandlersToComplete(2000);
+        }
+    }
+
     @Test(timeout=20000)
     public void testConsumerReceiveNoWaitThrowsIfConnectionLost() throws Exception {
         try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
@@ -226,4 +226,53 @@ public class JMSProducerIntegrationTest extends QpidJmsTestCase {
             testPeer.waitForAllHandlersToComplete(1000);
         }
     }
+
+    @Test(timeout = 20000)
+    public void testJMSProducerPropertiesCombineWithMessagePropertiesAcrossSends() throws Exception {
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            JMSContext context = testFixture.createJMSContext(testPeer, SERVER_ANONYMOUS_RELAY);
+            testPeer.expectBegin();
+            testPeer.expectSenderAttach();
+
+            String queueName = "myQueue";
+            Queue queue = context.createQueue(queueName);
+            JMSProducer producer = context.createProducer();
+
+            producer.setProperty(STRING_PROP, STRING_PROP_VALUE);
+            producer.setProperty(INT_PROP, INT_PROP_VALUE);
+
+            for (int i = 0; i < 3; ++i) {
+                if (i == 2) {
+                    producer.setProperty(INT_PROP, INT_PROP_VALUE - i);
+                }
+
+                ApplicationPropertiesSectionMatcher appPropsMatcher = new ApplicationPropertiesSectionMatcher(true);
+                appPropsMatcher.withEntry(STRING_PROP, equalTo(STRING_PROP_VALUE));
+                appPropsMatcher.withEntry(INT_PROP, equalTo(i == 2 ? INT_PROP_VALUE - i : INT_PROP_VALUE));
+                appPropsMatcher.withEntry(LONG_PROP, equalTo(LONG_PROP_VALUE - i));
+
+                TransferPayloadCompositeMatcher messageMatcher = new TransferPayloadCompositeMatcher();
+                messageMatcher.setHeadersMatcher(new MessageHeaderSectionMatcher(true));
+                messageMatcher.setMessageAnnotationsMatcher(new MessageAnnotationsSectionMatcher(true));
+                messageMatcher.setPropertiesMatcher(new MessagePropertiesSectionMatcher(true).withTo(equalTo(queueName)));
+                messageMatcher.setApplicationPropertiesMatcher(appPropsMatcher);
+                testPeer.expectTransfer(messageMatcher);
+
+                Message message = context.createMessage();
+                message.setLongProperty(LONG_PROP, LONG_PROP_VALUE - i);
+
+                producer.send(queue, message);
+
+                assertEquals(STRING_PROP_VALUE, message.getStringProperty(STRING_PROP));
+                assertEquals(LONG_PROP_VALUE - i, message.getLongProperty(LONG_PROP));
+            }
+
+            testPeer.expectEnd();
+            testPeer.expectClose();
+
+            context.close();
+
+            testPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
 }
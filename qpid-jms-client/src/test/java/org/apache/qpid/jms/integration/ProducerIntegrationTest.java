@@ -37,17 +37,24 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.LockSupport;
 
@@ -65,13 +72,17 @@ import jakarta.jms.ResourceAllocationException;
 import jakarta.jms.Session;
 import jakarta.jms.TextMessage;
 import jakarta.jms.Topic;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import org.apache.qpid.jms.JmsConnection;
 import org.apache.qpid.jms.JmsConnectionFactory;
 import org.apache.qpid.jms.JmsDefaultConnectionListener;
 import org.apache.qpid.jms.JmsMessageProducer;
+import org.apache.qpid.jms.JmsMessageSink;
 import org.apache.qpid.jms.JmsOperationTimedOutException;
 import org.apache.qpid.jms.JmsSendTimedOutException;
+import org.apache.qpid.jms.JmsSession;
 import org.apache.qpid.jms.message.foreign.ForeignJmsMessage;
 import org.apache.qpid.jms.provider.amqp.message.AmqpMessageIdHelper;
 import org.apache.qpid.jms.provider.amqp.message.AmqpMessageSupport;
@@ -230,6 +241,40 @@ public class ProducerIntegrationTest extends QpidJmsTestCase {
         }
     }
 
+    @Test(timeout = 20000)
+    public void testSyncSendMetricsExportedToJmx() throws Exception {
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            Connection connection = testFixture.establishConnecton(testPeer, "?jms.metrics=jmx");
+            testPeer.expectBegin();
+            testPeer.expectSenderAttach();
+
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            Queue queue = session.createQueue("myQueue");
+            MessageProducer producer = session.createProducer(queue);
+
+            // The first producer of the first session on the connection.
+            String producerId = ((JmsConnection) connection).getId() + ":1:1";
+
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("org.apache.qpid.jms:type=Producer,id=" + ObjectName.quote(producerId));
+            assertTrue(server.isRegistered(name));
+
+            testPeer.expectTransfer(new TransferPayloadCompositeMatcher());
+
+            producer.send(session.createTextMessage());
+
+            assertEquals(1L, server.getAttribute(name, "messagesSent"));
+            assertEquals(1L, server.getAttribute(name, "syncSendTimeCount"));
+
+            testPeer.expectClose();
+            connection.close();
+
+            assertFalse(server.isRegistered(name));
+
+            testPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
+
     @Test(timeout = 20000)
     public void testProducerOverridesMessageDeliveryMode() throws Exception {
         try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
@@ -955,6 +1000,70 @@ public class ProducerIntegrationTest extends QpidJmsTestCase {
         }
     }
 
+    @Test(timeout=20000)
+    public void testSendingMessageWithBinaryMessageIdFormat() throws Exception {
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            // DONT create a test fixture, we will drive everything directly.
+            String uri = "amqp://127.0.0.1:" + testPeer.getServerPort() + "?jms.messageIDPolicy.messageIDType=BINARY";
+            JmsConnectionFactory factory = new JmsConnectionFactory(uri);
+
+            testPeer.expectSaslAnonymous();
+            testPeer.expectOpen();
+            testPeer.expectBegin();
+            testPeer.expectBegin();
+            testPeer.expectSenderAttach();
+
+            Connection connection = factory.createConnection();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            String queueName = "myQueue";
+            Queue queue = session.createQueue(queueName);
+            MessageProducer producer = session.createProducer(queue);
+
+            String text = "myMessage";
+            MessageHeaderSectionMatcher headersMatcher = new MessageHeaderSectionMatcher(true).withDurable(equalTo(true));
+            MessageAnnotationsSectionMatcher msgAnnotationsMatcher = new MessageAnnotationsSectionMatcher(true);
+            MessagePropertiesSectionMatcher propsMatcher1 = new MessagePropertiesSectionMatcher(true).withMessageId(isA(Binary.class));
+            TransferPayloadCompositeMatcher messageMatcher1 = new TransferPayloadCompositeMatcher();
+            messageMatcher1.setHeadersMatcher(headersMatcher);
+            messageMatcher1.setMessageAnnotationsMatcher(msgAnnotationsMatcher);
+            messageMatcher1.setPropertiesMatcher(propsMatcher1);
+            messageMatcher1.setMessageContentMatcher(new EncodedAmqpValueMatcher(text));
+            testPeer.expectTransfer(messageMatcher1);
+
+            MessagePropertiesSectionMatcher propsMatcher2 = new MessagePropertiesSectionMatcher(true).withMessageId(isA(Binary.class));
+            TransferPayloadCompositeMatcher messageMatcher2 = new TransferPayloadCompositeMatcher();
+            messageMatcher2.setHeadersMatcher(headersMatcher);
+            messageMatcher2.setMessageAnnotationsMatcher(msgAnnotationsMatcher);
+            messageMatcher2.setPropertiesMatcher(propsMatcher2);
+            messageMatcher2.setMessageContentMatcher(new EncodedAmqpValueMatcher(text));
+            testPeer.expectTransfer(messageMatcher2);
+            testPeer.expectClose();
+
+            Message message1 = session.createTextMessage(text);
+            Message message2 = session.createTextMessage(text);
+
+            producer.send(message1);
+            producer.send(message2);
+
+            String jmsMessageID = message1.getJMSMessageID();
+            assertNotNull("JMSMessageID should be set", jmsMessageID);
+            assertTrue("Expected binary JMSMessageID", jmsMessageID.startsWith("ID:AMQP_BINARY:"));
+            assertFalse("Expected unique JMSMessageID", jmsMessageID.equals(message2.getJMSMessageID()));
+
+            connection.close();
+            testPeer.waitForAllHandlersToComplete(1000);
+
+            // Both ids share the producer prefix, the first message sequence is one byte long.
+            Binary receivedMessageId1 = (Binary) propsMatcher1.getReceivedMessageId();
+            Binary receivedMessageId2 = (Binary) propsMatcher2.getReceivedMessageId();
+
+            assertEquals(17, receivedMessageId1.getLength());
+            assertEquals(17, receivedMessageId2.getLength());
+            assertEquals(receivedMessageId1.asByteBuffer().limit(16), receivedMessageId2.asByteBuffer().limit(16));
+            assertEquals(jmsMessageID, AmqpMessageIdHelper.toMessageIdString(receivedMessageId1));
+        }
+    }
+
     /**
      * Test that after sending a message with the disableMessageID hint set, the message
      * object has a null JMSMessageID value, and no message-id field value was set.
@@ -3166,4 +3275,128 @@ public class ProducerIntegrationTest extends QpidJmsTestCase {
             testPeer.waitForAllHandlersToComplete(1000);
         }
     }
+
+    @Test(timeout = 20000)
+    public void testMessageSinkRequestsOnlyOnceProducerHasCredit() throws Exception {
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            JmsConnection connection = (JmsConnection) testFixture.establishConnecton(testPeer);
+
+            testPeer.expectBegin();
+
+            JmsSession session = (JmsSession) connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            Queue queue = session.createQueue("myQueue");
+
+            // Expect the producer to attach. Delay sending credit when it does.
+            testPeer.expectSenderAttach(1000);
+
+            JmsMessageSink sink = session.createSink(queue, 2);
+
+            final int count = 3;
+            for (int i = 0; i < count; ++i) {
+                testPeer.expectTransfer(new TransferPayloadCompositeMatcher());
+            }
+            testPeer.expectDetach(true, true, true);
+
+            final List<Message> messages = new ArrayList<>();
+            for (int i = 0; i < count; ++i) {
+                messages.add(session.createTextMessage("text" + i));
+            }
+
+            final AtomicLong requested = new AtomicLong();
+
+            sink.onSubscribe(new Flow.Subscription() {
+
+                private int next;
+
+                @Override
+                public void request(long n) {
+                    requested.addAndGet(n);
+                    for (long i = 0; i < n && next < count; ++i) {
+                        sink.onNext(messages.get(next++));
+                    }
+
+                    if (next == count) {
+                        next++;
+                        sink.onComplete();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+
+            assertEquals("Should not request messages before the producer has credit", 0, requested.get());
+
+            sink.getCompletion().toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+            assertEquals(count, requested.get());
+
+            testPeer.waitForAllHandlersToComplete(2000);
+
+            testPeer.expectClose();
+            connection.close();
+
+            testPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testMessageSinkCloseCompletesOnlyOnceInFlightSendsSettle() throws Exception {
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            JmsConnection connection = (JmsConnection) testFixture.establishConnecton(testPeer);
+
+            testPeer.expectBegin();
+            testPeer.expectSenderAttach();
+
+            JmsSession session = (JmsSession) connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            Queue queue = session.createQueue("myQueue");
+
+            JmsMessageSink sink = session.createSink(queue, 1);
+
+            // The outcome of the send arrives only after the sink has been closed.
+            testPeer.expectTransfer(new TransferPayloadCompositeMatcher(), null, nullValue(), false, true, new Rejected(), true, 0, 200);
+            testPeer.expectDetach(true, true, true);
+
+            final Message message = session.createTextMessage("text");
+            final CountDownLatch sent = new CountDownLatch(1);
+            final AtomicBoolean cancelled = new AtomicBoolean();
+
+            sink.onSubscribe(new Flow.Subscription() {
+
+                @Override
+                public void request(long n) {
+                    if (sent.getCount() > 0) {
+                        sink.onNext(message);
+                        sent.countDown();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled.set(true);
+                }
+            });
+
+            assertTrue("Message was not sent", sent.await(5, TimeUnit.SECONDS));
+
+            sink.close();
+
+            assertTrue("Upstream should be cancelled on close", cancelled.get());
+
+            try {
+                sink.getCompletion().toCompletableFuture().get(5, TimeUnit.SECONDS);
+                fail("Sink should complete exceptionally when a send in flight on close fails");
+            } catch (ExecutionException expected) {
+                LOG.trace("Sink completed with expected failure", expected.getCause());
+            }
+
+            testPeer.waitForAllHandlersToComplete(2000);
+
+            testPeer.expectClose();
+            connection.close();
+
+            testPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
 }
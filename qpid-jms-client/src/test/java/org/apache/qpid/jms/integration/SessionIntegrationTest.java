@@ -37,6 +37,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
@@ -64,6 +65,8 @@ import jakarta.jms.TopicSubscriber;
 
 import org.apache.qpid.jms.JmsConnection;
 import org.apache.qpid.jms.JmsDefaultConnectionListener;
+import org.apache.qpid.jms.JmsMessageConsumer;
+import org.apache.qpid.jms.JmsMessageProducer;
 import org.apache.qpid.jms.JmsOperationTimedOutException;
 import org.apache.qpid.jms.JmsSession;
 import org.apache.qpid.jms.message.JmsInboundMessageDispatch;
@@ -1526,6 +1529,163 @@ public class SessionIntegrationTest extends QpidJmsTestCase {
         }
     }
 
+    @Test(timeout = 20000)
+    public void testCreateProducerAsyncAllowsSendBeforeAttachCompletes() throws Exception {
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            Connection connection = testFixture.establishConnecton(testPeer);
+            connection.start();
+
+            testPeer.expectBegin();
+            JmsSession session = (JmsSession) connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+
+            String queueName = "myQueue";
+            Queue queue = session.createQueue(queueName);
+
+            TargetMatcher targetMatcher = new TargetMatcher();
+            targetMatcher.withAddress(equalTo(queueName));
+
+            testPeer.expectSenderAttach(targetMatcher, false, true);
+
+            MessageHeaderSectionMatcher headersMatcher = new MessageHeaderSectionMatcher(true);
+            TransferPayloadCompositeMatcher messageMatcher = new TransferPayloadCompositeMatcher();
+            messageMatcher.setHeadersMatcher(headersMatcher);
+
+            testPeer.expectTransfer(messageMatcher);
+            testPeer.expectClose();
+
+            JmsMessageProducer producer = session.createProducerAsync(queue);
+            producer.send(session.createMessage());
+
+            producer.getCreationStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+            connection.close();
+
+            testPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testCreateProducerAsyncFailsCreationStageWhenLinkRefused() throws Exception {
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            Connection connection = testFixture.establishConnecton(testPeer);
+            connection.start();
+
+            testPeer.expectBegin();
+            JmsSession session = (JmsSession) connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+
+            String topicName = "myTopic";
+            Topic dest = session.createTopic(topicName);
+
+            TargetMatcher targetMatcher = new TargetMatcher();
+            targetMatcher.withAddress(equalTo(topicName));
+            targetMatcher.withDynamic(equalTo(false));
+            targetMatcher.withDurable(equalTo(TerminusDurability.NONE));
+
+            testPeer.expectSenderAttach(targetMatcher, true, false);
+            testPeer.expectDetach(true, false, false);
+            testPeer.expectClose();
+
+            JmsMessageProducer producer = session.createProducerAsync(dest);
+
+            try {
+                producer.getCreationStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+                fail("Producer creation should have failed when link was refused");
+            } catch (ExecutionException ee) {
+                assertTrue(ee.getCause() instanceof InvalidDestinationException);
+            }
+
+            assertTrue("Producer should be closed", Wait.waitFor(() -> {
+                try {
+                    producer.getDestination();
+                    return false;
+                } catch (IllegalStateException ise) {
+                    return true;
+                }
+            }, 5000, 10));
+
+            connection.close();
+
+            testPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testCreateConsumerAsyncPipelinesLinkAttach() throws Exception {
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            JmsConnection connection = (JmsConnection) testFixture.establishConnecton(testPeer);
+            ((JmsDefaultPrefetchPolicy) connection.getPrefetchPolicy()).setAll(0);
+
+            testPeer.expectBegin();
+            JmsSession session = (JmsSession) connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+
+            Queue queue = session.createQueue("myQueue");
+
+            final int count = 3;
+            for (int i = 0; i < count; i++) {
+                testPeer.expectReceiverAttach();
+            }
+
+            List<JmsMessageConsumer> consumers = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                consumers.add(session.createConsumerAsync(queue));
+            }
+
+            for (JmsMessageConsumer consumer : consumers) {
+                consumer.getCreationStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+            }
+
+            testPeer.waitForAllHandlersToComplete(1000);
+
+            testPeer.expectClose();
+            connection.close();
+
+            testPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testSessionCloseClosesProducerAndConsumerStillAttaching() throws Exception {
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            Connection connection = testFixture.establishConnecton(testPeer);
+            connection.start();
+
+            testPeer.expectBegin();
+            JmsSession session = (JmsSession) connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+
+            Queue queue = session.createQueue("myQueue");
+
+            testPeer.expectSenderAttachButDoNotRespond();
+            testPeer.expectReceiverAttachButDoNotRespond();
+
+            JmsMessageProducer producer = session.createProducerAsync(queue);
+            JmsMessageConsumer consumer = session.createConsumerAsync(queue);
+
+            testPeer.waitForAllHandlersToComplete(1000);
+
+            testPeer.expectEnd();
+            session.close();
+
+            try {
+                producer.getDestination();
+                fail("Producer should be closed along with its session");
+            } catch (IllegalStateException ise) {
+                // Expected
+            }
+
+            try {
+                consumer.getMessageSelector();
+                fail("Consumer should be closed along with its session");
+            } catch (IllegalStateException ise) {
+                // Expected
+            }
+
+            testPeer.expectClose();
+            connection.close();
+
+            testPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
+
     @Test(timeout = 20000)
     public void testCreateProducerFailsWhenLinkRefusedNoDetachSent() throws Exception {
         try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
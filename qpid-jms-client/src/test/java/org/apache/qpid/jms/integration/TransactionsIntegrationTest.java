@@ -32,7 +32,9 @@ import static org.junit.Assert.fail;
 import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -47,6 +49,7 @@ import jakarta.jms.TextMessage;
 import jakarta.jms.TransactionRolledBackException;
 
 import org.apache.qpid.jms.JmsConnection;
+import org.apache.qpid.jms.JmsSession;
 import org.apache.qpid.jms.JmsDefaultConnectionListener;
 import org.apache.qpid.jms.JmsOperationTimedOutException;
 import org.apache.qpid.jms.exceptions.JmsConnectionFailedException;
@@ -187,6 +190,166 @@ public class TransactionsIntegrationTest extends QpidJmsTestCase {
         }
     }
 
+    @Test(timeout=20000)
+    public void testCommitAsyncDeclaresNextTransactionForLaterWork() throws Exception {
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            JmsConnection connection = (JmsConnection) testFixture.establishConnecton(testPeer);
+            connection.start();
+
+            testPeer.expectBegin();
+            testPeer.expectCoordinatorAttach();
+
+            Binary txnId1 = new Binary(new byte[]{ (byte) 5, (byte) 6, (byte) 7, (byte) 8});
+            testPeer.expectDeclare(txnId1);
+
+            JmsSession session = (JmsSession) connection.createSession(true, Session.SESSION_TRANSACTED);
+            Queue queue = session.createQueue("myQueue");
+
+            testPeer.expectSenderAttach();
+            MessageProducer producer = session.createProducer(queue);
+
+            expectTransactedTransfer(testPeer, txnId1);
+            producer.send(session.createMessage());
+
+            // The discharge and the declare of the next transaction are sent together.
+            Binary txnId2 = new Binary(new byte[]{ (byte) 1, (byte) 2, (byte) 3, (byte) 4});
+            testPeer.expectDischarge(txnId1, false);
+            testPeer.expectDeclare(txnId2);
+
+            CompletableFuture<Void> commit = session.commitAsync().toCompletableFuture();
+
+            // Work performed after the commit request must be enrolled in the next transaction.
+            expectTransactedTransfer(testPeer, txnId2);
+            producer.send(session.createMessage());
+
+            commit.get(5, TimeUnit.SECONDS);
+
+            testPeer.expectDischarge(txnId2, true);
+            testPeer.expectClose();
+            connection.close();
+
+            testPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
+
+    @Test(timeout=20000)
+    public void testCommitAsyncFailureCompletesStageExceptionally() throws Exception {
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            JmsConnection connection = (JmsConnection) testFixture.establishConnecton(testPeer);
+            connection.start();
+
+            testPeer.expectBegin();
+            testPeer.expectCoordinatorAttach();
+
+            Binary txnId1 = new Binary(new byte[]{ (byte) 5, (byte) 6, (byte) 7, (byte) 8});
+            testPeer.expectDeclare(txnId1);
+
+            JmsSession session = (JmsSession) connection.createSession(true, Session.SESSION_TRANSACTED);
+            Queue queue = session.createQueue("myQueue");
+
+            testPeer.expectSenderAttach();
+            MessageProducer producer = session.createProducer(queue);
+
+            expectTransactedTransfer(testPeer, txnId1);
+            producer.send(session.createMessage());
+
+            Binary txnId2 = new Binary(new byte[]{ (byte) 1, (byte) 2, (byte) 3, (byte) 4});
+            testPeer.expectDischarge(txnId1, false, new Rejected());
+            testPeer.expectDeclare(txnId2);
+
+            try {
+                session.commitAsync().toCompletableFuture().get(5, TimeUnit.SECONDS);
+                fail("Commit operation should have failed.");
+            } catch (ExecutionException ex) {
+                assertTrue(ex.getCause() instanceof TransactionRolledBackException);
+            }
+
+            // session should roll back on close
+            testPeer.expectDischarge(txnId2, true);
+            testPeer.expectClose();
+            connection.close();
+
+            testPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
+
+    @Test(timeout=20000)
+    public void testGroupCommitCompletesEachCommitOfTheWindow() throws Exception {
+        try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
+            JmsConnection connection = (JmsConnection) testFixture.establishConnecton(testPeer, "?amqp.groupCommitWindow=50000");
+            connection.start();
+
+            Binary txnId1 = new Binary(new byte[]{ (byte) 5, (byte) 6, (byte) 7, (byte) 8});
+            Binary txnId2 = new Binary(new byte[]{ (byte) 1, (byte) 2, (byte) 3, (byte) 4});
+            Binary txnId3 = new Binary(new byte[]{ (byte) 9, (byte) 10, (byte) 11, (byte) 12});
+            Binary txnId4 = new Binary(new byte[]{ (byte) 13, (byte) 14, (byte) 15, (byte) 16});
+
+            testPeer.expectBegin();
+            testPeer.expectCoordinatorAttach();
+            testPeer.expectDeclare(txnId1);
+
+            JmsSession session1 = (JmsSession) connection.createSession(true, Session.SESSION_TRANSACTED);
+
+            testPeer.expectBegin();
+            testPeer.expectCoordinatorAttach();
+            testPeer.expectDeclare(txnId2);
+
+            JmsSession session2 = (JmsSession) connection.createSession(true, Session.SESSION_TRANSACTED);
+
+            testPeer.expectSenderAttach();
+            MessageProducer producer1 = session1.createProducer(session1.createQueue("myQueue"));
+            testPeer.expectSenderAttach();
+            MessageProducer producer2 = session2.createProducer(session2.createQueue("myQueue"));
+
+            expectTransactedTransfer(testPeer, txnId1);
+            producer1.send(session1.createMessage());
+            expectTransactedTransfer(testPeer, txnId2);
+            producer2.send(session2.createMessage());
+
+            testPeer.expectDischarge(txnId1, false);
+            testPeer.expectDeclare(txnId3);
+            testPeer.expectDischarge(txnId2, false);
+            testPeer.expectDeclare(txnId4);
+
+            CompletableFuture<Void> commit1 = session1.commitAsync().toCompletableFuture();
+            CompletableFuture<Void> commit2 = session2.commitAsync().toCompletableFuture();
+
+            commit1.get(5, TimeUnit.SECONDS);
+            commit2.get(5, TimeUnit.SECONDS);
+
+            testPeer.waitForAllHandlersToComplete(1000);
+
+            testPeer.expectDischarge(txnId3, true);
+            testPeer.expectEnd();
+            session1.close();
+
+            testPeer.expectDischarge(txnId4, true);
+            testPeer.expectEnd();
+            session2.close();
+
+            testPeer.expectClose();
+            connection.close();
+
+            testPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
+
+    private void expectTransactedTransfer(TestAmqpPeer testPeer, Binary txnId) {
+        TransferPayloadCompositeMatcher messageMatcher = new TransferPayloadCompositeMatcher();
+        messageMatcher.setHeadersMatcher(new MessageHeaderSectionMatcher(true));
+        messageMatcher.setMessageAnnotationsMatcher(new MessageAnnotationsSectionMatcher(true));
+
+        TransactionalStateMatcher stateMatcher = new TransactionalStateMatcher();
+        stateMatcher.withTxnId(equalTo(txnId));
+        stateMatcher.withOutcome(nullValue());
+
+        TransactionalState txState = new TransactionalState();
+        txState.setTxnId(txnId);
+        txState.setOutcome(new Accepted());
+
+        testPeer.expectTransfer(messageMatcher, stateMatcher, txState, true);
+    }
+
     @Test(timeout=20000)
     public void testProducedMessagesAfterCommitOfSentMessagesFails() throws Exception {
         try (TestAmqpPeer testPeer = new TestAmqpPeer();) {
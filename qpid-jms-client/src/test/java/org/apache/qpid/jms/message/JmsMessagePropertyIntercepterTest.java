@@ -69,6 +69,18 @@ public class JmsMessagePropertyIntercepterTest {
         Mockito.verify(facade).getProperty(Mockito.anyString());
     }
 
+    @Test
+    public void testGetPropertyWithJMSPrefixedNonInterceptedNameCallsIntoFacade() throws JMSException {
+        JmsMessageFacade facade = Mockito.mock(JmsMessageFacade.class);
+        JmsMessage message = Mockito.mock(JmsMapMessage.class);
+        Mockito.when(message.getFacade()).thenReturn(facade);
+        Mockito.when(facade.getProperty("JMSTypeX")).thenReturn("application");
+        Mockito.when(facade.getProperty("JMSX")).thenReturn("vendor");
+        assertEquals("application", JmsMessagePropertyIntercepter.getProperty(message, "JMSTypeX"));
+        assertEquals("vendor", JmsMessagePropertyIntercepter.getProperty(message, "JMSX"));
+        Mockito.verify(facade, Mockito.never()).getType();
+    }
+
     @Test
     public void testSetPropertyWithNonInterceptedNameCallsIntoFacade() throws JMSException {
         JmsMessageFacade facade = Mockito.mock(JmsMessageFacade.class);
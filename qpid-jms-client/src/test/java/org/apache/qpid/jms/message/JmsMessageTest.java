@@ -483,6 +483,35 @@ public class JmsMessageTest {
         assertTrue(msg.getIntProperty(name) == 1);
     }
 
+    @Test
+    public void testGetPrimitivePropertiesWithWideningConversions() throws JMSException {
+        JmsMessage msg = factory.createMessage();
+        msg.setByteProperty("byteProperty", (byte) 7);
+        msg.setFloatProperty("floatProperty", 1.5f);
+        msg.setStringProperty("stringProperty", "42");
+
+        assertEquals(7, msg.getShortProperty("byteProperty"));
+        assertEquals(7, msg.getIntProperty("byteProperty"));
+        assertEquals(7L, msg.getLongProperty("byteProperty"));
+        assertEquals(1.5d, msg.getDoubleProperty("floatProperty"), 0.0);
+        assertEquals(42, msg.getIntProperty("stringProperty"));
+        assertEquals(42L, msg.getLongProperty("stringProperty"));
+        assertFalse(msg.getBooleanProperty("stringProperty"));
+        assertFalse(msg.getBooleanProperty("missingProperty"));
+
+        try {
+            msg.getIntProperty("floatProperty");
+            fail("Should have thrown exception");
+        } catch (MessageFormatException e) {
+        }
+
+        try {
+            msg.getLongProperty("missingProperty");
+            fail("Should have thrown exception");
+        } catch (NumberFormatException e) {
+        }
+    }
+
     @Test
     public void testGetLongProperty() throws JMSException {
         JmsMessage msg = factory.createMessage();
@@ -27,6 +27,7 @@ import jakarta.jms.JMSException;
 
 import org.apache.qpid.jms.JmsDestination;
 import org.apache.qpid.jms.message.facade.JmsMessageFacade;
+import org.apache.qpid.jms.message.facade.JmsMessagePropertyTemplate;
 
 /**
  * A test implementation of the JmsMessageFaceade that provides a generic
@@ -131,6 +132,11 @@ public class JmsTestMessageFacade implements JmsMessageFacade {
         this.properties.put(key, value);
     }
 
+    @Override
+    public boolean applyPropertyTemplate(JmsMessagePropertyTemplate template) throws JMSException {
+        return false;
+    }
+
     @Override
     public void onSend(long producerTtl) throws JMSException {
     }
@@ -17,6 +17,7 @@
 package org.apache.qpid.jms.message.facade.test;
 
 import java.io.Serializable;
+import java.util.Map;
 
 import jakarta.jms.JMSException;
 
@@ -27,6 +28,7 @@ import org.apache.qpid.jms.message.JmsMessageFactory;
 import org.apache.qpid.jms.message.JmsObjectMessage;
 import org.apache.qpid.jms.message.JmsStreamMessage;
 import org.apache.qpid.jms.message.JmsTextMessage;
+import org.apache.qpid.jms.message.facade.JmsMessagePropertyTemplate;
 
 /**
  * Implementation of the JmsMessageFactory that create simple
@@ -87,4 +89,9 @@ public class JmsTestMessageFactory implements JmsMessageFactory {
         }
         return result;
     }
+
+    @Override
+    public JmsMessagePropertyTemplate createPropertyTemplate(Map<String, Object> properties) {
+        return null;
+    }
 }
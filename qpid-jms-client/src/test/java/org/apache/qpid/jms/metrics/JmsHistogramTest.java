@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.qpid.jms.meta.JmsConnectionId;
+import org.junit.Test;
+
+public class JmsHistogramTest {
+
+    @Test
+    public void testBucketBoundsCoverEveryValue() {
+        long[] values = { 0, 1, 7, 8, 9, 15, 16, 17, 1000, 123456789, Integer.MAX_VALUE, Long.MAX_VALUE / 3, Long.MAX_VALUE };
+
+        for (long value : values) {
+            int index = JmsHistogram.indexOf(value);
+
+            assertTrue("Value " + value + " above its bucket", value <= JmsHistogram.highestValueOf(index));
+            if (index > 0) {
+                assertTrue("Value " + value + " within the previous bucket", value > JmsHistogram.highestValueOf(index - 1));
+            }
+        }
+
+        assertEquals(Long.MAX_VALUE, JmsHistogram.highestValueOf(JmsHistogram.indexOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void testBucketRelativeErrorIsBounded() {
+        for (long value = 8; value > 0 && value < Long.MAX_VALUE / 2; value = value * 3 + 1) {
+            long highest = JmsHistogram.highestValueOf(JmsHistogram.indexOf(value));
+
+            assertTrue("Error too large for " + value, (highest - value) <= value / 8);
+        }
+    }
+
+    @Test
+    public void testSnapshotReportsCountMeanMaxAndPercentiles() {
+        JmsHistogram histogram = new JmsHistogram();
+
+        for (int i = 1; i <= 100; ++i) {
+            histogram.record(i * 1000);
+        }
+
+        JmsHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(100, snapshot.getCount());
+        assertEquals(100000, snapshot.getMax());
+        assertEquals(50500.0, snapshot.getMean(), 0.0);
+        assertEquals(100000, snapshot.getValueAtPercentile(100));
+
+        long median = snapshot.getValueAtPercentile(50);
+        assertTrue("Median was " + median, median >= 50000 && median <= 50000 + 50000 / 8);
+
+        long p99 = snapshot.getValueAtPercentile(99);
+        assertTrue("P99 was " + p99, p99 >= 99000 && p99 <= 100000);
+    }
+
+    @Test
+    public void testNegativeValuesRecordedAsZero() {
+        JmsHistogram histogram = new JmsHistogram();
+        histogram.record(-5);
+
+        JmsHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1, snapshot.getCount());
+        assertEquals(0, snapshot.getMax());
+        assertEquals(0, snapshot.getValueAtPercentile(50));
+    }
+
+    @Test
+    public void testEmptySnapshot() {
+        JmsHistogram.Snapshot snapshot = new JmsHistogram().snapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0.0, snapshot.getMean(), 0.0);
+        assertEquals(0, snapshot.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void testDisabledMetricsRecordNothing() {
+        JmsMetrics metrics = JmsMetrics.DISABLED;
+
+        assertFalse(metrics.isEnabled());
+        assertSame(JmsHistogram.DISABLED, metrics.histogram(JmsMetrics.SYNC_SEND_TIME));
+        assertSame(JmsCounter.DISABLED, metrics.counter(JmsMetrics.MESSAGES_SENT));
+
+        JmsHistogram histogram = metrics.histogram(JmsMetrics.SYNC_SEND_TIME);
+        assertEquals(0, histogram.start());
+        histogram.recordSince(0);
+        histogram.record(100);
+        assertEquals(0, histogram.snapshot().getCount());
+
+        JmsCounter counter = metrics.counter(JmsMetrics.MESSAGES_SENT);
+        counter.increment();
+        assertEquals(0, counter.get());
+
+        metrics.gauge(JmsMetrics.PREFETCH_QUEUE_DEPTH, () -> 1);
+        assertTrue(metrics.getGauges().isEmpty());
+        assertTrue(metrics.getCounters().isEmpty());
+    }
+
+    @Test
+    public void testEnabledMetricsReturnSameInstrumentForName() {
+        JmsMetrics metrics = new JmsMetrics(JmsMetrics.CONNECTION, new JmsConnectionId("ID:test:1"));
+
+        JmsCounter counter = metrics.counter(JmsMetrics.RECONNECTS);
+        counter.increment();
+        counter.add(2);
+
+        assertSame(counter, metrics.counter(JmsMetrics.RECONNECTS));
+        assertEquals(3, metrics.getCounters().get(JmsMetrics.RECONNECTS).get());
+        assertSame(metrics.histogram(JmsMetrics.COMMIT_TIME), metrics.histogram(JmsMetrics.COMMIT_TIME));
+    }
+}
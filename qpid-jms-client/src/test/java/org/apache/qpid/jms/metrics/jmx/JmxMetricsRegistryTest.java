@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.metrics.jmx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.management.AttributeNotFoundException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.apache.qpid.jms.meta.JmsConnectionId;
+import org.apache.qpid.jms.meta.JmsProducerId;
+import org.apache.qpid.jms.metrics.JmsMetrics;
+import org.apache.qpid.jms.metrics.JmsMetricsRegistry;
+import org.apache.qpid.jms.metrics.JmsMetricsRegistryFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JmxMetricsRegistryTest {
+
+    private MBeanServer server;
+
+    @Before
+    public void setUp() {
+        server = MBeanServerFactory.newMBeanServer();
+    }
+
+    @Test
+    public void testRegisteredMetricsAreReadableAttributes() throws Exception {
+        JmxMetricsRegistry registry = new JmxMetricsRegistry(server);
+
+        JmsMetrics metrics = new JmsMetrics(JmsMetrics.PRODUCER, new JmsProducerId("ID:test:1", 1, 1));
+        metrics.counter(JmsMetrics.MESSAGES_SENT).add(3);
+        metrics.histogram(JmsMetrics.SYNC_SEND_TIME).record(1000);
+        metrics.gauge(JmsMetrics.PREFETCH_QUEUE_DEPTH, () -> 7);
+
+        registry.register(metrics);
+
+        ObjectName name = JmxMetricsRegistry.getObjectName(metrics);
+        assertEquals(JmxMetricsRegistry.DOMAIN, name.getDomain());
+        assertEquals(JmsMetrics.PRODUCER, name.getKeyProperty("type"));
+        assertTrue(server.isRegistered(name));
+
+        assertEquals(3L, server.getAttribute(name, JmsMetrics.MESSAGES_SENT));
+        assertEquals(7L, server.getAttribute(name, JmsMetrics.PREFETCH_QUEUE_DEPTH));
+        assertEquals(1L, server.getAttribute(name, JmsMetrics.SYNC_SEND_TIME + "Count"));
+        assertEquals(1000L, server.getAttribute(name, JmsMetrics.SYNC_SEND_TIME + "Max"));
+        assertEquals(1000.0, server.getAttribute(name, JmsMetrics.SYNC_SEND_TIME + "Mean"));
+
+        // Instruments created after registration are exposed as well.
+        metrics.histogram(JmsMetrics.CREDIT_BLOCKED_TIME).record(10);
+
+        Set<String> attributes = new HashSet<>();
+        for (MBeanAttributeInfo info : server.getMBeanInfo(name).getAttributes()) {
+            attributes.add(info.getName());
+        }
+
+        assertTrue(attributes.containsAll(Arrays.asList(JmsMetrics.MESSAGES_SENT, JmsMetrics.PREFETCH_QUEUE_DEPTH,
+            JmsMetrics.SYNC_SEND_TIME + "P99", JmsMetrics.CREDIT_BLOCKED_TIME + "P50")));
+        assertEquals(10L, server.getAttribute(name, JmsMetrics.CREDIT_BLOCKED_TIME + "P90"));
+
+        try {
+            server.getAttribute(name, "unknown");
+            fail("Should not find an unknown attribute");
+        } catch (AttributeNotFoundException expected) {
+        }
+
+        registry.unregister(metrics);
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    public void testCloseUnregistersRemainingMetrics() throws Exception {
+        JmxMetricsRegistry registry = new JmxMetricsRegistry(server);
+
+        JmsMetrics connection = new JmsMetrics(JmsMetrics.CONNECTION, new JmsConnectionId("ID:test:2"));
+        JmsMetrics producer = new JmsMetrics(JmsMetrics.PRODUCER, new JmsProducerId("ID:test:2", 1, 1));
+
+        registry.register(connection);
+        registry.register(producer);
+
+        assertTrue(server.isRegistered(JmxMetricsRegistry.getObjectName(connection)));
+        assertTrue(server.isRegistered(JmxMetricsRegistry.getObjectName(producer)));
+
+        registry.close();
+
+        assertFalse(server.isRegistered(JmxMetricsRegistry.getObjectName(connection)));
+        assertFalse(server.isRegistered(JmxMetricsRegistry.getObjectName(producer)));
+    }
+
+    @Test
+    public void testCreateFromFactoryByTypeName() throws Exception {
+        JmsMetricsRegistry registry = JmsMetricsRegistryFactory.create(new URI("amqp://localhost:1234"), JmxMetricsRegistryFactory.TYPE_NAME);
+
+        assertTrue(registry instanceof JmxMetricsRegistry);
+    }
+
+    @Test
+    public void testCreateFromFactoryWithUnknownTypeName() throws Exception {
+        try {
+            JmsMetricsRegistryFactory.create(new URI("amqp://localhost:1234"), "unknown");
+            fail("Exception was not thrown");
+        } catch (Exception e) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.provider.amqp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.amqp.UnsignedInteger;
+import org.apache.qpid.proton.amqp.transport.Begin;
+import org.apache.qpid.proton.amqp.transport.Open;
+import org.apache.qpid.proton.amqp.transport.Transfer;
+import org.apache.qpid.proton.codec.AMQPDefinedTypes;
+import org.apache.qpid.proton.codec.DecoderImpl;
+import org.apache.qpid.proton.codec.EncoderImpl;
+import org.junit.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+public class AmqpFrameRecorderTest {
+
+    private static final byte[] AMQP_HEADER = new byte[] { 'A', 'M', 'Q', 'P', 0, 1, 0, 0 };
+
+    @Test
+    public void testFramesSplitAcrossReadsAreRecorded() throws Exception {
+        AmqpFrameRecorder recorder = new AmqpFrameRecorder("test", 64 * 1024, 1024);
+        try {
+            Open open = new Open();
+            open.setContainerId("container");
+            Begin begin = new Begin();
+            begin.setNextOutgoingId(UnsignedInteger.ONE);
+            begin.setIncomingWindow(UnsignedInteger.valueOf(100));
+            begin.setOutgoingWindow(UnsignedInteger.valueOf(100));
+            Transfer transfer = new Transfer();
+            transfer.setHandle(UnsignedInteger.valueOf(1));
+            transfer.setDeliveryId(UnsignedInteger.ZERO);
+            transfer.setDeliveryTag(new Binary(new byte[] { 1 }));
+
+            byte[] stream = concat(AMQP_HEADER, frame(0, open, null), frame(1, begin, null), frame(1, transfer, new byte[100]), frame(0, null, null));
+
+            // Deliver the stream a few bytes at a time so that every frame is split.
+            ByteBuf input = Unpooled.wrappedBuffer(stream);
+            for (int i = 0; i < stream.length; i += 3) {
+                ByteBuf slice = input.slice(i, Math.min(3, stream.length - i));
+                recorder.received(slice);
+                assertEquals(0, slice.readerIndex());
+            }
+
+            assertEquals(5, recorder.getRecordCount());
+
+            AmqpFrameCapture capture = roundTrip(recorder);
+            List<AmqpFrameCapture.Frame> frames = capture.getFrames();
+
+            assertEquals("test", capture.getName());
+            assertEquals(5, frames.size());
+            assertTrue(frames.get(0).isProtocolHeader());
+            assertTrue(frames.stream().allMatch(AmqpFrameCapture.Frame::isReceived));
+            assertEquals(1, frames.get(2).getChannel());
+            assertFalse(frames.get(3).isTruncated());
+            assertEquals(8, frames.get(4).getFrameSize());
+
+            for (int i = 1; i < frames.size(); ++i) {
+                assertTrue(frames.get(i).getTimestamp() >= frames.get(i - 1).getTimestamp());
+            }
+
+            AmqpFrameCaptureDecoder decoder = new AmqpFrameCaptureDecoder();
+            assertTrue(decoder.render(frames.get(0)).endsWith("RECV [0] HEADER AMQP"));
+            assertTrue(decoder.render(frames.get(1)).contains("containerId='container'"));
+            assertTrue(decoder.render(frames.get(2)).contains("[1] size="));
+            assertTrue(decoder.render(frames.get(3)).contains("handle=1 payload=100 Transfer{"));
+            assertTrue(decoder.render(frames.get(4)).endsWith("size=8 EMPTY"));
+        } finally {
+            recorder.close();
+        }
+    }
+
+    @Test
+    public void testPayloadLimitTruncatesLargeFrames() throws Exception {
+        AmqpFrameRecorder recorder = new AmqpFrameRecorder("test", 64 * 1024, 32);
+        try {
+            Transfer transfer = new Transfer();
+            transfer.setHandle(UnsignedInteger.valueOf(2));
+            byte[] frame = frame(3, transfer, new byte[1000]);
+
+            recorder.sent(Unpooled.wrappedBuffer(concat(AMQP_HEADER, frame)));
+
+            List<AmqpFrameCapture.Frame> frames = roundTrip(recorder).getFrames();
+
+            assertEquals(2, frames.size());
+            assertFalse(frames.get(1).isReceived());
+            assertTrue(frames.get(1).isTruncated());
+            assertEquals(frame.length, frames.get(1).getFrameSize());
+            assertEquals(32, frames.get(1).getBytes().length);
+            assertEquals(3, frames.get(1).getChannel());
+        } finally {
+            recorder.close();
+        }
+    }
+
+    @Test
+    public void testOldestFramesAreOverwrittenWhenFull() throws Exception {
+        final int recordSize = AmqpFrameRecorder.RECORD_HEADER_SIZE + 8;
+
+        AmqpFrameRecorder recorder = new AmqpFrameRecorder("test", recordSize * 5 + recordSize / 2, 1024);
+        try {
+            for (int channel = 0; channel < 50; ++channel) {
+                recorder.received(Unpooled.wrappedBuffer(frame(channel, null, null)));
+
+                List<AmqpFrameCapture.Frame> frames = roundTrip(recorder).getFrames();
+                assertEquals(recorder.getRecordCount(), frames.size());
+                assertTrue(frames.size() >= Math.min(channel + 1, 4));
+
+                // The most recent frames are retained, in order.
+                for (int i = 0; i < frames.size(); ++i) {
+                    assertEquals(channel - frames.size() + 1 + i, frames.get(i).getChannel());
+                }
+            }
+        } finally {
+            recorder.close();
+        }
+    }
+
+    @Test
+    public void testClosedRecorderIsNoLongerRegistered() {
+        AmqpFrameRecorder recorder = new AmqpFrameRecorder("test", 1024, 1024);
+        assertTrue(AmqpFrameRecorder.getRecorders().contains(recorder));
+
+        recorder.close();
+        assertFalse(AmqpFrameRecorder.getRecorders().contains(recorder));
+    }
+
+    private static AmqpFrameCapture roundTrip(AmqpFrameRecorder recorder) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        recorder.dump(output);
+        return AmqpFrameCapture.read(new ByteArrayInputStream(output.toByteArray()));
+    }
+
+    private static byte[] frame(int channel, Object performative, byte[] payload) {
+        DecoderImpl decoder = new DecoderImpl();
+        EncoderImpl encoder = new EncoderImpl(decoder);
+        AMQPDefinedTypes.registerAllTypes(decoder, encoder);
+
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        buffer.position(8);
+        if (performative != null) {
+            encoder.setByteBuffer(buffer);
+            encoder.writeObject(performative);
+        }
+
+        if (payload != null) {
+            buffer.put(payload);
+        }
+
+        int size = buffer.position();
+        buffer.putInt(0, size);
+        buffer.put(4, (byte) 2);
+        buffer.put(5, (byte) 0);
+        buffer.putShort(6, (short) channel);
+
+        return Arrays.copyOf(buffer.array(), size);
+    }
+
+    private static byte[] concat(byte[]... arrays) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (byte[] array : arrays) {
+            output.writeBytes(array);
+        }
+
+        return output.toByteArray();
+    }
+}
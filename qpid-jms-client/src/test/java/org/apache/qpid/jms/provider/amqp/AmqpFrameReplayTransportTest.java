@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.provider.amqp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+
+import org.apache.qpid.jms.transports.TransportOptions;
+import org.junit.Test;
+
+import io.netty.buffer.Unpooled;
+
+public class AmqpFrameReplayTransportTest {
+
+    private static final byte[] AMQP_HEADER = new byte[] { 'A', 'M', 'Q', 'P', 0, 1, 0, 0 };
+    private static final byte[] EMPTY_FRAME = new byte[] { 0, 0, 0, 8, 2, 0, 0, 0 };
+
+    @Test
+    public void testCaptureOfWholeConnectionAccepted() throws Exception {
+        AmqpFrameRecorder recorder = new AmqpFrameRecorder("test", 1024, 1024);
+        try {
+            recorder.sent(Unpooled.wrappedBuffer(AMQP_HEADER));
+            recorder.received(Unpooled.wrappedBuffer(AMQP_HEADER));
+            recorder.received(Unpooled.wrappedBuffer(EMPTY_FRAME));
+
+            AmqpFrameReplayTransport transport = new AmqpFrameReplayTransport(new URI("amqp://replay:5672"), new TransportOptions(), capture(recorder));
+
+            assertEquals(2, transport.getFrameCount());
+            assertEquals(0, transport.getFramesReplayed());
+        } finally {
+            recorder.close();
+        }
+    }
+
+    @Test
+    public void testCaptureWithoutStartOfConnectionRejected() throws Exception {
+        AmqpFrameRecorder recorder = new AmqpFrameRecorder("test", 1024, 1024);
+        try {
+            recorder.received(Unpooled.wrappedBuffer(EMPTY_FRAME));
+
+            new AmqpFrameReplayTransport(new URI("amqp://replay:5672"), new TransportOptions(), capture(recorder));
+            fail("Should not accept a capture that starts part way through the connection");
+        } catch (IllegalArgumentException expected) {
+        } finally {
+            recorder.close();
+        }
+    }
+
+    @Test
+    public void testCaptureWithTruncatedFramesRejected() throws Exception {
+        AmqpFrameRecorder recorder = new AmqpFrameRecorder("test", 1024, 8);
+        try {
+            byte[] frame = new byte[64];
+            frame[3] = 64;
+            frame[4] = 2;
+
+            recorder.sent(Unpooled.wrappedBuffer(AMQP_HEADER));
+            recorder.received(Unpooled.wrappedBuffer(AMQP_HEADER));
+            recorder.received(Unpooled.wrappedBuffer(frame));
+
+            new AmqpFrameReplayTransport(new URI("amqp://replay:5672"), new TransportOptions(), capture(recorder));
+            fail("Should not accept a capture holding truncated frames");
+        } catch (IllegalArgumentException expected) {
+        } finally {
+            recorder.close();
+        }
+    }
+
+    private static AmqpFrameCapture capture(AmqpFrameRecorder recorder) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        recorder.dump(output);
+        return AmqpFrameCapture.read(new ByteArrayInputStream(output.toByteArray()));
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.provider.amqp.message;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.qpid.proton.amqp.messaging.ApplicationProperties;
+import org.apache.qpid.proton.codec.DecoderImpl;
+import org.apache.qpid.proton.codec.EncoderImpl;
+import org.apache.qpid.proton.codec.WritableBuffer;
+import org.junit.Test;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Tests for behavior of AmqpApplicationProperties
+ */
+public class AmqpApplicationPropertiesTest {
+
+    @Test
+    public void testPutAndGetRetainsValueTypes() {
+        AmqpApplicationProperties properties = new AmqpApplicationProperties();
+
+        populate(properties);
+
+        assertEquals(9, properties.size());
+        assertEquals(Boolean.TRUE, properties.get("boolean"));
+        assertEquals(Byte.valueOf((byte) 1), properties.get("byte"));
+        assertEquals(Short.valueOf((short) 2), properties.get("short"));
+        assertEquals(Integer.valueOf(3), properties.get("int"));
+        assertEquals(Long.valueOf(Long.MAX_VALUE), properties.get("long"));
+        assertEquals(Float.valueOf(5.5f), properties.get("float"));
+        assertEquals(Double.valueOf(-6.25d), properties.get("double"));
+        assertEquals("string", properties.get("string"));
+        assertNull(properties.get("null"));
+        assertTrue(properties.containsKey("null"));
+        assertFalse(properties.containsKey("missing"));
+        assertFalse(properties.containsKey(null));
+    }
+
+    @Test
+    public void testPutReplacesExistingValueOfDifferentType() {
+        AmqpApplicationProperties properties = new AmqpApplicationProperties();
+
+        properties.put("key", 1);
+        properties.put("key", "value");
+
+        assertEquals(1, properties.size());
+        assertEquals("value", properties.get("key"));
+
+        properties.put("key", 2L);
+
+        assertEquals(1, properties.size());
+        assertEquals(Long.valueOf(2), properties.get("key"));
+    }
+
+    @Test
+    public void testPutGrowsBeyondInitialCapacity() {
+        AmqpApplicationProperties properties = new AmqpApplicationProperties();
+
+        for (int i = 0; i < 30; ++i) {
+            properties.put("key" + i, i);
+        }
+
+        assertEquals(30, properties.size());
+        for (int i = 0; i < 30; ++i) {
+            assertEquals(Integer.valueOf(i), properties.get("key" + i));
+        }
+
+        Set<String> names = new HashSet<>();
+        properties.addKeysTo(names);
+        assertEquals(30, names.size());
+    }
+
+    @Test
+    public void testCopyIsIndependentOfOriginal() {
+        AmqpApplicationProperties properties = new AmqpApplicationProperties();
+        properties.put("int", 1);
+
+        AmqpApplicationProperties copy = properties.copy();
+        copy.put("int", 2);
+        copy.put("long", 3L);
+
+        assertEquals(Integer.valueOf(1), properties.get("int"));
+        assertFalse(properties.containsKey("long"));
+        assertEquals(Integer.valueOf(2), copy.get("int"));
+        assertEquals(Long.valueOf(3), copy.get("long"));
+    }
+
+    @Test
+    public void testWrappedMapIsReadAndWrittenThrough() {
+        Map<String, Object> decoded = new HashMap<>();
+        decoded.put("int", 1);
+
+        AmqpApplicationProperties properties = AmqpApplicationProperties.wrap(decoded);
+        properties.put("long", 2L);
+
+        assertEquals(Integer.valueOf(1), properties.get("int"));
+        assertEquals(Long.valueOf(2), decoded.get("long"));
+
+        AmqpApplicationProperties copy = properties.copy();
+        copy.put("int", 3);
+
+        assertEquals(Integer.valueOf(1), decoded.get("int"));
+        assertEquals(Integer.valueOf(3), copy.get("int"));
+        assertEquals(Long.valueOf(2), copy.get("long"));
+    }
+
+    @Test
+    public void testEncodeProducesApplicationPropertiesSection() {
+        AmqpApplicationProperties properties = new AmqpApplicationProperties();
+        populate(properties);
+
+        Map<String, Object> decoded = encodeAndDecode(properties);
+
+        assertEquals(properties.toMap(), decoded);
+    }
+
+    @Test
+    public void testEncodeWrappedMapProducesApplicationPropertiesSection() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("int", 1);
+        map.put("string", "value");
+
+        Map<String, Object> decoded = encodeAndDecode(AmqpApplicationProperties.wrap(map));
+
+        assertEquals(map, decoded);
+    }
+
+    @Test
+    public void testApplyTemplateIsVisibleAndEncoded() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("tenant", "acme");
+        values.put("version", 3);
+        AmqpApplicationPropertiesTemplate template = new AmqpApplicationPropertiesTemplate(values);
+
+        AmqpApplicationProperties properties = new AmqpApplicationProperties();
+        properties.put("sequence", 1L);
+        properties.apply(template);
+
+        assertEquals(3, properties.size());
+        assertEquals("acme", properties.get("tenant"));
+        assertEquals(Integer.valueOf(3), properties.get("version"));
+        assertTrue(properties.containsKey("sequence"));
+
+        Set<String> names = new HashSet<>();
+        properties.addKeysTo(names);
+        assertEquals(3, names.size());
+
+        Map<String, Object> decoded = encodeAndDecode(properties);
+        assertEquals(3, decoded.size());
+        assertEquals("acme", decoded.get("tenant"));
+        assertEquals(Integer.valueOf(3), decoded.get("version"));
+        assertEquals(Long.valueOf(1), decoded.get("sequence"));
+
+        // The cached entries must be reusable by later messages.
+        assertEquals(decoded, encodeAndDecode(properties.copy()));
+    }
+
+    @Test
+    public void testPutOfTemplateKeyReplacesOnlyThatMessagesValue() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("tenant", "acme");
+        values.put("version", 3);
+        AmqpApplicationPropertiesTemplate template = new AmqpApplicationPropertiesTemplate(values);
+
+        AmqpApplicationProperties first = new AmqpApplicationProperties();
+        first.apply(template);
+        AmqpApplicationProperties second = new AmqpApplicationProperties();
+        second.apply(template);
+
+        first.put("version", 4);
+
+        assertEquals(2, first.size());
+        assertEquals(Integer.valueOf(4), first.get("version"));
+        assertEquals("acme", first.get("tenant"));
+        assertEquals(Integer.valueOf(3), second.get("version"));
+        assertEquals(Integer.valueOf(3), template.get("version"));
+
+        Map<String, Object> decoded = encodeAndDecode(first);
+        assertEquals(2, decoded.size());
+        assertEquals(Integer.valueOf(4), decoded.get("version"));
+    }
+
+    @Test
+    public void testApplyTemplateReplacesExistingValues() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("tenant", "acme");
+        AmqpApplicationPropertiesTemplate template = new AmqpApplicationPropertiesTemplate(values);
+
+        AmqpApplicationProperties properties = new AmqpApplicationProperties();
+        properties.put("tenant", "other");
+        properties.apply(template);
+
+        assertEquals(1, properties.size());
+        assertEquals("acme", properties.get("tenant"));
+        assertEquals(values, encodeAndDecode(properties));
+    }
+
+    private static void populate(AmqpApplicationProperties properties) {
+        properties.put("boolean", true);
+        properties.put("byte", (byte) 1);
+        properties.put("short", (short) 2);
+        properties.put("int", 3);
+        properties.put("long", Long.MAX_VALUE);
+        properties.put("float", 5.5f);
+        properties.put("double", -6.25d);
+        properties.put("string", "string");
+        properties.put("null", null);
+    }
+
+    private static Map<String, Object> encodeAndDecode(AmqpApplicationProperties properties) {
+        AmqpWritableBuffer buffer = new AmqpWritableBuffer();
+
+        EncoderImpl encoder = AmqpCodec.getEncoder();
+        encoder.setByteBuffer(buffer);
+        properties.encode(encoder);
+        encoder.setByteBuffer((WritableBuffer) null);
+
+        ByteBuf encoded = buffer.getBuffer();
+
+        DecoderImpl decoder = AmqpCodec.getDecoder();
+        decoder.setByteBuffer(encoded.nioBuffer());
+        ApplicationProperties section = (ApplicationProperties) decoder.readObject();
+        assertFalse(decoder.getByteBuffer().hasRemaining());
+        decoder.setByteBuffer(null);
+
+        return section.getValue();
+    }
+}
@@ -54,6 +54,7 @@ import org.apache.qpid.jms.meta.JmsConsumerInfo;
 import org.apache.qpid.jms.provider.amqp.AmqpConnection;
 import org.apache.qpid.jms.provider.amqp.AmqpConsumer;
 import org.apache.qpid.jms.test.QpidJmsTestCase;
+import org.apache.qpid.jms.tracing.JmsTracer;
 import org.apache.qpid.proton.Proton;
 import org.apache.qpid.proton.amqp.Binary;
 import org.apache.qpid.proton.amqp.Symbol;
@@ -975,6 +976,46 @@ public class AmqpCodecTest extends QpidJmsTestCase {
         }
     }
 
+    @Test
+    public void testTracingAnnotationEncodedWithCachedMessageAnnotations() throws Exception {
+        doTestSingleAnnotationEncodedWithClientAnnotations(AmqpMessageSupport.JMS_MESSAGE, AmqpDestinationHelper.UNKNOWN_TYPE, AmqpDestinationHelper.UNKNOWN_TYPE);
+        doTestSingleAnnotationEncodedWithClientAnnotations(AmqpMessageSupport.JMS_TEXT_MESSAGE, AmqpDestinationHelper.QUEUE_TYPE, AmqpDestinationHelper.UNKNOWN_TYPE);
+        doTestSingleAnnotationEncodedWithClientAnnotations(AmqpMessageSupport.JMS_BYTES_MESSAGE, AmqpDestinationHelper.TOPIC_TYPE, AmqpDestinationHelper.TEMP_QUEUE_TYPE);
+    }
+
+    private void doTestSingleAnnotationEncodedWithClientAnnotations(byte msgType, byte toType, byte replyToType) throws Exception {
+        final AmqpJmsMessageFacade message = createMessageFacadeFromTypeId(msgType);
+
+        message.setDestination(createDestinationFromTypeId(toType));
+        message.setReplyTo(createDestinationFromTypeId(replyToType));
+
+        for (int i = 0; i <= 2; ++i) {
+            Map<String, String> traceState = new HashMap<>();
+            traceState.put("uber-trace-id", "trace:" + i);
+            message.setTracingAnnotation(JmsTracer.TRACE_STATE_ANNOTATION, traceState);
+
+            MessageImpl amqpMessage = (MessageImpl) AmqpMessageSupport.decodeMessage(AmqpCodec.encodeMessage(message));
+
+            Map<Symbol, Object> messageAnnotationsMap = amqpMessage.getMessageAnnotations().getValue();
+
+            assertEquals(traceState, messageAnnotationsMap.get(Symbol.valueOf(JmsTracer.TRACE_STATE_ANNOTATION)));
+            assertEquals(msgType, messageAnnotationsMap.get(AmqpMessageSupport.JMS_MSG_TYPE));
+            if (toType != AmqpDestinationHelper.UNKNOWN_TYPE) {
+                assertEquals(toType, messageAnnotationsMap.get(AmqpDestinationHelper.JMS_DEST_TYPE_MSG_ANNOTATION_SYMBOL));
+            } else {
+                assertFalse(messageAnnotationsMap.containsKey(AmqpDestinationHelper.JMS_DEST_TYPE_MSG_ANNOTATION_SYMBOL));
+            }
+            if (replyToType != AmqpDestinationHelper.UNKNOWN_TYPE) {
+                assertEquals(replyToType, messageAnnotationsMap.get(AmqpDestinationHelper.JMS_REPLY_TO_TYPE_MSG_ANNOTATION_SYMBOL));
+            } else {
+                assertFalse(messageAnnotationsMap.containsKey(AmqpDestinationHelper.JMS_REPLY_TO_TYPE_MSG_ANNOTATION_SYMBOL));
+            }
+
+            // The annotations of the message itself are left as they were.
+            assertEquals(1, message.getMessageAnnotations().getValue().size());
+        }
+    }
+
     private JmsDestination createDestinationFromTypeId(byte destinationType) {
         final JmsDestination destination;
         switch (destinationType) {
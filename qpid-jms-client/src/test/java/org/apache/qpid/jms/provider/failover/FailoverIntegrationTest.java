@@ -36,14 +36,19 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 import jakarta.jms.CompletionListener;
 import jakarta.jms.Connection;
@@ -71,10 +76,12 @@ import org.apache.qpid.jms.JmsConnection;
 import org.apache.qpid.jms.JmsConnectionExtensions;
 import org.apache.qpid.jms.JmsConnectionFactory;
 import org.apache.qpid.jms.JmsDefaultConnectionListener;
+import org.apache.qpid.jms.JmsMessagePublisher;
 import org.apache.qpid.jms.JmsOperationTimedOutException;
 import org.apache.qpid.jms.JmsQueue;
 import org.apache.qpid.jms.JmsResourceNotFoundException;
 import org.apache.qpid.jms.JmsSendTimedOutException;
+import org.apache.qpid.jms.JmsSession;
 import org.apache.qpid.jms.policy.JmsDefaultPrefetchPolicy;
 import org.apache.qpid.jms.provider.amqp.AmqpSupport;
 import org.apache.qpid.jms.test.QpidJmsTestCase;
@@ -90,6 +97,8 @@ import org.apache.qpid.jms.test.testpeer.describedtypes.Rejected;
 import org.apache.qpid.jms.test.testpeer.describedtypes.Released;
 import org.apache.qpid.jms.test.testpeer.describedtypes.TransactionalState;
 import org.apache.qpid.jms.test.testpeer.describedtypes.sections.AmqpValueDescribedType;
+import org.apache.qpid.jms.test.testpeer.describedtypes.sections.HeaderDescribedType;
+import org.apache.qpid.jms.test.testpeer.describedtypes.sections.PropertiesDescribedType;
 import org.apache.qpid.jms.test.testpeer.matchers.AcceptedMatcher;
 import org.apache.qpid.jms.test.testpeer.matchers.SourceMatcher;
 import org.apache.qpid.jms.test.testpeer.matchers.TargetMatcher;
@@ -968,6 +977,100 @@ public class FailoverIntegrationTest extends QpidJmsTestCase {
         }
     }
 
+    @Test(timeout = 20000)
+    public void testSendWhileOfflineIsSpooledAndForwardedAfterRecovery() throws Exception {
+        Path spoolDirectory = Files.createTempDirectory("qpid-jms-spool");
+
+        try (TestAmqpPeer originalPeer = new TestAmqpPeer();
+             TestAmqpPeer finalPeer = new TestAmqpPeer();) {
+
+            final CountDownLatch originalConnected = new CountDownLatch(1);
+            final CountDownLatch originalInterrupted = new CountDownLatch(1);
+            final CountDownLatch finalConnected = new CountDownLatch(1);
+
+            // Connect to the first peer, then drop the connection once the producer is attached
+            originalPeer.expectSaslAnonymous();
+            originalPeer.expectOpen();
+            originalPeer.expectBegin();
+            originalPeer.expectBegin();
+            originalPeer.expectSenderAttach();
+            originalPeer.dropAfterLastHandler();
+
+            // The spooled sends should be forwarded in order once the producer is recovered
+            finalPeer.expectSaslAnonymous();
+            finalPeer.expectOpen();
+            finalPeer.expectBegin();
+            finalPeer.expectBegin();
+            finalPeer.expectSenderAttach();
+            for (int i = 1; i <= 2; ++i) {
+                TransferPayloadCompositeMatcher messageMatcher = new TransferPayloadCompositeMatcher();
+                messageMatcher.setHeadersMatcher(new MessageHeaderSectionMatcher(true));
+                messageMatcher.setMessageAnnotationsMatcher(new MessageAnnotationsSectionMatcher(true));
+                messageMatcher.setPropertiesMatcher(new MessagePropertiesSectionMatcher(true));
+                messageMatcher.setMessageContentMatcher(new EncodedAmqpValueMatcher("message-" + i));
+
+                finalPeer.expectTransfer(messageMatcher);
+            }
+
+            // The reconnect delay is longer than the send timeout so sends would time out without the spool
+            final JmsConnection connection = establishAnonymousConnecton(
+                "jms.sendTimeout=500",
+                "failover.initialReconnectDelay=1500&failover.spoolDirectory=" + spoolDirectory.toUri().getPath(),
+                originalPeer, finalPeer);
+            connection.addConnectionListener(new JmsDefaultConnectionListener() {
+                @Override
+                public void onConnectionEstablished(URI remoteURI) {
+                    if (originalPeer.getServerPort() == remoteURI.getPort()) {
+                        originalConnected.countDown();
+                    }
+                }
+
+                @Override
+                public void onConnectionInterrupted(URI remoteURI) {
+                    if (originalPeer.getServerPort() == remoteURI.getPort()) {
+                        originalInterrupted.countDown();
+                    }
+                }
+
+                @Override
+                public void onConnectionRestored(URI remoteURI) {
+                    if (finalPeer.getServerPort() == remoteURI.getPort()) {
+                        finalConnected.countDown();
+                    }
+                }
+            });
+            connection.start();
+
+            assertTrue("Should connect to original peer", originalConnected.await(5, TimeUnit.SECONDS));
+
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            Queue queue = session.createQueue("myQueue");
+            MessageProducer producer = session.createProducer(queue);
+
+            assertTrue("Should lose connection to original peer", originalInterrupted.await(5, TimeUnit.SECONDS));
+
+            producer.send(session.createTextMessage("message-1"));
+            producer.send(session.createTextMessage("message-2"));
+
+            assertEquals("Should not yet have connected to final peer", 1L, finalConnected.getCount());
+
+            assertTrue("Should connect to final peer", finalConnected.await(5, TimeUnit.SECONDS));
+
+            finalPeer.waitForAllHandlersToComplete(2000);
+
+            finalPeer.expectClose();
+            connection.close();
+
+            finalPeer.waitForAllHandlersToComplete(1000);
+
+            try (Stream<Path> journals = Files.list(spoolDirectory)) {
+                assertEquals("Journal should be removed once all spooled sends are forwarded", 0, journals.count());
+            }
+        } finally {
+            Files.deleteIfExists(spoolDirectory);
+        }
+    }
+
     @Test(timeout = 20000)
     public void testFailoverHandlesRemoteCloseBeforeDispositionRecieived() throws Exception {
         try (TestAmqpPeer originalPeer = new TestAmqpPeer();
@@ -2848,6 +2951,152 @@ public class FailoverIntegrationTest extends QpidJmsTestCase {
         }
     }
 
+    @Test(timeout = 20000)
+    public void testPipelinedRecoveryBeginsAllSessionsBeforeAttachingLinks() throws Exception {
+        try (TestAmqpPeer originalPeer = new TestAmqpPeer();
+             TestAmqpPeer finalPeer = new TestAmqpPeer();) {
+
+            final CountDownLatch originalConnected = new CountDownLatch(1);
+            final CountDownLatch finalConnected = new CountDownLatch(1);
+
+            // Create a peer to connect to, then one to reconnect to
+            final String originalURI = createPeerURI(originalPeer);
+            final String finalURI = createPeerURI(finalPeer);
+
+            LOG.info("Original peer is at: {}", originalURI);
+            LOG.info("Final peer is at: {}", finalURI);
+
+            // Expect connection to the first peer (and have it drop)
+            originalPeer.expectSaslAnonymous();
+            originalPeer.expectOpen();
+            originalPeer.expectBegin();
+            originalPeer.expectBegin();
+            originalPeer.expectReceiverAttach();
+            originalPeer.expectLinkFlow();
+            originalPeer.expectBegin();
+            originalPeer.expectReceiverAttach();
+            originalPeer.expectLinkFlow();
+            originalPeer.dropAfterLastHandler();
+
+            // --- Post Failover Expectations of FinalPeer --- //
+            // All session begins are written before any link attach, then all link flows.
+            finalPeer.expectSaslAnonymous();
+            finalPeer.expectOpen();
+            finalPeer.expectBegin();
+            finalPeer.expectBegin();
+            finalPeer.expectBegin();
+            finalPeer.expectReceiverAttach();
+            finalPeer.expectReceiverAttach();
+            finalPeer.expectLinkFlow();
+            finalPeer.expectLinkFlow();
+
+            final JmsConnection connection = establishAnonymousConnecton("jms.pipelinedRecovery=true", originalPeer, finalPeer);
+            connection.addConnectionListener(new JmsDefaultConnectionListener() {
+                @Override
+                public void onConnectionEstablished(URI remoteURI) {
+                    LOG.info("Connection Established: {}", remoteURI);
+                    if (originalURI.equals(remoteURI.toString())) {
+                        originalConnected.countDown();
+                    }
+                }
+
+                @Override
+                public void onConnectionRestored(URI remoteURI) {
+                    LOG.info("Connection Restored: {}", remoteURI);
+                    if (finalURI.equals(remoteURI.toString())) {
+                        finalConnected.countDown();
+                    }
+                }
+            });
+            connection.start();
+
+            assertTrue(connection.isPipelinedRecovery());
+
+            Session session1 = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            session1.createConsumer(session1.createQueue("myQueue1"));
+            Session session2 = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            session2.createConsumer(session2.createQueue("myQueue2"));
+
+            assertTrue("Should connect to original peer", originalConnected.await(5, TimeUnit.SECONDS));
+            assertTrue("Should connect to final peer", finalConnected.await(5, TimeUnit.SECONDS));
+
+            finalPeer.waitForAllHandlersToComplete(1000);
+
+            // Shut it down
+            finalPeer.expectClose();
+            connection.close();
+
+            finalPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
+
+
+    @Test(timeout = 20000)
+    public void testPipelinedRecoveryOfTransactedSession() throws Exception {
+        try (TestAmqpPeer originalPeer = new TestAmqpPeer();
+             TestAmqpPeer finalPeer = new TestAmqpPeer();) {
+
+            final CountDownLatch finalConnected = new CountDownLatch(1);
+
+            final Binary txnId1 = new Binary(new byte[]{ (byte) 1, (byte) 2, (byte) 3, (byte) 4});
+            final Binary txnId2 = new Binary(new byte[]{ (byte) 5, (byte) 6, (byte) 7, (byte) 8});
+            final Binary txnId3 = new Binary(new byte[]{ (byte) 9, (byte) 10, (byte) 11, (byte) 12});
+
+            originalPeer.expectSaslAnonymous();
+            originalPeer.expectOpen();
+            originalPeer.expectBegin();
+            originalPeer.expectBegin();
+            originalPeer.expectCoordinatorAttach();
+            originalPeer.expectDeclare(txnId1);
+            originalPeer.expectSenderAttach();
+            originalPeer.dropAfterLastHandler();
+
+            // --- Post Failover Expectations of FinalPeer --- //
+            // The coordinator attach is only answered once the producer attach arrives, which
+            // requires the transaction recovery to not be awaited before the producer recreate.
+            finalPeer.expectSaslAnonymous();
+            finalPeer.expectOpen();
+            finalPeer.expectBegin();
+            finalPeer.expectBegin();
+            finalPeer.expectCoordinatorAttach(false, true);
+            finalPeer.expectSenderAttach();
+            finalPeer.expectDeclare(txnId2);
+
+            final JmsConnection connection = establishAnonymousConnecton("jms.pipelinedRecovery=true", originalPeer, finalPeer);
+            connection.addConnectionListener(new JmsDefaultConnectionListener() {
+                @Override
+                public void onConnectionRestored(URI remoteURI) {
+                    if (finalPeer.getServerPort() == remoteURI.getPort()) {
+                        finalConnected.countDown();
+                    }
+                }
+            });
+            connection.start();
+
+            Session session = connection.createSession(true, Session.SESSION_TRANSACTED);
+            session.createProducer(session.createQueue("myQueue"));
+
+            assertTrue("Should connect to final peer", finalConnected.await(5, TimeUnit.SECONDS));
+
+            finalPeer.waitForAllHandlersToComplete(1000);
+
+            // No work was done in the recovered transaction so the commit should succeed
+            finalPeer.expectDischarge(txnId2, false);
+            finalPeer.expectDeclare(txnId3);
+
+            session.commit();
+
+            finalPeer.expectDischarge(txnId3, true);
+            finalPeer.expectEnd();
+            finalPeer.expectClose();
+
+            session.close();
+            connection.close();
+
+            finalPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
+
     @Repeat(repetitions = 1)
     @Test(timeout = 20000)
     public void testRemotelyCloseConsumerWithMessageListenerFiresJMSExceptionListener() throws Exception {
@@ -4333,6 +4582,267 @@ public class FailoverIntegrationTest extends QpidJmsTestCase {
         }
     }
 
+    @Test(timeout = 20000)
+    public void testTransactedRedeliveriesAfterFailoverAreNotSuppressed() throws Exception {
+        try (TestAmqpPeer originalPeer = new TestAmqpPeer();
+             TestAmqpPeer finalPeer = new TestAmqpPeer();) {
+
+            final CountDownLatch originalConnected = new CountDownLatch(1);
+            final CountDownLatch finalConnected = new CountDownLatch(1);
+
+            final Binary txnId1 = new Binary(new byte[]{ (byte) 1, (byte) 2, (byte) 3, (byte) 4});
+            final Binary txnId2 = new Binary(new byte[]{ (byte) 5, (byte) 6, (byte) 7, (byte) 8});
+
+            PropertiesDescribedType properties = new PropertiesDescribedType();
+            properties.setMessageId("ID:myMessage");
+            DescribedType content = new AmqpValueDescribedType("myContent");
+
+            HeaderDescribedType firstRedelivery = new HeaderDescribedType();
+            firstRedelivery.setDeliveryCount(new UnsignedInteger(1));
+            HeaderDescribedType secondRedelivery = new HeaderDescribedType();
+            secondRedelivery.setDeliveryCount(new UnsignedInteger(2));
+
+            TransactionalStateMatcher txn1AckMatcher = new TransactionalStateMatcher();
+            txn1AckMatcher.withTxnId(equalTo(txnId1));
+            txn1AckMatcher.withOutcome(new AcceptedMatcher());
+
+            TransactionalStateMatcher txn2AckMatcher = new TransactionalStateMatcher();
+            txn2AckMatcher.withTxnId(equalTo(txnId2));
+            txn2AckMatcher.withOutcome(new AcceptedMatcher());
+
+            // The message is consumed in a transaction that is lost when the connection drops
+            originalPeer.expectSaslAnonymous();
+            originalPeer.expectOpen();
+            originalPeer.expectBegin();
+            originalPeer.expectBegin();
+            originalPeer.expectCoordinatorAttach();
+            originalPeer.expectDeclare(txnId1);
+            originalPeer.expectReceiverAttach();
+            originalPeer.expectLinkFlowRespondWithTransfer(null, null, properties, null, content);
+            originalPeer.expectDisposition(true, txn1AckMatcher);
+            originalPeer.dropAfterLastHandler();
+
+            // The remote redelivers the message, which is consumed again in the in doubt
+            // transaction, and once more after the commit rolled that transaction back.
+            finalPeer.expectSaslAnonymous();
+            finalPeer.expectOpen();
+            finalPeer.expectBegin();
+            finalPeer.expectBegin();
+            finalPeer.expectCoordinatorAttach();
+            finalPeer.expectDeclare(txnId2);
+            finalPeer.expectReceiverAttach();
+            finalPeer.expectLinkFlowRespondWithTransfer(firstRedelivery, null, properties, null, content);
+            finalPeer.expectDisposition(true, txn2AckMatcher);
+            finalPeer.expectDischarge(txnId2, true);
+            finalPeer.expectDeclare(txnId1);
+            finalPeer.sendTransferToLastOpenedLinkOnLastOpenedSession(secondRedelivery, null, properties, null, content, 2);
+            finalPeer.expectDisposition(true, txn1AckMatcher);
+            finalPeer.expectDischarge(txnId1, false);
+            finalPeer.expectDeclare(txnId2);
+
+            final JmsConnection connection = establishAnonymousConnecton("jms.duplicateSuppressionWindow=10", originalPeer, finalPeer);
+            connection.addConnectionListener(new JmsDefaultConnectionListener() {
+                @Override
+                public void onConnectionEstablished(URI remoteURI) {
+                    if (originalPeer.getServerPort() == remoteURI.getPort()) {
+                        originalConnected.countDown();
+                    }
+                }
+
+                @Override
+                public void onConnectionRestored(URI remoteURI) {
+                    if (finalPeer.getServerPort() == remoteURI.getPort()) {
+                        finalConnected.countDown();
+                    }
+                }
+            });
+            connection.start();
+
+            assertTrue("Should connect to original peer", originalConnected.await(5, TimeUnit.SECONDS));
+
+            Session session = connection.createSession(true, Session.SESSION_TRANSACTED);
+            Queue queue = session.createQueue("myQueue");
+            MessageConsumer consumer = session.createConsumer(queue);
+
+            Message message = consumer.receive(5000);
+            assertNotNull(message);
+            assertFalse(message.getJMSRedelivered());
+
+            assertTrue("Should connect to final peer", finalConnected.await(5, TimeUnit.SECONDS));
+
+            message = consumer.receive(5000);
+            assertNotNull("Uncommitted message should be redelivered after failover", message);
+            assertTrue(message.getJMSRedelivered());
+
+            try {
+                session.commit();
+                fail("Transaction should have been rolled back as it was in doubt");
+            } catch (TransactionRolledBackException txrbex) {
+                // Expected
+            }
+
+            message = consumer.receive(5000);
+            assertNotNull("Rolled back message should be redelivered", message);
+            assertTrue(message.getJMSRedelivered());
+
+            session.commit();
+
+            finalPeer.waitForAllHandlersToComplete(1000);
+
+            finalPeer.expectDischarge(txnId2, true);
+            finalPeer.expectClose();
+            connection.close();
+
+            finalPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testAsyncProducerCreatePendingAtFailoverAttachesOnce() throws Exception {
+        doTestAsyncCreatePendingAtFailoverAttachesOnce(true);
+    }
+
+    @Test(timeout = 20000)
+    public void testAsyncConsumerCreatePendingAtFailoverAttachesOnce() throws Exception {
+        doTestAsyncCreatePendingAtFailoverAttachesOnce(false);
+    }
+
+    private void doTestAsyncCreatePendingAtFailoverAttachesOnce(boolean producer) throws Exception {
+        try (TestAmqpPeer originalPeer = new TestAmqpPeer();
+             TestAmqpPeer finalPeer = new TestAmqpPeer();) {
+
+            final CountDownLatch finalConnected = new CountDownLatch(1);
+
+            // The connection drops while the link attach is still awaiting its response
+            originalPeer.expectSaslAnonymous();
+            originalPeer.expectOpen();
+            originalPeer.expectBegin();
+            originalPeer.expectBegin();
+            if (producer) {
+                originalPeer.expectSenderAttachButDoNotRespond();
+            } else {
+                originalPeer.expectReceiverAttachButDoNotRespond();
+            }
+            originalPeer.dropAfterLastHandler(10);
+
+            // The link must only be attached once, by the replayed create request, recovery of
+            // the session must not wait on its own attempt to attach it.
+            finalPeer.expectSaslAnonymous();
+            finalPeer.expectOpen();
+            finalPeer.expectBegin();
+            finalPeer.expectBegin();
+            if (producer) {
+                finalPeer.expectSenderAttachButDoNotRespond();
+            } else {
+                finalPeer.expectReceiverAttachButDoNotRespond();
+            }
+
+            final JmsConnection connection = establishAnonymousConnecton(originalPeer, finalPeer);
+            connection.addConnectionListener(new JmsDefaultConnectionListener() {
+                @Override
+                public void onConnectionRestored(URI remoteURI) {
+                    if (finalPeer.getServerPort() == remoteURI.getPort()) {
+                        finalConnected.countDown();
+                    }
+                }
+            });
+            connection.start();
+
+            JmsSession session = (JmsSession) connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            Queue queue = session.createQueue("myQueue");
+
+            final CompletionStage<Void> created;
+            if (producer) {
+                created = session.createProducerAsync(queue).getCreationStage();
+            } else {
+                created = session.createConsumerAsync(queue, null, false).getCreationStage();
+            }
+
+            assertTrue("Should connect to final peer", finalConnected.await(5, TimeUnit.SECONDS));
+
+            finalPeer.waitForAllHandlersToComplete(1000);
+            assertFalse(created.toCompletableFuture().isDone());
+
+            finalPeer.expectClose();
+            connection.close();
+
+            finalPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testPublisherDemandWhileOfflineIsGrantedOnceAfterRecovery() throws Exception {
+        try (TestAmqpPeer originalPeer = new TestAmqpPeer();
+             TestAmqpPeer finalPeer = new TestAmqpPeer();) {
+
+            final CountDownLatch interrupted = new CountDownLatch(1);
+            final CountDownLatch received = new CountDownLatch(2);
+
+            originalPeer.expectSaslAnonymous();
+            originalPeer.expectOpen();
+            originalPeer.expectBegin();
+            originalPeer.expectBegin();
+            originalPeer.expectReceiverAttach();
+            originalPeer.dropAfterLastHandler(10);
+
+            // The demand requested while offline must only be granted once on the final peer
+            finalPeer.expectSaslAnonymous();
+            finalPeer.expectOpen();
+            finalPeer.expectBegin();
+            finalPeer.expectBegin();
+            finalPeer.expectReceiverAttach();
+            finalPeer.expectLinkFlowRespondWithTransfer(null, null, null, null, new AmqpValueDescribedType(null), 2, false, false,
+                                                        equalTo(UnsignedInteger.valueOf(2)), 1, false);
+            finalPeer.expectDispositionThatIsAcceptedAndSettled();
+            finalPeer.expectDispositionThatIsAcceptedAndSettled();
+
+            final JmsConnection connection = establishAnonymousConnecton("failover.initialReconnectDelay=500", originalPeer, finalPeer);
+            connection.addConnectionListener(new JmsDefaultConnectionListener() {
+                @Override
+                public void onConnectionInterrupted(URI remoteURI) {
+                    interrupted.countDown();
+                }
+            });
+            connection.start();
+
+            JmsSession session = (JmsSession) connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            JmsMessagePublisher publisher = session.createPublisher(session.createQueue("myQueue"));
+
+            assertTrue("Should lose the original peer", interrupted.await(5, TimeUnit.SECONDS));
+
+            publisher.subscribe(new Flow.Subscriber<Message>() {
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(2);
+                }
+
+                @Override
+                public void onNext(Message message) {
+                    received.countDown();
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    LOG.warn("Unexpected error signaled to subscriber", error);
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            });
+
+            assertTrue("Did not receive the demanded messages", received.await(5, TimeUnit.SECONDS));
+
+            finalPeer.waitForAllHandlersToComplete(1000);
+
+            finalPeer.expectClose();
+            connection.close();
+
+            finalPeer.waitForAllHandlersToComplete(1000);
+        }
+    }
+
     @Repeat(repetitions = 1)
     @Test(timeout = 20_000)
     public void testSendWhileOfflinePreventsRecoveredTransactionFromCommitting() throws Exception {
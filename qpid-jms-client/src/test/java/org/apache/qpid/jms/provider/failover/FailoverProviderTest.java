@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import jakarta.jms.Connection;
 import jakarta.jms.Destination;
@@ -416,6 +417,53 @@ public class FailoverProviderTest extends FailoverProviderTestSupport {
         assertEquals(1, mockPeer.getContextStats().getSendCalls());
     }
 
+    @Test(timeout = 60000)
+    public void testConcurrentSendsFromManySessionsPassthrough() throws Exception {
+        final int producers = 32;
+        final int sendsPerProducer = 200;
+
+        JmsConnectionFactory factory = new JmsConnectionFactory(
+            "failover:(mock://localhost)");
+
+        Connection connection = factory.createConnection();
+        connection.start();
+
+        final CountDownLatch ready = new CountDownLatch(producers);
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(producers);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        for (int i = 0; i < producers; ++i) {
+            final Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            final MessageProducer producer = session.createProducer(session.createQueue(getTestName() + i));
+
+            Thread sender = new Thread(() -> {
+                try {
+                    ready.countDown();
+                    start.await();
+                    for (int j = 0; j < sendsPerProducer; ++j) {
+                        producer.send(session.createMessage());
+                    }
+                } catch (Throwable error) {
+                    failure.compareAndSet(null, error);
+                } finally {
+                    done.countDown();
+                }
+            }, "Sender-" + i);
+            sender.setDaemon(true);
+            sender.start();
+        }
+
+        assertTrue(ready.await(10, TimeUnit.SECONDS));
+        start.countDown();
+        assertTrue("Senders did not complete in time", done.await(40, TimeUnit.SECONDS));
+
+        connection.close();
+
+        assertNull("Send failed: " + failure.get(), failure.get());
+        assertEquals(producers * sendsPerProducer, mockPeer.getContextStats().getSendCalls());
+    }
+
     @Test(timeout=10000)
     public void testTimeoutsSetFromConnectionInfo() throws Exception {
         final long CONNECT_TIMEOUT = TimeUnit.SECONDS.toMillis(4);
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.provider.failover;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.qpid.jms.JmsQueue;
+import org.apache.qpid.jms.message.JmsMessage;
+import org.apache.qpid.jms.message.JmsOutboundMessageDispatch;
+import org.apache.qpid.jms.message.facade.test.JmsTestMessageFacade;
+import org.apache.qpid.jms.meta.JmsProducerId;
+import org.apache.qpid.jms.provider.failover.FailoverSendSpool.FsyncPolicy;
+import org.apache.qpid.jms.provider.failover.FailoverSendSpool.SpooledSend;
+import org.apache.qpid.jms.test.QpidJmsTestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Test the journal handling of the FailoverSendSpool
+ */
+public class FailoverSendSpoolTest extends QpidJmsTestCase {
+
+    private final JmsProducerId producerId = new JmsProducerId("ID:test-connection", 1, 1);
+
+    private Path directory;
+
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        directory = Files.createTempDirectory("qpid-jms-spool");
+    }
+
+    @Override
+    @After
+    public void tearDown() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> file.toFile().delete());
+        }
+        Files.deleteIfExists(directory);
+        super.tearDown();
+    }
+
+    @Test
+    public void testSpooledSendsDrainInOrder() throws Exception {
+        FailoverSendSpool spool = new FailoverSendSpool(directory.toString(), 4096, FsyncPolicy.ALWAYS, 0);
+
+        assertTrue(spool.offer(createEnvelope(1, "first")));
+        assertTrue(spool.offer(createEnvelope(2, "second")));
+        assertEquals(2, spool.size());
+
+        List<SpooledSend> drained = spool.drain();
+        assertTrue(spool.isEmpty());
+        assertEquals(2, drained.size());
+
+        assertEquals(1, drained.get(0).getEnvelope().getDispatchId());
+        assertArrayEquals("first".getBytes(StandardCharsets.UTF_8), readPayload(drained.get(0)));
+        assertEquals(2, drained.get(1).getEnvelope().getDispatchId());
+        assertArrayEquals("second".getBytes(StandardCharsets.UTF_8), readPayload(drained.get(1)));
+
+        // A CompletionListener is completed by the forwarded send, sends are otherwise sync once forwarded
+        assertTrue(drained.get(0).getEnvelope().isCompletionRequired());
+        assertFalse(drained.get(0).getEnvelope().isSendAsync());
+
+        spool.close();
+    }
+
+    @Test
+    public void testOfferRejectedWhenJournalFull() throws Exception {
+        FailoverSendSpool spool = new FailoverSendSpool(directory.toString(), 64, FsyncPolicy.NEVER, 0);
+
+        assertTrue(spool.offer(createEnvelope(1, "0123456789")));
+        assertFalse(spool.offer(createEnvelope(2, "0123456789")));
+        assertEquals(1, spool.size());
+
+        spool.close();
+    }
+
+    @Test
+    public void testHeldMessageCopiesCountAgainstMaxSize() throws Exception {
+        FailoverSendSpool spool = new FailoverSendSpool(directory.toString(), 64, FsyncPolicy.NEVER, 0);
+
+        // The journal alone has room for the second record but not for it and the held copies
+        assertTrue(spool.offer(createEnvelope(1, "0123456789")));
+        assertFalse(spool.offer(createEnvelope(2, "0")));
+        assertEquals(1, spool.size());
+
+        spool.release(spool.drain().get(0));
+
+        assertTrue(spool.offer(createEnvelope(2, "0")));
+
+        spool.close();
+    }
+
+    @Test
+    public void testDrainedPayloadCopiesCountAgainstMaxSize() throws Exception {
+        FailoverSendSpool spool = new FailoverSendSpool(directory.toString(), 80, FsyncPolicy.NEVER, 0);
+
+        // Room remains for the second record and both message copies but not for the payload
+        // copies that are held once the sends are drained for forwarding.
+        assertTrue(spool.offer(createEnvelope(1, "0123456789")));
+        assertFalse(spool.offer(createEnvelope(2, "01")));
+        assertTrue(spool.offer(createEnvelope(2, "0")));
+        assertEquals(2, spool.size());
+
+        List<SpooledSend> drained = spool.drain();
+        assertFalse(spool.offer(createEnvelope(3, "0")));
+
+        drained.forEach(spool::release);
+
+        assertTrue(spool.offer(createEnvelope(3, "01")));
+
+        spool.close();
+    }
+
+    @Test
+    public void testJournalSpaceReclaimedOnceAllReleased() throws Exception {
+        FailoverSendSpool spool = new FailoverSendSpool(directory.toString(), 64, FsyncPolicy.INTERVAL, 1000);
+
+        assertTrue(spool.offer(createEnvelope(1, "0123456789")));
+        assertFalse(spool.offer(createEnvelope(2, "0123456789")));
+
+        SpooledSend forwarded = spool.drain().get(0);
+        assertFalse(spool.offer(createEnvelope(2, "0123456789")));
+
+        spool.release(forwarded);
+        assertNull(forwarded.getEnvelope().getPayload());
+        assertEquals(0, spool.size());
+
+        assertTrue(spool.offer(createEnvelope(2, "0123456789")));
+
+        spool.close();
+    }
+
+    @Test
+    public void testJournalRemovedOnCloseWhenEmpty() throws Exception {
+        FailoverSendSpool spool = new FailoverSendSpool(directory.toString(), 4096, FsyncPolicy.NEVER, 0);
+
+        assertTrue(spool.offer(createEnvelope(1, "payload")));
+        spool.release(spool.drain().get(0));
+        spool.close();
+
+        assertEquals(0, countJournals());
+    }
+
+    @Test
+    public void testJournalRetainedOnCloseWithUnforwardedSends() throws Exception {
+        FailoverSendSpool spool = new FailoverSendSpool(directory.toString(), 4096, FsyncPolicy.NEVER, 0);
+
+        assertTrue(spool.offer(createEnvelope(1, "payload")));
+        spool.close();
+
+        assertEquals(1, countJournals());
+    }
+
+    private long countJournals() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private byte[] readPayload(SpooledSend send) {
+        ByteBuf payload = (ByteBuf) send.getEnvelope().getPayload();
+        byte[] bytes = new byte[payload.readableBytes()];
+        payload.getBytes(payload.readerIndex(), bytes);
+        return bytes;
+    }
+
+    private JmsOutboundMessageDispatch createEnvelope(long dispatchId, String payload) {
+        JmsOutboundMessageDispatch envelope = new JmsOutboundMessageDispatch();
+        envelope.setMessage(new JmsMessage(new JmsTestMessageFacade()));
+        envelope.setProducerId(producerId);
+        envelope.setDestination(new JmsQueue("myQueue"));
+        envelope.setDispatchId(dispatchId);
+        envelope.setSendAsync(true);
+        envelope.setCompletionRequired(true);
+        envelope.setPayload(Unpooled.wrappedBuffer(payload.getBytes(StandardCharsets.UTF_8)));
+        return envelope;
+    }
+}
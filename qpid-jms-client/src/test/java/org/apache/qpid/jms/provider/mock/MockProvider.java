@@ -32,6 +32,7 @@ import org.apache.qpid.jms.message.JmsOutboundMessageDispatch;
 import org.apache.qpid.jms.message.facade.test.JmsTestMessageFactory;
 import org.apache.qpid.jms.meta.JmsConnectionInfo;
 import org.apache.qpid.jms.meta.JmsConsumerId;
+import org.apache.qpid.jms.meta.JmsProducerId;
 import org.apache.qpid.jms.meta.JmsResource;
 import org.apache.qpid.jms.meta.JmsSessionId;
 import org.apache.qpid.jms.meta.JmsTransactionInfo;
@@ -439,6 +440,40 @@ public class MockProvider implements Provider {
         });
     }
 
+    @Override
+    public void awaitCredit(final JmsProducerId producerId, final AsyncResult request) throws ProviderException {
+        checkClosed();
+        serializer.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    checkClosed();
+                    request.onSuccess();
+                } catch (Throwable error) {
+                    request.onFailure(ProviderExceptionSupport.createNonFatalOrPassthrough(error));
+                }
+            }
+        });
+    }
+
+    @Override
+    public void grantCredit(final JmsConsumerId consumerId, final int credit, final AsyncResult request) throws ProviderException {
+        checkClosed();
+        serializer.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    checkClosed();
+                    request.onSuccess();
+                } catch (Throwable error) {
+                    request.onFailure(ProviderExceptionSupport.createNonFatalOrPassthrough(error));
+                }
+            }
+        });
+    }
+
     //----- API for generating provider events to a connection ---------------//
 
     public void signalConnectionFailed() {
@@ -199,6 +199,104 @@ public class SelectorParserTest extends TestCase {
         assertSelector(message, "name not in ('Gromit', 'Bob', 'Cheddar')", true);
     }
 
+    public void testCompiledSelectorUnknownValues() throws Exception {
+        MockMessage message = createMessage();
+
+        assertSelector(message, "unknown > 1", false);
+        assertSelector(message, "NOT (unknown > 1)", false);
+        assertSelector(message, "unknown > 1 OR name = 'James'", true);
+        assertSelector(message, "unknown > 1 AND name = 'James'", false);
+        assertSelector(message, "unknown = 'Foo' OR unknown IN ('a', 'b')", false);
+        assertSelector(message, "NOT (unknown LIKE 'a%')", false);
+        assertSelector(message, "unknown", false);
+        assertSelector(message, "NOT unknown", false);
+    }
+
+    public void testCompiledSelectorMixedNumericTypes() throws Exception {
+        MockMessage message = createMessage();
+
+        assertSelector(message, "byteProp > 100 AND shortProp < 124 AND longProp = 123", true);
+        assertSelector(message, "intProp = 123.0 AND floatProp = 123 AND doubleProp >= 122.5", true);
+        assertSelector(message, "longProp > 4294967296 OR floatProp < 122.9", false);
+        assertSelector(message, "name > 1", false);
+        assertSelector(message, "name = 123", false);
+        assertSelector(message, "rank = '123'", false);
+    }
+
+    public void testCompiledSelectorConstantFolding() throws Exception {
+        MockMessage message = createMessage();
+
+        assertSelector(message, "rank > -1", true);
+        assertSelector(message, "rank = 100 + 23", true);
+        assertSelector(message, "rank < 2 * 60", false);
+        assertSelector(message, "2 * 3 = 6 AND name = 'James'", true);
+        assertSelector(message, "1 = 2 OR name = 'Bob'", false);
+        assertSelector(message, "NOT (1 = 2) AND rank > 3.5 - 1", true);
+    }
+
+    public void testCompiledSelectorReorderingPreservesNotSemantics() throws Exception {
+        MockMessage message = createMessage();
+
+        assertSelector(message, "NOT (unknown > 1 AND name = 'Bob')", false);
+        assertSelector(message, "NOT (name = 'Bob' AND unknown > 1)", true);
+        assertSelector(message, "NOT (unknown > 1 OR name = 'Bob')", true);
+        assertSelector(message, "NOT (name = 'Bob' OR unknown > 1)", false);
+        assertSelector(message, "name LIKE 'J%' AND JMSType = 'selector-test' AND rank > 100 AND location = 'London'", true);
+        assertSelector(message, "name LIKE 'X%' OR unknown > 1 OR location = 'London'", true);
+    }
+
+    public void testCompiledSelectorLikePatterns() throws Exception {
+        MockMessage message = createMessage();
+        message.setStringProperty("path", "a.b$c%d");
+
+        assertSelector(message, "path LIKE 'a.b%'", true);
+        assertSelector(message, "path LIKE 'a_b%'", true);
+        assertSelector(message, "path LIKE 'b%'", false);
+        assertSelector(message, "path LIKE '%c\\%d' ESCAPE '\\'", true);
+        assertSelector(message, "path LIKE '%d'", true);
+        assertSelector(message, "path LIKE '%$c%'", true);
+        assertSelector(message, "path LIKE '%x%'", false);
+        assertSelector(message, "path LIKE 'a.b$c%d'", true);
+        assertSelector(message, "path LIKE 'a.b$c'", false);
+        assertSelector(message, "path LIKE '%'", true);
+        assertSelector(message, "path NOT LIKE 'a.%'", false);
+        assertSelector(message, "rank LIKE '1%'", false);
+    }
+
+    public void testCompiledSelectorLargeInList() throws Exception {
+        MockMessage message = createMessage();
+        message.setStringProperty("region", "R150");
+
+        StringBuilder selector = new StringBuilder("region IN (");
+        for (int i = 0; i < 200; ++i) {
+            selector.append(i == 0 ? "" : ", ").append("'R").append(i).append("'");
+        }
+        selector.append(")");
+
+        assertSelector(message, selector.toString(), true);
+        assertSelector(message, selector.toString().replace("'R150'", "'X150'"), false);
+        assertSelector(message, "region IN ('R1', 'R150')", true);
+        assertSelector(message, "region NOT IN ('R1', 'R150')", false);
+    }
+
+    public void testCompiledSelectorIsCached() throws Exception {
+        // Once the cache is full a selector has to be requested repeatedly before it is admitted
+        for (int i = 0; i < 5; ++i) {
+            SelectorParser.compile("name = 'James' AND rank > 100");
+        }
+
+        long compileHits = SelectorParser.getCompileCacheHitCount();
+        long parseHits = SelectorParser.getParseCacheHitCount();
+        long parseMisses = SelectorParser.getParseCacheMissCount();
+        BooleanExpression compiled = SelectorParser.compile("name = 'James' AND rank > 100");
+        assertSame(compiled, SelectorParser.compile("name = 'James' AND rank > 100"));
+        assertEquals(compileHits + 2, SelectorParser.getCompileCacheHitCount());
+
+        // A cached compiled selector is not parsed again
+        assertEquals(parseHits, SelectorParser.getParseCacheHitCount());
+        assertEquals(parseMisses, SelectorParser.getParseCacheMissCount());
+    }
+
     public void testIsNull() throws Exception {
         MockMessage message = createMessage();
 
@@ -389,6 +487,9 @@ public class SelectorParserTest extends TestCase {
         assertTrue("Created a valid selector", selector != null);
         boolean value = selector.matches(message);
         assertEquals("Selector for: " + text, expected, value);
+
+        BooleanExpression compiled = SelectorParser.compile(text);
+        assertEquals("Compiled selector for: " + text, expected, compiled.matches(message));
     }
 
     protected MockMessage createMessage(String subject) {
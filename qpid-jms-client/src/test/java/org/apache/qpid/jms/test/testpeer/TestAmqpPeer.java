@@ -2783,6 +2783,33 @@ public class TestAmqpPeer implements AutoCloseable
                                                                 final String tagAsString,
                                                                 final Boolean more,
                                                                 final int sendDelay) {
+        sendTransferToLastOpenedLink(null, headerDescribedType, messageAnnotationsDescribedType, propertiesDescribedType, appPropertiesDescribedType, content, nextIncomingDeliveryId, tagAsString, more, sendDelay);
+    }
+
+    /**
+     * Sends a transfer to the last opened link on the session with the given channel, used for links
+     * that were not attached on the last opened session such as those of the connection session.
+     */
+    public void sendTransferToLastOpenedLinkOnSession(final int channel,
+                                                      final HeaderDescribedType headerDescribedType,
+                                                      final MessageAnnotationsDescribedType messageAnnotationsDescribedType,
+                                                      final PropertiesDescribedType propertiesDescribedType,
+                                                      final ApplicationPropertiesDescribedType appPropertiesDescribedType,
+                                                      final DescribedType content,
+                                                      final int nextIncomingDeliveryId) {
+        sendTransferToLastOpenedLink(channel, headerDescribedType, messageAnnotationsDescribedType, propertiesDescribedType, appPropertiesDescribedType, content, nextIncomingDeliveryId, null, null, 0);
+    }
+
+    private void sendTransferToLastOpenedLink(final Integer channel,
+                                              final HeaderDescribedType headerDescribedType,
+                                              final MessageAnnotationsDescribedType messageAnnotationsDescribedType,
+                                              final PropertiesDescribedType propertiesDescribedType,
+                                              final ApplicationPropertiesDescribedType appPropertiesDescribedType,
+                                              final DescribedType content,
+                                              final int nextIncomingDeliveryId,
+                                              final String tagAsString,
+                                              final Boolean more,
+                                              final int sendDelay) {
         synchronized (_handlersLock) {
             CompositeAmqpPeerRunnable comp = insertCompsiteActionForLastHandler();
 
@@ -2811,7 +2838,7 @@ public class TestAmqpPeer implements AutoCloseable
                 public void setValues()
                 {
                     transferResponse.setHandle(_lastInitiatedLinkHandle);
-                    transferSender.setChannel(_lastInitiatedChannel);
+                    transferSender.setChannel(channel != null ? channel : _lastInitiatedChannel);
                 }
             });
 
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.tracing;
+
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.apache.qpid.jms.tracing.JmsTracer.DeliveryOutcome;
+import org.junit.Test;
+
+public class JmsSamplingTracerTest {
+
+    private final JmsTracer delegate = mock(JmsTracer.class);
+    private final TraceableMessage message = mock(TraceableMessage.class);
+
+    @Test
+    public void testInvalidSampleRateRejected() {
+        try {
+            new JmsSamplingTracer(delegate, 1.5, null);
+            fail("Should not accept a sample rate above 1");
+        } catch (IllegalArgumentException expected) {
+        }
+
+        try {
+            new JmsSamplingTracer(delegate, -0.1, null);
+            fail("Should not accept a negative sample rate");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void testUnsampledSendSkipsTracer() {
+        JmsTracer tracer = new JmsSamplingTracer(delegate, 0, null);
+
+        tracer.initSend(message, "queue");
+
+        verify(delegate, never()).initSend(any(), anyString());
+        verify(message).removeTracingAnnotation(JmsTracer.TRACE_STATE_ANNOTATION);
+    }
+
+    @Test
+    public void testSampledSendPassedToTracer() {
+        JmsTracer tracer = new JmsSamplingTracer(delegate, 1, null);
+
+        tracer.initSend(message, "queue");
+
+        verify(message).setTracingContext(JmsSamplingTracer.SAMPLED_SEND_CONTEXT_KEY, Boolean.TRUE);
+        when(message.removeTracingContext(JmsSamplingTracer.SAMPLED_SEND_CONTEXT_KEY)).thenReturn(Boolean.TRUE);
+
+        tracer.completeSend(message, "Accepted");
+
+        verify(delegate).initSend(message, "queue");
+        verify(delegate).completeSend(message, "Accepted");
+    }
+
+    @Test
+    public void testUnsampledSendCompletionSkipsTracer() {
+        JmsTracer tracer = new JmsSamplingTracer(delegate, 0, null);
+
+        // A message whose earlier send was sampled still carries that send's tracing context.
+        tracer.initSend(message, "queue");
+        tracer.completeSend(message, "Accepted");
+
+        verify(message, never()).setTracingContext(anyString(), any());
+        verify(delegate, never()).completeSend(any(), anyString());
+    }
+
+    @Test
+    public void testSampledDestinationsAlwaysTraced() {
+        JmsTracer tracer = new JmsSamplingTracer(delegate, 0, "orders, audit.*");
+
+        tracer.initSend(message, "orders");
+        tracer.initSend(message, "audit.events");
+        tracer.initSend(message, "other");
+        tracer.initSend(message, null);
+
+        verify(delegate).initSend(message, "orders");
+        verify(delegate).initSend(message, "audit.events");
+        verify(delegate, never()).initSend(message, "other");
+        verify(delegate, never()).initSend(message, null);
+    }
+
+    @Test
+    public void testReceiveFollowsSenderDecision() {
+        JmsTracer tracer = new JmsSamplingTracer(delegate, 0, null);
+
+        tracer.syncReceive(message, "queue", DeliveryOutcome.DELIVERED);
+        tracer.asyncDeliveryInit(message, "queue");
+
+        verify(delegate, never()).syncReceive(any(), anyString(), any());
+        verify(delegate, never()).asyncDeliveryInit(any(), anyString());
+
+        when(message.getTracingAnnotation(JmsTracer.TRACE_STATE_ANNOTATION)).thenReturn(new Object());
+
+        tracer.syncReceive(message, "queue", DeliveryOutcome.DELIVERED);
+        tracer.asyncDeliveryInit(message, "queue");
+        tracer.asyncDeliveryComplete(message, DeliveryOutcome.DELIVERED, null);
+
+        verify(delegate).syncReceive(message, "queue", DeliveryOutcome.DELIVERED);
+        verify(delegate).asyncDeliveryInit(message, "queue");
+        verify(delegate).asyncDeliveryComplete(message, DeliveryOutcome.DELIVERED, null);
+    }
+
+    @Test
+    public void testCloseClosesTracer() {
+        new JmsSamplingTracer(delegate, 0.5, null).close();
+
+        verify(delegate).close();
+    }
+}
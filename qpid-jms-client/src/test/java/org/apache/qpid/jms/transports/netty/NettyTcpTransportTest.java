@@ -42,6 +42,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import io.netty.channel.EventLoopGroup;
+import org.apache.qpid.jms.meta.JmsConnectionId;
+import org.apache.qpid.jms.metrics.JmsMetrics;
 import org.apache.qpid.jms.test.QpidJmsTestCase;
 import org.apache.qpid.jms.test.Wait;
 import org.apache.qpid.jms.test.proxy.TestProxy;
@@ -496,6 +498,50 @@ public class NettyTcpTransportTest extends QpidJmsTestCase {
         assertTrue(data.isEmpty());
     }
 
+    @Test(timeout = 60 * 1000)
+    public void testSharedEventLoopGroupGauges() throws Exception {
+        final Set<Transport> transports = new HashSet<>();
+        try (NettyEchoServer server = createEchoServer(createServerOptions())) {
+            server.start();
+
+            int port = server.getServerPort();
+            URI serverLocation = new URI("tcp://localhost:" + port);
+
+            final TransportOptions sharedTransportOptions = createClientOptions();
+            sharedTransportOptions.setUseKQueue(false);
+            sharedTransportOptions.setUseEpoll(false);
+            sharedTransportOptions.setSharedEventLoopThreads(2);
+            Transport sharedTransport = createConnectedTransport(serverLocation, sharedTransportOptions);
+            transports.add(sharedTransport);
+
+            final TransportOptions unsharedTransportOptions = createClientOptions();
+            unsharedTransportOptions.setUseKQueue(false);
+            unsharedTransportOptions.setUseEpoll(false);
+            Transport unsharedTransport = createConnectedTransport(serverLocation, unsharedTransportOptions);
+            transports.add(unsharedTransport);
+
+            JmsMetrics sharedMetrics = new JmsMetrics(JmsMetrics.CONNECTION, new JmsConnectionId("ID:shared:1"));
+            sharedTransport.registerMetrics(sharedMetrics);
+
+            assertEquals(2, sharedMetrics.getGauges().size());
+            assertTrue(sharedMetrics.getGauges().get(JmsMetrics.SHARED_EVENT_LOOP + 0 + JmsMetrics.QUEUE_DEPTH).getAsLong() >= 0);
+            assertTrue(sharedMetrics.getGauges().get(JmsMetrics.SHARED_EVENT_LOOP + 1 + JmsMetrics.QUEUE_DEPTH).getAsLong() >= 0);
+
+            JmsMetrics unsharedMetrics = new JmsMetrics(JmsMetrics.CONNECTION, new JmsConnectionId("ID:unshared:1"));
+            unsharedTransport.registerMetrics(unsharedMetrics);
+
+            assertTrue(unsharedMetrics.getGauges().isEmpty());
+
+            sharedTransport.close();
+            unsharedTransport.close();
+        } finally {
+            // Ensures that any not already closed, e.g due to test failure, are now closed.
+            cleanUpTransports(transports);
+        }
+
+        assertTrue(exceptions.isEmpty());
+    }
+
     @Test(timeout = 60 * 1000)
     public void testUnsharedEventLoopGroups() throws Exception {
         final Set<Transport> transports = new HashSet<>();
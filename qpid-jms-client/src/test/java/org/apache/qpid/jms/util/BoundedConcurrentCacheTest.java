@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class BoundedConcurrentCacheTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateWithInvalidSize() {
+        new BoundedConcurrentCache<String, String>(0);
+    }
+
+    @Test
+    public void testHitAndMissCounts() {
+        BoundedConcurrentCache<String, String> cache = new BoundedConcurrentCache<>(10);
+
+        assertNull(cache.get("a"));
+        assertTrue(cache.put("a", "A"));
+        assertEquals("A", cache.get("a"));
+        assertEquals("A", cache.get("a"));
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testOneOffKeysDoNotEvictFrequentlyUsedEntries() {
+        BoundedConcurrentCache<String, String> cache = new BoundedConcurrentCache<>(10);
+
+        int coldKeys = 0;
+        for (int round = 0; round < 100; ++round) {
+            for (int i = 0; i < 10; ++i) {
+                String key = "hot-" + i;
+                if (cache.get(key) == null) {
+                    cache.put(key, key);
+                }
+            }
+
+            for (int i = 0; i < 10; ++i) {
+                String key = "cold-" + coldKeys++;
+                if (cache.get(key) == null) {
+                    cache.put(key, key);
+                }
+            }
+        }
+
+        for (int i = 0; i < 10; ++i) {
+            assertNotNull(cache.get("hot-" + i));
+        }
+
+        assertEquals(10, cache.size());
+        assertEquals(1000, cache.getRejectionCount());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testFrequentlyRequestedKeyIsAdmittedWhenFull() {
+        BoundedConcurrentCache<String, String> cache = new BoundedConcurrentCache<>(4);
+
+        for (int i = 0; i < 4; ++i) {
+            cache.get("old-" + i);
+            cache.put("old-" + i, "value");
+        }
+
+        for (int i = 0; i < 3; ++i) {
+            cache.get("new");
+        }
+
+        assertTrue(cache.put("new", "value"));
+        assertNotNull(cache.get("new"));
+        assertEquals(4, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testReplacedEntryIsEvictedOnlyOnce() {
+        BoundedConcurrentCache<String, String> cache = new BoundedConcurrentCache<>(2);
+
+        cache.put("a", "A");
+        cache.put("b", "B");
+        assertTrue(cache.put("a", "A2"));
+        assertEquals(2, cache.size());
+        assertEquals("A2", cache.get("a"));
+
+        for (int i = 0; i < 4; ++i) {
+            cache.get("c");
+            cache.get("d");
+        }
+
+        assertTrue(cache.put("c", "C"));
+        assertTrue(cache.put("d", "D"));
+
+        assertNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testClear() {
+        BoundedConcurrentCache<String, String> cache = new BoundedConcurrentCache<>(4);
+
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get("a"));
+        assertTrue(cache.put("c", "C"));
+    }
+
+    @Test(timeout = 30000)
+    public void testConcurrentAccessStaysBounded() throws Exception {
+        final BoundedConcurrentCache<Integer, Integer> cache = new BoundedConcurrentCache<>(64);
+        final int threadCount = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; ++t) {
+            final int seed = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 20000; ++i) {
+                        Integer key = (i * 31 + seed) % 500;
+                        Integer value = cache.get(key);
+                        if (value == null) {
+                            cache.put(key, key);
+                        } else if (!value.equals(key)) {
+                            throw new AssertionError("Wrong value cached for key " + key);
+                        }
+                    }
+                } catch (Throwable error) {
+                    failure.compareAndSet(null, error);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertNull(failure.get());
+        assertTrue(cache.size() <= 64);
+        assertEquals(threadCount * 20000, cache.getHitCount() + cache.getMissCount());
+    }
+}
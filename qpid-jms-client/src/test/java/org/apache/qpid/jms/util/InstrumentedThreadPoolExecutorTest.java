@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.qpid.jms.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.qpid.jms.meta.JmsConnectionId;
+import org.apache.qpid.jms.metrics.JmsHistogram;
+import org.apache.qpid.jms.metrics.JmsMetrics;
+import org.junit.Test;
+
+public class InstrumentedThreadPoolExecutorTest {
+
+    @Test(timeout = 10000)
+    public void testTaskWaitAndExecutionTimesRecorded() throws Exception {
+        JmsMetrics metrics = new JmsMetrics(JmsMetrics.CONNECTION, new JmsConnectionId("ID:test:1"));
+        JmsHistogram waitTime = metrics.histogram(JmsMetrics.CONNECTION_EXECUTOR + JmsMetrics.TASK_WAIT_TIME);
+        JmsHistogram executionTime = metrics.histogram(JmsMetrics.CONNECTION_EXECUTOR + JmsMetrics.TASK_EXECUTION_TIME);
+
+        InstrumentedThreadPoolExecutor executor = new InstrumentedThreadPoolExecutor(
+            "test", new QpidJMSThreadFactory("test", true), waitTime, executionTime);
+
+        try {
+            final CountDownLatch blocked = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+
+            executor.execute(() -> {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+            assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+            Future<?> queued = executor.submit(() -> {});
+            assertEquals(1, executor.getQueueDepth());
+
+            TimeUnit.MILLISECONDS.sleep(20);
+            release.countDown();
+            queued.get(5, TimeUnit.SECONDS);
+
+            assertEquals(0, executor.getQueueDepth());
+            assertEquals(2, waitTime.snapshot().getCount());
+            assertTrue(waitTime.snapshot().getMax() >= TimeUnit.MILLISECONDS.toNanos(20));
+            assertTrue(executionTime.snapshot().getMax() >= TimeUnit.MILLISECONDS.toNanos(20));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testTasksRunWhenMetricsDisabled() throws Exception {
+        InstrumentedThreadPoolExecutor executor = new InstrumentedThreadPoolExecutor("test", new QpidJMSThreadFactory("test", true));
+
+        try {
+            final CountDownLatch ran = new CountDownLatch(1);
+
+            executor.execute(ran::countDown);
+
+            assertTrue(ran.await(5, TimeUnit.SECONDS));
+            assertEquals(0, JmsHistogram.DISABLED.snapshot().getCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullTaskRejected() {
+        InstrumentedThreadPoolExecutor executor = new InstrumentedThreadPoolExecutor("test", new QpidJMSThreadFactory("test", true));
+
+        try {
+            executor.execute(null);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}